@@ -145,7 +145,23 @@ public class Configuration {
      * @return {@code True} if and only if this {@code Configuration} is not stale; otherwise {@code False}
      */
     public boolean isStale() {
-        return SystemClock.elapsedRealtime() >= mExpireOnBootTime - STALE_PERIOD;
+        return SystemClock.elapsedRealtime() >= getStaleOnBootTime();
+    }
+
+    /**
+     * @return time since boot, in milliseconds of {@link SystemClock#elapsedRealtime()}, at which the
+     * authentication token expires
+     */
+    long getExpireOnBootTime() {
+        return mExpireOnBootTime;
+    }
+
+    /**
+     * @return time since boot, in milliseconds of {@link SystemClock#elapsedRealtime()}, at which this
+     * {@code Configuration} is considered stale, refer to {@link #isStale()}
+     */
+    long getStaleOnBootTime() {
+        return mExpireOnBootTime - STALE_PERIOD;
     }
 
     private void parseAuthenticationToken() throws JSONException {
@@ -18,19 +18,25 @@
 package com.hyperwallet.android;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 
 import com.hyperwallet.android.exception.HyperwalletGqlException;
 import com.hyperwallet.android.listener.HyperwalletListener;
 import com.hyperwallet.android.model.TypeReference;
 import com.hyperwallet.android.model.graphql.error.GqlErrors;
+import com.hyperwallet.android.model.graphql.query.GqlDocument;
+import com.hyperwallet.android.model.graphql.query.GqlDocumentQuery;
 import com.hyperwallet.android.model.graphql.query.GqlQuery;
-import com.hyperwallet.android.util.HttpClient;
 import com.hyperwallet.android.util.HttpMethod;
 import com.hyperwallet.android.util.JsonUtils;
+import com.hyperwallet.android.util.TransactionLane;
+import com.hyperwallet.android.util.TransactionPriority;
 
+import org.json.JSONArray;
 import org.json.JSONException;
+import org.json.JSONObject;
 
-import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 
 /**
@@ -39,6 +45,20 @@ import java.lang.reflect.InvocationTargetException;
  */
 class GqlTransaction extends HttpTransaction {
 
+    private static final String ERRORS = "errors";
+    private static final String MESSAGE = "message";
+    private static final String EXTENSIONS = "extensions";
+    private static final String CODE = "code";
+    private static final String PERSISTED_QUERY_ERROR = "PersistedQueryNot";
+    private static final String PERSISTED_QUERY_NOT_FOUND = "PersistedQueryNotFound";
+    private static final String PERSISTED_QUERY_NOT_SUPPORTED = "PersistedQueryNotSupported";
+    private static final String PERSISTED_QUERY_ERROR_CODE = "PERSISTED_QUERY_NOT_";
+    private static final String PERSISTED_QUERY_NOT_FOUND_CODE = "PERSISTED_QUERY_NOT_FOUND";
+    private static final String PERSISTED_QUERY_NOT_SUPPORTED_CODE = "PERSISTED_QUERY_NOT_SUPPORTED";
+
+    private GqlDocument mPersistedDocument;
+    private JSONObject mPersistedVariables;
+
     /**
      * Construct a {@code GqlTransaction} object based on specified required parameters
      *
@@ -58,11 +78,57 @@ class GqlTransaction extends HttpTransaction {
     }
 
     /**
-     * Refer to {@link HttpTransaction#performRequest(HttpClient)}
+     * Refer to {@link HttpTransaction#getLane()}
      */
     @Override
-    protected int performRequest(final @NonNull HttpClient client) throws IOException {
-        return client.post(getPayload());
+    protected TransactionLane getLane() {
+        return TransactionLane.GRAPHQL;
+    }
+
+    /**
+     * Sends the request again including the query document when the request was sent as a persisted query the
+     * server does not know, refer to {@link Builder#persistedQuery(boolean)}
+     */
+    @Override
+    protected boolean shouldResend(final int responseCode, @Nullable final String content) {
+        if (mPersistedDocument == null || content == null || !isPersistedQueryError(content)) {
+            return false;
+        }
+        setPayload(mPersistedDocument.toPersistedPayload(mPersistedVariables, true));
+        mPersistedDocument = null;
+        return true;
+    }
+
+    /**
+     * @param content serialized response
+     * @return {@code True} if the response reports that the persisted query sent is not registered, or that
+     * persisted queries are not supported; {@code False} otherwise.
+     */
+    @VisibleForTesting
+    static boolean isPersistedQueryError(@NonNull final String content) {
+        if (!content.contains(PERSISTED_QUERY_ERROR) && !content.contains(PERSISTED_QUERY_ERROR_CODE)) {
+            return false;
+        }
+        try {
+            JSONArray errors = new JSONObject(content).optJSONArray(ERRORS);
+            for (int i = 0; errors != null && i < errors.length(); i++) {
+                JSONObject error = errors.optJSONObject(i);
+                if (error == null) {
+                    continue;
+                }
+                String message = error.optString(MESSAGE);
+                JSONObject extensions = error.optJSONObject(EXTENSIONS);
+                String code = extensions == null ? "" : extensions.optString(CODE);
+                if (PERSISTED_QUERY_NOT_FOUND.equals(message) || PERSISTED_QUERY_NOT_SUPPORTED.equals(message)
+                        || PERSISTED_QUERY_NOT_FOUND_CODE.equals(code)
+                        || PERSISTED_QUERY_NOT_SUPPORTED_CODE.equals(code)) {
+                    return true;
+                }
+            }
+        } catch (JSONException e) {
+            return false;
+        }
+        return false;
     }
 
     /**
@@ -83,6 +149,8 @@ class GqlTransaction extends HttpTransaction {
         private final GqlQuery gqlQuery;
         private final TypeReference<T> typeReference;
         private final HyperwalletListener listener;
+        private TransactionPriority priority = TransactionPriority.NORMAL;
+        private boolean persistedQuery;
 
         /**
          * Construct a builder based on parameters
@@ -99,10 +167,40 @@ class GqlTransaction extends HttpTransaction {
             this.listener = listener;
         }
 
+        protected Builder<T> priority(@NonNull final TransactionPriority priority) {
+            this.priority = priority;
+            return this;
+        }
+
+        /**
+         * Sends the query as an automatic persisted query: only the SHA-256 hash of its document goes with the
+         * variables, and the document is sent when the server answers that the hash is unknown. Applies to the
+         * queries that implement {@link GqlDocumentQuery}, the others are always sent in full.
+         *
+         * @param enabled {@code True} to send the hash of the query document; disabled by default
+         */
+        protected Builder<T> persistedQuery(final boolean enabled) {
+            this.persistedQuery = enabled;
+            return this;
+        }
+
         protected GqlTransaction build(@NonNull final String uri, @NonNull final String userToken,
                 @NonNull final String authenticationToken) {
-            String query = gqlQuery.toQuery(userToken);
-            return new GqlTransaction(uri, query, authenticationToken, listener, typeReference);
+            GqlDocument document = persistedQuery && gqlQuery instanceof GqlDocumentQuery
+                    ? ((GqlDocumentQuery) gqlQuery).getDocument() : null;
+            GqlTransaction gqlTransaction;
+            if (document != null) {
+                JSONObject variables = ((GqlDocumentQuery) gqlQuery).getVariables(userToken);
+                gqlTransaction = new GqlTransaction(uri, document.toPersistedPayload(variables, false),
+                        authenticationToken, listener, typeReference);
+                gqlTransaction.mPersistedDocument = document;
+                gqlTransaction.mPersistedVariables = variables;
+            } else {
+                String query = gqlQuery.toQuery(userToken);
+                gqlTransaction = new GqlTransaction(uri, query, authenticationToken, listener, typeReference);
+            }
+            gqlTransaction.setPriority(priority);
+            return gqlTransaction;
         }
     }
 }
@@ -19,21 +19,33 @@ package com.hyperwallet.android;
 import android.os.Build;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 
+import com.hyperwallet.android.exception.HyperwalletException;
 import com.hyperwallet.android.listener.HyperwalletListener;
 import com.hyperwallet.android.model.TypeReference;
 import com.hyperwallet.android.sdk.BuildConfig;
+import com.hyperwallet.android.util.CountingInputStream;
 import com.hyperwallet.android.util.HttpClient;
+import com.hyperwallet.android.util.HttpClientTransport;
 import com.hyperwallet.android.util.HttpMethod;
 import com.hyperwallet.android.util.JsonUtils;
+import com.hyperwallet.android.util.TransactionLane;
+import com.hyperwallet.android.util.TransactionPriority;
 
 import org.json.JSONException;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * {@code HttpTransaction} HTTP transaction service that sends request
@@ -48,6 +60,12 @@ public abstract class HttpTransaction implements Runnable {
     private static final String HTTP_HEADER_CONTENT_TYPE_KEY = "Content-Type";
     private static final String HTTP_HEADER_USER_AGENT_KEY = "User-Agent";
     private static final String HTTP_HEADER_USER_AGENT = "HyperwalletSDK/Android/%s; App: HyperwalletSDK; Android: %s";
+    private static final String HTTP_HEADER_ETAG = "ETag";
+    private static final String HTTP_HEADER_LAST_MODIFIED = "Last-Modified";
+    private static final String HTTP_HEADER_IF_NONE_MATCH = "If-None-Match";
+    private static final String HTTP_HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
+    private HttpTransport mHttpTransport;
+    private TransactionPriority mPriority = TransactionPriority.NORMAL;
     private Map<String, String> mHeaderMap;
     private HyperwalletListener mListener;
     private HttpMethod mMethod;
@@ -56,6 +74,22 @@ public abstract class HttpTransaction implements Runnable {
     private Map<String, String> mQueryMap;
     private String mUri;
     private TypeReference mTypeReference;
+    private long mCompressedByteCount;
+    private long mUncompressedByteCount;
+    private volatile boolean mCanceled;
+    private volatile boolean mAborted;
+    private volatile HttpTransport.Request mRequest;
+    private volatile boolean mRevalidating;
+    private RequestCoalescer mCoalescer;
+    private ResponseCache mResponseCache;
+    private long mResponseCacheGeneration;
+    private String mRequestKey;
+    private String mEntityTag;
+    private String mLastModified;
+    private Object mNotModifiedResult;
+    private boolean mNotModified;
+    private ContentStore mContentStore;
+    private ResultListener mResultListener;
 
     /**
      * Construct a {@code HttpTransaction} object based from specified required parameters
@@ -84,23 +118,101 @@ public abstract class HttpTransaction implements Runnable {
      * Background execution
      */
     public void run() {
+        if (mAborted) {
+            return;
+        }
+
         try {
-            HttpClient client = new HttpClient.Builder(mUri).path(mPath).putHeaders(getHeaders()).putQueries(
-                    getQueries()).build();
+            URI uri = new URI(HttpClient.toUrl(mUri, mPath, getQueries()));
+            HttpTransport transport = mHttpTransport != null ? mHttpTransport : new HttpClientTransport();
+            boolean streamable = JsonUtils.isStreamable(mTypeReference);
+            int responseCode;
+            Object result;
+            String content;
+            do {
+                HttpTransport.Request request = new HttpTransport.Request(mMethod.name(), uri, getHeaders(),
+                        getRequestBody());
+                mRequest = request;
+                if (mAborted) {
+                    request.cancel();
+                }
+                HttpTransport.Response response = transport.execute(request);
 
-            int responseCode = performRequest(client);
-            String response = client.getResponse();
+                result = null;
+                content = null;
+                CountingInputStream body = null;
+                try {
+                    responseCode = response.getCode();
+                    recordValidators(response);
+                    if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && mNotModifiedResult != null) {
+                        // the result delivered for the validators sent is still current, there is no body to read
+                        mNotModified = true;
+                        result = mNotModifiedResult;
+                    } else if (HttpClient.isSuccess(responseCode) && streamable) {
+                        body = new CountingInputStream(response.getBody());
+                        result = JsonUtils.fromJsonStream(body, mTypeReference);
+                    } else {
+                        body = new CountingInputStream(response.getBody());
+                        content = readBody(body);
+                    }
+                } finally {
+                    response.close();
+                    recordByteCounts(response, body == null ? 0 : body.getCount());
+                }
+            } while (!mNotModified && !mAborted && shouldResend(responseCode, content));
 
-            if (HttpClient.isSuccess(responseCode)) {
-                onSuccess(response);
+            if (mNotModified) {
+                onSuccessResult(result);
+            } else if (!HttpClient.isSuccess(responseCode)) {
+                handleErrors(responseCode, content);
+            } else if (streamable) {
+                onSuccessResult(result);
             } else {
-                handleErrors(responseCode, response);
+                onSuccess(content);
             }
         } catch (Exception exception) {
             onFailure(exception);
         }
     }
 
+    /**
+     * Called once the response of the request was read, before it is delivered; a transaction that changes its
+     * payload to ask for the response again in another way returns {@code True} to send the request again
+     *
+     * @param responseCode HTTP status code of the response
+     * @param content      serialized response, {@code null} when it was deserialized from the stream
+     * @return {@code True} to send the request again instead of delivering the response; {@code False} by default
+     */
+    protected boolean shouldResend(final int responseCode, @Nullable final String content) {
+        return false;
+    }
+
+    /**
+     * Cancels the transaction: its listener is not called back any more and, unless identical requests attached to
+     * it through a {@link RequestCoalescer} still wait for its result, it does not start when it is still waiting
+     * for a thread and its HTTP request is aborted when it is in flight
+     *
+     * @return {@code True} when the transaction was aborted, {@code False} when it keeps running for the requests
+     * attached to it
+     */
+    public boolean cancel() {
+        mCanceled = true;
+        if (mCoalescer != null && !mCoalescer.cancel(this)) {
+            return false;
+        }
+
+        mAborted = true;
+        HttpTransport.Request request = mRequest;
+        if (request != null) {
+            request.cancel();
+        }
+        return true;
+    }
+
+    public boolean isCanceled() {
+        return mCanceled;
+    }
+
     /**
      * Process errors, if available, from the resulting HTTP request
      *
@@ -115,15 +227,6 @@ public abstract class HttpTransaction implements Runnable {
     protected abstract void handleErrors(int responseCode, String response) throws JSONException,
             InvocationTargetException, NoSuchMethodException, InstantiationException, IllegalAccessException;
 
-    /**
-     * Perform HTTP request
-     *
-     * @param client Http client to use for this operation {@link HttpClient}
-     * @return HTTP response code
-     * @throws IOException
-     */
-    protected abstract int performRequest(HttpClient client) throws IOException;
-
     public HyperwalletListener getListener() {
         return mListener;
     }
@@ -148,6 +251,160 @@ public abstract class HttpTransaction implements Runnable {
         return mMethod;
     }
 
+    /**
+     * @return the {@link TransactionLane} this transaction runs on; {@link TransactionLane#REST_READ} for
+     * {@link HttpMethod#GET} requests, otherwise {@link TransactionLane#REST_WRITE}
+     */
+    protected TransactionLane getLane() {
+        return mMethod == HttpMethod.GET ? TransactionLane.REST_READ : TransactionLane.REST_WRITE;
+    }
+
+    /**
+     * @return key identifying identical {@code GET} requests, or the requests keyed through
+     * {@link #setRequestKey(String)}; {@code null} for requests that must not be coalesced nor cached, refer to
+     * {@link RequestCoalescer} and {@link ResponseCache}
+     */
+    @Nullable
+    String getRequestKey() {
+        if (mRequestKey == null && mMethod == HttpMethod.GET) {
+            mRequestKey = mMethod.name() + " " + HttpClient.toUrl(mUri, mPath, new TreeMap<>(mQueryMap)) + " "
+                    + mTypeReference.getType();
+        }
+        return mRequestKey;
+    }
+
+    /**
+     * Defines the key of a request that only reads data despite its body, such as a GraphQL query, so that identical
+     * requests can be coalesced
+     *
+     * @param requestKey key identifying identical requests
+     */
+    void setRequestKey(@NonNull final String requestKey) {
+        mRequestKey = requestKey;
+    }
+
+    void setCoalescer(@NonNull final RequestCoalescer coalescer) {
+        mCoalescer = coalescer;
+    }
+
+    /**
+     * Reports the outcome of this transaction to the {@code responseCache}
+     *
+     * @param responseCache cache tracking this transaction
+     * @param generation    generation of the cache when this transaction was tracked
+     */
+    void setResponseCache(@NonNull final ResponseCache responseCache, final long generation) {
+        mResponseCache = responseCache;
+        mResponseCacheGeneration = generation;
+    }
+
+    /**
+     * Marks the transaction as the background refresh of a stale result already delivered to its listener, its
+     * outcome only updates the {@link ResponseCache}
+     */
+    void setRevalidating() {
+        mRevalidating = true;
+    }
+
+    /**
+     * Makes this {@code GET} conditional on the result previously received for it: when the server responds with
+     * {@code 304 Not Modified}, that {@code result} is delivered again without reading nor parsing a body
+     *
+     * @param entityTag    {@code ETag} of the previous response, sent as {@code If-None-Match}
+     * @param lastModified {@code Last-Modified} of the previous response, sent as {@code If-Modified-Since}
+     * @param result       result deserialized from the previous response
+     */
+    void setValidators(@Nullable final String entityTag, @Nullable final String lastModified,
+            @NonNull final Object result) {
+        mEntityTag = entityTag;
+        mLastModified = lastModified;
+        mNotModifiedResult = result;
+        if (entityTag != null) {
+            addHeader(HTTP_HEADER_IF_NONE_MATCH, entityTag);
+        }
+        if (lastModified != null) {
+            addHeader(HTTP_HEADER_IF_MODIFIED_SINCE, lastModified);
+        }
+    }
+
+    /**
+     * @return {@code ETag} of the response, or of the previous response when it was not modified
+     */
+    @Nullable
+    String getEntityTag() {
+        return mEntityTag;
+    }
+
+    /**
+     * @return {@code Last-Modified} of the response, or of the previous response when it was not modified
+     */
+    @Nullable
+    String getLastModified() {
+        return mLastModified;
+    }
+
+    /**
+     * @return {@code True} when the server responded {@code 304 Not Modified} to the validators of this transaction
+     */
+    boolean isNotModified() {
+        return mNotModified;
+    }
+
+    /**
+     * Reuses the result kept by the {@code contentStore} when the response content is unchanged, instead of
+     * deserializing it again, and hands it the results of changed content
+     *
+     * @param contentStore store of the results of previous responses
+     */
+    void setContentStore(@NonNull final ContentStore contentStore) {
+        mContentStore = contentStore;
+    }
+
+    /**
+     * Hands the {@code resultListener} every result delivered for the responses of this transaction
+     *
+     * @param resultListener receiver of the results, for instance to cache them
+     */
+    void setResultListener(@NonNull final ResultListener resultListener) {
+        mResultListener = resultListener;
+    }
+
+    /**
+     * @return the {@link TransactionPriority} this transaction is dispatched with on its lane
+     */
+    protected TransactionPriority getPriority() {
+        return mPriority;
+    }
+
+    protected void setPriority(@NonNull final TransactionPriority priority) {
+        mPriority = priority;
+    }
+
+    /**
+     * @return number of response body bytes received over the network for this transaction
+     */
+    public long getCompressedByteCount() {
+        return mCompressedByteCount;
+    }
+
+    /**
+     * @return number of response body bytes after decompression for this transaction, or the number of bytes read
+     * from the response body when the {@link HttpTransport} does not report it
+     */
+    public long getUncompressedByteCount() {
+        return mUncompressedByteCount;
+    }
+
+    /**
+     * Defines the {@link HttpTransport} that executes this transaction; the default transport is used when none
+     * is defined
+     *
+     * @param httpTransport transport of the HTTP requests
+     */
+    protected void setHttpTransport(HttpTransport httpTransport) {
+        mHttpTransport = httpTransport;
+    }
+
     protected void addQuery(Map<String, String> query) {
         mQueryMap.putAll(query);
     }
@@ -164,29 +421,63 @@ public abstract class HttpTransaction implements Runnable {
         return mHeaderMap;
     }
 
+    /**
+     * Deserializes {@code content} on the calling background thread and delivers the finished result, refer to
+     * {@link #onSuccessResult(Object)}
+     *
+     * @param content serialized response
+     */
+    @VisibleForTesting
+    void onSuccess(final String content) {
+        Object result = null;
+        if (content != null && !content.trim().isEmpty()) {
+            result = mContentStore == null ? null : mContentStore.get(content);
+            if (result == null) {
+                try {
+                    result = JsonUtils.fromJsonString(content, mTypeReference);
+                } catch (Exception e) {
+                    onFailure(e);
+                    return;
+                }
+                if (mContentStore != null && result != null) {
+                    mContentStore.put(content, result);
+                }
+            }
+        } // else 204 case
+        onSuccessResult(result);
+    }
+
+    /**
+     * Delivers a response that was already deserialized on the background thread, only the finished object is
+     * posted to the listener {@link android.os.Handler}
+     *
+     * @param result deserialized response or {@code null} when there was no content
+     */
     @SuppressWarnings("unchecked")
     @VisibleForTesting
-    void onSuccess(final String content) throws JSONException, InvocationTargetException, NoSuchMethodException,
-            InstantiationException,
-            IllegalAccessException {
-        if (mListener.getHandler() == null) {
-            if (content != null && !content.trim().isEmpty()) {
-                mListener.onSuccess(JsonUtils.fromJsonString(content, mTypeReference));
-            } else {
-                mListener.onSuccess(null); //204 case
+    void onSuccessResult(@Nullable final Object result) {
+        if (mResultListener != null && result != null) {
+            mResultListener.onResult(result);
+        }
+        if (mResponseCache != null) {
+            mResponseCache.onSuccess(this, result, mResponseCacheGeneration);
+        }
+        if (mCoalescer != null) {
+            for (HttpTransaction follower : mCoalescer.complete(this)) {
+                follower.onSuccessResult(result);
             }
+        }
+        if (mCanceled || mRevalidating) {
+            return;
+        }
+        if (mListener.getHandler() == null) {
+            mListener.onSuccess(result);
         } else {
             mListener.getHandler().post(new Runnable() {
                 @Override
                 public void run() {
-                    try {
-                        if (content != null && !content.trim().isEmpty()) {
-                            mListener.onSuccess(JsonUtils.fromJsonString(content, mTypeReference));
-                        } else {
-                            mListener.onSuccess(null); //204 case
-                        }
-                    } catch (Exception e) {
-                        onFailure(e);
+                    if (!mCanceled) {
+                        mListener.onSuccess(result);
                     }
                 }
             });
@@ -194,19 +485,96 @@ public abstract class HttpTransaction implements Runnable {
     }
 
     protected void onFailure(@NonNull final Exception exception) {
+        if (mResponseCache != null) {
+            mResponseCache.onFailure(this);
+        }
+        if (mCoalescer != null) {
+            for (HttpTransaction follower : mCoalescer.complete(this)) {
+                follower.onFailure(exception);
+            }
+        }
+        if (mCanceled || mRevalidating) {
+            return;
+        }
+        final HyperwalletException hyperwalletException = ExceptionMapper.toHyperwalletException(exception);
         if (mListener.getHandler() == null) {
-            mListener.onFailure(ExceptionMapper.toHyperwalletException(exception));
+            mListener.onFailure(hyperwalletException);
         } else {
             mListener.getHandler().post(new Runnable() {
                 @Override
                 public void run() {
-                    mListener.onFailure(ExceptionMapper.toHyperwalletException(exception));
+                    if (!mCanceled) {
+                        mListener.onFailure(hyperwalletException);
+                    }
                 }
             });
         }
     }
 
+    private void recordValidators(@NonNull final HttpTransport.Response response) {
+        if (mMethod != HttpMethod.GET) {
+            return;
+        }
+        String entityTag = response.getHeader(HTTP_HEADER_ETAG);
+        String lastModified = response.getHeader(HTTP_HEADER_LAST_MODIFIED);
+        if (entityTag != null || lastModified != null) {
+            mEntityTag = entityTag;
+            mLastModified = lastModified;
+        }
+    }
+
+    private void recordByteCounts(@NonNull final HttpTransport.Response response, final long bytesRead) {
+        mCompressedByteCount = Math.max(0, response.getCompressedByteCount());
+        long uncompressedByteCount = response.getUncompressedByteCount();
+        mUncompressedByteCount = uncompressedByteCount >= 0 ? uncompressedByteCount : bytesRead;
+    }
+
+    @Nullable
+    private byte[] getRequestBody() {
+        return mMethod == HttpMethod.GET || mPayload == null ? null : mPayload.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String readBody(@NonNull final InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        for (int count; (count = in.read(buffer)) != -1; ) {
+            out.write(buffer, 0, count);
+        }
+        return out.toString(StandardCharsets.UTF_8.name());
+    }
+
     private String getUserAgent() {
         return String.format(HTTP_HEADER_USER_AGENT, BuildConfig.VERSION_NAME, Build.VERSION.RELEASE);
     }
+
+    /**
+     * Keeps the results deserialized from previous responses, refer to {@link #setContentStore(ContentStore)}
+     */
+    interface ContentStore {
+
+        /**
+         * @param content serialized response
+         * @return result previously deserialized from the same {@code content}, or {@code null} when there is none
+         */
+        @Nullable
+        Object get(@NonNull String content);
+
+        /**
+         * @param content serialized response
+         * @param result  result deserialized from {@code content}
+         */
+        void put(@NonNull String content, @NonNull Object result);
+    }
+
+    /**
+     * Receives the results delivered for the responses of a transaction, refer to
+     * {@link #setResultListener(ResultListener)}
+     */
+    interface ResultListener {
+
+        /**
+         * @param result result delivered for a response
+         */
+        void onResult(@NonNull Object result);
+    }
 }
@@ -0,0 +1,224 @@
+/*
+ * The MIT License (MIT)
+ * Copyright (c) 2018 Hyperwallet Systems Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.hyperwallet.android;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The transport that carries the HTTP requests of the Hyperwallet Core SDK to the Hyperwallet platform, both the
+ * REST and the GraphQL traffic.
+ *
+ * <p>The default transport is built on {@link java.net.HttpURLConnection}. Integrators can supply their own, for
+ * instance to share the connection pool, HTTP/2 support and interceptors of the HTTP stack of their app, through
+ * {@link Hyperwallet.Builder#httpTransport(HttpTransport)}.</p>
+ *
+ * <p>Implementations must be thread safe, requests are executed concurrently from the SDK background threads.
+ * Implementations should register a {@link Request#setCancelAction(Runnable) cancel action} so that canceled
+ * requests release their connection right away.</p>
+ *
+ * <p>Requests do not carry an {@code Accept-Encoding} header: response compression is negotiated by the transport,
+ * which hands back the decoded body. The default transport asks for gzip and decompresses the body while it is
+ * read.</p>
+ */
+public interface HttpTransport {
+
+    /**
+     * Executes a fully built request, blocking until the response status and headers are available
+     *
+     * @param request the request to execute
+     * @return the response; the SDK closes it once the body is read
+     * @throws IOException when the request could not be executed
+     */
+    @NonNull
+    Response execute(@NonNull Request request) throws IOException;
+
+    /**
+     * HTTP request to execute over a {@link HttpTransport}
+     */
+    final class Request {
+        private final String mMethod;
+        private final URI mUri;
+        private final String mUrl;
+        private final Map<String, String> mHeaders;
+        private final byte[] mBody;
+        private boolean mCanceled;
+        private Runnable mCancelAction;
+
+        /**
+         * Construct a {@code Request}
+         *
+         * @param method  HTTP method name, such as {@code GET} or {@code POST}
+         * @param uri     full location including the query, already validated by parsing it
+         * @param headers Map of key-value paired HTTP header information
+         * @param body    request body, {@code null} when there is none
+         */
+        public Request(@NonNull final String method, @NonNull final URI uri,
+                @NonNull final Map<String, String> headers, @Nullable final byte[] body) {
+            mMethod = method;
+            mUri = uri;
+            mUrl = uri.toString();
+            mHeaders = Collections.unmodifiableMap(headers);
+            mBody = body;
+        }
+
+        @NonNull
+        public String getMethod() {
+            return mMethod;
+        }
+
+        @NonNull
+        public URI getUri() {
+            return mUri;
+        }
+
+        @NonNull
+        public String getUrl() {
+            return mUrl;
+        }
+
+        @NonNull
+        public Map<String, String> getHeaders() {
+            return mHeaders;
+        }
+
+        @Nullable
+        public byte[] getBody() {
+            return mBody;
+        }
+
+        /**
+         * Defines how the transport aborts this request while it is in flight, such as disconnecting its
+         * connection. The {@code cancelAction} runs right away when the request is already canceled.
+         *
+         * @param cancelAction aborts the request, {@code null} once there is nothing left to abort
+         */
+        public void setCancelAction(@Nullable final Runnable cancelAction) {
+            synchronized (this) {
+                if (!mCanceled) {
+                    mCancelAction = cancelAction;
+                    return;
+                }
+            }
+            if (cancelAction != null) {
+                cancelAction.run();
+            }
+        }
+
+        /**
+         * Cancels the request, running its cancel action if any
+         */
+        public void cancel() {
+            Runnable cancelAction;
+            synchronized (this) {
+                if (mCanceled) {
+                    return;
+                }
+                mCanceled = true;
+                cancelAction = mCancelAction;
+                mCancelAction = null;
+            }
+            if (cancelAction != null) {
+                cancelAction.run();
+            }
+        }
+
+        /**
+         * @return {@code True} once the request was canceled; transports should not start a canceled request
+         */
+        public synchronized boolean isCanceled() {
+            return mCanceled;
+        }
+    }
+
+    /**
+     * HTTP response returned by a {@link HttpTransport}
+     */
+    class Response implements Closeable {
+        private final int mCode;
+        private final Map<String, String> mHeaders;
+        private final InputStream mBody;
+
+        /**
+         * Construct a {@code Response}
+         *
+         * @param code    HTTP response code
+         * @param headers Map of key-value paired HTTP response header information
+         * @param body    response body, already decoded when it was sent with a {@code Content-Encoding}
+         */
+        public Response(final int code, @NonNull final Map<String, String> headers, @NonNull final InputStream body) {
+            mCode = code;
+            mHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            mHeaders.putAll(headers);
+            mBody = body;
+        }
+
+        public int getCode() {
+            return mCode;
+        }
+
+        /**
+         * @param name header name, case insensitive
+         * @return header value or {@code null} when the header is absent
+         */
+        @Nullable
+        public String getHeader(@NonNull final String name) {
+            return mHeaders.get(name);
+        }
+
+        @NonNull
+        public Map<String, String> getHeaders() {
+            return Collections.unmodifiableMap(mHeaders);
+        }
+
+        @NonNull
+        public InputStream getBody() {
+            return mBody;
+        }
+
+        /**
+         * @return number of response body bytes received over the network, or {@code -1} when the transport does
+         * not report it
+         */
+        public long getCompressedByteCount() {
+            return -1;
+        }
+
+        /**
+         * @return number of response body bytes after decoding, or {@code -1} when the transport does not report it
+         */
+        public long getUncompressedByteCount() {
+            return -1;
+        }
+
+        /**
+         * Closes the response body, releasing the underlying connection
+         */
+        @Override
+        public void close() throws IOException {
+            mBody.close();
+        }
+    }
+}
@@ -22,6 +22,8 @@ import static com.hyperwallet.android.util.HttpMethod.GET;
 import static com.hyperwallet.android.util.HttpMethod.POST;
 import static com.hyperwallet.android.util.HttpMethod.PUT;
 
+import android.os.Handler;
+
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
@@ -35,7 +37,9 @@ import com.hyperwallet.android.model.TypeReference;
 import com.hyperwallet.android.model.graphql.HyperwalletTransferMethodConfigurationField;
 import com.hyperwallet.android.model.graphql.HyperwalletTransferMethodConfigurationKey;
 import com.hyperwallet.android.model.graphql.field.TransferMethodConfigurationFieldResult;
+import com.hyperwallet.android.model.graphql.keyed.Currency;
 import com.hyperwallet.android.model.graphql.keyed.TransferMethodConfigurationKeyResult;
+import com.hyperwallet.android.model.graphql.keyed.TransferMethodType;
 import com.hyperwallet.android.model.graphql.query.TransferMethodConfigurationFieldQuery;
 import com.hyperwallet.android.model.graphql.query.TransferMethodConfigurationKeysQuery;
 import com.hyperwallet.android.model.paging.PageList;
@@ -56,15 +60,26 @@ import com.hyperwallet.android.model.transfermethod.PrepaidCardQueryParam;
 import com.hyperwallet.android.model.transfermethod.TransferMethod;
 import com.hyperwallet.android.model.transfermethod.TransferMethodQueryParam;
 import com.hyperwallet.android.model.user.User;
+import com.hyperwallet.android.util.HttpClientTransport;
+import com.hyperwallet.android.util.JsonUtils;
+import com.hyperwallet.android.util.TransactionExecutor;
+import com.hyperwallet.android.util.TransactionLane;
+import com.hyperwallet.android.util.TransactionPriority;
 
 import org.json.JSONException;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The {@code Hyperwallet} class is an Android specific implementation of the
@@ -84,20 +99,50 @@ import java.util.concurrent.Executors;
  */
 public class Hyperwallet {
 
-    private static final int EXECUTOR_POOL_SIZE = 2;
     private static final String TAG = Hyperwallet.class.getName();
 
-
     private static Hyperwallet sInstanceLast;
 
-    private final ExecutorService mExecutor;
+    private final Map<TransactionLane, TransactionExecutor> mExecutors;
+    private final HttpTransport mHttpTransport;
+    private final RequestCoalescer mRequestCoalescer;
+    private final ResponseCache mResponseCache;
+    private final TransferMethodConfigurationKeyCache mTransferMethodConfigurationKeyCache;
+    private final TransferMethodConfigurationFieldCache mTransferMethodConfigurationFieldCache;
+    private final boolean mPersistedQueriesEnabled;
+    private final boolean mRequestCoalescingEnabled;
     private final HyperwalletAuthenticationTokenProvider mHyperwalletAuthenticationTokenProvider;
+    private final TokenRefreshScheduler mTokenRefreshScheduler;
+
+    private final Object mAuthenticationLock = new Object();
 
-    private Configuration mConfiguration;
+    private volatile Configuration mConfiguration;
+    private List<AuthenticationCallback> mPendingAuthentications;
 
     private Hyperwallet(@NonNull final HyperwalletAuthenticationTokenProvider hyperwalletAuthenticationTokenProvider) {
-        mExecutor = Executors.newFixedThreadPool(EXECUTOR_POOL_SIZE);
-        mHyperwalletAuthenticationTokenProvider = hyperwalletAuthenticationTokenProvider;
+        this(new Builder(hyperwalletAuthenticationTokenProvider));
+    }
+
+    private Hyperwallet(@NonNull final Builder builder) {
+        mExecutors = new EnumMap<>(builder.mTransactionExecutors);
+        mHyperwalletAuthenticationTokenProvider = builder.mHyperwalletAuthenticationTokenProvider;
+        mHttpTransport = builder.mHttpTransport != null ? builder.mHttpTransport : new HttpClientTransport();
+        mRequestCoalescer = new RequestCoalescer();
+        mRequestCoalescingEnabled = builder.mRequestCoalescingEnabled;
+        mResponseCache = builder.mResponseCache;
+        mTransferMethodConfigurationKeyCache = builder.mTransferMethodConfigurationKeyCache;
+        mTransferMethodConfigurationFieldCache = builder.mTransferMethodConfigurationFieldCache;
+        mPersistedQueriesEnabled = builder.mPersistedQueriesEnabled;
+        mTokenRefreshScheduler = builder.mTokenRefreshLeadTime > 0
+                ? new TokenRefreshScheduler(builder.mTokenRefreshLeadTime, builder.mTokenRefreshJitter,
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        refreshAuthenticationToken();
+                    }
+                })
+                : null;
+        JsonUtils.setMainThreadParsingDetectionEnabled(builder.mMainThreadParsingDetectionEnabled);
     }
 
     /**
@@ -160,9 +205,62 @@ public class Hyperwallet {
      * Resets class {@link Hyperwallet} instance reference to self
      */
     public static void clearInstance() {
+        if (sInstanceLast != null) {
+            sInstanceLast.release();
+        }
         sInstanceLast = null;
     }
 
+    /**
+     * Returns the {@link TransactionExecutor} that runs the requests of a {@link TransactionLane} in the background.
+     * Use {@link TransactionExecutor#getQueueDepth()} and {@link TransactionExecutor#getMaxQueueWaitMillis()} to
+     * verify requests are not piling up.
+     *
+     * @param lane kind of requests
+     * @return the {@code TransactionExecutor} of the {@code lane}
+     */
+    @NonNull
+    public TransactionExecutor getTransactionExecutor(@NonNull final TransactionLane lane) {
+        return mExecutors.get(lane);
+    }
+
+    /**
+     * Returns the {@link RequestCoalescer} that merges identical {@code GET} requests in flight at the same time.
+     * Use {@link RequestCoalescer#getHitCount()} to verify how many requests were saved.
+     *
+     * @return the {@code RequestCoalescer} used by this instance
+     */
+    @NonNull
+    public RequestCoalescer getRequestCoalescer() {
+        return mRequestCoalescer;
+    }
+
+    /**
+     * @return the {@link ResponseCache} of this instance, {@code null} when REST {@code GET} results are not cached
+     */
+    @Nullable
+    public ResponseCache getResponseCache() {
+        return mResponseCache;
+    }
+
+    /**
+     * @return the {@link TransferMethodConfigurationKeyCache} of this instance, {@code null} when the transfer method
+     * configuration keys are not cached
+     */
+    @Nullable
+    public TransferMethodConfigurationKeyCache getTransferMethodConfigurationKeyCache() {
+        return mTransferMethodConfigurationKeyCache;
+    }
+
+    /**
+     * @return the {@link TransferMethodConfigurationFieldCache} of this instance, {@code null} when the transfer
+     * method configuration fields are not cached
+     */
+    @Nullable
+    public TransferMethodConfigurationFieldCache getTransferMethodConfigurationFieldCache() {
+        return mTransferMethodConfigurationFieldCache;
+    }
+
     /**
      * Retrieves the Configuration based on the values from the Authentication Token Provider. Please be aware that this
      * method will also authenticate, if for instance there's a previous authentication that is still valid then the
@@ -170,54 +268,24 @@ public class Hyperwallet {
      * {@link Configuration} will be provided in {@link HyperwalletListener#onSuccess(Object)}
      *
      * @param listener the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public synchronized void getConfiguration(@NonNull final HyperwalletListener<Configuration> listener) {
-        if (mConfiguration == null || mConfiguration.isStale()) {
-            mHyperwalletAuthenticationTokenProvider.retrieveAuthenticationToken(
-                    new HyperwalletAuthenticationTokenListener() {
-                        @Override
-                        public void onSuccess(String authenticationToken) {
-                            try {
-                                mConfiguration = new Configuration(authenticationToken);
-                                listener.onSuccess(mConfiguration);
-                            } catch (final JSONException e) {
-                                if (listener.getHandler() == null) {
-                                    listener.onFailure(ExceptionMapper.toHyperwalletException(e));
-                                } else {
-                                    listener.getHandler().post(new Runnable() {
-                                        @Override
-                                        public void run() {
-                                            listener.onFailure(ExceptionMapper.toHyperwalletException(e));
-                                        }
-                                    });
-                                }
-                            }
-                        }
+    public HyperwalletCall getConfiguration(@NonNull final HyperwalletListener<Configuration> listener) {
+        final HyperwalletCall call = new HyperwalletCall();
+        authenticate(new AuthenticationCallback() {
+            @Override
+            public void onSuccess(@NonNull final Configuration configuration) {
+                if (!call.isCanceled()) {
+                    listener.onSuccess(configuration);
+                }
+            }
 
-                        @Override
-                        public void onFailure(UUID uuid, String message) {
-                            final String logMessage = MessageFormat
-                                    .format("Integrator was unable to provide an authentication token. \nId: {0} "
-                                                    + "Message: {1}",
-                                            uuid.toString(), message);
-
-                            if (listener.getHandler() == null) {
-                                listener.onFailure(ExceptionMapper.toHyperwalletException(
-                                        new HyperwalletAuthenticationTokenProviderException(logMessage)));
-                            } else {
-                                listener.getHandler().post(new Runnable() {
-                                    @Override
-                                    public void run() {
-                                        listener.onFailure(ExceptionMapper.toHyperwalletException(
-                                                new HyperwalletAuthenticationTokenProviderException(logMessage)));
-                                    }
-                                });
-                            }
-                        }
-                    });
-        } else {
-            listener.onSuccess(mConfiguration);
-        }
+            @Override
+            public void onFailure(@NonNull final HyperwalletException exception) {
+                postFailure(call, listener, exception);
+            }
+        });
+        return call;
     }
 
     /**
@@ -232,8 +300,9 @@ public class Hyperwallet {
      *
      * @param bankAccount the {@code BankAccount} to be created; must not be null
      * @param listener    the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void createBankAccount(@NonNull final BankAccount bankAccount,
+    public HyperwalletCall createBankAccount(@NonNull final BankAccount bankAccount,
             @NonNull final HyperwalletListener<BankAccount> listener) {
         PathFormatter pathFormatter = new PathFormatter("users/{0}/bank-accounts");
 
@@ -241,7 +310,7 @@ public class Hyperwallet {
                 new TypeReference<BankAccount>() {
                 }, listener).jsonModel(bankAccount);
 
-        performRestTransaction(builder, listener);
+        return performRestTransaction(builder, listener);
     }
 
     /**
@@ -272,8 +341,24 @@ public class Hyperwallet {
      *
      * @param queryParam the ordering and filtering criteria
      * @param listener   the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
+     */
+    public HyperwalletCall listBankAccounts(@Nullable final BankAccountQueryParam queryParam,
+            @NonNull final HyperwalletListener<PageList<BankAccount>> listener) {
+        return listBankAccounts(queryParam, TransactionPriority.NORMAL, listener);
+    }
+
+    /**
+     * Same as {@link #listBankAccounts(BankAccountQueryParam, HyperwalletListener)}, dispatched with the
+     * {@link TransactionPriority} specified instead of {@link TransactionPriority#NORMAL}.
+     *
+     * @param queryParam the ordering and filtering criteria
+     * @param priority   dispatch priority of the request over the other pending requests; must not be null
+     * @param listener   the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void listBankAccounts(@Nullable final BankAccountQueryParam queryParam,
+    public HyperwalletCall listBankAccounts(@Nullable final BankAccountQueryParam queryParam,
+            @NonNull final TransactionPriority priority,
             @NonNull final HyperwalletListener<PageList<BankAccount>> listener) {
         Map<String, String> urlQuery = buildUrlQueryIfRequired(queryParam);
         PathFormatter pathFormatter = new PathFormatter("users/{0}/bank-accounts");
@@ -282,7 +367,7 @@ public class Hyperwallet {
                 new TypeReference<PageList<BankAccount>>() {
                 }, listener).query(urlQuery);
 
-        performRestTransaction(builder, listener);
+        return performRestTransaction(builder.priority(priority), listener);
     }
 
     /**
@@ -297,8 +382,9 @@ public class Hyperwallet {
      *
      * @param bankCard the {@code BankCard} to be created; must not be null
      * @param listener the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void createBankCard(@NonNull final BankCard bankCard,
+    public HyperwalletCall createBankCard(@NonNull final BankCard bankCard,
             @NonNull final HyperwalletListener<BankCard> listener) {
         PathFormatter pathFormatter = new PathFormatter("users/{0}/bank-cards");
 
@@ -306,7 +392,7 @@ public class Hyperwallet {
                 new TypeReference<BankCard>() {
                 }, listener).jsonModel(bankCard);
 
-        performRestTransaction(builder, listener);
+        return performRestTransaction(builder, listener);
     }
 
     /**
@@ -321,8 +407,9 @@ public class Hyperwallet {
      *
      * @param payPalAccount the {@code PayPalAccount} to be created; must not be null
      * @param listener      the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void createPayPalAccount(@NonNull final PayPalAccount payPalAccount,
+    public HyperwalletCall createPayPalAccount(@NonNull final PayPalAccount payPalAccount,
             @NonNull final HyperwalletListener<PayPalAccount> listener) {
         PathFormatter pathFormatter = new PathFormatter("users/{0}/paypal-accounts");
 
@@ -330,7 +417,7 @@ public class Hyperwallet {
                 new TypeReference<PayPalAccount>() {
                 }, listener).jsonModel(payPalAccount);
 
-        performRestTransaction(builder, listener);
+        return performRestTransaction(builder, listener);
     }
 
     /**
@@ -345,8 +432,9 @@ public class Hyperwallet {
      *
      * @param transfer the {@code Transfer} to be created; must not be null
      * @param listener the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void createTransfer(@NonNull final Transfer transfer,
+    public HyperwalletCall createTransfer(@NonNull final Transfer transfer,
             @NonNull final HyperwalletListener<Transfer> listener) {
         PathFormatter pathFormatter = new PathFormatter("transfers");
 
@@ -354,7 +442,7 @@ public class Hyperwallet {
                 new TypeReference<Transfer>() {
                 }, listener).jsonModel(transfer);
 
-        performRestTransaction(builder, listener);
+        return performRestTransaction(builder, listener);
     }
 
     /**
@@ -369,8 +457,25 @@ public class Hyperwallet {
      * @param transferMethodToken the Hyperwallet specific unique identifier for the {@code BankAccount}
      *                            being requested; must not be null
      * @param listener            the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
+     */
+    public HyperwalletCall getBankAccount(@NonNull final String transferMethodToken,
+            @NonNull final HyperwalletListener<BankAccount> listener) {
+        return getBankAccount(transferMethodToken, TransactionPriority.NORMAL, listener);
+    }
+
+    /**
+     * Same as {@link #getBankAccount(String, HyperwalletListener)}, dispatched with the
+     * {@link TransactionPriority} specified instead of {@link TransactionPriority#NORMAL}.
+     *
+     * @param transferMethodToken the Hyperwallet specific unique identifier for the {@code BankAccount}
+     *                            being requested; must not be null
+     * @param priority            dispatch priority of the request over the other pending requests; must not be null
+     * @param listener            the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void getBankAccount(@NonNull final String transferMethodToken,
+    public HyperwalletCall getBankAccount(@NonNull final String transferMethodToken,
+            @NonNull final TransactionPriority priority,
             @NonNull final HyperwalletListener<BankAccount> listener) {
         PathFormatter pathFormatter = new PathFormatter("users/{0}/bank-accounts/{1}", transferMethodToken);
 
@@ -378,7 +483,7 @@ public class Hyperwallet {
                 new TypeReference<BankAccount>() {
                 }, listener);
 
-        performRestTransaction(builder, listener);
+        return performRestTransaction(builder.priority(priority), listener);
     }
 
     /**
@@ -393,15 +498,32 @@ public class Hyperwallet {
      * @param transferMethodToken the Hyperwallet specific unique identifier for the {@code BankCard}
      *                            being requested; must not be null
      * @param listener            the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
+     */
+    public HyperwalletCall getBankCard(@NonNull final String transferMethodToken,
+            @NonNull final HyperwalletListener<BankCard> listener) {
+        return getBankCard(transferMethodToken, TransactionPriority.NORMAL, listener);
+    }
+
+    /**
+     * Same as {@link #getBankCard(String, HyperwalletListener)}, dispatched with the
+     * {@link TransactionPriority} specified instead of {@link TransactionPriority#NORMAL}.
+     *
+     * @param transferMethodToken the Hyperwallet specific unique identifier for the {@code BankCard}
+     *                            being requested; must not be null
+     * @param priority            dispatch priority of the request over the other pending requests; must not be null
+     * @param listener            the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void getBankCard(@NonNull final String transferMethodToken,
+    public HyperwalletCall getBankCard(@NonNull final String transferMethodToken,
+            @NonNull final TransactionPriority priority,
             @NonNull final HyperwalletListener<BankCard> listener) {
         PathFormatter pathFormatter = new PathFormatter("users/{0}/bank-cards/{1}", transferMethodToken);
 
         RestTransaction.Builder builder = new RestTransaction.Builder<>(GET, pathFormatter,
                 new TypeReference<BankCard>() {
                 }, listener);
-        performRestTransaction(builder, listener);
+        return performRestTransaction(builder.priority(priority), listener);
     }
 
     /**
@@ -414,15 +536,29 @@ public class Hyperwallet {
      * if the current one is expired or about to expire.</p>
      *
      * @param listener the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
+     */
+    public HyperwalletCall getUser(@NonNull final HyperwalletListener<User> listener) {
+        return getUser(TransactionPriority.NORMAL, listener);
+    }
+
+    /**
+     * Same as {@link #getUser(HyperwalletListener)}, dispatched with the
+     * {@link TransactionPriority} specified instead of {@link TransactionPriority#NORMAL}.
+     *
+     * @param priority dispatch priority of the request over the other pending requests; must not be null
+     * @param listener the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void getUser(@NonNull final HyperwalletListener<User> listener) {
+    public HyperwalletCall getUser(@NonNull final TransactionPriority priority,
+            @NonNull final HyperwalletListener<User> listener) {
         PathFormatter pathFormatter = new PathFormatter("users/{0}");
 
         RestTransaction.Builder builder = new RestTransaction.Builder<>(GET, pathFormatter,
                 new TypeReference<User>() {
                 }, listener);
 
-        performRestTransaction(builder, listener);
+        return performRestTransaction(builder.priority(priority), listener);
     }
 
     /**
@@ -437,8 +573,24 @@ public class Hyperwallet {
      * @param transferToken the Hyperwallet specific unique identifier for the {@code Transfer}
      *                      being requested; must not be null
      * @param listener      the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void getTransfer(@NonNull final String transferToken,
+    public HyperwalletCall getTransfer(@NonNull final String transferToken,
+            @NonNull final HyperwalletListener<Transfer> listener) {
+        return getTransfer(transferToken, TransactionPriority.NORMAL, listener);
+    }
+
+    /**
+     * Same as {@link #getTransfer(String, HyperwalletListener)}, dispatched with the
+     * {@link TransactionPriority} specified instead of {@link TransactionPriority#NORMAL}.
+     *
+     * @param transferToken the Hyperwallet specific unique identifier for the {@code Transfer}
+     *                      being requested; must not be null
+     * @param priority      dispatch priority of the request over the other pending requests; must not be null
+     * @param listener      the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
+     */
+    public HyperwalletCall getTransfer(@NonNull final String transferToken, @NonNull final TransactionPriority priority,
             @NonNull final HyperwalletListener<Transfer> listener) {
         PathFormatter pathFormatter = new PathFormatter("transfers/{1}", transferToken);
 
@@ -446,7 +598,7 @@ public class Hyperwallet {
                 new TypeReference<Transfer>() {
                 }, listener);
 
-        performRestTransaction(builder, listener);
+        return performRestTransaction(builder.priority(priority), listener);
     }
 
     /**
@@ -464,8 +616,9 @@ public class Hyperwallet {
      *
      * @param bankAccount the {@code BankAccount} to be created; must not be null
      * @param listener    the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void updateBankAccount(@NonNull final BankAccount bankAccount,
+    public HyperwalletCall updateBankAccount(@NonNull final BankAccount bankAccount,
             @NonNull final HyperwalletListener<BankAccount> listener) {
         PathFormatter pathFormatter = new PathFormatter("users/{0}/bank-accounts/{1}",
                 bankAccount.getField(TransferMethod.TransferMethodFields.TOKEN));
@@ -474,7 +627,7 @@ public class Hyperwallet {
                 new TypeReference<BankAccount>() {
                 }, listener).jsonModel(bankAccount);
 
-        performRestTransaction(builder, listener);
+        return performRestTransaction(builder, listener);
     }
 
     /**
@@ -493,8 +646,9 @@ public class Hyperwallet {
      *
      * @param bankCard the {@code BankCard} to be created; must not be null
      * @param listener the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void updateBankCard(@NonNull final BankCard bankCard,
+    public HyperwalletCall updateBankCard(@NonNull final BankCard bankCard,
             @NonNull final HyperwalletListener<BankCard> listener) {
         PathFormatter pathFormatter = new PathFormatter("users/{0}/bank-cards/{1}",
                 bankCard.getField(TransferMethod.TransferMethodFields.TOKEN));
@@ -503,7 +657,7 @@ public class Hyperwallet {
                 new TypeReference<BankCard>() {
                 }, listener).jsonModel(bankCard);
 
-        performRestTransaction(builder, listener);
+        return performRestTransaction(builder, listener);
     }
 
     /**
@@ -521,8 +675,9 @@ public class Hyperwallet {
      *
      * @param payPalAccount the {@code PayPalAccount} to be created; must not be null
      * @param listener      the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void updatePayPalAccount(@NonNull final PayPalAccount payPalAccount,
+    public HyperwalletCall updatePayPalAccount(@NonNull final PayPalAccount payPalAccount,
             @NonNull final HyperwalletListener<PayPalAccount> listener) {
         PathFormatter pathFormatter = new PathFormatter("users/{0}/paypal-accounts/{1}",
                 payPalAccount.getField(TransferMethod.TransferMethodFields.TOKEN));
@@ -531,7 +686,7 @@ public class Hyperwallet {
                 new TypeReference<PayPalAccount>() {
                 }, listener).jsonModel(payPalAccount);
 
-        performRestTransaction(builder, listener);
+        return performRestTransaction(builder, listener);
     }
 
     /**
@@ -550,8 +705,10 @@ public class Hyperwallet {
      *                            being deactivated; must not be null
      * @param notes               a note regarding the status change
      * @param listener            the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void deactivateBankAccount(@NonNull final String transferMethodToken, @Nullable final String notes,
+    public HyperwalletCall deactivateBankAccount(@NonNull final String transferMethodToken,
+            @Nullable final String notes,
             @NonNull final HyperwalletListener<StatusTransition> listener) {
         PathFormatter pathFormatter = new PathFormatter("users/{0}/bank-accounts/{1}/status-transitions",
                 transferMethodToken);
@@ -564,7 +721,7 @@ public class Hyperwallet {
                 new TypeReference<StatusTransition>() {
                 }, listener).jsonModel(deactivatedStatusTransition);
 
-        performRestTransaction(builder, listener);
+        return performRestTransaction(builder, listener);
     }
 
     /**
@@ -583,8 +740,9 @@ public class Hyperwallet {
      *                            deactivated; must not be null
      * @param notes               a note regarding the status change
      * @param listener            the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void deactivateBankCard(@NonNull final String transferMethodToken, @Nullable final String notes,
+    public HyperwalletCall deactivateBankCard(@NonNull final String transferMethodToken, @Nullable final String notes,
             @NonNull final HyperwalletListener<StatusTransition> listener) {
         PathFormatter pathFormatter = new PathFormatter("users/{0}/bank-cards/{1}/status-transitions",
                 transferMethodToken);
@@ -597,7 +755,7 @@ public class Hyperwallet {
                 new TypeReference<StatusTransition>() {
                 }, listener).jsonModel(deactivatedStatusTransition);
 
-        performRestTransaction(builder, listener);
+        return performRestTransaction(builder, listener);
     }
 
     /**
@@ -616,8 +774,10 @@ public class Hyperwallet {
      *                            being deactivated; must not be null
      * @param notes               a note regarding the status change
      * @param listener            the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void deactivatePayPalAccount(@NonNull final String transferMethodToken, @Nullable final String notes,
+    public HyperwalletCall deactivatePayPalAccount(@NonNull final String transferMethodToken,
+            @Nullable final String notes,
             @NonNull final HyperwalletListener<StatusTransition> listener) {
         PathFormatter pathFormatter = new PathFormatter("users/{0}/paypal-accounts/{1}/status-transitions",
                 transferMethodToken);
@@ -630,7 +790,7 @@ public class Hyperwallet {
                 new TypeReference<StatusTransition>() {
                 }, listener).jsonModel(deactivatedStatusTransition);
 
-        performRestTransaction(builder, listener);
+        return performRestTransaction(builder, listener);
     }
 
     /**
@@ -661,8 +821,24 @@ public class Hyperwallet {
      *
      * @param queryParam the ordering and filtering criteria
      * @param listener   the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
+     */
+    public HyperwalletCall listTransferMethods(@Nullable final TransferMethodQueryParam queryParam,
+            @NonNull final HyperwalletListener<PageList<TransferMethod>> listener) {
+        return listTransferMethods(queryParam, TransactionPriority.NORMAL, listener);
+    }
+
+    /**
+     * Same as {@link #listTransferMethods(TransferMethodQueryParam, HyperwalletListener)}, dispatched with the
+     * {@link TransactionPriority} specified instead of {@link TransactionPriority#NORMAL}.
+     *
+     * @param queryParam the ordering and filtering criteria
+     * @param priority   dispatch priority of the request over the other pending requests; must not be null
+     * @param listener   the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void listTransferMethods(@Nullable final TransferMethodQueryParam queryParam,
+    public HyperwalletCall listTransferMethods(@Nullable final TransferMethodQueryParam queryParam,
+            @NonNull final TransactionPriority priority,
             @NonNull final HyperwalletListener<PageList<TransferMethod>> listener) {
         Map<String, String> urlQuery = buildUrlQueryIfRequired(queryParam);
         PathFormatter pathFormatter = new PathFormatter("users/{0}/transfer-methods");
@@ -671,7 +847,7 @@ public class Hyperwallet {
                 new TypeReference<PageList<TransferMethod>>() {
                 }, listener).query(urlQuery);
 
-        performRestTransaction(builder, listener);
+        return performRestTransaction(builder.priority(priority), listener);
     }
 
     /**
@@ -701,8 +877,24 @@ public class Hyperwallet {
      *
      * @param queryParam the ordering and filtering criteria
      * @param listener   the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void listBankCards(@Nullable final BankCardQueryParam queryParam,
+    public HyperwalletCall listBankCards(@Nullable final BankCardQueryParam queryParam,
+            @NonNull final HyperwalletListener<PageList<BankCard>> listener) {
+        return listBankCards(queryParam, TransactionPriority.NORMAL, listener);
+    }
+
+    /**
+     * Same as {@link #listBankCards(BankCardQueryParam, HyperwalletListener)}, dispatched with the
+     * {@link TransactionPriority} specified instead of {@link TransactionPriority#NORMAL}.
+     *
+     * @param queryParam the ordering and filtering criteria
+     * @param priority   dispatch priority of the request over the other pending requests; must not be null
+     * @param listener   the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
+     */
+    public HyperwalletCall listBankCards(@Nullable final BankCardQueryParam queryParam,
+            @NonNull final TransactionPriority priority,
             @NonNull final HyperwalletListener<PageList<BankCard>> listener) {
         Map<String, String> urlQuery = buildUrlQueryIfRequired(queryParam);
         PathFormatter pathFormatter = new PathFormatter("users/{0}/bank-cards");
@@ -710,7 +902,7 @@ public class Hyperwallet {
                 new TypeReference<PageList<BankCard>>() {
                 }, listener).query(urlQuery);
 
-        performRestTransaction(builder, listener);
+        return performRestTransaction(builder.priority(priority), listener);
     }
 
     /**
@@ -741,8 +933,24 @@ public class Hyperwallet {
      *
      * @param queryParam the ordering and filtering criteria
      * @param listener   the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
+     */
+    public HyperwalletCall listPrepaidCards(@Nullable final PrepaidCardQueryParam queryParam,
+            @NonNull final HyperwalletListener<PageList<PrepaidCard>> listener) {
+        return listPrepaidCards(queryParam, TransactionPriority.NORMAL, listener);
+    }
+
+    /**
+     * Same as {@link #listPrepaidCards(PrepaidCardQueryParam, HyperwalletListener)}, dispatched with the
+     * {@link TransactionPriority} specified instead of {@link TransactionPriority#NORMAL}.
+     *
+     * @param queryParam the ordering and filtering criteria
+     * @param priority   dispatch priority of the request over the other pending requests; must not be null
+     * @param listener   the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void listPrepaidCards(@Nullable final PrepaidCardQueryParam queryParam,
+    public HyperwalletCall listPrepaidCards(@Nullable final PrepaidCardQueryParam queryParam,
+            @NonNull final TransactionPriority priority,
             @NonNull final HyperwalletListener<PageList<PrepaidCard>> listener) {
         Map<String, String> urlQuery = buildUrlQueryIfRequired(queryParam);
         PathFormatter pathFormatter = new PathFormatter("users/{0}/prepaid-cards");
@@ -750,7 +958,7 @@ public class Hyperwallet {
                 new TypeReference<PageList<PrepaidCard>>() {
                 }, listener).query(urlQuery);
 
-        performRestTransaction(builder, listener);
+        return performRestTransaction(builder.priority(priority), listener);
     }
 
     /**
@@ -778,8 +986,24 @@ public class Hyperwallet {
      *
      * @param queryParam the ordering and filtering criteria
      * @param listener   the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
+     */
+    public HyperwalletCall listUserBalances(@Nullable final BalanceQueryParam queryParam,
+            @NonNull final HyperwalletListener<PageList<Balance>> listener) {
+        return listUserBalances(queryParam, TransactionPriority.NORMAL, listener);
+    }
+
+    /**
+     * Same as {@link #listUserBalances(BalanceQueryParam, HyperwalletListener)}, dispatched with the
+     * {@link TransactionPriority} specified instead of {@link TransactionPriority#NORMAL}.
+     *
+     * @param queryParam the ordering and filtering criteria
+     * @param priority   dispatch priority of the request over the other pending requests; must not be null
+     * @param listener   the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void listUserBalances(@Nullable final BalanceQueryParam queryParam,
+    public HyperwalletCall listUserBalances(@Nullable final BalanceQueryParam queryParam,
+            @NonNull final TransactionPriority priority,
             @NonNull final HyperwalletListener<PageList<Balance>> listener) {
         Map<String, String> urlQuery = buildUrlQueryIfRequired(queryParam);
         PathFormatter pathFormatter = new PathFormatter("users/{0}/balances");
@@ -787,7 +1011,7 @@ public class Hyperwallet {
                 new TypeReference<PageList<Balance>>() {
                 }, listener).query(urlQuery);
 
-        performRestTransaction(builder, listener);
+        return performRestTransaction(builder.priority(priority), listener);
     }
 
     /**
@@ -818,17 +1042,34 @@ public class Hyperwallet {
      * @param queryParam the ordering and filtering criteria
      * @param listener   the callback handler of responses from the Hyperwallet platform; must
      *                   not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void listPayPalAccounts(
+    public HyperwalletCall listPayPalAccounts(
             @Nullable final PayPalAccountQueryParam queryParam,
             @NonNull final HyperwalletListener<PageList<PayPalAccount>> listener) {
+        return listPayPalAccounts(queryParam, TransactionPriority.NORMAL, listener);
+    }
+
+    /**
+     * Same as {@link #listPayPalAccounts(PayPalAccountQueryParam, HyperwalletListener)}, dispatched with the
+     * {@link TransactionPriority} specified instead of {@link TransactionPriority#NORMAL}.
+     *
+     * @param queryParam the ordering and filtering criteria
+     * @param priority   dispatch priority of the request over the other pending requests; must not be null
+     * @param listener   the callback handler of responses from the Hyperwallet platform; must
+     *                   not be null
+     * @return a {@link HyperwalletCall} to cancel the request
+     */
+    public HyperwalletCall listPayPalAccounts(@Nullable final PayPalAccountQueryParam queryParam,
+            @NonNull final TransactionPriority priority,
+            @NonNull final HyperwalletListener<PageList<PayPalAccount>> listener) {
         Map<String, String> urlQuery = buildUrlQueryIfRequired(queryParam);
         PathFormatter pathFormatter = new PathFormatter("users/{0}/paypal-accounts");
         RestTransaction.Builder builder = new RestTransaction.Builder<>(GET, pathFormatter,
                 new TypeReference<PageList<PayPalAccount>>() {
                 }, listener).query(urlQuery);
 
-        performRestTransaction(builder, listener);
+        return performRestTransaction(builder.priority(priority), listener);
     }
 
     /**
@@ -843,8 +1084,25 @@ public class Hyperwallet {
      * @param transferMethodToken the Hyperwallet specific unique identifier for the {@code PayPalAccount}
      *                            being requested; must not be null
      * @param listener            the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
+     */
+    public HyperwalletCall getPayPalAccount(@NonNull final String transferMethodToken,
+            @NonNull final HyperwalletListener<PayPalAccount> listener) {
+        return getPayPalAccount(transferMethodToken, TransactionPriority.NORMAL, listener);
+    }
+
+    /**
+     * Same as {@link #getPayPalAccount(String, HyperwalletListener)}, dispatched with the
+     * {@link TransactionPriority} specified instead of {@link TransactionPriority#NORMAL}.
+     *
+     * @param transferMethodToken the Hyperwallet specific unique identifier for the {@code PayPalAccount}
+     *                            being requested; must not be null
+     * @param priority            dispatch priority of the request over the other pending requests; must not be null
+     * @param listener            the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void getPayPalAccount(@NonNull final String transferMethodToken,
+    public HyperwalletCall getPayPalAccount(@NonNull final String transferMethodToken,
+            @NonNull final TransactionPriority priority,
             @NonNull final HyperwalletListener<PayPalAccount> listener) {
         PathFormatter pathFormatter = new PathFormatter("users/{0}/paypal-accounts/{1}", transferMethodToken);
 
@@ -852,7 +1110,7 @@ public class Hyperwallet {
                 new TypeReference<PayPalAccount>() {
                 }, listener);
 
-        performRestTransaction(builder, listener);
+        return performRestTransaction(builder.priority(priority), listener);
     }
 
     /**
@@ -868,15 +1126,36 @@ public class Hyperwallet {
      *
      * @param query    containing the transfer method configuration key query, must not be null
      * @param listener the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
+     */
+    public HyperwalletCall retrieveTransferMethodConfigurationKeys(
+            @NonNull final TransferMethodConfigurationKeysQuery query,
+            @NonNull final HyperwalletListener<HyperwalletTransferMethodConfigurationKey> listener) {
+        return retrieveTransferMethodConfigurationKeys(query, TransactionPriority.NORMAL, listener);
+    }
+
+    /**
+     * Same as {@link #retrieveTransferMethodConfigurationKeys(TransferMethodConfigurationKeysQuery, HyperwalletListener)},
+     * dispatched with the {@link TransactionPriority} specified instead of {@link TransactionPriority#NORMAL}.
+     *
+     * @param query    containing the transfer method configuration key query, must not be null
+     * @param priority dispatch priority of the request over the other pending requests; must not be null
+     * @param listener the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void retrieveTransferMethodConfigurationKeys(
+    public HyperwalletCall retrieveTransferMethodConfigurationKeys(
             @NonNull final TransferMethodConfigurationKeysQuery query,
+            @NonNull final TransactionPriority priority,
             @NonNull final HyperwalletListener<HyperwalletTransferMethodConfigurationKey> listener) {
         GqlTransaction.Builder<TransferMethodConfigurationKeyResult> builder = new GqlTransaction.Builder<>(
                 query, new TypeReference<TransferMethodConfigurationKeyResult>() {
-        }, listener);
+        }, listener).persistedQuery(mPersistedQueriesEnabled);
 
-        performGqlTransaction(builder, listener);
+        if (mTransferMethodConfigurationKeyCache != null) {
+            return performCachedGqlTransaction(builder.priority(priority), mTransferMethodConfigurationKeyCache,
+                    listener);
+        }
+        return performGqlTransaction(builder.priority(priority), listener);
     }
 
     /**
@@ -894,18 +1173,120 @@ public class Hyperwallet {
      *                 country, currency, transfer method type and profile,
      *                 must not be null
      * @param listener the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
+     */
+    public HyperwalletCall retrieveTransferMethodConfigurationFields(
+            @NonNull final TransferMethodConfigurationFieldQuery query,
+            @NonNull final HyperwalletListener<HyperwalletTransferMethodConfigurationField> listener) {
+        return retrieveTransferMethodConfigurationFields(query, TransactionPriority.NORMAL, listener);
+    }
+
+    /**
+     * Same as {@link #retrieveTransferMethodConfigurationFields(TransferMethodConfigurationFieldQuery, HyperwalletListener)},
+     * dispatched with the {@link TransactionPriority} specified instead of {@link TransactionPriority#NORMAL}.
+     *
+     * @param query    containing a transfer method configuration key tuple of
+     *                 country, currency, transfer method type and profile,
+     *                 must not be null
+     * @param priority dispatch priority of the request over the other pending requests; must not be null
+     * @param listener the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void retrieveTransferMethodConfigurationFields(
+    public HyperwalletCall retrieveTransferMethodConfigurationFields(
             @NonNull final TransferMethodConfigurationFieldQuery query,
+            @NonNull final TransactionPriority priority,
             @NonNull final HyperwalletListener<HyperwalletTransferMethodConfigurationField> listener) {
 
         GqlTransaction.Builder<TransferMethodConfigurationFieldResult> builder =
                 new GqlTransaction.Builder<>(query,
                         new TypeReference<TransferMethodConfigurationFieldResult>() {
-                        }, listener);
-        performGqlTransaction(builder, listener);
+                        }, listener).persistedQuery(mPersistedQueriesEnabled);
+        if (mTransferMethodConfigurationFieldCache != null) {
+            return performCachedGqlTransaction(builder.priority(priority), query,
+                    mTransferMethodConfigurationFieldCache, listener);
+        }
+        return performGqlTransaction(builder.priority(priority), listener);
+    }
+
+    /**
+     * Loads the transfer method configuration fields of every currency and transfer method type available in a
+     * country into the {@link TransferMethodConfigurationFieldCache}, so that the forms of that country open right
+     * away. The keys and then the fields are requested with {@link TransactionPriority#BACKGROUND} priority, behind
+     * the requests of the screens; the fields are requested one query after another, so that the prefetch never
+     * takes more than one place in the queue of the GraphQL lane.
+     *
+     * @param country the 2 letter ISO 3166-1 country code, usually the country of the user; must not be null
+     * @param profile {@code INDIVIDUAL} or {@code BUSINESS}, the profile type of the user; must not be null
+     * @return a {@link HyperwalletCall} to cancel the prefetch
+     * @throws IllegalStateException when the instance has no {@link TransferMethodConfigurationFieldCache}
+     */
+    public HyperwalletCall prefetchTransferMethodConfigurationFields(@NonNull final String country,
+            @NonNull final String profile) {
+        if (mTransferMethodConfigurationFieldCache == null) {
+            throw new IllegalStateException("transfer method configuration field cache is not enabled");
+        }
+
+        final HyperwalletCall call = new HyperwalletCall();
+        call.attach(retrieveTransferMethodConfigurationKeys(new TransferMethodConfigurationKeysQuery(),
+                TransactionPriority.BACKGROUND, new HyperwalletListener<HyperwalletTransferMethodConfigurationKey>() {
+                    @Override
+                    public void onSuccess(@Nullable final HyperwalletTransferMethodConfigurationKey result) {
+                        Set<Currency> currencies = result == null ? null : result.getCurrencies(country);
+                        if (currencies == null) {
+                            return;
+                        }
+                        List<TransferMethodConfigurationFieldQuery> queries = new ArrayList<>();
+                        for (Currency currency : currencies) {
+                            for (TransferMethodType type : currency.getTransferMethodTypes()) {
+                                queries.add(new TransferMethodConfigurationFieldQuery(country, currency.getCode(),
+                                        type.getCode(), profile));
+                            }
+                        }
+                        prefetchNext(call, queries.iterator());
+                    }
+
+                    @Override
+                    public void onFailure(final HyperwalletException exception) {
+                        // the forms request their fields when they are opened
+                    }
+
+                    @Override
+                    public Handler getHandler() {
+                        return null;
+                    }
+                }));
+        return call;
     }
 
+    /**
+     * Requests the fields of the next of the {@code queries} once the previous one has completed, whatever its
+     * outcome, until all of them are requested or the prefetch {@code call} is canceled
+     */
+    private void prefetchNext(@NonNull final HyperwalletCall call,
+            @NonNull final Iterator<TransferMethodConfigurationFieldQuery> queries) {
+        if (call.isCanceled() || !queries.hasNext()) {
+            return;
+        }
+        call.attach(retrieveTransferMethodConfigurationFields(queries.next(), TransactionPriority.BACKGROUND,
+                new HyperwalletListener<HyperwalletTransferMethodConfigurationField>() {
+                    @Override
+                    public void onSuccess(@Nullable final HyperwalletTransferMethodConfigurationField result) {
+                        // kept by the TransferMethodConfigurationFieldCache
+                        prefetchNext(call, queries);
+                    }
+
+                    @Override
+                    public void onFailure(final HyperwalletException exception) {
+                        // the form requests its fields again when it is opened
+                        prefetchNext(call, queries);
+                    }
+
+                    @Override
+                    public Handler getHandler() {
+                        return null;
+                    }
+                }));
+    }
 
     /**
      * Returns the list of {@link Receipt}s for the User associated with the authentication token
@@ -934,8 +1315,24 @@ public class Hyperwallet {
      *
      * @param receiptQueryParam the ordering and filtering criteria
      * @param listener          the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void listUserReceipts(@Nullable final ReceiptQueryParam receiptQueryParam,
+    public HyperwalletCall listUserReceipts(@Nullable final ReceiptQueryParam receiptQueryParam,
+            @NonNull final HyperwalletListener<PageList<Receipt>> listener) {
+        return listUserReceipts(receiptQueryParam, TransactionPriority.NORMAL, listener);
+    }
+
+    /**
+     * Same as {@link #listUserReceipts(ReceiptQueryParam, HyperwalletListener)}, dispatched with the
+     * {@link TransactionPriority} specified instead of {@link TransactionPriority#NORMAL}.
+     *
+     * @param receiptQueryParam the ordering and filtering criteria
+     * @param priority          dispatch priority of the request over the other pending requests; must not be null
+     * @param listener          the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
+     */
+    public HyperwalletCall listUserReceipts(@Nullable final ReceiptQueryParam receiptQueryParam,
+            @NonNull final TransactionPriority priority,
             @NonNull final HyperwalletListener<PageList<Receipt>> listener) {
         Map<String, String> urlQuery = buildUrlQueryIfRequired(receiptQueryParam);
         PathFormatter pathFormatter = new PathFormatter("users/{0}/receipts");
@@ -944,7 +1341,7 @@ public class Hyperwallet {
                 new TypeReference<PageList<Receipt>>() {
                 }, listener).query(urlQuery);
 
-        performRestTransaction(builder, listener);
+        return performRestTransaction(builder.priority(priority), listener);
     }
 
     /**
@@ -971,10 +1368,27 @@ public class Hyperwallet {
      * @param prepaidCardToken  the token for prepaid card
      * @param receiptQueryParam the filtering criteria
      * @param listener          the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void listPrepaidCardReceipts(@NonNull final String prepaidCardToken,
+    public HyperwalletCall listPrepaidCardReceipts(@NonNull final String prepaidCardToken,
             @Nullable final ReceiptQueryParam receiptQueryParam,
             @NonNull final HyperwalletListener<PageList<Receipt>> listener) {
+        return listPrepaidCardReceipts(prepaidCardToken, receiptQueryParam, TransactionPriority.NORMAL, listener);
+    }
+
+    /**
+     * Same as {@link #listPrepaidCardReceipts(String, ReceiptQueryParam, HyperwalletListener)}, dispatched with the
+     * {@link TransactionPriority} specified instead of {@link TransactionPriority#NORMAL}.
+     *
+     * @param prepaidCardToken  the token for prepaid card
+     * @param receiptQueryParam the filtering criteria
+     * @param priority          dispatch priority of the request over the other pending requests; must not be null
+     * @param listener          the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
+     */
+    public HyperwalletCall listPrepaidCardReceipts(@NonNull final String prepaidCardToken,
+            @Nullable final ReceiptQueryParam receiptQueryParam, @NonNull final TransactionPriority priority,
+            @NonNull final HyperwalletListener<PageList<Receipt>> listener) {
         Map<String, String> urlQuery = buildUrlQueryIfRequired(receiptQueryParam);
         PathFormatter pathFormatter = new PathFormatter("users/{0}/prepaid-cards/{1}/receipts", prepaidCardToken);
 
@@ -982,7 +1396,7 @@ public class Hyperwallet {
                 new TypeReference<PageList<Receipt>>() {
                 }, listener).query(urlQuery);
 
-        performRestTransaction(builder, listener);
+        return performRestTransaction(builder.priority(priority), listener);
     }
 
     /**
@@ -1013,8 +1427,24 @@ public class Hyperwallet {
      *
      * @param transferQueryParam the filtering criteria
      * @param listener           the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
+     */
+    public HyperwalletCall listTransfers(@Nullable final TransferQueryParam transferQueryParam,
+            @NonNull final HyperwalletListener<PageList<Transfer>> listener) {
+        return listTransfers(transferQueryParam, TransactionPriority.NORMAL, listener);
+    }
+
+    /**
+     * Same as {@link #listTransfers(TransferQueryParam, HyperwalletListener)}, dispatched with the
+     * {@link TransactionPriority} specified instead of {@link TransactionPriority#NORMAL}.
+     *
+     * @param transferQueryParam the filtering criteria
+     * @param priority           dispatch priority of the request over the other pending requests; must not be null
+     * @param listener           the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void listTransfers(@Nullable final TransferQueryParam transferQueryParam,
+    public HyperwalletCall listTransfers(@Nullable final TransferQueryParam transferQueryParam,
+            @NonNull final TransactionPriority priority,
             @NonNull final HyperwalletListener<PageList<Transfer>> listener) {
         Map<String, String> urlQuery = buildUrlQueryIfRequired(transferQueryParam);
         PathFormatter pathFormatter = new PathFormatter("transfers");
@@ -1023,7 +1453,7 @@ public class Hyperwallet {
                 new TypeReference<PageList<Transfer>>() {
                 }, listener).query(urlQuery);
 
-        performRestTransaction(builder, listener);
+        return performRestTransaction(builder.priority(priority), listener);
     }
 
     /**
@@ -1032,8 +1462,9 @@ public class Hyperwallet {
      * @param transferToken transfer token generated when transfer is created
      * @param notes         additional information for committing transfer
      * @param listener      the callback handler of responses from the Hyperwallet platform; must not be null
+     * @return a {@link HyperwalletCall} to cancel the request
      */
-    public void scheduleTransfer(@NonNull final String transferToken, @Nullable final String notes,
+    public HyperwalletCall scheduleTransfer(@NonNull final String transferToken, @Nullable final String notes,
             @NonNull final HyperwalletListener<StatusTransition> listener) {
         PathFormatter pathFormatter = new PathFormatter("transfers/{1}/status-transitions",
                 transferToken);
@@ -1047,133 +1478,330 @@ public class Hyperwallet {
                 new TypeReference<StatusTransition>() {
                 }, listener).jsonModel(statusTransition);
 
-        performRestTransaction(builder, listener);
+        return performRestTransaction(builder, listener);
     }
 
-    private void performGqlTransaction(@NonNull final GqlTransaction.Builder builder,
+    private HyperwalletCall performGqlTransaction(@NonNull final GqlTransaction.Builder builder,
             @NonNull final HyperwalletListener listener) {
-        if (mConfiguration == null || mConfiguration.isStale()) {
-            mHyperwalletAuthenticationTokenProvider.retrieveAuthenticationToken(
-                    new HyperwalletAuthenticationTokenListener() {
-                        @Override
-                        public void onSuccess(String authenticationToken) {
-                            try {
-                                mConfiguration = new Configuration(authenticationToken);
-                                GqlTransaction transaction =
-                                        builder.build(mConfiguration.getGraphQlUri(), mConfiguration.getUserToken(),
-                                                mConfiguration.getAuthenticationToken());
-                                mExecutor.submit(transaction);
-                            } catch (final JSONException e) {
-                                if (listener.getHandler() == null) {
-                                    listener.onFailure(ExceptionMapper
-                                            .toHyperwalletException(e));
-                                } else {
-                                    listener.getHandler().post(new Runnable() {
-                                        @Override
-                                        public void run() {
-                                            listener.onFailure(ExceptionMapper.toHyperwalletException(e));
-                                        }
-                                    });
-                                }
-                            }
-                        }
+        final HyperwalletCall call = new HyperwalletCall();
+        authenticate(new AuthenticationCallback() {
+            @Override
+            public void onSuccess(@NonNull final Configuration configuration) {
+                if (call.isCanceled()) {
+                    return;
+                }
+                GqlTransaction transaction = builder.build(configuration.getGraphQlUri(),
+                        configuration.getUserToken(), configuration.getAuthenticationToken());
+                submit(call, transaction);
+            }
 
-                        @Override
-                        public void onFailure(UUID uuid, String message) {
-                            final String logMessage = MessageFormat
-                                    .format("Integrator was unable to provide an authentication token. \nId: {0} "
-                                                    + "Message: {1}",
-                                            uuid.toString(), message);
-                            if (listener.getHandler() == null) {
-                                listener.onFailure(ExceptionMapper
-                                        .toHyperwalletException(
-                                                new HyperwalletAuthenticationTokenProviderException(logMessage)));
-                            } else {
-                                listener.getHandler().post(new Runnable() {
-                                    @Override
-                                    public void run() {
-                                        listener.onFailure(ExceptionMapper
-                                                .toHyperwalletException(
-                                                        new HyperwalletAuthenticationTokenProviderException(
-                                                                logMessage)));
-                                    }
-                                });
-                            }
-                        }
-                    });
-        } else {
-            GqlTransaction transaction = builder.build(mConfiguration.getGraphQlUri(),
-                    mConfiguration.getUserToken(), mConfiguration.getAuthenticationToken());
-            mExecutor.submit(transaction);
-        }
+            @Override
+            public void onFailure(@NonNull final HyperwalletException exception) {
+                postFailure(call, listener, exception);
+            }
+        });
+        return call;
     }
 
-    private void performRestTransaction(@NonNull final RestTransaction.Builder builder,
+    private HyperwalletCall performRestTransaction(@NonNull final RestTransaction.Builder builder,
             @NonNull final HyperwalletListener listener) {
+        final HyperwalletCall call = new HyperwalletCall();
+        authenticate(new AuthenticationCallback() {
+            @Override
+            public void onSuccess(@NonNull final Configuration configuration) {
+                if (call.isCanceled()) {
+                    return;
+                }
+                try {
+                    RestTransaction restTransaction = builder.build(configuration.getRestUri(),
+                            configuration.getAuthenticationToken(), configuration.getUserToken());
+                    submit(call, restTransaction);
+                } catch (final JSONException e) {
+                    postFailure(call, listener, ExceptionMapper.toHyperwalletException(e));
+                }
+            }
 
-        if (mConfiguration == null || mConfiguration.isStale()) {
-            mHyperwalletAuthenticationTokenProvider.retrieveAuthenticationToken(
-                    new HyperwalletAuthenticationTokenListener() {
-                        @Override
-                        public void onSuccess(String authenticationToken) {
-                            try {
-                                mConfiguration = new Configuration(authenticationToken);
-                                RestTransaction restTransaction = builder.build(mConfiguration.getRestUri(),
-                                        mConfiguration.getAuthenticationToken(), mConfiguration.getUserToken());
-                                mExecutor.submit(restTransaction);
-                            } catch (final JSONException e) {
-                                if (listener.getHandler() == null) {
-                                    listener.onFailure(ExceptionMapper.toHyperwalletException(e));
-                                } else {
-                                    listener.getHandler().post(new Runnable() {
-                                        @Override
-                                        public void run() {
-                                            listener.onFailure(ExceptionMapper.toHyperwalletException(e));
-                                        }
-                                    });
-                                }
-                            }
+            @Override
+            public void onFailure(@NonNull final HyperwalletException exception) {
+                postFailure(call, listener, exception);
+            }
+        });
+        return call;
+    }
+
+    /**
+     * Provides a valid {@link Configuration} to the {@code callback}, retrieving a new authentication token when
+     * there is none or the current one is stale.
+     *
+     * <p>Concurrent callers share a single in-flight retrieval: only the first caller asks the
+     * {@link HyperwalletAuthenticationTokenProvider} for a token, every other caller waits for that result.</p>
+     *
+     * @param callback receives the {@code Configuration} or the reason it could not be obtained
+     */
+    private void authenticate(@NonNull final AuthenticationCallback callback) {
+        Configuration configuration = mConfiguration;
+        if (configuration != null && !configuration.isStale()) {
+            callback.onSuccess(configuration);
+            return;
+        }
+        retrieveAuthenticationToken(callback, false);
+    }
+
+    /**
+     * Retrieves a new authentication token ahead of its expiry, refer to {@link Builder#proactiveTokenRefresh}
+     */
+    private void refreshAuthenticationToken() {
+        retrieveAuthenticationToken(new AuthenticationCallback() {
+            @Override
+            public void onSuccess(@NonNull final Configuration configuration) {
+                // the next refresh is scheduled as soon as the token is retrieved
+            }
+
+            @Override
+            public void onFailure(@NonNull final HyperwalletException exception) {
+                mTokenRefreshScheduler.onRefreshFailed(mConfiguration);
+            }
+        }, true);
+    }
+
+    /**
+     * Joins the in-flight authentication token retrieval, or starts a new one
+     *
+     * @param callback receives the {@code Configuration} or the reason it could not be obtained
+     * @param force    {@code True} to retrieve a new token even though the current {@code Configuration} is not stale
+     */
+    private void retrieveAuthenticationToken(@NonNull final AuthenticationCallback callback, final boolean force) {
+        Configuration configuration;
+        synchronized (mAuthenticationLock) {
+            configuration = mConfiguration;
+            if (force || configuration == null || configuration.isStale()) {
+                if (mPendingAuthentications != null) {
+                    mPendingAuthentications.add(callback);
+                    return;
+                }
+                mPendingAuthentications = new ArrayList<>();
+                mPendingAuthentications.add(callback);
+                configuration = null;
+            }
+        }
+
+        if (configuration != null) {
+            callback.onSuccess(configuration);
+            return;
+        }
+
+        mHyperwalletAuthenticationTokenProvider.retrieveAuthenticationToken(
+                new HyperwalletAuthenticationTokenListener() {
+                    @Override
+                    public void onSuccess(String authenticationToken) {
+                        final Configuration configuration;
+                        try {
+                            configuration = new Configuration(authenticationToken);
+                        } catch (JSONException | IllegalArgumentException e) {
+                            onAuthenticationFailure(ExceptionMapper.toHyperwalletException(e));
+                            return;
                         }
 
-                        @Override
-                        public void onFailure(UUID uuid, String message) {
-                            final String logMessage = MessageFormat
-                                    .format("Integrator was unable to provide an authentication token. \nId: {0} "
-                                                    + "Message: {1}",
-                                            uuid.toString(), message);
-
-                            if (listener.getHandler() == null) {
-                                listener.onFailure(ExceptionMapper.toHyperwalletException(
-                                        new HyperwalletAuthenticationTokenProviderException(logMessage)));
-                            } else {
-                                listener.getHandler().post(new Runnable() {
-                                    @Override
-                                    public void run() {
-                                        listener.onFailure(ExceptionMapper.toHyperwalletException(
-                                                new HyperwalletAuthenticationTokenProviderException(logMessage)));
-                                    }
-                                });
-                            }
+                        mConfiguration = configuration;
+                        if (mTokenRefreshScheduler != null) {
+                            mTokenRefreshScheduler.schedule(configuration);
+                        }
+                        for (AuthenticationCallback pending : drainPendingAuthentications()) {
+                            pending.onSuccess(configuration);
                         }
-                    });
+                    }
+
+                    @Override
+                    public void onFailure(UUID uuid, String message) {
+                        final String logMessage = MessageFormat
+                                .format("Integrator was unable to provide an authentication token. \nId: {0} "
+                                                + "Message: {1}",
+                                        uuid.toString(), message);
+                        onAuthenticationFailure(ExceptionMapper.toHyperwalletException(
+                                new HyperwalletAuthenticationTokenProviderException(logMessage)));
+                    }
+
+                    private void onAuthenticationFailure(@NonNull final HyperwalletException exception) {
+                        for (AuthenticationCallback pending : drainPendingAuthentications()) {
+                            pending.onFailure(exception);
+                        }
+                    }
+                });
+    }
+
+    private void release() {
+        if (mResponseCache != null) {
+            mResponseCache.clear();
+        }
+        if (mTransferMethodConfigurationFieldCache != null) {
+            mTransferMethodConfigurationFieldCache.clear();
+        }
+        if (mTokenRefreshScheduler != null) {
+            mTokenRefreshScheduler.shutdown();
+        }
+        for (TransactionExecutor executor : mExecutors.values()) {
+            executor.shutdown();
+        }
+    }
+
+    @NonNull
+    private List<AuthenticationCallback> drainPendingAuthentications() {
+        synchronized (mAuthenticationLock) {
+            List<AuthenticationCallback> pending = mPendingAuthentications;
+            mPendingAuthentications = null;
+            return pending == null ? Collections.<AuthenticationCallback>emptyList() : pending;
+        }
+    }
+
+    private static void postFailure(@NonNull final HyperwalletCall call, @NonNull final HyperwalletListener listener,
+            @NonNull final HyperwalletException exception) {
+        if (call.isCanceled()) {
+            return;
+        }
+        if (listener.getHandler() == null) {
+            listener.onFailure(exception);
         } else {
-            try {
-                RestTransaction restTransaction = builder.build(mConfiguration.getRestUri(),
-                        mConfiguration.getAuthenticationToken(), mConfiguration.getUserToken());
-                mExecutor.submit(restTransaction);
-            } catch (final JSONException e) {
-
-                if (listener.getHandler() == null) {
-                    listener.onFailure(ExceptionMapper.toHyperwalletException(e));
-                } else {
-                    listener.getHandler().post(new Runnable() {
+            listener.getHandler().post(new Runnable() {
+                @Override
+                public void run() {
+                    if (!call.isCanceled()) {
+                        listener.onFailure(exception);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Same as {@link #performGqlTransaction(GqlTransaction.Builder, HyperwalletListener)}, answering from the
+     * snapshot of the {@code cache} when there is one. The snapshot is looked up on the GraphQL lane, since it may
+     * have to be read from disk.
+     */
+    private HyperwalletCall performCachedGqlTransaction(@NonNull final GqlTransaction.Builder builder,
+            @NonNull final TransferMethodConfigurationKeyCache cache, @NonNull final HyperwalletListener listener) {
+        final HyperwalletCall call = new HyperwalletCall();
+        authenticate(new AuthenticationCallback() {
+            @Override
+            public void onSuccess(@NonNull final Configuration configuration) {
+                final GqlTransaction transaction = builder.build(configuration.getGraphQlUri(),
+                        configuration.getUserToken(), configuration.getAuthenticationToken());
+                final TransactionExecutor executor = mExecutors.get(transaction.getLane());
+                if (!call.bind(transaction, executor)) {
+                    return;
+                }
+                final String key = TransferMethodConfigurationKeyCache.getKey(configuration.getUserToken(),
+                        configuration.getProgramToken(), transaction.getPayload());
+                transaction.setContentStore(cache.getContentStore(key));
+                try {
+                    executor.execute(new Runnable() {
                         @Override
                         public void run() {
-                            listener.onFailure(ExceptionMapper.toHyperwalletException(e));
+                            if (transaction.isCanceled()) {
+                                return;
+                            }
+                            ResponseCache.Hit hit = cache.get(key);
+                            if (hit != null) {
+                                transaction.onSuccessResult(hit.getResult());
+                                if (!hit.isStale()) {
+                                    return;
+                                }
+                                transaction.setRevalidating();
+                            }
+                            submit(call, transaction);
                         }
-                    });
+                    }, transaction.getPriority());
+                } catch (RejectedExecutionException e) {
+                    transaction.onFailure(e);
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull final HyperwalletException exception) {
+                postFailure(call, listener, exception);
+            }
+        });
+        return call;
+    }
+
+    /**
+     * Same as {@link #performGqlTransaction(GqlTransaction.Builder, HyperwalletListener)}, answering from the
+     * {@code cache} when it holds the fields of the {@code query}. Identical queries in flight are coalesced.
+     */
+    private HyperwalletCall performCachedGqlTransaction(@NonNull final GqlTransaction.Builder builder,
+            @NonNull final TransferMethodConfigurationFieldQuery query,
+            @NonNull final TransferMethodConfigurationFieldCache cache, @NonNull final HyperwalletListener listener) {
+        final HyperwalletCall call = new HyperwalletCall();
+        authenticate(new AuthenticationCallback() {
+            @Override
+            public void onSuccess(@NonNull final Configuration configuration) {
+                GqlTransaction transaction = builder.build(configuration.getGraphQlUri(),
+                        configuration.getUserToken(), configuration.getAuthenticationToken());
+                String key = TransferMethodConfigurationFieldCache.getKey(configuration.getUserToken(), query);
+                Object result = cache.get(key);
+                if (result != null) {
+                    if (call.bind(transaction, mExecutors.get(transaction.getLane()))) {
+                        transaction.onSuccessResult(result);
+                    }
+                    return;
                 }
+                transaction.setRequestKey(key);
+                transaction.setResultListener(cache.getResultListener(key));
+                submit(call, transaction);
+            }
+
+            @Override
+            public void onFailure(@NonNull final HyperwalletException exception) {
+                postFailure(call, listener, exception);
             }
+        });
+        return call;
+    }
+
+    private void submit(@NonNull final HyperwalletCall call, @NonNull final HttpTransaction transaction) {
+        transaction.setHttpTransport(mHttpTransport);
+        final TransactionExecutor executor = mExecutors.get(transaction.getLane());
+        if (!call.bind(transaction, executor)) {
+            return;
+        }
+        final boolean cacheable = mResponseCache != null && transaction.getLane() != TransactionLane.GRAPHQL;
+        final ResponseCache.Hit hit = cacheable && transaction.getRequestKey() != null
+                ? mResponseCache.get(transaction) : null;
+        if (hit == null) {
+            dispatch(transaction, executor, cacheable);
+            return;
+        }
+        try {
+            // the cached result is delivered from the executor, like a result received from the network
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    if (transaction.isCanceled()) {
+                        return;
+                    }
+                    transaction.onSuccessResult(hit.getResult());
+                    if (hit.isStale()) {
+                        transaction.setRevalidating();
+                        dispatch(transaction, executor, true);
+                    }
+                }
+            }, transaction.getPriority());
+        } catch (RejectedExecutionException e) {
+            transaction.onFailure(e);
+        }
+    }
+
+    private void dispatch(@NonNull final HttpTransaction transaction, @NonNull final TransactionExecutor executor,
+            final boolean cacheable) {
+        if (mRequestCoalescingEnabled && mRequestCoalescer.join(transaction)) {
+            return;
+        }
+        if (cacheable) {
+            mResponseCache.track(transaction);
+        }
+        try {
+            executor.execute(transaction, transaction.getPriority());
+        } catch (RejectedExecutionException e) {
+            transaction.onFailure(e);
         }
     }
 
@@ -1187,5 +1815,187 @@ public class Hyperwallet {
         }
         return queryMap;
     }
-}
 
+    /**
+     * Receives the outcome of {@link #authenticate(AuthenticationCallback)}
+     */
+    private interface AuthenticationCallback {
+
+        void onSuccess(@NonNull Configuration configuration);
+
+        void onFailure(@NonNull HyperwalletException exception);
+    }
+
+    /**
+     * Builder for {@link Hyperwallet}, for integrators that need to tune how the Hyperwallet Core SDK
+     * communicates with the Hyperwallet platform
+     */
+    public static final class Builder {
+        private final HyperwalletAuthenticationTokenProvider mHyperwalletAuthenticationTokenProvider;
+        private final Map<TransactionLane, TransactionExecutor> mTransactionExecutors;
+        private HttpTransport mHttpTransport;
+        private boolean mMainThreadParsingDetectionEnabled;
+        private boolean mRequestCoalescingEnabled = true;
+        private ResponseCache mResponseCache;
+        private TransferMethodConfigurationKeyCache mTransferMethodConfigurationKeyCache;
+        private TransferMethodConfigurationFieldCache mTransferMethodConfigurationFieldCache;
+        private boolean mPersistedQueriesEnabled;
+        private long mTokenRefreshLeadTime;
+        private long mTokenRefreshJitter;
+
+        /**
+         * Construct a builder
+         *
+         * @param hyperwalletAuthenticationTokenProvider a provider of Hyperwallet authentication tokens;
+         *                                               must not be null
+         */
+        public Builder(@NonNull final HyperwalletAuthenticationTokenProvider hyperwalletAuthenticationTokenProvider) {
+            mHyperwalletAuthenticationTokenProvider = hyperwalletAuthenticationTokenProvider;
+            mTransactionExecutors = new EnumMap<>(TransactionLane.class);
+            for (TransactionLane lane : TransactionLane.values()) {
+                mTransactionExecutors.put(lane, new TransactionExecutor());
+            }
+        }
+
+        /**
+         * Defines the {@link TransactionExecutor} that runs the requests of a {@link TransactionLane} in the
+         * background, to tune its pool size, queue bound and rejection policy or to run requests on an
+         * {@link java.util.concurrent.Executor} of the app. Every lane has its own executor by default, so that
+         * heavy GraphQL queries do not hold up REST calls. The executor is shut down when the instance is cleared.
+         *
+         * @param lane                kind of requests; must not be null
+         * @param transactionExecutor executor of the requests; must not be null
+         */
+        public Builder transactionExecutor(@NonNull final TransactionLane lane,
+                @NonNull final TransactionExecutor transactionExecutor) {
+            mTransactionExecutors.put(lane, transactionExecutor);
+            return this;
+        }
+
+        /**
+         * Defines the {@link HttpTransport} that carries the REST and GraphQL requests to the Hyperwallet platform,
+         * for instance to route them through the HTTP stack of the app. The default transport is built on
+         * {@link java.net.HttpURLConnection}, whose keep-alive cache reuses the connections of fully read responses.
+         *
+         * @param httpTransport transport of the HTTP requests; must not be null
+         */
+        public Builder httpTransport(@NonNull final HttpTransport httpTransport) {
+            mHttpTransport = httpTransport;
+            return this;
+        }
+
+        /**
+         * Defines whether identical {@code GET} requests in flight at the same time are merged into a single HTTP
+         * request, sharing its decoded result; refer to {@link RequestCoalescer}. Enabled by default.
+         *
+         * @param enabled {@code False} to send every request to the Hyperwallet platform
+         */
+        public Builder coalesceRequests(final boolean enabled) {
+            mRequestCoalescingEnabled = enabled;
+            return this;
+        }
+
+        /**
+         * Enables the in-memory cache of REST {@code GET} results, refer to {@link ResponseCache}. Disabled by
+         * default. The cache is cleared when the instance is cleared or replaced, so that results are never served
+         * to another user.
+         *
+         * @param responseCache cache of the REST {@code GET} results; must not be null
+         */
+        public Builder responseCache(@NonNull final ResponseCache responseCache) {
+            mResponseCache = responseCache;
+            return this;
+        }
+
+        /**
+         * Enables the on-disk snapshot of the transfer method configuration keys, refer to
+         * {@link TransferMethodConfigurationKeyCache}. Disabled by default.
+         *
+         * @param cache cache of the transfer method configuration keys; must not be null
+         */
+        public Builder transferMethodConfigurationKeyCache(@NonNull final TransferMethodConfigurationKeyCache cache) {
+            mTransferMethodConfigurationKeyCache = cache;
+            return this;
+        }
+
+        /**
+         * Enables the in-memory cache of the transfer method configuration fields, refer to
+         * {@link TransferMethodConfigurationFieldCache}. Disabled by default. The cache is cleared when the instance
+         * is cleared or replaced.
+         *
+         * @param cache cache of the transfer method configuration fields; must not be null
+         */
+        public Builder transferMethodConfigurationFieldCache(
+                @NonNull final TransferMethodConfigurationFieldCache cache) {
+            mTransferMethodConfigurationFieldCache = cache;
+            return this;
+        }
+
+        /**
+         * Sends the GraphQL queries as automatic persisted queries: the SHA-256 hash of the query document is sent
+         * with the variables instead of the document, which is only sent when the server answers that the hash is
+         * unknown so that it registers the document. Disabled by default; requires a GraphQL server supporting the
+         * persisted query extension, otherwise every request is sent twice.
+         *
+         * @param enabled {@code True} to send the hash of the query documents
+         */
+        public Builder persistedQueries(final boolean enabled) {
+            mPersistedQueriesEnabled = enabled;
+            return this;
+        }
+
+        /**
+         * Debug mode that flags any SDK response parsing running on the main looper by logging a warning with the
+         * offending stack trace. Responses are always parsed on a background thread by the SDK itself, this is
+         * meant to be enabled in debug builds only.
+         *
+         * @param enabled {@code True} to flag parsing on the main looper; disabled by default
+         */
+        public Builder detectMainThreadParsing(final boolean enabled) {
+            mMainThreadParsingDetectionEnabled = enabled;
+            return this;
+        }
+
+        /**
+         * Enables the refresh of the authentication token in the background, ahead of its expiry, so that requests
+         * seldom wait on {@link HyperwalletAuthenticationTokenProvider#retrieveAuthenticationToken}. Disabled by
+         * default, the token is then only refreshed by the first request that finds it stale.
+         *
+         * <p>The token is refreshed {@code leadTime} before it expires, at the latest when it is about to become
+         * stale, and up to {@code jitter} earlier. Failed refreshes are retried with an exponential backoff, after
+         * which the token is refreshed by the next request instead. A token is kept for at least half of its
+         * remaining lifetime, so a {@code leadTime} longer than the token lifetime does not refresh it continuously.</p>
+         *
+         * @param leadTime time ahead of the token expiry to refresh it; must be positive
+         * @param jitter   upper bound of a random time to refresh the token earlier; must not be negative
+         * @param unit     time unit of {@code leadTime} and {@code jitter}; must not be null
+         */
+        public Builder proactiveTokenRefresh(final long leadTime, final long jitter, @NonNull final TimeUnit unit) {
+            if (leadTime <= 0) {
+                throw new IllegalArgumentException("lead time must be positive");
+            }
+            if (jitter < 0) {
+                throw new IllegalArgumentException("jitter can not be negative");
+            }
+            mTokenRefreshLeadTime = unit.toMillis(leadTime);
+            mTokenRefreshJitter = unit.toMillis(jitter);
+            return this;
+        }
+
+        /**
+         * Creates a new instance of the Hyperwallet Core SDK interface object. If a previously created instance
+         * exists, it will be replaced.
+         *
+         * @return A {@code Hyperwallet} instance
+         */
+        public Hyperwallet build() {
+            synchronized (Hyperwallet.class) {
+                if (sInstanceLast != null) {
+                    sInstanceLast.release();
+                }
+                sInstanceLast = new Hyperwallet(this);
+                return sInstanceLast;
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * The MIT License (MIT)
+ * Copyright (c) 2018 Hyperwallet Systems Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.hyperwallet.android;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.OnLifecycleEvent;
+
+import com.hyperwallet.android.listener.HyperwalletListener;
+import com.hyperwallet.android.util.TransactionExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Handle to a request submitted through {@link Hyperwallet}, used to cancel it once its result is no longer
+ * needed, for instance because the screen that made the request is gone.
+ *
+ * <p>Canceling a request that is still waiting for a background thread removes it from the queue; canceling a
+ * request in flight aborts its HTTP connection. Either way the {@link HyperwalletListener} of the request is not
+ * called back once {@link #cancel()} returned, including callbacks already posted to its
+ * {@link android.os.Handler} but not delivered yet.</p>
+ */
+public final class HyperwalletCall {
+
+    private final Object mLock = new Object();
+    private volatile boolean mCanceled;
+    private HttpTransaction mTransaction;
+    private TransactionExecutor mExecutor;
+    private List<HyperwalletCall> mChildren;
+
+    HyperwalletCall() {
+    }
+
+    /**
+     * Cancels the request, has no effect when it is already completed or canceled
+     */
+    public void cancel() {
+        HttpTransaction transaction;
+        TransactionExecutor executor;
+        List<HyperwalletCall> children;
+        synchronized (mLock) {
+            if (mCanceled) {
+                return;
+            }
+            mCanceled = true;
+            transaction = mTransaction;
+            executor = mExecutor;
+            children = mChildren;
+            mChildren = null;
+        }
+
+        if (transaction != null && transaction.cancel()) {
+            executor.remove(transaction);
+        }
+        if (children != null) {
+            for (HyperwalletCall child : children) {
+                child.cancel();
+            }
+        }
+    }
+
+    /**
+     * @return {@code True} once {@link #cancel()} was called
+     */
+    public boolean isCanceled() {
+        return mCanceled;
+    }
+
+    /**
+     * Cancels the request when the {@code owner} is destroyed, or right away when it is already destroyed
+     *
+     * @param owner component owning the request, such as an {@code Activity} or a {@code Fragment}
+     * @return this {@code HyperwalletCall}
+     */
+    @MainThread
+    @NonNull
+    public HyperwalletCall cancelOnDestroy(@NonNull final LifecycleOwner owner) {
+        return cancelOn(owner, Lifecycle.Event.ON_DESTROY);
+    }
+
+    /**
+     * Cancels the request when the {@code owner} goes through the lifecycle {@code event}, for instance
+     * {@link Lifecycle.Event#ON_STOP} for requests only needed while the component is visible. The request is
+     * canceled right away when the {@code owner} is already destroyed.
+     *
+     * @param owner component owning the request, such as an {@code Activity} or a {@code Fragment}
+     * @param event lifecycle event that cancels the request
+     * @return this {@code HyperwalletCall}
+     */
+    @MainThread
+    @NonNull
+    public HyperwalletCall cancelOn(@NonNull final LifecycleOwner owner, @NonNull final Lifecycle.Event event) {
+        Lifecycle lifecycle = owner.getLifecycle();
+        if (lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+            cancel();
+        } else if (!mCanceled) {
+            lifecycle.addObserver(new CancelObserver(this, event));
+        }
+        return this;
+    }
+
+    /**
+     * Attaches a request made on behalf of this one, so that {@link #cancel()} cancels it too
+     *
+     * @param child request made on behalf of this one; canceled right away when this one is canceled already
+     */
+    void attach(@NonNull final HyperwalletCall child) {
+        synchronized (mLock) {
+            if (!mCanceled) {
+                if (mChildren == null) {
+                    mChildren = new ArrayList<>();
+                }
+                mChildren.add(child);
+                return;
+            }
+        }
+        child.cancel();
+    }
+
+    /**
+     * Binds the transaction that executes the request, so that {@link #cancel()} can withdraw it
+     *
+     * @param transaction transaction about to be submitted
+     * @param executor    executor the {@code transaction} is submitted to
+     * @return {@code False} when the request was canceled already and the {@code transaction} must not be submitted
+     */
+    boolean bind(@NonNull final HttpTransaction transaction, @NonNull final TransactionExecutor executor) {
+        synchronized (mLock) {
+            if (mCanceled) {
+                return false;
+            }
+            mTransaction = transaction;
+            mExecutor = executor;
+            return true;
+        }
+    }
+
+    /**
+     * Cancels a {@link HyperwalletCall} on a lifecycle event, then stops observing the lifecycle
+     */
+    private static final class CancelObserver implements LifecycleObserver {
+        private final HyperwalletCall mCall;
+        private final Lifecycle.Event mEvent;
+
+        CancelObserver(@NonNull final HyperwalletCall call, @NonNull final Lifecycle.Event event) {
+            mCall = call;
+            mEvent = event;
+        }
+
+        @OnLifecycleEvent(Lifecycle.Event.ON_ANY)
+        void onEvent(@NonNull final LifecycleOwner source, @NonNull final Lifecycle.Event event) {
+            if (event == mEvent || event == Lifecycle.Event.ON_DESTROY) {
+                mCall.cancel();
+                source.getLifecycle().removeObserver(this);
+            }
+        }
+    }
+}
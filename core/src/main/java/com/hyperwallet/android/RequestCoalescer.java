@@ -0,0 +1,148 @@
+/*
+ * The MIT License (MIT)
+ * Copyright (c) 2018 Hyperwallet Systems Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.hyperwallet.android;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code RequestCoalescer} merges identical {@link com.hyperwallet.android.util.HttpMethod#GET} requests that are
+ * in flight at the same time: the first request goes to the Hyperwallet platform, the duplicates submitted before
+ * it completes attach to it and receive the same decoded result, or the same failure.
+ *
+ * <p>Requests are identical when they share the HTTP method, the resolved path, the query and the response type.
+ * Requests with a body, such as {@code POST} and {@code PUT}, are never coalesced, except the GraphQL reads keyed by
+ * the SDK, such as the transfer method configuration fields of a country, currency, type and profile.</p>
+ */
+public final class RequestCoalescer {
+
+    private final Map<String, InFlightRequest> mInFlightRequests = new HashMap<>();
+    private final AtomicLong mHitCount = new AtomicLong();
+    private final AtomicLong mMissCount = new AtomicLong();
+
+    RequestCoalescer() {
+    }
+
+    /**
+     * @return number of requests that attached to an identical request in flight instead of going to the network
+     */
+    public long getHitCount() {
+        return mHitCount.get();
+    }
+
+    /**
+     * @return number of coalescable requests that went to the network because no identical request was in flight
+     */
+    public long getMissCount() {
+        return mMissCount.get();
+    }
+
+    /**
+     * Attaches the {@code transaction} to an identical transaction in flight, or registers it as the one in flight
+     *
+     * @param transaction transaction about to be submitted
+     * @return {@code True} when the {@code transaction} attached to another one, or was canceled, and must not be
+     * submitted
+     */
+    boolean join(@NonNull final HttpTransaction transaction) {
+        String key = transaction.getRequestKey();
+        if (key == null) {
+            return false;
+        }
+
+        transaction.setCoalescer(this);
+        synchronized (mInFlightRequests) {
+            if (transaction.isCanceled()) {
+                return true;
+            }
+            InFlightRequest inFlightRequest = mInFlightRequests.get(key);
+            if (inFlightRequest != null) {
+                inFlightRequest.mFollowers.add(transaction);
+                mHitCount.incrementAndGet();
+                return true;
+            }
+            mInFlightRequests.put(key, new InFlightRequest(transaction));
+        }
+        mMissCount.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Unregisters a completed transaction, identical transactions submitted from then on go to the network
+     *
+     * @param transaction transaction delivering its result
+     * @return transactions attached to the {@code transaction}, to receive the same result
+     */
+    @NonNull
+    List<HttpTransaction> complete(@NonNull final HttpTransaction transaction) {
+        String key = transaction.getRequestKey();
+        synchronized (mInFlightRequests) {
+            InFlightRequest inFlightRequest = mInFlightRequests.get(key);
+            if (inFlightRequest == null || inFlightRequest.mLeader != transaction) {
+                return Collections.emptyList();
+            }
+            mInFlightRequests.remove(key);
+            return inFlightRequest.mFollowers;
+        }
+    }
+
+    /**
+     * Detaches a canceled transaction
+     *
+     * @param transaction transaction being canceled
+     * @return {@code True} when the HTTP request of the {@code transaction} can be aborted; {@code False} when
+     * other transactions are attached to it and still wait for its result
+     */
+    boolean cancel(@NonNull final HttpTransaction transaction) {
+        String key = transaction.getRequestKey();
+        synchronized (mInFlightRequests) {
+            InFlightRequest inFlightRequest = mInFlightRequests.get(key);
+            if (inFlightRequest == null) {
+                return true;
+            }
+            if (inFlightRequest.mLeader != transaction) {
+                inFlightRequest.mFollowers.remove(transaction);
+                return true;
+            }
+            for (HttpTransaction follower : inFlightRequest.mFollowers) {
+                if (!follower.isCanceled()) {
+                    return false;
+                }
+            }
+            mInFlightRequests.remove(key);
+            return true;
+        }
+    }
+
+    /**
+     * Transaction in flight and the identical transactions attached to it
+     */
+    private static final class InFlightRequest {
+        private final HttpTransaction mLeader;
+        private final List<HttpTransaction> mFollowers = new ArrayList<>();
+
+        InFlightRequest(@NonNull final HttpTransaction leader) {
+            mLeader = leader;
+        }
+    }
+}
@@ -0,0 +1,453 @@
+/*
+ * The MIT License (MIT)
+ * Copyright (c) 2018 Hyperwallet Systems Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.hyperwallet.android;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code ResponseCache} keeps the results of REST {@code GET} requests in memory, so that screens reading the same
+ * resources again within seconds, such as the user or its balances, do not go to the network every time. It is
+ * disabled unless set through {@link Hyperwallet.Builder#responseCache(ResponseCache)}.
+ *
+ * <p>Results are kept for a time to live defined per endpoint, and evicted least recently used first once the
+ * cache exceeds its maximum size, measured as the size of the response bodies. Results past their time to live can
+ * be served stale while they are refreshed in the background, refer to
+ * {@link Builder#staleWhileRevalidate(long, TimeUnit)}.</p>
+ *
+ * <p>Results received with an {@code ETag} or a {@code Last-Modified} header are kept past their time to live, until
+ * evicted, and their next request is made conditional with {@code If-None-Match} and {@code If-Modified-Since}. On
+ * {@code 304 Not Modified} the kept result is delivered again and its time to live renewed, without downloading nor
+ * parsing the response body again.</p>
+ *
+ * <p>A successful or failed mutation of a resource, such as {@code updateBankAccount}, {@code deactivateBankCard}
+ * or {@code createPayPalAccount}, invalidates the cached results of that resource, of the collections it belongs
+ * to, of its sub-resources, and of the dependent collections: transfer methods for bank accounts, bank cards,
+ * PayPal accounts and prepaid cards; balances and receipts for transfers. The resources it is nested under, such as
+ * the user of a bank account, are kept.</p>
+ *
+ * <p>Cached results are shared by every listener receiving them and must not be modified.</p>
+ */
+public final class ResponseCache {
+
+    public static final long DEFAULT_MAX_SIZE_BYTES = 1024 * 1024;
+    public static final long DEFAULT_TIME_TO_LIVE_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final String PATH_SEPARATOR = "/";
+    private static final String STATUS_TRANSITIONS = "status-transitions";
+    private static final Map<String, List<String>> DEPENDENT_COLLECTIONS = new HashMap<>();
+
+    static {
+        List<String> transferMethods = Collections.singletonList("transfer-methods");
+        DEPENDENT_COLLECTIONS.put("bank-accounts", transferMethods);
+        DEPENDENT_COLLECTIONS.put("bank-cards", transferMethods);
+        DEPENDENT_COLLECTIONS.put("paypal-accounts", transferMethods);
+        DEPENDENT_COLLECTIONS.put("prepaid-cards", transferMethods);
+        DEPENDENT_COLLECTIONS.put("transfers", Arrays.asList("balances", "receipts"));
+    }
+
+    private final long mMaxSize;
+    private final long mDefaultTimeToLive;
+    private final long mStaleWhileRevalidate;
+    private final Map<String, TimeToLive> mTimeToLives;
+    private final LinkedHashMap<String, Entry> mEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong mHitCount = new AtomicLong();
+    private final AtomicLong mStaleHitCount = new AtomicLong();
+    private final AtomicLong mMissCount = new AtomicLong();
+    private final AtomicLong mNotModifiedCount = new AtomicLong();
+    private long mSize;
+    private long mGeneration;
+
+    private ResponseCache(@NonNull final Builder builder) {
+        mMaxSize = builder.mMaxSize;
+        mDefaultTimeToLive = builder.mDefaultTimeToLive;
+        mStaleWhileRevalidate = builder.mStaleWhileRevalidate;
+        mTimeToLives = new LinkedHashMap<>(builder.mTimeToLives);
+    }
+
+    /**
+     * @return number of requests answered from the cache without going to the network
+     */
+    public long getHitCount() {
+        return mHitCount.get();
+    }
+
+    /**
+     * @return number of requests answered with a stale result while it was refreshed in the background
+     */
+    public long getStaleHitCount() {
+        return mStaleHitCount.get();
+    }
+
+    /**
+     * @return number of cacheable requests that went to the network
+     */
+    public long getMissCount() {
+        return mMissCount.get();
+    }
+
+    /**
+     * @return number of conditional requests answered with {@code 304 Not Modified}
+     */
+    public long getNotModifiedCount() {
+        return mNotModifiedCount.get();
+    }
+
+    /**
+     * @return size of the cached results, in bytes of their response bodies
+     */
+    public synchronized long getSize() {
+        return mSize;
+    }
+
+    /**
+     * Removes every cached result
+     */
+    public synchronized void clear() {
+        mEntries.clear();
+        mSize = 0;
+        mGeneration++;
+    }
+
+    /**
+     * Looks up the result of a {@code GET} transaction
+     *
+     * @param transaction transaction about to be submitted
+     * @return the cached result, or {@code null} when the transaction must go to the network
+     */
+    @Nullable
+    synchronized Hit get(@NonNull final HttpTransaction transaction) {
+        String key = transaction.getRequestKey();
+        Entry entry = mEntries.get(key);
+        long now = SystemClock.elapsedRealtime();
+        if (entry != null && now < entry.mExpireAt) {
+            mHitCount.incrementAndGet();
+            return new Hit(entry.mResult, false);
+        }
+        if (entry != null && now < entry.mExpireAt + mStaleWhileRevalidate) {
+            mStaleHitCount.incrementAndGet();
+            return new Hit(entry.mResult, true);
+        }
+        if (entry != null && !entry.hasValidators()) {
+            remove(key);
+        }
+        mMissCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Tracks a transaction going to the network: the result of a {@code GET} will be cached, and its request made
+     * conditional when an expired result with validators is kept; a mutation invalidates the resources it affects
+     *
+     * @param transaction transaction about to be submitted
+     */
+    synchronized void track(@NonNull final HttpTransaction transaction) {
+        String key = transaction.getRequestKey();
+        if (key == null) {
+            invalidate(transaction.getPath());
+        } else {
+            Entry entry = mEntries.get(key);
+            if (entry != null && entry.hasValidators()) {
+                transaction.setValidators(entry.mEntityTag, entry.mLastModified, entry.mResult);
+            }
+        }
+        transaction.setResponseCache(this, mGeneration);
+    }
+
+    /**
+     * Caches the result of a tracked {@code GET}, or invalidates the resources affected by a tracked mutation
+     *
+     * @param transaction tracked transaction delivering its result
+     * @param result      deserialized response
+     * @param generation  generation of the cache when the transaction was tracked
+     */
+    synchronized void onSuccess(@NonNull final HttpTransaction transaction, @Nullable final Object result,
+            final long generation) {
+        String key = transaction.getRequestKey();
+        if (key == null) {
+            invalidate(transaction.getPath());
+            return;
+        }
+
+        long timeToLive = getTimeToLive(transaction.getPath());
+        long size = Math.max(1, transaction.getUncompressedByteCount());
+        if (transaction.isNotModified()) {
+            mNotModifiedCount.incrementAndGet();
+            Entry entry = mEntries.get(key);
+            if (entry == null || entry.mResult != result) {
+                // evicted or replaced meanwhile, its size is unknown without a body
+                return;
+            }
+            size = entry.mSize;
+        }
+        if (generation != mGeneration || result == null || timeToLive <= 0 || size > mMaxSize) {
+            return;
+        }
+        remove(key);
+        mEntries.put(key, new Entry(transaction.getPath(), result, size,
+                SystemClock.elapsedRealtime() + timeToLive, transaction.getEntityTag(),
+                transaction.getLastModified()));
+        mSize += size;
+        trimToSize();
+    }
+
+    /**
+     * Invalidates the resources that might have been affected by a failed mutation
+     *
+     * @param transaction tracked transaction delivering its failure
+     */
+    synchronized void onFailure(@NonNull final HttpTransaction transaction) {
+        if (transaction.getRequestKey() == null) {
+            invalidate(transaction.getPath());
+        }
+    }
+
+    private void invalidate(@Nullable final String path) {
+        mGeneration++;
+        if (path == null) {
+            return;
+        }
+
+        List<String> mutated = new ArrayList<>(Arrays.asList(path.split(PATH_SEPARATOR)));
+        if (mutated.get(mutated.size() - 1).equals(STATUS_TRANSITIONS)) {
+            mutated.remove(mutated.size() - 1);
+        }
+        Set<String> dependents = new HashSet<>();
+        for (String segment : mutated) {
+            if (DEPENDENT_COLLECTIONS.containsKey(segment)) {
+                dependents.addAll(DEPENDENT_COLLECTIONS.get(segment));
+            }
+        }
+
+        Iterator<Entry> iterator = mEntries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            List<String> cached = Arrays.asList(entry.mPath.split(PATH_SEPARATOR));
+            if (startsWith(cached, mutated) || isCollectionOf(cached, mutated)
+                    || !Collections.disjoint(cached, dependents)) {
+                mSize -= entry.mSize;
+                iterator.remove();
+            }
+        }
+    }
+
+    private long getTimeToLive(@NonNull final String path) {
+        String[] segments = path.split(PATH_SEPARATOR);
+        for (TimeToLive timeToLive : mTimeToLives.values()) {
+            if (timeToLive.matches(segments)) {
+                return timeToLive.mMillis;
+            }
+        }
+        return mDefaultTimeToLive;
+    }
+
+    private void remove(@NonNull final String key) {
+        Entry entry = mEntries.remove(key);
+        if (entry != null) {
+            mSize -= entry.mSize;
+        }
+    }
+
+    private void trimToSize() {
+        Iterator<Entry> iterator = mEntries.values().iterator();
+        while (mSize > mMaxSize && iterator.hasNext()) {
+            mSize -= iterator.next().mSize;
+            iterator.remove();
+        }
+    }
+
+    private static boolean startsWith(@NonNull final List<String> path, @NonNull final List<String> prefix) {
+        return path.size() >= prefix.size() && path.subList(0, prefix.size()).equals(prefix);
+    }
+
+    /**
+     * @return {@code True} when {@code collection} is an ancestor of {@code resource} naming a collection; paths
+     * alternate collection names and resource tokens, {@code users/{token}/bank-accounts/{token}}, so collections
+     * have an odd number of segments
+     */
+    private static boolean isCollectionOf(@NonNull final List<String> collection,
+            @NonNull final List<String> resource) {
+        return collection.size() < resource.size() && collection.size() % 2 == 1 && startsWith(resource, collection);
+    }
+
+    /**
+     * Time to live of the endpoints matching a path pattern, split into segments once
+     */
+    private static final class TimeToLive {
+        private final String[] mPattern;
+        private final long mMillis;
+
+        TimeToLive(@NonNull final String pathPattern, final long millis) {
+            mPattern = pathPattern.split(PATH_SEPARATOR);
+            mMillis = millis;
+        }
+
+        /**
+         * @return {@code True} when the path {@code segments} match the pattern segments, where a {@code {n}}
+         * pattern segment matches any path segment
+         */
+        boolean matches(@NonNull final String[] segments) {
+            if (mPattern.length != segments.length) {
+                return false;
+            }
+            for (int i = 0; i < mPattern.length; i++) {
+                if (!mPattern[i].startsWith("{") && !mPattern[i].equals(segments[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Result found in the cache
+     */
+    static final class Hit {
+        private final Object mResult;
+        private final boolean mStale;
+
+        Hit(@NonNull final Object result, final boolean stale) {
+            mResult = result;
+            mStale = stale;
+        }
+
+        @NonNull
+        Object getResult() {
+            return mResult;
+        }
+
+        /**
+         * @return {@code True} when the result is past its time to live and must be refreshed in the background
+         */
+        boolean isStale() {
+            return mStale;
+        }
+    }
+
+    private static final class Entry {
+        private final String mPath;
+        private final Object mResult;
+        private final long mSize;
+        private final long mExpireAt;
+        private final String mEntityTag;
+        private final String mLastModified;
+
+        Entry(@NonNull final String path, @NonNull final Object result, final long size, final long expireAt,
+                @Nullable final String entityTag, @Nullable final String lastModified) {
+            mPath = path;
+            mResult = result;
+            mSize = size;
+            mExpireAt = expireAt;
+            mEntityTag = entityTag;
+            mLastModified = lastModified;
+        }
+
+        boolean hasValidators() {
+            return mEntityTag != null || mLastModified != null;
+        }
+    }
+
+    /**
+     * Builder for {@link ResponseCache}
+     */
+    public static final class Builder {
+        private final Map<String, TimeToLive> mTimeToLives = new LinkedHashMap<>();
+        private long mMaxSize = DEFAULT_MAX_SIZE_BYTES;
+        private long mDefaultTimeToLive = DEFAULT_TIME_TO_LIVE_MILLIS;
+        private long mStaleWhileRevalidate;
+
+        /**
+         * Defines the maximum size of the cache, measured as the size of the cached response bodies
+         *
+         * @param maxSizeBytes maximum size in bytes; must be positive
+         */
+        public Builder maxSize(final long maxSizeBytes) {
+            if (maxSizeBytes <= 0) {
+                throw new IllegalArgumentException("max size must be positive");
+            }
+            mMaxSize = maxSizeBytes;
+            return this;
+        }
+
+        /**
+         * Defines for how long results are served from the cache, for the endpoints without a time to live of their
+         * own; {@link #DEFAULT_TIME_TO_LIVE_MILLIS} by default
+         *
+         * @param timeToLive time to live, {@code 0} to cache only the endpoints with a time to live of their own
+         * @param unit       unit of {@code timeToLive}; must not be null
+         */
+        public Builder defaultTimeToLive(final long timeToLive, @NonNull final TimeUnit unit) {
+            if (timeToLive < 0) {
+                throw new IllegalArgumentException("time to live can not be negative");
+            }
+            mDefaultTimeToLive = unit.toMillis(timeToLive);
+            return this;
+        }
+
+        /**
+         * Defines for how long the results of an endpoint are served from the cache, replacing the time to live
+         * defined before for the same {@code pathPattern}
+         *
+         * @param pathPattern path of the endpoint relative to the REST API, where {@code {0}} stands for the user
+         *                    token and {@code {1}} for the resource token, for instance {@code users/{0}/balances}
+         *                    or {@code users/{0}/bank-accounts/{1}}; must not be null
+         * @param timeToLive  time to live, {@code 0} to never cache the endpoint
+         * @param unit        unit of {@code timeToLive}; must not be null
+         */
+        public Builder timeToLive(@NonNull final String pathPattern, final long timeToLive,
+                @NonNull final TimeUnit unit) {
+            if (timeToLive < 0) {
+                throw new IllegalArgumentException("time to live can not be negative");
+            }
+            mTimeToLives.put(pathPattern, new TimeToLive(pathPattern, unit.toMillis(timeToLive)));
+            return this;
+        }
+
+        /**
+         * Serves results up to {@code maxStaleness} past their time to live right away, while a request refreshes
+         * them in the background for the next callers. Disabled by default.
+         *
+         * @param maxStaleness time past the time to live during which a result can be served stale
+         * @param unit         unit of {@code maxStaleness}; must not be null
+         */
+        public Builder staleWhileRevalidate(final long maxStaleness, @NonNull final TimeUnit unit) {
+            if (maxStaleness < 0) {
+                throw new IllegalArgumentException("max staleness can not be negative");
+            }
+            mStaleWhileRevalidate = unit.toMillis(maxStaleness);
+            return this;
+        }
+
+        public ResponseCache build() {
+            return new ResponseCache(this);
+        }
+    }
+}
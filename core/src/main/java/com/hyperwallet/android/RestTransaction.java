@@ -24,13 +24,12 @@ import com.hyperwallet.android.listener.HyperwalletListener;
 import com.hyperwallet.android.model.Errors;
 import com.hyperwallet.android.model.JsonModel;
 import com.hyperwallet.android.model.TypeReference;
-import com.hyperwallet.android.util.HttpClient;
 import com.hyperwallet.android.util.HttpMethod;
 import com.hyperwallet.android.util.JsonUtils;
+import com.hyperwallet.android.util.TransactionPriority;
 
 import org.json.JSONException;
 
-import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
 import java.util.Map;
@@ -48,29 +47,6 @@ class RestTransaction extends HttpTransaction {
         addHeader(HTTP_HEADER_AUTHORIZATION, AUTHENTICATION_STRATEGY + authenticationToken);
     }
 
-    /**
-     * Refer to {@link HttpTransaction#performRequest(HttpClient)}
-     */
-    @Override
-    protected int performRequest(HttpClient client) throws IOException {
-        int code;
-        switch (getMethod()) {
-            case GET:
-                code = client.get();
-                break;
-            case PUT:
-                code = client.put(getPayload());
-                break;
-            case POST:
-                code = client.post(getPayload());
-                break;
-            default:
-                throw new IllegalArgumentException("Unsupported http method");
-        }
-
-        return code;
-    }
-
     /**
      * Refer to {@link HttpTransaction#handleErrors(int, String)}
      */
@@ -95,6 +71,7 @@ class RestTransaction extends HttpTransaction {
         //Optional Parameters
         private JsonModel jsonModel = null;
         private Map<String, String> query = new HashMap<>();
+        private TransactionPriority priority = TransactionPriority.NORMAL;
 
         /**
          * Construct builder based from specified required parameters
@@ -122,6 +99,11 @@ class RestTransaction extends HttpTransaction {
             return this;
         }
 
+        protected Builder priority(@NonNull final TransactionPriority priority) {
+            this.priority = priority;
+            return this;
+        }
+
         protected RestTransaction build(@NonNull final String uri, @NonNull final String authenticationToken,
                 @NonNull final String userToken) throws JSONException {
             RestTransaction restTransaction = new RestTransaction(httpMethod, uri, authenticationToken, listener,
@@ -135,6 +117,7 @@ class RestTransaction extends HttpTransaction {
             }
 
             restTransaction.addQuery(query);
+            restTransaction.setPriority(priority);
             return restTransaction;
         }
     }
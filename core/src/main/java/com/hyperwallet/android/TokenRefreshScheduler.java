@@ -0,0 +1,146 @@
+/*
+ * The MIT License (MIT)
+ * Copyright (c) 2018 Hyperwallet Systems Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.hyperwallet.android;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules the retrieval of a new authentication token ahead of the expiry of the current {@link Configuration},
+ * so that requests seldom have to wait on the {@link HyperwalletAuthenticationTokenProvider}.
+ *
+ * <p>A refresh is scheduled {@code leadTime} before the token expires, never later than the moment the
+ * {@code Configuration} becomes stale, and brought forward by a random {@code jitter}. A failed refresh is retried
+ * with an exponential backoff; once the retries are exhausted, or the next retry would land after the
+ * {@code Configuration} becomes stale, scheduling stops and the token is refreshed lazily by the next request.</p>
+ *
+ * <p>A refresh is never scheduled before half of the time left until the {@code Configuration} becomes stale has
+ * passed, nor sooner than {@link #MIN_REFRESH_INTERVAL}, so that a {@code leadTime} as long as the token lifetime
+ * does not keep retrieving tokens back to back.</p>
+ */
+final class TokenRefreshScheduler {
+
+    @VisibleForTesting
+    static final long INITIAL_BACKOFF = TimeUnit.SECONDS.toMillis(5);
+    @VisibleForTesting
+    static final int MAX_ATTEMPTS = 4;
+    @VisibleForTesting
+    static final long MIN_REFRESH_INTERVAL = TimeUnit.SECONDS.toMillis(10);
+
+    private final long mLeadTime;
+    private final long mJitter;
+    private final Random mRandom = new Random();
+    private final Runnable mRefreshTask;
+    private final ScheduledExecutorService mScheduler;
+
+    private ScheduledFuture<?> mScheduledRefresh;
+    private int mFailedAttempts;
+
+    /**
+     * @param leadTime    time ahead of the token expiry, in milliseconds, to refresh the token
+     * @param jitter      upper bound, in milliseconds, of the random time the refresh is brought forward by
+     * @param refreshTask retrieves a new authentication token and reports back through {@link #schedule} or
+     *                    {@link #onRefreshFailed}
+     */
+    TokenRefreshScheduler(final long leadTime, final long jitter, @NonNull final Runnable refreshTask) {
+        this(leadTime, jitter, refreshTask, Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(@NonNull final Runnable runnable) {
+                Thread thread = new Thread(runnable, "hyperwallet-token-refresh");
+                thread.setDaemon(true);
+                return thread;
+            }
+        }));
+    }
+
+    @VisibleForTesting
+    TokenRefreshScheduler(final long leadTime, final long jitter, @NonNull final Runnable refreshTask,
+            @NonNull final ScheduledExecutorService scheduler) {
+        mLeadTime = leadTime;
+        mJitter = jitter;
+        mRefreshTask = refreshTask;
+        mScheduler = scheduler;
+    }
+
+    /**
+     * Schedules the refresh of a newly retrieved {@code configuration}, replacing any refresh already scheduled
+     *
+     * @param configuration the {@code Configuration} that was just retrieved
+     */
+    synchronized void schedule(@NonNull final Configuration configuration) {
+        mFailedAttempts = 0;
+        long refreshAt = Math.min(configuration.getExpireOnBootTime() - mLeadTime,
+                configuration.getStaleOnBootTime());
+        if (mJitter > 0) {
+            refreshAt -= (long) (mRandom.nextDouble() * mJitter);
+        }
+        long now = SystemClock.elapsedRealtime();
+        long earliest = now + Math.max(MIN_REFRESH_INTERVAL, (configuration.getStaleOnBootTime() - now) / 2);
+        scheduleAt(Math.max(refreshAt, earliest));
+    }
+
+    /**
+     * Schedules a retry of a failed refresh, or gives up and leaves the refresh to the next request
+     *
+     * @param configuration the {@code Configuration} currently in use, if any
+     */
+    synchronized void onRefreshFailed(@Nullable final Configuration configuration) {
+        mFailedAttempts++;
+        cancel();
+        if (configuration == null || mFailedAttempts >= MAX_ATTEMPTS) {
+            return;
+        }
+
+        long retryAt = SystemClock.elapsedRealtime() + (INITIAL_BACKOFF << (mFailedAttempts - 1));
+        if (retryAt < configuration.getStaleOnBootTime()) {
+            scheduleAt(retryAt);
+        }
+    }
+
+    /**
+     * Cancels the scheduled refresh and releases the scheduler thread
+     */
+    synchronized void shutdown() {
+        cancel();
+        mScheduler.shutdownNow();
+    }
+
+    private void scheduleAt(final long refreshAt) {
+        cancel();
+        if (!mScheduler.isShutdown()) {
+            long delay = Math.max(0, refreshAt - SystemClock.elapsedRealtime());
+            mScheduledRefresh = mScheduler.schedule(mRefreshTask, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void cancel() {
+        if (mScheduledRefresh != null) {
+            mScheduledRefresh.cancel(false);
+            mScheduledRefresh = null;
+        }
+    }
+}
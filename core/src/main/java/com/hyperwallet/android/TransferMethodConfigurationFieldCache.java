@@ -0,0 +1,201 @@
+/*
+ * The MIT License (MIT)
+ * Copyright (c) 2018 Hyperwallet Systems Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.hyperwallet.android;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.hyperwallet.android.model.graphql.GqlResponse;
+import com.hyperwallet.android.model.graphql.query.TransferMethodConfigurationFieldQuery;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code TransferMethodConfigurationFieldCache} keeps the transfer method configuration fields in memory, keyed by
+ * user, country, currency, transfer method type and profile, so that opening the form of a transfer method again
+ * does not cost a GraphQL round trip and the parsing of its field groups, fees and processing times. It is disabled
+ * unless set through
+ * {@link Hyperwallet.Builder#transferMethodConfigurationFieldCache(TransferMethodConfigurationFieldCache)}.
+ *
+ * <p>Results are kept for a time to live and evicted least recently used first once the cache holds its maximum
+ * number of entries. The fields of every transfer method type of a country can be loaded ahead of time, refer to
+ * {@link Hyperwallet#prefetchTransferMethodConfigurationFields(String, String)}. Identical requests in flight at the
+ * same time, such as a prefetch and the form it prepares, share a single round trip.</p>
+ *
+ * <p>The cache is cleared when the {@link Hyperwallet} instance is released. Cached results are shared by every
+ * listener receiving them and must not be modified.</p>
+ */
+public final class TransferMethodConfigurationFieldCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 32;
+    public static final long DEFAULT_TIME_TO_LIVE_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final String KEY_SEPARATOR = "\n";
+
+    private final int mMaxEntries;
+    private final long mTimeToLive;
+    private final LinkedHashMap<String, Entry> mEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong mHitCount = new AtomicLong();
+    private final AtomicLong mMissCount = new AtomicLong();
+
+    private TransferMethodConfigurationFieldCache(@NonNull final Builder builder) {
+        mMaxEntries = builder.mMaxEntries;
+        mTimeToLive = builder.mTimeToLive;
+    }
+
+    /**
+     * @return number of requests answered from the cache without going to the network
+     */
+    public long getHitCount() {
+        return mHitCount.get();
+    }
+
+    /**
+     * @return number of requests that went to the network
+     */
+    public long getMissCount() {
+        return mMissCount.get();
+    }
+
+    /**
+     * @return number of cached field configurations
+     */
+    public synchronized int getSize() {
+        return mEntries.size();
+    }
+
+    /**
+     * Removes every cached field configuration
+     */
+    public synchronized void clear() {
+        mEntries.clear();
+    }
+
+    /**
+     * @param userToken token of the user
+     * @param query     query of the fields of a country, currency, transfer method type and profile
+     * @return key of the fields of the {@code query} for the user, distinct for every selection of sections and
+     * field attributes
+     */
+    @NonNull
+    static String getKey(@NonNull final String userToken, @NonNull final TransferMethodConfigurationFieldQuery query) {
+        return TransferMethodConfigurationFieldQuery.class.getSimpleName() + KEY_SEPARATOR + userToken
+                + KEY_SEPARATOR + query.getCountry() + KEY_SEPARATOR + query.getCurrency() + KEY_SEPARATOR
+                + query.getTransferMethodType() + KEY_SEPARATOR + query.getProfile() + KEY_SEPARATOR
+                + query.getSections() + KEY_SEPARATOR + query.getFieldAttributes();
+    }
+
+    /**
+     * @param key key of the fields, refer to {@link #getKey(String, TransferMethodConfigurationFieldQuery)}
+     * @return the cached fields, or {@code null} when the request must go to the network
+     */
+    @Nullable
+    synchronized Object get(@NonNull final String key) {
+        Entry entry = mEntries.get(key);
+        if (entry != null && SystemClock.elapsedRealtime() < entry.mExpireAt) {
+            mHitCount.incrementAndGet();
+            return entry.mResult;
+        }
+        if (entry != null) {
+            mEntries.remove(key);
+        }
+        mMissCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * @param key key of the fields, refer to {@link #getKey(String, TransferMethodConfigurationFieldQuery)}
+     * @return listener caching the fields delivered for the response
+     */
+    @NonNull
+    HttpTransaction.ResultListener getResultListener(@NonNull final String key) {
+        return new HttpTransaction.ResultListener() {
+            @Override
+            public void onResult(@NonNull final Object result) {
+                put(key, result);
+            }
+        };
+    }
+
+    private synchronized void put(@NonNull final String key, @NonNull final Object result) {
+        if (mTimeToLive == 0 || !(result instanceof GqlResponse) || (((GqlResponse) result).getGqlErrors() != null
+                && !((GqlResponse) result).getGqlErrors().getGQLErrors().isEmpty())) {
+            return;
+        }
+
+        mEntries.put(key, new Entry(result, SystemClock.elapsedRealtime() + mTimeToLive));
+        Iterator<Entry> iterator = mEntries.values().iterator();
+        while (mEntries.size() > mMaxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static final class Entry {
+        private final Object mResult;
+        private final long mExpireAt;
+
+        Entry(@NonNull final Object result, final long expireAt) {
+            mResult = result;
+            mExpireAt = expireAt;
+        }
+    }
+
+    /**
+     * Builder for {@link TransferMethodConfigurationFieldCache}
+     */
+    public static final class Builder {
+        private int mMaxEntries = DEFAULT_MAX_ENTRIES;
+        private long mTimeToLive = DEFAULT_TIME_TO_LIVE_MILLIS;
+
+        /**
+         * Defines the maximum number of field configurations kept; {@link #DEFAULT_MAX_ENTRIES} by default
+         *
+         * @param maxEntries maximum number of entries; must be positive
+         */
+        public Builder maxEntries(final int maxEntries) {
+            if (maxEntries <= 0) {
+                throw new IllegalArgumentException("max entries must be positive");
+            }
+            mMaxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * Defines for how long field configurations are served from the cache; {@link #DEFAULT_TIME_TO_LIVE_MILLIS}
+         * by default
+         *
+         * @param timeToLive time to live, {@code 0} to disable the cache
+         * @param unit       unit of {@code timeToLive}; must not be null
+         */
+        public Builder timeToLive(final long timeToLive, @NonNull final TimeUnit unit) {
+            if (timeToLive < 0) {
+                throw new IllegalArgumentException("time to live can not be negative");
+            }
+            mTimeToLive = unit.toMillis(timeToLive);
+            return this;
+        }
+
+        public TransferMethodConfigurationFieldCache build() {
+            return new TransferMethodConfigurationFieldCache(this);
+        }
+    }
+}
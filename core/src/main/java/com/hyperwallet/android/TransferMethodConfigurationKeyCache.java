@@ -0,0 +1,355 @@
+/*
+ * The MIT License (MIT)
+ * Copyright (c) 2018 Hyperwallet Systems Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.hyperwallet.android;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.hyperwallet.android.model.graphql.GqlResponse;
+import com.hyperwallet.android.model.graphql.keyed.TransferMethodConfigurationKeyResult;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code TransferMethodConfigurationKeyCache} keeps a snapshot of the transfer method configuration keys on disk:
+ * the countries, currencies, transfer method types, fees and processing times available to the user. It is the
+ * largest and slowest response of the SDK and it rarely changes, so the snapshot of a previous session is served
+ * right away on cold start. It is disabled unless set through
+ * {@link Hyperwallet.Builder#transferMethodConfigurationKeyCache(TransferMethodConfigurationKeyCache)}.
+ *
+ * <p>Snapshots are versioned by user, program and query. A snapshot younger than its time to live is served
+ * without a request; an older one is served right away, within the stale-while-revalidate window, and refreshed in
+ * the background for the next callers. A refresh only deserializes the response again when its content differs
+ * from the snapshot.</p>
+ *
+ * <p>Snapshots survive the {@link Hyperwallet} instance, call {@link #clear()} when the user signs out. Cached
+ * results are shared by every listener receiving them and must not be modified.</p>
+ */
+public final class TransferMethodConfigurationKeyCache {
+
+    public static final long DEFAULT_TIME_TO_LIVE_MILLIS = TimeUnit.DAYS.toMillis(1);
+    public static final long DEFAULT_STALE_WHILE_REVALIDATE_MILLIS = TimeUnit.DAYS.toMillis(7);
+    private static final String TAG = TransferMethodConfigurationKeyCache.class.getName();
+    private static final String FILE_PREFIX = "transfer-method-configuration-keys-v1-";
+    private static final String FILE_SUFFIX = ".json";
+    private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+
+    private final File mDirectory;
+    private final long mTimeToLive;
+    private final long mStaleWhileRevalidate;
+    private final Map<String, Snapshot> mSnapshots = new HashMap<>();
+    private final AtomicLong mHitCount = new AtomicLong();
+    private final AtomicLong mStaleHitCount = new AtomicLong();
+    private final AtomicLong mMissCount = new AtomicLong();
+    private final AtomicLong mUnchangedCount = new AtomicLong();
+
+    private TransferMethodConfigurationKeyCache(@NonNull final Builder builder) {
+        mDirectory = builder.mDirectory;
+        mTimeToLive = builder.mTimeToLive;
+        mStaleWhileRevalidate = builder.mStaleWhileRevalidate;
+    }
+
+    /**
+     * @return number of requests answered from a snapshot without going to the network
+     */
+    public long getHitCount() {
+        return mHitCount.get();
+    }
+
+    /**
+     * @return number of requests answered with a stale snapshot while it was refreshed in the background
+     */
+    public long getStaleHitCount() {
+        return mStaleHitCount.get();
+    }
+
+    /**
+     * @return number of requests that found no usable snapshot and went to the network
+     */
+    public long getMissCount() {
+        return mMissCount.get();
+    }
+
+    /**
+     * @return number of responses identical to their snapshot, which were not deserialized again
+     */
+    public long getUnchangedCount() {
+        return mUnchangedCount.get();
+    }
+
+    /**
+     * Removes every snapshot, from memory and from disk
+     */
+    public synchronized void clear() {
+        mSnapshots.clear();
+        File[] files = mDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.getName().startsWith(FILE_PREFIX)) {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * @param userToken    token of the user
+     * @param programToken token of the program of the user
+     * @param query        GraphQL request sent for the configuration keys
+     * @return key of the snapshot of the {@code query} for the user
+     */
+    @NonNull
+    static String getKey(@NonNull final String userToken, @Nullable final String programToken,
+            @NonNull final String query) {
+        return digest(userToken + '\n' + programToken + '\n' + query);
+    }
+
+    /**
+     * Looks up a snapshot, reading it from disk the first time it is needed; must not be called from the main
+     * thread
+     *
+     * @param key key of the snapshot, refer to {@link #getKey(String, String, String)}
+     * @return the snapshot, or {@code null} when the request must go to the network
+     */
+    @Nullable
+    synchronized ResponseCache.Hit get(@NonNull final String key) {
+        Snapshot snapshot = mSnapshots.get(key);
+        if (snapshot == null) {
+            snapshot = read(key);
+            if (snapshot != null) {
+                mSnapshots.put(key, snapshot);
+            }
+        }
+
+        long age = snapshot == null ? 0 : System.currentTimeMillis() - snapshot.mSavedAt;
+        if (snapshot != null && age < mTimeToLive) {
+            mHitCount.incrementAndGet();
+            return new ResponseCache.Hit(snapshot.mResult, false);
+        }
+        if (snapshot != null && age < mTimeToLive + mStaleWhileRevalidate) {
+            mStaleHitCount.incrementAndGet();
+            return new ResponseCache.Hit(snapshot.mResult, true);
+        }
+        mMissCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * @param key key of the snapshot, refer to {@link #getKey(String, String, String)}
+     * @return store reusing the snapshot for unchanged responses and saving the changed ones
+     */
+    @NonNull
+    HttpTransaction.ContentStore getContentStore(@NonNull final String key) {
+        return new HttpTransaction.ContentStore() {
+            @Nullable
+            @Override
+            public Object get(@NonNull final String content) {
+                return reuse(key, content);
+            }
+
+            @Override
+            public void put(@NonNull final String content, @NonNull final Object result) {
+                save(key, content, result);
+            }
+        };
+    }
+
+    @Nullable
+    private synchronized Object reuse(@NonNull final String key, @NonNull final String content) {
+        Snapshot snapshot = mSnapshots.get(key);
+        if (snapshot == null || !snapshot.mDigest.equals(digest(content))) {
+            return null;
+        }
+
+        mUnchangedCount.incrementAndGet();
+        long now = System.currentTimeMillis();
+        mSnapshots.put(key, new Snapshot(snapshot.mResult, snapshot.mDigest, now));
+        getFile(key).setLastModified(now);
+        return snapshot.mResult;
+    }
+
+    private synchronized void save(@NonNull final String key, @NonNull final String content,
+            @NonNull final Object result) {
+        if (!(result instanceof GqlResponse) || hasErrors((GqlResponse) result)) {
+            return;
+        }
+
+        mSnapshots.put(key, new Snapshot(result, digest(content), System.currentTimeMillis()));
+        File file = getFile(key);
+        File temporaryFile = new File(mDirectory, file.getName() + TEMPORARY_FILE_SUFFIX);
+        try {
+            if (!mDirectory.isDirectory() && !mDirectory.mkdirs()) {
+                throw new IOException("Can not create " + mDirectory);
+            }
+            OutputStream out = new FileOutputStream(temporaryFile);
+            try {
+                out.write(content.getBytes(StandardCharsets.UTF_8));
+            } finally {
+                out.close();
+            }
+            if (!temporaryFile.renameTo(file)) {
+                throw new IOException("Can not replace " + file);
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Transfer method configuration keys snapshot not saved", e);
+            temporaryFile.delete();
+        }
+    }
+
+    @Nullable
+    private Snapshot read(@NonNull final String key) {
+        File file = getFile(key);
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try {
+            String content = readFile(file);
+            Object result = TransferMethodConfigurationKeyResult.FACTORY.fromJsonObject(new JSONObject(content));
+            return new Snapshot(result, digest(content), file.lastModified());
+        } catch (IOException | JSONException e) {
+            Log.w(TAG, "Transfer method configuration keys snapshot discarded", e);
+            file.delete();
+            return null;
+        }
+    }
+
+    @NonNull
+    private File getFile(@NonNull final String key) {
+        return new File(mDirectory, FILE_PREFIX + key + FILE_SUFFIX);
+    }
+
+    private static boolean hasErrors(@NonNull final GqlResponse response) {
+        return response.getGqlErrors() != null && !response.getGqlErrors().getGQLErrors().isEmpty();
+    }
+
+    @NonNull
+    private static String readFile(@NonNull final File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int count; (count = in.read(buffer)) != -1; ) {
+                out.write(buffer, 0, count);
+            }
+            return out.toString(StandardCharsets.UTF_8.name());
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * @return hexadecimal SHA-256 digest of {@code value}
+     */
+    @NonNull
+    private static String digest(@NonNull final String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Snapshot {
+        private final Object mResult;
+        private final String mDigest;
+        private final long mSavedAt;
+
+        Snapshot(@NonNull final Object result, @NonNull final String digest, final long savedAt) {
+            mResult = result;
+            mDigest = digest;
+            mSavedAt = savedAt;
+        }
+    }
+
+    /**
+     * Builder for {@link TransferMethodConfigurationKeyCache}
+     */
+    public static final class Builder {
+        private final File mDirectory;
+        private long mTimeToLive = DEFAULT_TIME_TO_LIVE_MILLIS;
+        private long mStaleWhileRevalidate = DEFAULT_STALE_WHILE_REVALIDATE_MILLIS;
+
+        /**
+         * Construct a builder
+         *
+         * @param directory directory of the snapshots, such as {@code new File(context.getCacheDir(), "hyperwallet")};
+         *                  must not be null
+         */
+        public Builder(@NonNull final File directory) {
+            mDirectory = directory;
+        }
+
+        /**
+         * Defines for how long a snapshot is served without a request; {@link #DEFAULT_TIME_TO_LIVE_MILLIS} by
+         * default
+         *
+         * @param timeToLive time to live, {@code 0} to refresh the snapshot on every request
+         * @param unit       unit of {@code timeToLive}; must not be null
+         */
+        public Builder timeToLive(final long timeToLive, @NonNull final TimeUnit unit) {
+            if (timeToLive < 0) {
+                throw new IllegalArgumentException("time to live can not be negative");
+            }
+            mTimeToLive = unit.toMillis(timeToLive);
+            return this;
+        }
+
+        /**
+         * Serves snapshots up to {@code maxStaleness} past their time to live right away, while a request refreshes
+         * them in the background for the next callers; {@link #DEFAULT_STALE_WHILE_REVALIDATE_MILLIS} by default
+         *
+         * @param maxStaleness time past the time to live during which a snapshot can be served stale
+         * @param unit         unit of {@code maxStaleness}; must not be null
+         */
+        public Builder staleWhileRevalidate(final long maxStaleness, @NonNull final TimeUnit unit) {
+            if (maxStaleness < 0) {
+                throw new IllegalArgumentException("max staleness can not be negative");
+            }
+            mStaleWhileRevalidate = unit.toMillis(maxStaleness);
+            return this;
+        }
+
+        public TransferMethodConfigurationKeyCache build() {
+            return new TransferMethodConfigurationKeyCache(this);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2018 Hyperwallet
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hyperwallet.android.model;
+
+import androidx.annotation.NonNull;
+
+import java.util.Map;
+
+/**
+ * {@link ModelFactory} for Map backed models, which can also be decoded from a Map of key-value pair read straight
+ * from the response stream
+ *
+ * @param <T> type of model produced
+ */
+public interface MapModelFactory<T> extends ModelFactory<T> {
+
+    /**
+     * Decodes a {@code T} from Map of key-value pair representation
+     *
+     * @param fields map of key-value pair raw data information
+     * @return the T representation equivalent from the key-value pair
+     */
+    @NonNull
+    T fromMap(@NonNull Map<String, Object> fields);
+}
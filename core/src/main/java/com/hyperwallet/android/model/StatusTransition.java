@@ -53,13 +53,33 @@ public class StatusTransition implements JsonModel, Parcelable {
                     return new StatusTransition[size];
                 }
             };
+
+    public static final MapModelFactory<StatusTransition> FACTORY = new MapModelFactory<StatusTransition>() {
+        @NonNull
+        @Override
+        public StatusTransition fromJsonObject(@NonNull final JSONObject jsonObject) throws JSONException {
+            return new StatusTransition(jsonObject);
+        }
+
+        @NonNull
+        @Override
+        public StatusTransition fromMap(@NonNull final Map<String, Object> fields) {
+            return new StatusTransition(fields);
+        }
+    };
+
     private Map<String, Object> mFields;
 
     public StatusTransition() {
         mFields = new HashMap<>();
     }
 
-    private StatusTransition(@NonNull final Map<String, Object> fields) {
+    /**
+     * Construct a {@code StatusTransition} object from Map of key-value pair representation
+     *
+     * @param fields map of key value-pair raw data information
+     */
+    public StatusTransition(@NonNull final Map<String, Object> fields) {
         mFields = new HashMap<>(fields);
     }
 
@@ -34,6 +34,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.hyperwallet.android.model.JsonModel;
+import com.hyperwallet.android.model.MapModelFactory;
 import com.hyperwallet.android.util.JsonUtils;
 
 import org.json.JSONException;
@@ -64,6 +65,20 @@ public class Balance implements Parcelable, JsonModel {
         }
     };
 
+    public static final MapModelFactory<Balance> FACTORY = new MapModelFactory<Balance>() {
+        @NonNull
+        @Override
+        public Balance fromJsonObject(@NonNull final JSONObject jsonObject) throws JSONException {
+            return new Balance(jsonObject);
+        }
+
+        @NonNull
+        @Override
+        public Balance fromMap(@NonNull final Map<String, Object> fields) {
+            return new Balance(fields);
+        }
+    };
+
     private Map<String, Object> mFields;
 
     /**
@@ -80,7 +95,7 @@ public class Balance implements Parcelable, JsonModel {
      *
      * @param fields map of key value-pair raw data information
      */
-    private Balance(@NonNull final Map<String, Object> fields) {
+    public Balance(@NonNull final Map<String, Object> fields) {
         mFields = new HashMap<>(fields);
     }
 
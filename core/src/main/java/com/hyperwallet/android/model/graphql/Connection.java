@@ -20,11 +20,13 @@ package com.hyperwallet.android.model.graphql;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.hyperwallet.android.model.ModelFactory;
+import com.hyperwallet.android.util.ModelFactoryRegistry;
+
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.List;
@@ -54,18 +56,27 @@ public class Connection<T> {
      */
     public Connection(@NonNull final JSONObject data, @NonNull final Class clazz) throws JSONException,
             NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
+        this(data, ModelFactoryRegistry.<T>get(clazz));
+    }
+
+    /**
+     * Constructor to build Connection based on {@link JSONObject} representation and node factory
+     *
+     * @param data    Json object
+     * @param factory factory of the node type, refer to {@link ModelFactoryRegistry}
+     */
+    public Connection(@NonNull final JSONObject data, @NonNull final ModelFactory<T> factory) throws JSONException {
         mCount = data.optLong(COUNT, DEFAULT_COUNT);
         JSONObject pageInfoObject = data.optJSONObject(PAGE_INFO);
         if (pageInfoObject != null) {
             mPageInfo = new PageInfo(pageInfoObject);
         }
 
-        Constructor<?> constructor = clazz.getConstructor(JSONObject.class);
         JSONArray jsonArray = data.optJSONArray(NODES);
         if (jsonArray != null) {
             mNodes = new ArrayList<>(jsonArray.length());
             for (int i = 0; i < jsonArray.length(); i++) {
-                mNodes.add((T) constructor.newInstance(jsonArray.getJSONObject(i)));
+                mNodes.add(factory.fromJsonObject(jsonArray.getJSONObject(i)));
             }
         } else {
             mNodes = null;
@@ -19,6 +19,8 @@ package com.hyperwallet.android.model.graphql;
 import androidx.annotation.NonNull;
 import androidx.annotation.StringDef;
 
+import com.hyperwallet.android.model.ModelFactory;
+
 import org.json.JSONObject;
 
 import java.lang.annotation.Retention;
@@ -30,6 +32,14 @@ import java.util.Objects;
  */
 public class Fee {
 
+    public static final ModelFactory<Fee> FACTORY = new ModelFactory<Fee>() {
+        @NonNull
+        @Override
+        public Fee fromJsonObject(@NonNull final JSONObject jsonObject) {
+            return new Fee(jsonObject);
+        }
+    };
+
     private static final String COUNTRY = "country";
     private static final String CURRENCY = "currency";
     private static final String FEE_RATE_TYPE = "feeRateType";
@@ -19,13 +19,13 @@ package com.hyperwallet.android.model.graphql;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.hyperwallet.android.model.ModelFactory;
 import com.hyperwallet.android.model.graphql.error.GqlErrors;
+import com.hyperwallet.android.util.ModelFactoryRegistry;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.lang.reflect.Constructor;
-
 /**
  * Represents the root level response for all GraphQL queries
  */
@@ -45,8 +45,18 @@ public class GqlResponse<T> {
      */
     public GqlResponse(@NonNull final JSONObject response, @NonNull final Class clazz)
             throws ReflectiveOperationException, JSONException {
-        Constructor<?> constructor = clazz.getConstructor(JSONObject.class);
-        mData = (T) constructor.newInstance(response.get(DATA));
+        this(response, ModelFactoryRegistry.<T>get(clazz));
+    }
+
+    /**
+     * Constructor to build GqlResponse based on {@link JSONObject} representation and data factory
+     *
+     * @param response JSON object that represents data
+     * @param factory  factory of the data type, refer to {@link ModelFactoryRegistry}
+     */
+    public GqlResponse(@NonNull final JSONObject response, @NonNull final ModelFactory<T> factory)
+            throws JSONException {
+        mData = factory.fromJsonObject(response.getJSONObject(DATA));
         mGqlErrors = new GqlErrors(response);
     }
 
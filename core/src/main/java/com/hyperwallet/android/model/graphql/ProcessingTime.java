@@ -20,6 +20,7 @@ package com.hyperwallet.android.model.graphql;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.hyperwallet.android.model.ModelFactory;
 import com.hyperwallet.android.model.transfermethod.TransferMethod;
 
 import org.json.JSONObject;
@@ -31,6 +32,14 @@ import java.util.Objects;
  */
 public final class ProcessingTime {
 
+    public static final ModelFactory<ProcessingTime> FACTORY = new ModelFactory<ProcessingTime>() {
+        @NonNull
+        @Override
+        public ProcessingTime fromJsonObject(@NonNull final JSONObject jsonObject) {
+            return new ProcessingTime(jsonObject);
+        }
+    };
+
     private static final String COUNTRY = "country";
     private static final String CURRENCY = "currency";
     private static final String TRANSFER_METHOD_TYPE = "transferMethodType";
@@ -21,6 +21,7 @@ import static com.hyperwallet.android.model.graphql.Connection.hasNodes;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.hyperwallet.android.model.ModelFactory;
 import com.hyperwallet.android.model.graphql.keyed.Country;
 import com.hyperwallet.android.model.graphql.keyed.MappedConnection;
 
@@ -36,6 +37,16 @@ import java.util.Set;
  */
 public class TransferMethodConfigurationKey {
 
+    public static final ModelFactory<TransferMethodConfigurationKey> FACTORY =
+            new ModelFactory<TransferMethodConfigurationKey>() {
+                @NonNull
+                @Override
+                public TransferMethodConfigurationKey fromJsonObject(@NonNull final JSONObject jsonObject)
+                        throws JSONException {
+                    return new TransferMethodConfigurationKey(jsonObject, Country.FACTORY);
+                }
+            };
+
     private static final String TRANSFER_METHOD_COUNTRIES = "countries";
 
     private final Set<Country> mCountries;
@@ -48,10 +59,18 @@ public class TransferMethodConfigurationKey {
      */
     public TransferMethodConfigurationKey(@NonNull final JSONObject configuration) throws JSONException,
             NoSuchMethodException, IllegalAccessException, InstantiationException, InvocationTargetException {
+        this(configuration, Country.FACTORY);
+    }
+
+    /**
+     * Decodes {@code configuration} through the factories of its nodes, refer to {@link #FACTORY}
+     */
+    private TransferMethodConfigurationKey(@NonNull final JSONObject configuration,
+            @NonNull final ModelFactory<Country> countryFactory) throws JSONException {
         JSONObject countries = configuration.optJSONObject(TRANSFER_METHOD_COUNTRIES);
         mCountries = new LinkedHashSet<>(1);
         if (countries != null && countries.length() != 0) {
-            mCountryMappedConnection = new MappedConnection<>(countries, Country.class);
+            mCountryMappedConnection = new MappedConnection<>(countries, countryFactory);
         } else {
             mCountryMappedConnection = null;
         }
@@ -21,6 +21,8 @@ import androidx.annotation.NonNull;
 
 import org.json.JSONObject;
 
+import java.util.regex.Pattern;
+
 /**
  * {@code ConditionalPattern} represents the input field format regex pattern needed on creation of an
  * account.
@@ -34,6 +36,7 @@ public class ConditionalPattern {
 
     private final String mPattern;
     private final String mRegex;
+    private volatile Pattern mCompiledRegex;
 
     /**
      * Constructs a {@code ConditionalPattern} object from {@link JSONObject} representation
@@ -56,5 +59,17 @@ public class ConditionalPattern {
     public String getRegex() {
         return mRegex;
     }
-}
 
+    /**
+     * @return {@link #getRegex()} compiled on first use and reused afterwards
+     */
+    @NonNull
+    Pattern getCompiledRegex() {
+        Pattern compiledRegex = mCompiledRegex;
+        if (compiledRegex == null) {
+            compiledRegex = Pattern.compile(mRegex);
+            mCompiledRegex = compiledRegex;
+        }
+        return compiledRegex;
+    }
+}
@@ -20,6 +20,8 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.StringDef;
 
+import com.hyperwallet.android.model.ModelFactory;
+
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -34,6 +36,14 @@ import java.util.List;
  */
 public class FieldGroup {
 
+    public static final ModelFactory<FieldGroup> FACTORY = new ModelFactory<FieldGroup>() {
+        @NonNull
+        @Override
+        public FieldGroup fromJsonObject(@NonNull final JSONObject jsonObject) throws JSONException {
+            return new FieldGroup(jsonObject);
+        }
+    };
+
     private static final String FIELDS = "fields";
     private static final String GROUP_NAME = "group";
 
@@ -0,0 +1,277 @@
+/*
+ *  The MIT License (MIT)
+ *  Copyright (c) 2019 Hyperwallet Systems Inc.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the "Software"), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ *  sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ *  NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ *  NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.hyperwallet.android.model.graphql.field;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.StringDef;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * {@code FieldValidator} validates input of every {@link Field} of a {@link TransferMethodConfiguration} against
+ * {@link Field#isRequired()}, {@link Field#getMinLength()}, {@link Field#getMaxLength()} and
+ * {@link Field#getRegularExpression()}.
+ *
+ * <p>The validator is compiled once per configuration, refer to
+ * {@link TransferMethodConfiguration#getFieldValidator()}: regular expressions are precompiled and fields are indexed
+ * by name, so validating all fields is a single pass over arrays that only allocates the {@link Result}. Instances
+ * are immutable and can be shared between threads.</p>
+ */
+public final class FieldValidator {
+
+    private static final int NOT_FOUND = -1;
+
+    private final Field[] mFields;
+    private final Pattern[] mPatterns;
+    private final Map<String, int[]> mFieldIndex;
+
+    /**
+     * Compiles the validator of the fields of every {@link FieldGroup} of the specified field groups
+     *
+     * @param fieldGroups field groups of a transfer method configuration
+     */
+    FieldValidator(@Nullable final List<FieldGroup> fieldGroups) {
+        List<Field> fields = new ArrayList<>();
+        if (fieldGroups != null) {
+            for (FieldGroup fieldGroup : fieldGroups) {
+                if (fieldGroup.getFields() != null) {
+                    fields.addAll(fieldGroup.getFields());
+                }
+            }
+        }
+        mFields = fields.toArray(new Field[fields.size()]);
+        mPatterns = new Pattern[mFields.length];
+        mFieldIndex = new HashMap<>(mFields.length * 4 / 3 + 1);
+        for (int i = 0; i < mFields.length; i++) {
+            mPatterns[i] = compile(mFields[i].getRegularExpression());
+            int[] indexes = mFieldIndex.get(mFields[i].getName());
+            if (indexes == null) {
+                mFieldIndex.put(mFields[i].getName(), new int[]{i});
+            } else {
+                indexes = Arrays.copyOf(indexes, indexes.length + 1);
+                indexes[indexes.length - 1] = i;
+                mFieldIndex.put(mFields[i].getName(), indexes);
+            }
+        }
+    }
+
+    /**
+     * Validates the input of every field in one pass. A field without input is validated as empty.
+     *
+     * @param inputs input values identified by {@link Field#getName()}
+     * @return validation result of every field
+     */
+    @NonNull
+    public Result validate(@NonNull final Map<String, ? extends CharSequence> inputs) {
+        String[] errors = new String[mFields.length];
+        int invalid = 0;
+        for (int i = 0; i < mFields.length; i++) {
+            errors[i] = validate(i, inputs.get(mFields[i].getName()));
+            if (errors[i] != null) {
+                invalid++;
+            }
+        }
+        return new Result(errors, invalid);
+    }
+
+    /**
+     * Validates the input of a single field, e.g. on every keystroke. When field groups share a field name the value
+     * is validated against each of them.
+     *
+     * @param fieldName name of the field, refer to {@link Field#getName()}
+     * @param value     input value of the field
+     * @return validation error of the value or {@code null} if the value is valid or the field is unknown
+     */
+    @Nullable
+    @ValidationError
+    public String validate(@NonNull final String fieldName, @Nullable final CharSequence value) {
+        int[] indexes = mFieldIndex.get(fieldName);
+        if (indexes != null) {
+            for (int index : indexes) {
+                String error = validate(index, value);
+                if (error != null) {
+                    return error;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param fieldName name of the field
+     * @return first Field identified by {@code fieldName} if exists
+     */
+    @Nullable
+    public Field getField(@NonNull final String fieldName) {
+        int[] indexes = mFieldIndex.get(fieldName);
+        return indexes != null ? mFields[indexes[0]] : null;
+    }
+
+    @Nullable
+    @ValidationError
+    private String validate(final int index, @Nullable final CharSequence value) {
+        Field field = mFields[index];
+        int length = value != null ? value.length() : 0;
+        if (length == 0) {
+            return field.isRequired() ? ValidationErrors.EMPTY : null;
+        }
+        if (length < field.getMinLength() || length > field.getMaxLength()) {
+            return ValidationErrors.LENGTH;
+        }
+        if (mPatterns[index] != null && !mPatterns[index].matcher(value).matches()) {
+            return ValidationErrors.PATTERN;
+        }
+        return null;
+    }
+
+    /**
+     * A regular expression the platform can not compile does not restrict the input
+     */
+    @Nullable
+    private static Pattern compile(@Nullable final String regularExpression) {
+        if (regularExpression == null || regularExpression.isEmpty()) {
+            return null;
+        }
+        try {
+            return Pattern.compile(regularExpression);
+        } catch (PatternSyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Validation result of every field of a configuration
+     */
+    public final class Result {
+
+        private final String[] mErrors;
+        private final int mInvalidCount;
+
+        Result(@NonNull final String[] errors, final int invalidCount) {
+            mErrors = errors;
+            mInvalidCount = invalidCount;
+        }
+
+        /**
+         * @return {@code True} if every field is valid; {@code False} otherwise.
+         */
+        public boolean isValid() {
+            return mInvalidCount == 0;
+        }
+
+        /**
+         * @return number of invalid fields
+         */
+        public int getInvalidCount() {
+            return mInvalidCount;
+        }
+
+        /**
+         * @param fieldName name of the field
+         * @return validation error of the field or {@code null} if the field is valid or unknown
+         */
+        @Nullable
+        @ValidationError
+        public String getError(@NonNull final String fieldName) {
+            int index = findInvalid(fieldName);
+            return index != NOT_FOUND ? mErrors[index] : null;
+        }
+
+        /**
+         * @param fieldName name of the field
+         * @return {@link ValidationMessage} of the field if it is invalid, {@code null} otherwise
+         */
+        @Nullable
+        public ValidationMessage getValidationMessage(@NonNull final String fieldName) {
+            int index = findInvalid(fieldName);
+            return index != NOT_FOUND ? mFields[index].getValidationMessage() : null;
+        }
+
+        /**
+         * @param fieldName name of the field
+         * @return message of the {@link ValidationMessage} matching the validation error of the field, {@code null} if
+         * the field is valid or it has no message
+         */
+        @Nullable
+        public String getMessage(@NonNull final String fieldName) {
+            ValidationMessage validationMessage = getValidationMessage(fieldName);
+            if (validationMessage == null) {
+                return null;
+            }
+            switch (getError(fieldName)) {
+                case ValidationErrors.EMPTY:
+                    return validationMessage.getEmpty();
+                case ValidationErrors.LENGTH:
+                    return validationMessage.getLength();
+                default:
+                    return validationMessage.getPattern();
+            }
+        }
+
+        /**
+         * @return names of the invalid fields, in field group order; a name shared by field groups is listed for each
+         * invalid field
+         */
+        @NonNull
+        public List<String> getInvalidFieldNames() {
+            List<String> fieldNames = new ArrayList<>(mInvalidCount);
+            for (int i = 0; i < mErrors.length; i++) {
+                if (mErrors[i] != null) {
+                    fieldNames.add(mFields[i].getName());
+                }
+            }
+            return fieldNames;
+        }
+
+        private int findInvalid(@NonNull final String fieldName) {
+            int[] indexes = mFieldIndex.get(fieldName);
+            if (indexes != null) {
+                for (int index : indexes) {
+                    if (mErrors[index] != null) {
+                        return index;
+                    }
+                }
+            }
+            return NOT_FOUND;
+        }
+    }
+
+    @Retention(RetentionPolicy.SOURCE)
+    @StringDef({
+            ValidationErrors.EMPTY,
+            ValidationErrors.LENGTH,
+            ValidationErrors.PATTERN
+    })
+    public @interface ValidationError {
+    }
+
+    public final class ValidationErrors {
+        public static final String EMPTY = "EMPTY";
+        public static final String LENGTH = "LENGTH";
+        public static final String PATTERN = "PATTERN";
+    }
+}
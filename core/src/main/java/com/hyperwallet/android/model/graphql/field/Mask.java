@@ -25,7 +25,6 @@ import org.json.JSONObject;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * {@code Mask} represents input field information needed on Field Formatting.
@@ -63,6 +62,13 @@ public class Mask {
         }
     }
 
+    /**
+     * @return Pattern to apply when none of {@link #getConditionalPatterns()} matches the input
+     */
+    public String getDefaultPattern() {
+        return mDefaultPattern;
+    }
+
     /**
      * @return Regex used to cleanup display value to api value
      */
@@ -94,16 +100,33 @@ public class Mask {
     public String getPattern(@NonNull final String value) {
         if (containsConditionalPattern()) {
             for (ConditionalPattern conditionalPattern : mConditionalPatterns) {
-                Pattern pattern = Pattern.compile(conditionalPattern.getRegex());
-                Matcher matcher = pattern.matcher(value);
-                while (matcher.find()) {
-                    if (matcher.end() > 0) {
-                        return conditionalPattern.getPattern();
-                    }
+                if (isApplicable(conditionalPattern.getCompiledRegex().matcher(value))) {
+                    return conditionalPattern.getPattern();
                 }
             }
         }
         return mDefaultPattern;
     }
+
+    /**
+     * @return Formatter that applies this mask to input typed one character at a time
+     */
+    @NonNull
+    public MaskFormatter newFormatter() {
+        return new MaskFormatter(this);
+    }
+
+    /**
+     * @param matcher matcher of a conditional pattern regex, reset to the input to test
+     * @return {@code True} if the conditional pattern applies to the input; {@code False} otherwise.
+     */
+    static boolean isApplicable(@NonNull final Matcher matcher) {
+        while (matcher.find()) {
+            if (matcher.end() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
 
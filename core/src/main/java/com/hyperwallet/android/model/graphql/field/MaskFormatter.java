@@ -0,0 +1,349 @@
+/*
+ *  The MIT License (MIT)
+ *  Copyright (c) 2019 Hyperwallet Systems Inc.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the "Software"), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ *  sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ *  NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ *  NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.hyperwallet.android.model.graphql.field;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@code MaskFormatter} applies a {@link Mask} to input typed one character at a time.
+ *
+ * <p>Characters matching {@link Mask#getScrubRegex()} are dropped, the remaining ones are kept as the scrubbed
+ * (api) value and placed into the pattern selected by {@link Mask#getPattern(String)} to build the display value.
+ * In a pattern {@code #} stands for a digit, {@code @} for a letter, {@code *} for a letter or digit and
+ * {@code \} escapes the next character; any other character is a literal that is written as soon as the next
+ * input character is placed. Input that does not fit the pattern is rejected; when a typed character selects
+ * another conditional pattern, the input is placed into that pattern again and kept only if the typed character fits
+ * it, otherwise the previous input is restored unchanged.</p>
+ *
+ * <p>Both values are kept in reusable buffers, with a second set of buffers holding the previous input while it is
+ * placed into another pattern, and the conditional pattern regexes are matched with reusable matchers, so typing
+ * and deleting do not allocate unless the buffers need to grow. The scrub regex is evaluated against each character
+ * on its own. Instances are not thread safe.</p>
+ */
+public final class MaskFormatter {
+
+    private static final char DIGIT = '#';
+    private static final char LETTER = '@';
+    private static final char LETTER_OR_DIGIT = '*';
+    private static final char ESCAPE = '\\';
+    private static final int DEFAULT_CAPACITY = 32;
+
+    private final String mDefaultPattern;
+    private final Matcher[] mConditionalMatchers;
+    private final String[] mConditionalPatterns;
+    private final Matcher mScrubMatcher;
+    private final MutableChar mScrubInput = new MutableChar();
+    private final StringBuilder mScrubbed = new StringBuilder(DEFAULT_CAPACITY);
+    private final StringBuilder mFormatted = new StringBuilder(DEFAULT_CAPACITY);
+    private int[] mFormattedEnds = new int[DEFAULT_CAPACITY];
+    private int[] mPatternEnds = new int[DEFAULT_CAPACITY];
+    private final StringBuilder mPreviousScrubbed = new StringBuilder(DEFAULT_CAPACITY);
+    private final StringBuilder mPreviousFormatted = new StringBuilder(DEFAULT_CAPACITY);
+    private int[] mPreviousFormattedEnds = new int[DEFAULT_CAPACITY];
+    private int[] mPreviousPatternEnds = new int[DEFAULT_CAPACITY];
+    private String mPattern;
+    private int mPatternPosition;
+
+    /**
+     * Constructs a {@code MaskFormatter} for the specified mask, refer to {@link Mask#newFormatter()}
+     *
+     * @param mask mask to apply
+     */
+    MaskFormatter(@NonNull final Mask mask) {
+        mDefaultPattern = mask.getDefaultPattern() != null ? mask.getDefaultPattern() : "";
+        List<ConditionalPattern> conditionalPatterns = mask.getConditionalPatterns();
+        int size = mask.containsConditionalPattern() ? conditionalPatterns.size() : 0;
+        mConditionalMatchers = new Matcher[size];
+        mConditionalPatterns = new String[size];
+        for (int i = 0; i < size; i++) {
+            mConditionalMatchers[i] = conditionalPatterns.get(i).getCompiledRegex().matcher(mScrubbed);
+            mConditionalPatterns[i] = conditionalPatterns.get(i).getPattern();
+        }
+        String scrubRegex = mask.getScrubRegex();
+        mScrubMatcher = scrubRegex != null && !scrubRegex.isEmpty()
+                ? Pattern.compile(scrubRegex).matcher(mScrubInput) : null;
+        mPattern = selectPattern();
+    }
+
+    /**
+     * Types a character at the end of the input
+     *
+     * @param c character typed
+     * @return {@code True} if the character is now part of the input; {@code False} if it was scrubbed or it does not
+     * fit the pattern.
+     */
+    public boolean append(final char c) {
+        if (isScrubbed(c)) {
+            return false;
+        }
+        mScrubbed.append(c);
+        String pattern = selectPattern();
+        if (!pattern.equals(mPattern)) {
+            String previousPattern = mPattern;
+            int previousPatternPosition = mPatternPosition;
+            saveInput(mScrubbed.length() - 1);
+            mPattern = pattern;
+            if (reformat()) {
+                return true;
+            }
+            restoreInput();
+            mPattern = previousPattern;
+            mPatternPosition = previousPatternPosition;
+            return false;
+        }
+        if (place(c)) {
+            record(mScrubbed.length() - 1);
+            return true;
+        }
+        mScrubbed.setLength(mScrubbed.length() - 1);
+        return false;
+    }
+
+    /**
+     * Types every character of {@code text} at the end of the input
+     *
+     * @param text characters typed
+     * @return number of characters that are now part of the input
+     */
+    public int append(@NonNull final CharSequence text) {
+        int accepted = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (append(text.charAt(i))) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Deletes the last character of the input, together with the literals written before it
+     *
+     * @return {@code True} if a character was deleted; {@code False} if the input is empty.
+     */
+    public boolean delete() {
+        int length = mScrubbed.length();
+        if (length == 0) {
+            return false;
+        }
+        mScrubbed.setLength(length - 1);
+        mFormatted.setLength(length > 1 ? mFormattedEnds[length - 2] : 0);
+        mPatternPosition = length > 1 ? mPatternEnds[length - 2] : 0;
+        String pattern = selectPattern();
+        if (!pattern.equals(mPattern)) {
+            mPattern = pattern;
+            reformat();
+        }
+        return true;
+    }
+
+    /**
+     * Clears the input
+     */
+    public void clear() {
+        mScrubbed.setLength(0);
+        mFormatted.setLength(0);
+        mPatternPosition = 0;
+        mPattern = selectPattern();
+    }
+
+    /**
+     * @return Display value; the returned sequence is updated in place as input changes, use {@code toString()} to
+     * keep a copy
+     */
+    @NonNull
+    public CharSequence getFormattedValue() {
+        return mFormatted;
+    }
+
+    /**
+     * @return Api value with scrubbed characters removed; the returned sequence is updated in place as input changes,
+     * use {@code toString()} to keep a copy
+     */
+    @NonNull
+    public CharSequence getScrubbedValue() {
+        return mScrubbed;
+    }
+
+    /**
+     * @return Pattern currently applied to the input
+     */
+    @NonNull
+    public String getPattern() {
+        return mPattern;
+    }
+
+    private boolean isScrubbed(final char c) {
+        if (mScrubMatcher == null) {
+            return false;
+        }
+        mScrubInput.mChar = c;
+        return mScrubMatcher.reset().matches();
+    }
+
+    @NonNull
+    private String selectPattern() {
+        for (int i = 0; i < mConditionalMatchers.length; i++) {
+            if (Mask.isApplicable(mConditionalMatchers[i].reset(mScrubbed))) {
+                return mConditionalPatterns[i];
+            }
+        }
+        return mDefaultPattern;
+    }
+
+    /**
+     * Places every scrubbed character again after the pattern changed, dropping the ones that no longer fit
+     *
+     * @return {@code True} if the last character still fits; {@code False} otherwise.
+     */
+    private boolean reformat() {
+        int length = mScrubbed.length();
+        int kept = 0;
+        boolean lastKept = false;
+        mFormatted.setLength(0);
+        mPatternPosition = 0;
+        for (int i = 0; i < length; i++) {
+            char c = mScrubbed.charAt(i);
+            lastKept = place(c);
+            if (lastKept) {
+                mScrubbed.setCharAt(kept, c);
+                record(kept++);
+            }
+        }
+        mScrubbed.setLength(kept);
+        return lastKept;
+    }
+
+    /**
+     * Copies the first {@code length} scrubbed characters and their display value to the spare buffers
+     */
+    private void saveInput(final int length) {
+        mPreviousScrubbed.setLength(0);
+        mPreviousScrubbed.append(mScrubbed, 0, length);
+        mPreviousFormatted.setLength(0);
+        mPreviousFormatted.append(mFormatted);
+        if (mPreviousFormattedEnds.length < mFormattedEnds.length) {
+            mPreviousFormattedEnds = new int[mFormattedEnds.length];
+            mPreviousPatternEnds = new int[mPatternEnds.length];
+        }
+        System.arraycopy(mFormattedEnds, 0, mPreviousFormattedEnds, 0, length);
+        System.arraycopy(mPatternEnds, 0, mPreviousPatternEnds, 0, length);
+    }
+
+    /**
+     * Copies the input saved by {@link #saveInput(int)} back
+     */
+    private void restoreInput() {
+        int length = mPreviousScrubbed.length();
+        mScrubbed.setLength(0);
+        mScrubbed.append(mPreviousScrubbed);
+        mFormatted.setLength(0);
+        mFormatted.append(mPreviousFormatted);
+        System.arraycopy(mPreviousFormattedEnds, 0, mFormattedEnds, 0, length);
+        System.arraycopy(mPreviousPatternEnds, 0, mPatternEnds, 0, length);
+    }
+
+    /**
+     * Writes {@code c} to the next placeholder of the pattern, preceded by the literals before it
+     */
+    private boolean place(final char c) {
+        int length = mPattern.length();
+        if (length == 0) {
+            mFormatted.append(c);
+            return true;
+        }
+        int start = mFormatted.length();
+        int position = mPatternPosition;
+        while (position < length) {
+            char token = mPattern.charAt(position);
+            if (token == ESCAPE && position + 1 < length) {
+                mFormatted.append(mPattern.charAt(position + 1));
+                position += 2;
+            } else if (token == DIGIT || token == LETTER || token == LETTER_OR_DIGIT) {
+                if (!fits(token, c)) {
+                    break;
+                }
+                mFormatted.append(c);
+                mPatternPosition = position + 1;
+                return true;
+            } else {
+                mFormatted.append(token);
+                position++;
+            }
+        }
+        mFormatted.setLength(start);
+        return false;
+    }
+
+    private static boolean fits(final char token, final char c) {
+        switch (token) {
+            case DIGIT:
+                return Character.isDigit(c);
+            case LETTER:
+                return Character.isLetter(c);
+            default:
+                return Character.isLetterOrDigit(c);
+        }
+    }
+
+    private void record(final int index) {
+        if (index >= mFormattedEnds.length) {
+            int capacity = Math.max(index + 1, mFormattedEnds.length * 2);
+            mFormattedEnds = Arrays.copyOf(mFormattedEnds, capacity);
+            mPatternEnds = Arrays.copyOf(mPatternEnds, capacity);
+        }
+        mFormattedEnds[index] = mFormatted.length();
+        mPatternEnds[index] = mPatternPosition;
+    }
+
+    /**
+     * Single character input of the scrub regex matcher, reused for every character typed
+     */
+    private static final class MutableChar implements CharSequence {
+        private char mChar;
+
+        @Override
+        public int length() {
+            return 1;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            if (index != 0) {
+                throw new IndexOutOfBoundsException("index: " + index);
+            }
+            return mChar;
+        }
+
+        @NonNull
+        @Override
+        public CharSequence subSequence(final int start, final int end) {
+            return String.valueOf(mChar).subSequence(start, end);
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.valueOf(mChar);
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.hyperwallet.android.model.graphql.field;
 
 import androidx.annotation.NonNull;
 
+import com.hyperwallet.android.model.ModelFactory;
 import com.hyperwallet.android.model.graphql.Connection;
 
 import org.json.JSONException;
@@ -31,6 +32,16 @@ import java.util.List;
  */
 public class TransferMethodConfiguration {
 
+    public static final ModelFactory<TransferMethodConfiguration> FACTORY =
+            new ModelFactory<TransferMethodConfiguration>() {
+                @NonNull
+                @Override
+                public TransferMethodConfiguration fromJsonObject(@NonNull final JSONObject jsonObject)
+                        throws JSONException {
+                    return new TransferMethodConfiguration(jsonObject, FieldGroup.FACTORY);
+                }
+            };
+
     private static final String COUNTRY = "country";
     private static final String CURRENCY = "currency";
     private static final String FIELD_GROUPS = "fieldGroups";
@@ -42,6 +53,7 @@ public class TransferMethodConfiguration {
     private final String mProfile;
     private final String mTransferMethodType;
     private final Connection<FieldGroup> mFieldGroupConnection;
+    private volatile FieldValidator mFieldValidator;
 
     /**
      * Constructor to build transfer method configuration based on {@link JSONObject} representation
@@ -50,12 +62,19 @@ public class TransferMethodConfiguration {
      */
     public TransferMethodConfiguration(@NonNull final JSONObject configuration) throws JSONException,
             NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
+        this(configuration, FieldGroup.FACTORY);
+    }
+
+    /**
+     * Decodes {@code configuration} through the factories of its nodes, refer to {@link #FACTORY}
+     */
+    private TransferMethodConfiguration(@NonNull final JSONObject configuration,
+            @NonNull final ModelFactory<FieldGroup> fieldGroupFactory) throws JSONException {
         mCountry = configuration.getString(COUNTRY);
         mCurrency = configuration.getString(CURRENCY);
         mProfile = configuration.getString(PROFILE);
         mTransferMethodType = configuration.getString(TRANSFER_METHOD_TYPE);
-        mFieldGroupConnection = new Connection<>(configuration.getJSONObject(FIELD_GROUPS),
-                FieldGroup.class);
+        mFieldGroupConnection = new Connection<>(configuration.getJSONObject(FIELD_GROUPS), fieldGroupFactory);
     }
 
     public String getCountry() {
@@ -77,4 +96,17 @@ public class TransferMethodConfiguration {
     public List<FieldGroup> getFieldGroups() {
         return mFieldGroupConnection.getNodes();
     }
+
+    /**
+     * @return Validator of the fields of every {@link FieldGroup}, compiled on first use and reused afterwards
+     */
+    @NonNull
+    public FieldValidator getFieldValidator() {
+        FieldValidator fieldValidator = mFieldValidator;
+        if (fieldValidator == null) {
+            fieldValidator = new FieldValidator(getFieldGroups());
+            mFieldValidator = fieldValidator;
+        }
+        return fieldValidator;
+    }
 }
@@ -19,6 +19,7 @@ package com.hyperwallet.android.model.graphql.field;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.hyperwallet.android.model.ModelFactory;
 import com.hyperwallet.android.model.graphql.Connection;
 import com.hyperwallet.android.model.graphql.Fee;
 import com.hyperwallet.android.model.graphql.ProcessingTime;
@@ -33,6 +34,17 @@ import java.lang.reflect.InvocationTargetException;
  */
 public class TransferMethodConfigurationField {
 
+    public static final ModelFactory<TransferMethodConfigurationField> FACTORY =
+            new ModelFactory<TransferMethodConfigurationField>() {
+                @NonNull
+                @Override
+                public TransferMethodConfigurationField fromJsonObject(@NonNull final JSONObject jsonObject)
+                        throws JSONException {
+                    return new TransferMethodConfigurationField(jsonObject, Fee.FACTORY,
+                            TransferMethodConfiguration.FACTORY, ProcessingTime.FACTORY);
+                }
+            };
+
     private static final String TRANSFER_FEE = "fees";
     private static final String TRANSFER_METHOD_CONFIGURATION = "transferMethodUIConfigurations";
     private static final String PROCESSING_TIMES = "processingTimes";
@@ -48,19 +60,33 @@ public class TransferMethodConfigurationField {
      */
     public TransferMethodConfigurationField(@NonNull final JSONObject configuration) throws JSONException,
             NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
+        this(configuration, Fee.FACTORY, TransferMethodConfiguration.FACTORY, ProcessingTime.FACTORY);
+    }
+
+    /**
+     * Decodes {@code configuration} through the factories of its nodes, refer to {@link #FACTORY}
+     */
+    private TransferMethodConfigurationField(@NonNull final JSONObject configuration,
+            @NonNull final ModelFactory<Fee> feeFactory,
+            @NonNull final ModelFactory<TransferMethodConfiguration> transferMethodConfigurationFactory,
+            @NonNull final ModelFactory<ProcessingTime> processingTimeFactory) throws JSONException {
         JSONObject fees = configuration.optJSONObject(TRANSFER_FEE);
         if (fees != null && fees.length() != 0) {
-            mFeeConnection = new Connection<>(fees, Fee.class);
+            mFeeConnection = new Connection<>(fees, feeFactory);
         } else {
             mFeeConnection = null;
         }
-        mTransferMethodConfigurationConnection = new Connection<>
-                (configuration.getJSONObject(TRANSFER_METHOD_CONFIGURATION),
-                        TransferMethodConfiguration.class);
+        JSONObject transferMethodConfiguration = configuration.optJSONObject(TRANSFER_METHOD_CONFIGURATION);
+        if (transferMethodConfiguration != null) {
+            mTransferMethodConfigurationConnection = new Connection<>(transferMethodConfiguration,
+                    transferMethodConfigurationFactory);
+        } else {
+            mTransferMethodConfigurationConnection = null;
+        }
 
         JSONObject processingTime = configuration.optJSONObject(PROCESSING_TIMES);
         if (processingTime != null && processingTime.length() != 0) {
-            mProcessingTimeConnection = new Connection<>(processingTime, ProcessingTime.class);
+            mProcessingTimeConnection = new Connection<>(processingTime, processingTimeFactory);
         } else {
             mProcessingTimeConnection = null;
         }
@@ -75,8 +101,10 @@ public class TransferMethodConfigurationField {
     }
 
     /**
-     * @return {@link Connection} of {@link TransferMethodConfiguration}
+     * @return {@link Connection} of {@link TransferMethodConfiguration}, {@code null} when the fields were not
+     * requested
      */
+    @Nullable
     public Connection<TransferMethodConfiguration> getTransferMethodConfigurationConnection() {
         return mTransferMethodConfigurationConnection;
     }
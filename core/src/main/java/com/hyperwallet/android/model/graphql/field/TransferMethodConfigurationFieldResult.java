@@ -19,6 +19,8 @@ package com.hyperwallet.android.model.graphql.field;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.hyperwallet.android.model.ModelFactory;
+import com.hyperwallet.android.model.graphql.Connection;
 import com.hyperwallet.android.model.graphql.Fee;
 import com.hyperwallet.android.model.graphql.GqlResponse;
 import com.hyperwallet.android.model.graphql.HyperwalletTransferMethodConfigurationField;
@@ -36,23 +38,42 @@ import java.util.List;
 public class TransferMethodConfigurationFieldResult extends GqlResponse<TransferMethodConfigurationField> implements
         HyperwalletTransferMethodConfigurationField {
 
+    public static final ModelFactory<TransferMethodConfigurationFieldResult> FACTORY =
+            new ModelFactory<TransferMethodConfigurationFieldResult>() {
+                @NonNull
+                @Override
+                public TransferMethodConfigurationFieldResult fromJsonObject(@NonNull final JSONObject jsonObject)
+                        throws JSONException {
+                    return new TransferMethodConfigurationFieldResult(jsonObject,
+                            TransferMethodConfigurationField.FACTORY);
+                }
+            };
+
     /**
      * Construct a {@code TransferMethodConfigurationFieldResult} object from {@link JSONObject}
      * representation
      */
     public TransferMethodConfigurationFieldResult(@NonNull final JSONObject response)
             throws ReflectiveOperationException, JSONException {
-        super(response, TransferMethodConfigurationField.class);
+        this(response, TransferMethodConfigurationField.FACTORY);
+    }
+
+    /**
+     * Decodes {@code response} through the factories of its nodes, refer to {@link #FACTORY}
+     */
+    private TransferMethodConfigurationFieldResult(@NonNull final JSONObject response,
+            @NonNull final ModelFactory<TransferMethodConfigurationField> fieldFactory) throws JSONException {
+        super(response, fieldFactory);
     }
 
     /**
-     * @return {@link TransferMethodConfiguration} representation
+     * @return {@link TransferMethodConfiguration} representation, {@code null} when the fields were not requested
      */
     @Override
     @Nullable
     public TransferMethodConfiguration getFields() {
-        return !getData().getTransferMethodConfigurationConnection().getNodes().isEmpty()
-                ? getData().getTransferMethodConfigurationConnection().getNodes().get(0) : null;
+        Connection<TransferMethodConfiguration> connection = getData().getTransferMethodConfigurationConnection();
+        return Connection.hasNodes(connection) ? connection.getNodes().get(0) : null;
     }
 
     /**
@@ -19,6 +19,8 @@ package com.hyperwallet.android.model.graphql.keyed;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.hyperwallet.android.model.ModelFactory;
+
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -33,6 +35,14 @@ import java.util.Set;
  */
 public class Country implements KeyedNode {
 
+    public static final ModelFactory<Country> FACTORY = new ModelFactory<Country>() {
+        @NonNull
+        @Override
+        public Country fromJsonObject(@NonNull final JSONObject jsonObject) throws JSONException {
+            return new Country(jsonObject, Currency.FACTORY);
+        }
+    };
+
     private static final String COUNTRY_CODE = NODE_CODE;
     private static final String COUNTRY_NAME = NODE_NAME;
     private static final String CURRENCIES = "currencies";
@@ -47,14 +57,22 @@ public class Country implements KeyedNode {
      *
      * @param country JSON object that represents country data
      */
-    public Country(@NonNull final JSONObject country) throws JSONException, NoSuchMethodException,
-            IllegalAccessException, InvocationTargetException, InstantiationException {
+    public Country(@NonNull final JSONObject country) throws JSONException,
+            NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
+        this(country, Currency.FACTORY);
+    }
+
+    /**
+     * Decodes {@code country} through the factories of its nodes, refer to {@link #FACTORY}
+     */
+    private Country(@NonNull final JSONObject country,
+            @NonNull final ModelFactory<Currency> currencyFactory) throws JSONException {
         mCode = country.optString(COUNTRY_CODE);
         mName = country.optString(COUNTRY_NAME);
         mCurrencies = new LinkedHashSet<>(1);
         JSONObject currencies = country.optJSONObject(CURRENCIES);
         if (currencies != null && currencies.length() != 0) {
-            mCurrencyMappedConnection = new MappedConnection<>(currencies, Currency.class);
+            mCurrencyMappedConnection = new MappedConnection<>(currencies, currencyFactory);
         } else {
             mCurrencyMappedConnection = null;
         }
@@ -19,6 +19,7 @@ package com.hyperwallet.android.model.graphql.keyed;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.hyperwallet.android.model.ModelFactory;
 import com.hyperwallet.android.model.transfermethod.TransferMethod;
 
 import org.json.JSONException;
@@ -34,6 +35,14 @@ import java.util.Set;
  */
 public class Currency implements KeyedNode {
 
+    public static final ModelFactory<Currency> FACTORY = new ModelFactory<Currency>() {
+        @NonNull
+        @Override
+        public Currency fromJsonObject(@NonNull final JSONObject jsonObject) throws JSONException {
+            return new Currency(jsonObject, TransferMethodType.FACTORY);
+        }
+    };
+
     private static final String CURRENCY_CODE = NODE_CODE;
     private static final String CURRENCY_NAME = NODE_NAME;
     private static final String TRANSFER_METHOD_TYPES = "transferMethodTypes";
@@ -48,15 +57,23 @@ public class Currency implements KeyedNode {
      *
      * @param currency JSON object that represents currency data
      */
-    public Currency(@NonNull final JSONObject currency) throws JSONException, NoSuchMethodException,
-            IllegalAccessException, InstantiationException, InvocationTargetException {
+    public Currency(@NonNull final JSONObject currency) throws JSONException,
+            NoSuchMethodException, IllegalAccessException, InstantiationException, InvocationTargetException {
+        this(currency, TransferMethodType.FACTORY);
+    }
+
+    /**
+     * Decodes {@code currency} through the factories of its nodes, refer to {@link #FACTORY}
+     */
+    private Currency(@NonNull final JSONObject currency,
+            @NonNull final ModelFactory<TransferMethodType> transferMethodTypeFactory) throws JSONException {
         mCode = currency.optString(CURRENCY_CODE);
         mName = currency.optString(CURRENCY_NAME);
         mTransferMethodTypes = new LinkedHashSet<>(1);
         JSONObject transferMethodTypes = currency.optJSONObject(TRANSFER_METHOD_TYPES);
         if (transferMethodTypes != null && transferMethodTypes.length() != 0) {
             mTransferMethodTypeMappedConnection =
-                    new MappedConnection<>(transferMethodTypes, TransferMethodType.class);
+                    new MappedConnection<>(transferMethodTypes, transferMethodTypeFactory);
         } else {
             mTransferMethodTypeMappedConnection = null;
         }
@@ -19,15 +19,16 @@ package com.hyperwallet.android.model.graphql.keyed;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.hyperwallet.android.model.ModelFactory;
 import com.hyperwallet.android.model.graphql.Connection;
+import com.hyperwallet.android.util.ModelFactoryRegistry;
 
-import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -54,15 +55,25 @@ public class MappedConnection<T extends KeyedNode> extends Connection<T> {
      */
     public MappedConnection(@NonNull final JSONObject data, @NonNull Class clazz) throws NoSuchMethodException,
             JSONException, IllegalAccessException, InstantiationException, InvocationTargetException {
+        this(data, ModelFactoryRegistry.<T>get(clazz));
+    }
 
-        super(data, clazz);
-        Constructor<?> constructor = clazz.getConstructor(JSONObject.class);
-        JSONArray jsonArray = data.optJSONArray(NODES);
-        if (jsonArray != null && jsonArray.length() != 0) {
-            mNodes = new LinkedHashMap<>(jsonArray.length());
-            for (int i = 0; i < jsonArray.length(); i++) {
-                T obj = (T) constructor.newInstance(jsonArray.getJSONObject(i));
-                mNodes.put(obj.getCode(), obj);
+    /**
+     * Constructor to build MappedConnection based on {@link JSONObject} representation and node factory.
+     * Each node is decoded once by {@link Connection} and the same instance is indexed by {@link KeyedNode#getCode()}
+     *
+     * @param data    JSON object that represents data
+     * @param factory factory of the node type, refer to {@link ModelFactoryRegistry}
+     */
+    public MappedConnection(@NonNull final JSONObject data, @NonNull final ModelFactory<T> factory)
+            throws JSONException {
+        super(data, factory);
+        List<T> nodes = getNodes();
+        if (nodes != null && !nodes.isEmpty()) {
+            mNodes = new LinkedHashMap<>(nodes.size() * 4 / 3 + 1);
+            for (int i = 0; i < nodes.size(); i++) {
+                T node = nodes.get(i);
+                mNodes.put(node.getCode(), node);
             }
         } else {
             mNodes = null;
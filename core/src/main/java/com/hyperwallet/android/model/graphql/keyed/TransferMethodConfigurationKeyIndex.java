@@ -0,0 +1,322 @@
+/*
+ *  The MIT License (MIT)
+ *  Copyright (c) 2019 Hyperwallet Systems Inc.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the "Software"), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ *  sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ *  NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ *  NON INFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.hyperwallet.android.model.graphql.keyed;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable flat index of the country, currency and transfer method type combinations of a
+ * {@link TransferMethodConfigurationKeyResult}, built once when the result is constructed.
+ *
+ * <p>Every combination is stored as an {@link Entry} in a single array ordered by country, currency and transfer
+ * method type, so iterating the entries of a (country, currency) pair is a range scan. Codes are interned so equal
+ * codes share the same instance across countries, and a (country, currency) pair is resolved in constant time
+ * without allocating.</p>
+ */
+public final class TransferMethodConfigurationKeyIndex {
+
+    private static final int NOT_FOUND = -1;
+
+    private final Map<String, Integer> mCountryIndex;
+    private final Map<String, Integer> mCurrencyOrdinals;
+    private final Country[] mCountries;
+    private final Currency[] mCurrencies;
+    private final int[] mCurrencyStart;
+    private final int[] mEntryStart;
+    private final Entry[] mEntries;
+    private final int[] mSlotKeys;
+    private final int[] mSlotValues;
+
+    /**
+     * Builds the index of the specified countries, in their iteration order
+     *
+     * @param countries countries to index
+     */
+    public TransferMethodConfigurationKeyIndex(@NonNull final Collection<Country> countries) {
+        Map<String, String> codes = new HashMap<>();
+        List<Currency> currencies = new ArrayList<>();
+        List<Entry> entries = new ArrayList<>();
+        mCountryIndex = new HashMap<>(countries.size() * 4 / 3 + 1);
+        mCurrencyOrdinals = new HashMap<>();
+        mCountries = countries.toArray(new Country[countries.size()]);
+        mCurrencyStart = new int[mCountries.length + 1];
+        List<Integer> entryStart = new ArrayList<>();
+
+        for (int i = 0; i < mCountries.length; i++) {
+            Country country = mCountries[i];
+            String countryCode = intern(codes, country.getCode());
+            if (!mCountryIndex.containsKey(countryCode)) {
+                mCountryIndex.put(countryCode, i);
+            }
+            mCurrencyStart[i] = currencies.size();
+            for (Currency currency : country.getCurrencies()) {
+                String currencyCode = intern(codes, currency.getCode());
+                if (!mCurrencyOrdinals.containsKey(currencyCode)) {
+                    mCurrencyOrdinals.put(currencyCode, mCurrencyOrdinals.size());
+                }
+                currencies.add(currency);
+                entryStart.add(entries.size());
+                for (TransferMethodType type : currency.getTransferMethodTypes()) {
+                    entries.add(new Entry(country, currency, type, countryCode, currencyCode,
+                            intern(codes, type.getCode())));
+                }
+            }
+        }
+        mCurrencyStart[mCountries.length] = currencies.size();
+        mCurrencies = currencies.toArray(new Currency[currencies.size()]);
+        mEntries = entries.toArray(new Entry[entries.size()]);
+        mEntryStart = new int[mCurrencies.length + 1];
+        for (int i = 0; i < mCurrencies.length; i++) {
+            mEntryStart[i] = entryStart.get(i);
+        }
+        mEntryStart[mCurrencies.length] = mEntries.length;
+
+        int capacity = Integer.highestOneBit(Math.max(mCurrencies.length, 1) * 2) << 1;
+        mSlotKeys = new int[capacity];
+        mSlotValues = new int[capacity];
+        Arrays.fill(mSlotKeys, NOT_FOUND);
+        for (int i = 0; i < mCountries.length; i++) {
+            for (int slot = mCurrencyStart[i]; slot < mCurrencyStart[i + 1]; slot++) {
+                int key = slotKey(i, mCurrencyOrdinals.get(mCurrencies[slot].getCode()));
+                int position = probe(key);
+                if (mSlotKeys[position] == NOT_FOUND) {
+                    mSlotKeys[position] = key;
+                    mSlotValues[position] = slot;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return number of (country, currency, transfer method type) combinations indexed
+     */
+    public int getSize() {
+        return mEntries.length;
+    }
+
+    /**
+     * @param index position of the combination, from 0 to {@link #getSize()} - 1
+     * @return combination at the specified position
+     */
+    @NonNull
+    public Entry getEntry(final int index) {
+        return mEntries[index];
+    }
+
+    /**
+     * @param countryCode represented in ISO 3166-1 alpha-2 code format
+     * @return Country identified by {@code countryCode} if exists
+     */
+    @Nullable
+    public Country getCountry(@NonNull final String countryCode) {
+        Integer country = mCountryIndex.get(countryCode);
+        return country != null ? mCountries[country] : null;
+    }
+
+    /**
+     * @param countryCode  represented in ISO 3166-1 alpha-2 code format
+     * @param currencyCode represented in ISO 4217 three letter code format
+     * @return Currency identified by {@code currencyCode} configured for {@code countryCode} if exists
+     */
+    @Nullable
+    public Currency getCurrency(@NonNull final String countryCode, @NonNull final String currencyCode) {
+        int slot = findSlot(countryCode, currencyCode);
+        return slot != NOT_FOUND ? mCurrencies[slot] : null;
+    }
+
+    /**
+     * @param countryCode  represented in ISO 3166-1 alpha-2 code format
+     * @param currencyCode represented in ISO 4217 three letter code format
+     * @return Set of {@code TransferMethodType} configured for the country and currency if exists
+     */
+    @Nullable
+    public Set<TransferMethodType> getTransferMethodTypes(@NonNull final String countryCode,
+            @NonNull final String currencyCode) {
+        int slot = findSlot(countryCode, currencyCode);
+        return slot != NOT_FOUND ? mCurrencies[slot].getTransferMethodTypes() : null;
+    }
+
+    /**
+     * Collects every combination accepted by {@code filter}, in index order. The filter is called with the indexed
+     * entries themselves, so the only allocation is the returned list.
+     *
+     * @param filter condition a combination must satisfy
+     * @return combinations accepted by {@code filter}
+     */
+    @NonNull
+    public List<Entry> query(@NonNull final Filter filter) {
+        List<Entry> result = null;
+        for (Entry entry : mEntries) {
+            if (filter.accept(entry)) {
+                if (result == null) {
+                    result = new ArrayList<>();
+                }
+                result.add(entry);
+            }
+        }
+        return result != null ? result : Collections.<Entry>emptyList();
+    }
+
+    /**
+     * Collects every combination of a country and currency accepted by {@code filter}, scanning only the entries of
+     * that pair
+     *
+     * @param countryCode  represented in ISO 3166-1 alpha-2 code format
+     * @param currencyCode represented in ISO 4217 three letter code format
+     * @param filter       condition a combination must satisfy
+     * @return combinations accepted by {@code filter}
+     */
+    @NonNull
+    public List<Entry> query(@NonNull final String countryCode, @NonNull final String currencyCode,
+            @NonNull final Filter filter) {
+        int slot = findSlot(countryCode, currencyCode);
+        if (slot == NOT_FOUND) {
+            return Collections.emptyList();
+        }
+        List<Entry> result = null;
+        for (int i = mEntryStart[slot]; i < mEntryStart[slot + 1]; i++) {
+            if (filter.accept(mEntries[i])) {
+                if (result == null) {
+                    result = new ArrayList<>(mEntryStart[slot + 1] - i);
+                }
+                result.add(mEntries[i]);
+            }
+        }
+        return result != null ? result : Collections.<Entry>emptyList();
+    }
+
+    private int findSlot(@NonNull final String countryCode, @NonNull final String currencyCode) {
+        Integer country = mCountryIndex.get(countryCode);
+        Integer currency = mCurrencyOrdinals.get(currencyCode);
+        if (country == null || currency == null) {
+            return NOT_FOUND;
+        }
+        int position = probe(slotKey(country, currency));
+        return mSlotKeys[position] != NOT_FOUND ? mSlotValues[position] : NOT_FOUND;
+    }
+
+    private int slotKey(final int country, final int currency) {
+        return country * mCurrencyOrdinals.size() + currency;
+    }
+
+    /**
+     * @return position holding {@code key}, or the empty position where it would be stored
+     */
+    private int probe(final int key) {
+        int mask = mSlotKeys.length - 1;
+        int hash = key * 0x9E3779B9;
+        int position = (hash ^ (hash >>> 16)) & mask;
+        while (mSlotKeys[position] != NOT_FOUND && mSlotKeys[position] != key) {
+            position = (position + 1) & mask;
+        }
+        return position;
+    }
+
+    private static String intern(@NonNull final Map<String, String> codes, @NonNull final String code) {
+        String interned = codes.get(code);
+        if (interned == null) {
+            codes.put(code, code);
+            return code;
+        }
+        return interned;
+    }
+
+    /**
+     * Condition evaluated against every indexed combination by {@link #query(Filter)}
+     */
+    public interface Filter {
+
+        /**
+         * @param entry indexed combination
+         * @return true if the combination should be part of the query result
+         */
+        boolean accept(@NonNull Entry entry);
+    }
+
+    /**
+     * Single (country, currency, transfer method type) combination
+     */
+    public static final class Entry {
+
+        private final Country mCountry;
+        private final Currency mCurrency;
+        private final TransferMethodType mTransferMethodType;
+        private final String mCountryCode;
+        private final String mCurrencyCode;
+        private final String mTransferMethodTypeCode;
+
+        Entry(@NonNull final Country country, @NonNull final Currency currency,
+                @NonNull final TransferMethodType transferMethodType, @NonNull final String countryCode,
+                @NonNull final String currencyCode, @NonNull final String transferMethodTypeCode) {
+            mCountry = country;
+            mCurrency = currency;
+            mTransferMethodType = transferMethodType;
+            mCountryCode = countryCode;
+            mCurrencyCode = currencyCode;
+            mTransferMethodTypeCode = transferMethodTypeCode;
+        }
+
+        @NonNull
+        public Country getCountry() {
+            return mCountry;
+        }
+
+        @NonNull
+        public Currency getCurrency() {
+            return mCurrency;
+        }
+
+        @NonNull
+        public TransferMethodType getTransferMethodType() {
+            return mTransferMethodType;
+        }
+
+        /**
+         * @return interned country code, shared by every entry of the same country
+         */
+        @NonNull
+        public String getCountryCode() {
+            return mCountryCode;
+        }
+
+        /**
+         * @return interned currency code, shared by every entry of the same currency
+         */
+        @NonNull
+        public String getCurrencyCode() {
+            return mCurrencyCode;
+        }
+
+        /**
+         * @return interned transfer method type code, shared by every entry of the same type
+         */
+        @NonNull
+        public String getTransferMethodTypeCode() {
+            return mTransferMethodTypeCode;
+        }
+    }
+}
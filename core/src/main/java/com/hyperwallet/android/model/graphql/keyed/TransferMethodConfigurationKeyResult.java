@@ -19,6 +19,7 @@ package com.hyperwallet.android.model.graphql.keyed;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.hyperwallet.android.model.ModelFactory;
 import com.hyperwallet.android.model.graphql.GqlResponse;
 import com.hyperwallet.android.model.graphql.HyperwalletTransferMethodConfigurationKey;
 import com.hyperwallet.android.model.graphql.TransferMethodConfigurationKey;
@@ -35,8 +36,19 @@ import java.util.Set;
 public class TransferMethodConfigurationKeyResult extends GqlResponse<TransferMethodConfigurationKey>
         implements HyperwalletTransferMethodConfigurationKey {
 
+    public static final ModelFactory<TransferMethodConfigurationKeyResult> FACTORY =
+            new ModelFactory<TransferMethodConfigurationKeyResult>() {
+                @NonNull
+                @Override
+                public TransferMethodConfigurationKeyResult fromJsonObject(@NonNull final JSONObject jsonObject)
+                        throws JSONException {
+                    return new TransferMethodConfigurationKeyResult(jsonObject, TransferMethodConfigurationKey.FACTORY);
+                }
+            };
+
     private final TransferMethodConfigurationKey mTransferMethodConfigurationKey;
     private final Set<Country> mCountries;
+    private final TransferMethodConfigurationKeyIndex mIndex;
 
     /**
      * Constructor to build TransferMethodConfigurationKeyResult based on {@link JSONObject}
@@ -45,14 +57,31 @@ public class TransferMethodConfigurationKeyResult extends GqlResponse<TransferMe
      */
     public TransferMethodConfigurationKeyResult(@NonNull JSONObject data)
             throws ReflectiveOperationException, JSONException {
-        super(data, TransferMethodConfigurationKey.class);
+        this(data, TransferMethodConfigurationKey.FACTORY);
+    }
+
+    /**
+     * Decodes {@code data} through the factories of its nodes, refer to {@link #FACTORY}
+     */
+    private TransferMethodConfigurationKeyResult(@NonNull JSONObject data,
+            @NonNull final ModelFactory<TransferMethodConfigurationKey> keyFactory) throws JSONException {
+        super(data, keyFactory);
         mTransferMethodConfigurationKey = getData();
         mCountries = new LinkedHashSet<>(mTransferMethodConfigurationKey.getCountries());
+        mIndex = new TransferMethodConfigurationKeyIndex(mCountries);
+    }
+
+    /**
+     * @return flat index of every country, currency and transfer method type combination of this result
+     */
+    @NonNull
+    public TransferMethodConfigurationKeyIndex getIndex() {
+        return mIndex;
     }
 
     @Override
     public Country getCountry(@NonNull String countryCode) {
-        return mTransferMethodConfigurationKey.getCountry(countryCode);
+        return mIndex.getCountry(countryCode);
     }
 
     @Override
@@ -63,17 +92,14 @@ public class TransferMethodConfigurationKeyResult extends GqlResponse<TransferMe
     @Override
     @Nullable
     public Set<Currency> getCurrencies(@NonNull final String countryCode) {
-        return mTransferMethodConfigurationKey.getCountry(countryCode) != null ?
-                mTransferMethodConfigurationKey.getCountry(countryCode).getCurrencies() : null;
+        Country country = mIndex.getCountry(countryCode);
+        return country != null ? country.getCurrencies() : null;
     }
 
     @Override
     @Nullable
     public Set<TransferMethodType> getTransferMethodType(@NonNull final String countryCode,
             @NonNull final String currencyCode) {
-        return mTransferMethodConfigurationKey.getCountry(countryCode) != null ?
-                mTransferMethodConfigurationKey.getCountry(countryCode).getCurrency(currencyCode) != null ?
-                        mTransferMethodConfigurationKey.getCountry(countryCode).getCurrency(currencyCode)
-                                .getTransferMethodTypes() : null : null;
+        return mIndex.getTransferMethodTypes(countryCode, currencyCode);
     }
 }
@@ -5,6 +5,7 @@ import static com.hyperwallet.android.model.graphql.Connection.hasNodes;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.hyperwallet.android.model.ModelFactory;
 import com.hyperwallet.android.model.graphql.Connection;
 import com.hyperwallet.android.model.graphql.Fee;
 import com.hyperwallet.android.model.graphql.ProcessingTime;
@@ -23,6 +24,14 @@ import java.util.Set;
  */
 public class TransferMethodType implements KeyedNode {
 
+    public static final ModelFactory<TransferMethodType> FACTORY = new ModelFactory<TransferMethodType>() {
+        @NonNull
+        @Override
+        public TransferMethodType fromJsonObject(@NonNull final JSONObject jsonObject) throws JSONException {
+            return new TransferMethodType(jsonObject, Fee.FACTORY, ProcessingTime.FACTORY);
+        }
+    };
+
     private static final String TRANSFER_METHOD_CODE = NODE_CODE;
     private static final String TRANSFER_METHOD_NAME = NODE_NAME;
     private static final String TRANSFER_METHOD_FEES = "fees";
@@ -42,19 +51,28 @@ public class TransferMethodType implements KeyedNode {
      */
     public TransferMethodType(@NonNull final JSONObject transferMethodType) throws JSONException,
             NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
+        this(transferMethodType, Fee.FACTORY, ProcessingTime.FACTORY);
+    }
+
+    /**
+     * Decodes {@code transferMethodType} through the factories of its nodes, refer to {@link #FACTORY}
+     */
+    private TransferMethodType(@NonNull final JSONObject transferMethodType,
+            @NonNull final ModelFactory<Fee> feeFactory,
+            @NonNull final ModelFactory<ProcessingTime> processingTimeFactory) throws JSONException {
         mCode = transferMethodType.optString(TRANSFER_METHOD_CODE);
         mName = transferMethodType.optString(TRANSFER_METHOD_NAME);
         mFees = new LinkedHashSet<>(1);
         JSONObject fees = transferMethodType.optJSONObject(TRANSFER_METHOD_FEES);
         if (fees != null && fees.length() != 0) {
-            mFeeConnection = new Connection<>(fees, Fee.class);
+            mFeeConnection = new Connection<>(fees, feeFactory);
         } else {
             mFeeConnection = null;
         }
 
         JSONObject processingTime = transferMethodType.optJSONObject(TRANSFER_METHOD_PROCESSING_TIMES);
         if (processingTime != null && processingTime.length() != 0) {
-            mProcessingTimeConnection = new Connection<>(processingTime, ProcessingTime.class);
+            mProcessingTimeConnection = new Connection<>(processingTime, processingTimeFactory);
         } else {
             mProcessingTimeConnection = null;
         }
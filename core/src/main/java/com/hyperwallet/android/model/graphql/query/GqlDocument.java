@@ -0,0 +1,206 @@
+/*
+ *  The MIT License (MIT)
+ *  Copyright (c) 2018 Hyperwallet Systems Inc.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the "Software"), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ *  sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ *  NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ *  NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.hyperwallet.android.model.graphql.query;
+
+import androidx.annotation.NonNull;
+
+import org.json.JSONObject;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * {@code GqlDocument} is a GraphQL query document compiled once per query type.
+ *
+ * <p>The source is minified when compiled: whitespace, commas and comments are dropped except for a single space
+ * between two names or numbers, while string literals are kept as written. The JSON encoding of the document is
+ * also computed once, so building the request payload only appends the variables.</p>
+ *
+ * <p>For automatic persisted queries the SHA-256 hash of the minified document is computed the first time it is
+ * needed and kept with the document, that is once per query type; refer to
+ * {@link #toPersistedPayload(JSONObject, boolean)}.</p>
+ */
+public final class GqlDocument {
+
+    private static final String QUERY = "query";
+    private static final String VARIABLES = "variables";
+    private static final String BLOCK_STRING = "\"\"\"";
+    private static final String EXTENSIONS = "extensions";
+    private static final String PERSISTED_QUERY = "persistedQuery";
+    private static final String VERSION = "version";
+    private static final String SHA256_HASH = "sha256Hash";
+    private static final int PERSISTED_QUERY_VERSION = 1;
+
+    private final String mDocument;
+    private final String mPayloadPrefix;
+    private volatile String mHash;
+    private volatile String mPersistedQueryExtension;
+
+    private GqlDocument(@NonNull final String document) {
+        mDocument = document;
+        mPayloadPrefix = "{" + JSONObject.quote(QUERY) + ":" + JSONObject.quote(document) + ","
+                + JSONObject.quote(VARIABLES) + ":";
+    }
+
+    /**
+     * Compiles a query document
+     *
+     * @param source GraphQL query document, formatted for readability
+     * @return compiled document
+     */
+    @NonNull
+    public static GqlDocument compile(@NonNull final String source) {
+        return new GqlDocument(minify(source));
+    }
+
+    /**
+     * @return minified query document
+     */
+    @NonNull
+    public String getDocument() {
+        return mDocument;
+    }
+
+    /**
+     * Builds the request payload of this document, e.g. {@code {"query":"...","variables":{...}}}
+     *
+     * @param variables values of the variables declared by the document
+     * @return JSON payload that can be posted to the Hyperwallet platforms GraphQL schema
+     */
+    @NonNull
+    public String toPayload(@NonNull final JSONObject variables) {
+        return mPayloadPrefix + variables.toString() + "}";
+    }
+
+    /**
+     * @return lowercase hexadecimal SHA-256 hash of {@link #getDocument()}, the id of the document as a persisted
+     * query
+     */
+    @NonNull
+    public String getHash() {
+        String hash = mHash;
+        if (hash == null) {
+            hash = digest(mDocument);
+            mHash = hash;
+        }
+        return hash;
+    }
+
+    /**
+     * Builds the request payload of this document as an automatic persisted query, e.g.
+     * {@code {"variables":{...},"extensions":{"persistedQuery":{"version":1,"sha256Hash":"..."}}}}. The server runs
+     * the document it has registered under the hash, or answers with a {@code PersistedQueryNotFound} error; the
+     * request is then sent again including the document, so that the server registers it.
+     *
+     * @param variables       values of the variables declared by the document
+     * @param includeDocument {@code True} to send the document along with its hash
+     * @return JSON payload that can be posted to the Hyperwallet platforms GraphQL schema
+     */
+    @NonNull
+    public String toPersistedPayload(@NonNull final JSONObject variables, final boolean includeDocument) {
+        String extension = mPersistedQueryExtension;
+        if (extension == null) {
+            extension = JSONObject.quote(EXTENSIONS) + ":{" + JSONObject.quote(PERSISTED_QUERY) + ":{"
+                    + JSONObject.quote(VERSION) + ":" + PERSISTED_QUERY_VERSION + ","
+                    + JSONObject.quote(SHA256_HASH) + ":" + JSONObject.quote(getHash()) + "}}}";
+            mPersistedQueryExtension = extension;
+        }
+        String prefix = includeDocument ? mPayloadPrefix : "{" + JSONObject.quote(VARIABLES) + ":";
+        return prefix + variables.toString() + "," + extension;
+    }
+
+    @NonNull
+    private static String digest(@NonNull final String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @NonNull
+    static String minify(@NonNull final String source) {
+        StringBuilder document = new StringBuilder(source.length());
+        boolean separate = false;
+        int length = source.length();
+        int i = 0;
+        while (i < length) {
+            char c = source.charAt(i);
+            if (c == '#') {
+                while (i < length && source.charAt(i) != '\n' && source.charAt(i) != '\r') {
+                    i++;
+                }
+            } else if (Character.isWhitespace(c) || c == ',' || c == '\ufeff') {
+                separate = document.length() > 0;
+                i++;
+            } else if (c == '"') {
+                int end = source.startsWith(BLOCK_STRING, i) ? endOfBlockString(source, i) : endOfString(source, i);
+                document.append(source, i, end);
+                separate = false;
+                i = end;
+            } else {
+                if (separate && isNameCharacter(document.charAt(document.length() - 1)) && isNameCharacter(c)) {
+                    document.append(' ');
+                }
+                document.append(c);
+                separate = false;
+                i++;
+            }
+        }
+        return document.toString();
+    }
+
+    private static int endOfString(@NonNull final String source, final int start) {
+        int i = start + 1;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == '"') {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        return source.length();
+    }
+
+    private static int endOfBlockString(@NonNull final String source, final int start) {
+        int i = start + BLOCK_STRING.length();
+        while (i < source.length()) {
+            if (source.startsWith("\\" + BLOCK_STRING, i)) {
+                i += BLOCK_STRING.length() + 1;
+            } else if (source.startsWith(BLOCK_STRING, i)) {
+                return i + BLOCK_STRING.length();
+            } else {
+                i++;
+            }
+        }
+        return source.length();
+    }
+
+    private static boolean isNameCharacter(final char c) {
+        return c == '_' || (c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+}
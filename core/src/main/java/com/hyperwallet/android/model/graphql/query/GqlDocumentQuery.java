@@ -0,0 +1,47 @@
+/*
+ *  The MIT License (MIT)
+ *  Copyright (c) 2018 Hyperwallet Systems Inc.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the "Software"), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ *  sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ *  NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ *  NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.hyperwallet.android.model.graphql.query;
+
+import androidx.annotation.NonNull;
+
+import org.json.JSONObject;
+
+/**
+ * A {@link GqlQuery} that is sent as a constant, precompiled {@link GqlDocument} together with a separate JSON
+ * {@code variables} object, instead of formatting its values into the query text.
+ *
+ * <p>Implementations keep the document in a static field so it is compiled once per query type, and usually
+ * implement {@link #toQuery(String)} as {@code getDocument().toPayload(getVariables(userToken))}.</p>
+ */
+public interface GqlDocumentQuery extends GqlQuery {
+
+    /**
+     * @return the compiled query document, shared by every query of this type
+     */
+    @NonNull
+    GqlDocument getDocument();
+
+    /**
+     * Returns the values of the variables declared by {@link #getDocument()}
+     *
+     * @param userToken the unique identifier for the User that the query pertains to
+     * @return variables of the query
+     */
+    @NonNull
+    JSONObject getVariables(@NonNull String userToken);
+}
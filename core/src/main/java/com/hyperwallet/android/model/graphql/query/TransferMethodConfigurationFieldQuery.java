@@ -19,99 +19,111 @@ package com.hyperwallet.android.model.graphql.query;
 
 
 import androidx.annotation.NonNull;
+import androidx.annotation.StringDef;
 
 import com.hyperwallet.android.model.transfermethod.TransferMethod;
 
+import org.json.JSONObject;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * The {@code TransferMethodConfigurationFieldQuery} class defines and builds a query to retrieve the fields
  * required to create a transfer method (Bank Account, Bank Card, PayPay Account, Prepaid Card, Paper Check)
  * with the Hyperwallet platform.
+ *
+ * <p>By default the query requests every {@link Sections section} and every {@link FieldAttributes field attribute};
+ * use {@link Builder} to request only the ones a screen needs, which shrinks both the response and its parsing.</p>
  */
-public class TransferMethodConfigurationFieldQuery implements GqlQuery {
-
-    private static final String GRAPH_QL_REQUEST =
-            "query TransferMethodConfigurationFieldsWithFees (\n"
-                    + "\t\t$idToken: String =  \"%s\"\n"
-                    + "\t\t$country: Country = %s\n"
-                    + "\t\t$currency: Currency = %s\n"
-                    + "\t\t$transferMethodType: TransferMethodType = %s\n"
-                    + "\t\t$profileType: Profile = %s\n"
-                    + "){\n"
-                    + "\ttransferMethodUIConfigurations (idToken: $idToken, profileType: $profileType\n"
-                    + "\t\tcountry: $country,currency: $currency, transferMethodType: $transferMethodType) {\n"
-                    + "\t\tnodes {\n"
-                    + "\t\t\tcountry\n"
-                    + "\t\t\tcurrency\n"
-                    + "\t\t\ttransferMethodType\n"
-                    + "\t\t\tprofile\n"
-                    + "\t\t\tfieldGroups {\n"
-                    + "\t\t\t\tnodes {\n"
-                    + "\t\t\t\t\tgroup\n"
-                    + "\t\t\t\t\tfields {\n"
-                    + "\t\t\t\t\t\tcategory\n"
-                    + "\t\t\t\t\t\tdataType\n"
-                    + "\t\t\t\t\t\tisEditable\n"
-                    + "\t\t\t\t\t\tfieldSelectionOptions {\n"
+public class TransferMethodConfigurationFieldQuery implements GqlDocumentQuery {
+
+    private static final String[] SECTIONS = {
+            Sections.FIELDS,
+            Sections.FEES,
+            Sections.PROCESSING_TIMES
+    };
+    private static final String[] FIELD_ATTRIBUTES = {
+            FieldAttributes.CATEGORY,
+            FieldAttributes.DATA_TYPE,
+            FieldAttributes.IS_EDITABLE,
+            FieldAttributes.FIELD_SELECTION_OPTIONS,
+            FieldAttributes.FILE_SIZE,
+            FieldAttributes.FILE_TYPES,
+            FieldAttributes.LABEL,
+            FieldAttributes.MAX_LENGTH,
+            FieldAttributes.MIN_LENGTH,
+            FieldAttributes.PLACEHOLDER,
+            FieldAttributes.REGULAR_EXPRESSION,
+            FieldAttributes.MASK,
+            FieldAttributes.IS_REQUIRED,
+            FieldAttributes.VALUE,
+            FieldAttributes.VALIDATION_MESSAGE
+    };
+    private static final String[] FIELD_ATTRIBUTE_SELECTIONS = {
+            "category",
+            "dataType",
+            "isEditable",
+            "fieldSelectionOptions {\n"
                     + "\t\t\t\t\t\t\tlabel\n"
                     + "\t\t\t\t\t\t\tvalue\n"
-                    + "\t\t\t\t\t\t}\n"
-                    + "\t\t\t\t\t\tfileSize {\n"
+                    + "\t\t\t\t\t\t}",
+            "fileSize {\n"
                     + "\t\t\t\t\t\t\tmin\n"
                     + "\t\t\t\t\t\t\tmax\n"
-                    + "\t\t\t\t\t\t}\n"
-                    + "\t\t\t\t\t\tfileTypes\n"
-                    + "\t\t\t\t\t\tlabel\n"
-                    + "\t\t\t\t\t\tmaxLength\n"
-                    + "\t\t\t\t\t\tminLength\n"
-                    + "\t\t\t\t\t\tname\n"
-                    + "\t\t\t\t\t\tplaceholder\n"
-                    + "\t\t\t\t\t\tregularExpression\n"
-                    + "\t\t\t\t\t\tmask {\n"
-                    + "\t\t\t\t\t\t\t\tdefaultPattern\n"
-                    + "\t\t\t\t\t\t\t\tscrubRegex\n"
-                    + "\t\t\t\t\t\t\t\tconditionalPatterns {\n"
-                    + "\t\t\t\t\t\t\t\t\tpattern\n"
-                    + "\t\t\t\t\t\t\t\t\tregex\n"
-                    + "\t\t\t\t\t\t\t\t}\n"
-                    + "\t\t\t\t\t\t}\n"
-                    + "\t\t\t\t\t\tisRequired\n"
-                    + "\t\t\t\t\t\tvalue\n"
-                    + "\t\t\t\t\t\tvalidationMessage {\n"
+                    + "\t\t\t\t\t\t}",
+            "fileTypes",
+            "label",
+            "maxLength",
+            "minLength",
+            "placeholder",
+            "regularExpression",
+            "mask {\n"
+                    + "\t\t\t\t\t\t\tdefaultPattern\n"
+                    + "\t\t\t\t\t\t\tscrubRegex\n"
+                    + "\t\t\t\t\t\t\tconditionalPatterns {\n"
+                    + "\t\t\t\t\t\t\t\tpattern\n"
+                    + "\t\t\t\t\t\t\t\tregex\n"
+                    + "\t\t\t\t\t\t\t}\n"
+                    + "\t\t\t\t\t\t}",
+            "isRequired",
+            "value",
+            "validationMessage {\n"
                     + "\t\t\t\t\t\t\tlength\n"
                     + "\t\t\t\t\t\t\tpattern\n"
                     + "\t\t\t\t\t\t\tempty\n"
-                    + "\t\t\t\t\t\t}\n"
-                    + "\t\t\t\t\t}\n"
-                    + "\t\t\t\t}\n"
-                    + "\t\t\t}\n"
-                    + "\t\t}\n"
-                    + "\t},\n"
-                    + "\tfees (idToken: $idToken, country: $country,currency: $currency, \n"
-                    + "\t\t\ttransferMethodType: $transferMethodType) {\n"
-                    + "\t\t\tnodes {\n"
-                    + "\t\t\t\tvalue\n"
-                    + "\t\t\t\tfeeRateType\n"
-                    + "\t\t\t\tminimum\n"
-                    + "\t\t\t\tmaximum\n"
-                    + "\t\t\t\tcountry\n"
-                    + "\t\t\t\tcurrency\n"
-                    + "\t\t}\n"
-                    + "\t},\n"
-                    + "\tprocessingTimes (idToken: $idToken, country: $country, currency: $currency, \n"
-                    + "\t\t\ttransferMethodType: $transferMethodType) {\n"
-                    + "\t\t\tnodes {\n"
-                    + "\t\t\t\tcountry\n"
-                    + "\t\t\t\tcurrency\n"
-                    + "\t\t\t\ttransferMethodType\n"
-                    + "\t\t\t\tvalue\n"
-                    + "\t\t}\n"
-                    + "\t}\n"
-                    + "}";
+                    + "\t\t\t\t\t\t}"
+    };
+    // the name of the fields is always requested, it is selected among the attributes in this position
+    private static final int NAME_POSITION = 9;
+    private static final int FIELDS_SECTION = 1;
+    private static final int FEES_SECTION = 1 << 1;
+    private static final int PROCESSING_TIMES_SECTION = 1 << 2;
+    private static final int ALL_SECTIONS = (1 << SECTIONS.length) - 1;
+    private static final int ALL_FIELD_ATTRIBUTES = (1 << FIELD_ATTRIBUTES.length) - 1;
+
+    private static final Map<Integer, GqlDocument> DOCUMENTS = new ConcurrentHashMap<>();
+    private static final GqlDocument DOCUMENT = getDocument(ALL_SECTIONS, ALL_FIELD_ATTRIBUTES);
+
+    private static final String ID_TOKEN = "idToken";
+    private static final String COUNTRY = "country";
+    private static final String CURRENCY = "currency";
+    private static final String TRANSFER_METHOD_TYPE = "transferMethodType";
+    private static final String PROFILE_TYPE = "profileType";
 
     private final String mCountry;
     private final String mCurrency;
     private final String mProfile;
     private final String mTransferMethodType;
+    private final int mSections;
+    private final int mFieldAttributes;
+    private final GqlDocument mDocument;
 
     /**
      * Create a new {@code TransferMethodConfigurationQuery} from the country, currency, transferMethodType
@@ -127,10 +139,99 @@ public class TransferMethodConfigurationFieldQuery implements GqlQuery {
             @NonNull final String currency,
             @NonNull @TransferMethod.TransferMethodType final String transferMethodType,
             @NonNull final String profile) {
+        this(country, currency, transferMethodType, profile, ALL_SECTIONS, ALL_FIELD_ATTRIBUTES);
+    }
+
+    private TransferMethodConfigurationFieldQuery(@NonNull final String country, @NonNull final String currency,
+            @NonNull final String transferMethodType, @NonNull final String profile, final int sections,
+            final int fieldAttributes) {
         mCountry = country;
         mCurrency = currency;
         mTransferMethodType = transferMethodType;
         mProfile = profile;
+        mSections = sections;
+        mFieldAttributes = fieldAttributes;
+        mDocument = sections == ALL_SECTIONS && fieldAttributes == ALL_FIELD_ATTRIBUTES
+                ? DOCUMENT : getDocument(sections, fieldAttributes);
+    }
+
+    /**
+     * @return the 2 letter ISO 3166-1 country code
+     */
+    @NonNull
+    public String getCountry() {
+        return mCountry;
+    }
+
+    /**
+     * @return the 3 letter ISO 4217-1 currency code
+     */
+    @NonNull
+    public String getCurrency() {
+        return mCurrency;
+    }
+
+    /**
+     * @return the transfer method type, refer to {@link TransferMethod.TransferMethodTypes}
+     */
+    @NonNull
+    public String getTransferMethodType() {
+        return mTransferMethodType;
+    }
+
+    /**
+     * @return {@code INDIVIDUAL} or {@code BUSINESS}
+     */
+    @NonNull
+    public String getProfile() {
+        return mProfile;
+    }
+
+    /**
+     * @return the sections requested, refer to {@link Sections}
+     */
+    @NonNull
+    public Set<String> getSections() {
+        return toSet(SECTIONS, mSections);
+    }
+
+    /**
+     * @return the attributes requested for every field besides its name, refer to {@link FieldAttributes}; empty
+     * when the {@link Sections#FIELDS} are not requested
+     */
+    @NonNull
+    public Set<String> getFieldAttributes() {
+        return (mSections & FIELDS_SECTION) != 0 ? toSet(FIELD_ATTRIBUTES, mFieldAttributes)
+                : Collections.<String>emptySet();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public GqlDocument getDocument() {
+        return mDocument;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param userToken {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public JSONObject getVariables(@NonNull final String userToken) {
+        Map<String, String> variables = new LinkedHashMap<>(5);
+        variables.put(ID_TOKEN, userToken);
+        variables.put(COUNTRY, mCountry);
+        variables.put(CURRENCY, mCurrency);
+        variables.put(TRANSFER_METHOD_TYPE, mTransferMethodType);
+        if ((mSections & FIELDS_SECTION) != 0) {
+            variables.put(PROFILE_TYPE, mProfile);
+        }
+        return new JSONObject(variables);
     }
 
     /**
@@ -141,7 +242,243 @@ public class TransferMethodConfigurationFieldQuery implements GqlQuery {
      */
     @Override
     public String toQuery(@NonNull final String userToken) {
-        return String.format(GRAPH_QL_REQUEST, userToken, mCountry, mCurrency, mTransferMethodType, mProfile);
+        return mDocument.toPayload(getVariables(userToken));
+    }
+
+    /**
+     * @return the document requesting the {@code sections} and {@code fieldAttributes} specified, compiled the first
+     * time it is needed
+     */
+    @NonNull
+    private static GqlDocument getDocument(final int sections, final int fieldAttributes) {
+        int selection = (sections & FIELDS_SECTION) != 0 ? sections << FIELD_ATTRIBUTES.length | fieldAttributes
+                : sections << FIELD_ATTRIBUTES.length;
+        GqlDocument document = DOCUMENTS.get(selection);
+        if (document == null) {
+            document = GqlDocument.compile(getSource(sections, fieldAttributes));
+            DOCUMENTS.put(selection, document);
+        }
+        return document;
+    }
+
+    @NonNull
+    private static String getSource(final int sections, final int fieldAttributes) {
+        boolean fields = (sections & FIELDS_SECTION) != 0;
+        StringBuilder source = new StringBuilder("query TransferMethodConfigurationFieldsWithFees (\n"
+                + "\t\t$idToken: String\n"
+                + "\t\t$country: Country\n"
+                + "\t\t$currency: Currency\n"
+                + "\t\t$transferMethodType: TransferMethodType\n");
+        if (fields) {
+            source.append("\t\t$profileType: Profile\n");
+        }
+        source.append("){\n");
+        if (fields) {
+            source.append("\ttransferMethodUIConfigurations (idToken: $idToken, profileType: $profileType\n"
+                    + "\t\tcountry: $country,currency: $currency, transferMethodType: $transferMethodType) {\n"
+                    + "\t\tnodes {\n"
+                    + "\t\t\tcountry\n"
+                    + "\t\t\tcurrency\n"
+                    + "\t\t\ttransferMethodType\n"
+                    + "\t\t\tprofile\n"
+                    + "\t\t\tfieldGroups {\n"
+                    + "\t\t\t\tnodes {\n"
+                    + "\t\t\t\t\tgroup\n"
+                    + "\t\t\t\t\tfields {\n");
+            for (int i = 0; i < FIELD_ATTRIBUTE_SELECTIONS.length; i++) {
+                if (i == NAME_POSITION) {
+                    source.append("\t\t\t\t\t\tname\n");
+                }
+                if ((fieldAttributes & 1 << i) != 0) {
+                    source.append("\t\t\t\t\t\t").append(FIELD_ATTRIBUTE_SELECTIONS[i]).append('\n');
+                }
+            }
+            source.append("\t\t\t\t\t}\n"
+                    + "\t\t\t\t}\n"
+                    + "\t\t\t}\n"
+                    + "\t\t}\n"
+                    + "\t},\n");
+        }
+        if ((sections & FEES_SECTION) != 0) {
+            source.append("\tfees (idToken: $idToken, country: $country,currency: $currency, \n"
+                    + "\t\t\ttransferMethodType: $transferMethodType) {\n"
+                    + "\t\t\tnodes {\n"
+                    + "\t\t\t\tvalue\n"
+                    + "\t\t\t\tfeeRateType\n"
+                    + "\t\t\t\tminimum\n"
+                    + "\t\t\t\tmaximum\n"
+                    + "\t\t\t\tcountry\n"
+                    + "\t\t\t\tcurrency\n"
+                    + "\t\t}\n"
+                    + "\t},\n");
+        }
+        if ((sections & PROCESSING_TIMES_SECTION) != 0) {
+            source.append("\tprocessingTimes (idToken: $idToken, country: $country, currency: $currency, \n"
+                    + "\t\t\ttransferMethodType: $transferMethodType) {\n"
+                    + "\t\t\tnodes {\n"
+                    + "\t\t\t\tcountry\n"
+                    + "\t\t\t\tcurrency\n"
+                    + "\t\t\t\ttransferMethodType\n"
+                    + "\t\t\t\tvalue\n"
+                    + "\t\t}\n"
+                    + "\t}\n");
+        }
+        return source.append("}").toString();
+    }
+
+    @NonNull
+    private static Set<String> toSet(@NonNull final String[] values, final int bits) {
+        Set<String> set = new LinkedHashSet<>(values.length);
+        for (int i = 0; i < values.length; i++) {
+            if ((bits & 1 << i) != 0) {
+                set.add(values[i]);
+            }
+        }
+        return Collections.unmodifiableSet(set);
+    }
+
+    private static int toBits(@NonNull final String[] values, @NonNull final String[] selected) {
+        int bits = 0;
+        for (String value : selected) {
+            int i = 0;
+            while (i < values.length && !values[i].equals(value)) {
+                i++;
+            }
+            if (i == values.length) {
+                throw new IllegalArgumentException("unknown selection: " + value);
+            }
+            bits |= 1 << i;
+        }
+        return bits;
+    }
+
+    @Retention(RetentionPolicy.SOURCE)
+    @StringDef({
+            Sections.FIELDS,
+            Sections.FEES,
+            Sections.PROCESSING_TIMES
+    })
+    public @interface Section {
+    }
+
+    @Retention(RetentionPolicy.SOURCE)
+    @StringDef({
+            FieldAttributes.CATEGORY,
+            FieldAttributes.DATA_TYPE,
+            FieldAttributes.IS_EDITABLE,
+            FieldAttributes.FIELD_SELECTION_OPTIONS,
+            FieldAttributes.FILE_SIZE,
+            FieldAttributes.FILE_TYPES,
+            FieldAttributes.LABEL,
+            FieldAttributes.MAX_LENGTH,
+            FieldAttributes.MIN_LENGTH,
+            FieldAttributes.PLACEHOLDER,
+            FieldAttributes.REGULAR_EXPRESSION,
+            FieldAttributes.MASK,
+            FieldAttributes.IS_REQUIRED,
+            FieldAttributes.VALUE,
+            FieldAttributes.VALIDATION_MESSAGE
+    })
+    public @interface FieldAttribute {
+    }
+
+    /**
+     * Sections of the response that can be requested
+     */
+    public final class Sections {
+        public static final String FIELDS = "transferMethodUIConfigurations";
+        public static final String FEES = "fees";
+        public static final String PROCESSING_TIMES = "processingTimes";
+
+        private Sections() {
+        }
+    }
+
+    /**
+     * Attributes of the fields that can be requested, the name of the fields is always requested
+     */
+    public final class FieldAttributes {
+        public static final String CATEGORY = "category";
+        public static final String DATA_TYPE = "dataType";
+        public static final String IS_EDITABLE = "isEditable";
+        public static final String FIELD_SELECTION_OPTIONS = "fieldSelectionOptions";
+        public static final String FILE_SIZE = "fileSize";
+        public static final String FILE_TYPES = "fileTypes";
+        public static final String LABEL = "label";
+        public static final String MAX_LENGTH = "maxLength";
+        public static final String MIN_LENGTH = "minLength";
+        public static final String PLACEHOLDER = "placeholder";
+        public static final String REGULAR_EXPRESSION = "regularExpression";
+        public static final String MASK = "mask";
+        public static final String IS_REQUIRED = "isRequired";
+        public static final String VALUE = "value";
+        public static final String VALIDATION_MESSAGE = "validationMessage";
+
+        private FieldAttributes() {
+        }
     }
-}
 
+    /**
+     * Builder for {@link TransferMethodConfigurationFieldQuery}, to request only some of the sections or field
+     * attributes, e.g. only {@link Sections#FEES} and {@link Sections#PROCESSING_TIMES} for a confirmation screen
+     */
+    public static final class Builder {
+        private final String mCountry;
+        private final String mCurrency;
+        private final String mTransferMethodType;
+        private final String mProfile;
+        private int mSections = ALL_SECTIONS;
+        private int mFieldAttributes = ALL_FIELD_ATTRIBUTES;
+
+        /**
+         * Construct a builder requesting every section and field attribute
+         *
+         * @param country            the 2 letter ISO 3166-1 country code
+         * @param currency           the 3 letter ISO 4217-1 currency code
+         * @param transferMethodType available transfer types defined in
+         *                           {@link TransferMethod.TransferMethodTypes}
+         * @param profile            {@code INDIVIDUAL} or {@code BUSINESS}
+         */
+        public Builder(@NonNull final String country, @NonNull final String currency,
+                @NonNull @TransferMethod.TransferMethodType final String transferMethodType,
+                @NonNull final String profile) {
+            mCountry = country;
+            mCurrency = currency;
+            mTransferMethodType = transferMethodType;
+            mProfile = profile;
+        }
+
+        /**
+         * Defines the sections requested, every section by default
+         *
+         * @param sections sections of the response, refer to {@link Sections}; at least one
+         */
+        public Builder sections(@NonNull @Section final String... sections) {
+            if (sections.length == 0) {
+                throw new IllegalArgumentException("at least one section must be requested");
+            }
+            mSections = toBits(SECTIONS, sections);
+            return this;
+        }
+
+        /**
+         * Defines the attributes requested for every field besides its name, every attribute by default. Only
+         * applies when the {@link Sections#FIELDS} are requested.
+         *
+         * @param fieldAttributes attributes of the fields, refer to {@link FieldAttributes}; none to request the
+         *                        names of the fields only
+         */
+        public Builder fieldAttributes(@NonNull @FieldAttribute final String... fieldAttributes) {
+            mFieldAttributes = toBits(FIELD_ATTRIBUTES, fieldAttributes);
+            return this;
+        }
+
+        /**
+         * @return query requesting the sections and field attributes defined
+         */
+        public TransferMethodConfigurationFieldQuery build() {
+            return new TransferMethodConfigurationFieldQuery(mCountry, mCurrency, mTransferMethodType, mProfile,
+                    mSections, mFieldAttributes);
+        }
+    }
+}
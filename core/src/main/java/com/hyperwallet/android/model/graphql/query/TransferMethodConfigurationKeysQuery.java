@@ -20,6 +20,11 @@ package com.hyperwallet.android.model.graphql.query;
 import androidx.annotation.NonNull;
 import androidx.annotation.VisibleForTesting;
 
+import org.json.JSONObject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * The {@code TransferMethodConfigurationKeysQuery} class defines and builds a query to retrieve the key set
  * that is required to construct a {@code TransferMethodConfigurationFieldQuery}.
@@ -27,12 +32,12 @@ import androidx.annotation.VisibleForTesting;
  * <p>In addition to the key set, the query will also retrieve the processing time and fees associated with each
  * country, currency, transfer method type, and profile tuple.</p>
  */
-public class TransferMethodConfigurationKeysQuery implements GqlQuery {
+public class TransferMethodConfigurationKeysQuery implements GqlDocumentQuery {
 
     @VisibleForTesting
-    static final String GRAPH_QL_REQUEST_CONFIGURATION =
-            "query {\n"
-                    + "\tcountries(idToken: \"%s\") {\n"
+    static final GqlDocument DOCUMENT = GqlDocument.compile(
+            "query TransferMethodConfigurationKeys($idToken: String) {\n"
+                    + "\tcountries(idToken: $idToken) {\n"
                     + "\t\tnodes {\n"
                     + "\t\t\tcode\n"
                     + "\t\t\tname\n"
@@ -69,7 +74,9 @@ public class TransferMethodConfigurationKeysQuery implements GqlQuery {
                     + "\t\t\t}\n"
                     + "\t\t}\n"
                     + "\t}\n"
-                    + "}";
+                    + "}");
+
+    private static final String ID_TOKEN = "idToken";
 
     /**
      * Constructs a {@code TransferMethodConfigurationKeysQuery}.
@@ -77,6 +84,29 @@ public class TransferMethodConfigurationKeysQuery implements GqlQuery {
     public TransferMethodConfigurationKeysQuery() {
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public GqlDocument getDocument() {
+        return DOCUMENT;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param userToken {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public JSONObject getVariables(@NonNull final String userToken) {
+        Map<String, String> variables = new LinkedHashMap<>(1);
+        variables.put(ID_TOKEN, userToken);
+        return new JSONObject(variables);
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -85,7 +115,6 @@ public class TransferMethodConfigurationKeysQuery implements GqlQuery {
      */
     @Override
     public String toQuery(@NonNull final String userToken) {
-        return String.format(GRAPH_QL_REQUEST_CONFIGURATION, userToken);
+        return DOCUMENT.toPayload(getVariables(userToken));
     }
 }
-
@@ -22,6 +22,9 @@ import androidx.annotation.RestrictTo;
 
 import org.json.JSONObject;
 
+import java.util.Collections;
+import java.util.Map;
+
 /**
  * {@code PageLink} representation
  */
@@ -43,6 +46,17 @@ public class PageLink {
         mPageParameter = new PageParameter(fields.optJSONObject(PAGE_PARAMS));
     }
 
+    /**
+     * Constructs a {@code PageLink} object from Map of key-value pair representation
+     *
+     * @param fields raw data representation
+     */
+    public PageLink(@NonNull final Map<String, Object> fields) {
+        mPageRef = fields.get(PAGE_HREF) != null ? fields.get(PAGE_HREF).toString() : "";
+        mPageParameter = new PageParameter(fields.get(PAGE_PARAMS) instanceof Map
+                ? (Map<String, Object>) fields.get(PAGE_PARAMS) : Collections.<String, Object>emptyMap());
+    }
+
     /**
      * @return Page reference link information
      */
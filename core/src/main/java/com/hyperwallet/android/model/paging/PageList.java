@@ -21,13 +21,17 @@ import androidx.annotation.NonNull;
 import androidx.annotation.VisibleForTesting;
 
 import com.hyperwallet.android.exception.HyperwalletException;
+import com.hyperwallet.android.model.MapModelFactory;
+import com.hyperwallet.android.model.ModelFactory;
+import com.hyperwallet.android.util.ModelFactoryRegistry;
 
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DTO for the the paged list response
@@ -55,33 +59,51 @@ public class PageList<T> {
     public PageList(@NonNull final JSONObject page, @NonNull final Class<T> clazz)
             throws HyperwalletException {
         try {
-            JSONArray jsonArray = page.getJSONArray(DATA);
-            if (jsonArray != null) {
-                mDataList = new ArrayList<>();
-                for (int i = 0; i < jsonArray.length(); i++) {
-                    Constructor<T> constructor = clazz.getConstructor(JSONObject.class);
-                    mDataList.add(constructor.newInstance(jsonArray.getJSONObject(i)));
-                }
-            }
+            init(page, ModelFactoryRegistry.<T>get(clazz));
         } catch (Exception e) {
             throw new HyperwalletException(e);
         }
+    }
 
-        try {
-            JSONArray jsonArray = page.getJSONArray(PAGE_LINKS);
-            if (jsonArray != null) {
-                mPageLinks = new ArrayList<>();
-                for (int i = 0; i < jsonArray.length(); i++) {
-                    mPageLinks.add(new PageLink(jsonArray.optJSONObject(i)));
-                }
+    /**
+     * Construct a {@code PageList} object from {@link JSONObject} representation and element factory
+     *
+     * @param page    raw data representation
+     * @param factory factory of the element type, refer to {@link ModelFactoryRegistry}
+     */
+    public PageList(@NonNull final JSONObject page, @NonNull final ModelFactory<T> factory) throws JSONException {
+        init(page, factory);
+    }
+
+    /**
+     * Construct a {@code PageList} object from Map of key-value pair representation and element factory
+     *
+     * <p>Every element of {@code data} is decoded from its own Map of key-value pair, refer to
+     * {@link com.hyperwallet.android.util.JsonUtils#fromJsonStream}</p>
+     *
+     * @param page    raw data representation
+     * @param factory factory of the element type, refer to {@link ModelFactoryRegistry}
+     */
+    public PageList(@NonNull final Map<String, Object> page, @NonNull final MapModelFactory<T> factory) {
+        if (page.get(DATA) instanceof List) {
+            List<Map<String, Object>> data = (List<Map<String, Object>>) page.get(DATA);
+            mDataList = new ArrayList<>(data.size());
+            for (Map<String, Object> fields : data) {
+                mDataList.add(factory.fromMap(fields));
             }
-        } catch (Exception e) {
-            throw new HyperwalletException(e);
         }
 
-        mCount = page.optInt(COUNT, 0);
-        mLimit = page.optInt(LIMIT, 0);
-        mOffset = page.optInt(OFFSET, 0);
+        if (page.get(PAGE_LINKS) instanceof List) {
+            List<Map<String, Object>> links = (List<Map<String, Object>>) page.get(PAGE_LINKS);
+            mPageLinks = new ArrayList<>(links.size());
+            for (Map<String, Object> fields : links) {
+                mPageLinks.add(new PageLink(fields));
+            }
+        }
+
+        mCount = page.get(COUNT) instanceof Number ? ((Number) page.get(COUNT)).intValue() : 0;
+        mLimit = page.get(LIMIT) instanceof Number ? ((Number) page.get(LIMIT)).intValue() : 0;
+        mOffset = page.get(OFFSET) instanceof Number ? ((Number) page.get(OFFSET)).intValue() : 0;
     }
 
     @VisibleForTesting
@@ -89,6 +111,24 @@ public class PageList<T> {
         mDataList = dataList;
     }
 
+    private void init(@NonNull final JSONObject page, @NonNull final ModelFactory<T> factory) throws JSONException {
+        JSONArray jsonArray = page.getJSONArray(DATA);
+        mDataList = new ArrayList<>(jsonArray.length());
+        for (int i = 0; i < jsonArray.length(); i++) {
+            mDataList.add(factory.fromJsonObject(jsonArray.getJSONObject(i)));
+        }
+
+        JSONArray linksArray = page.getJSONArray(PAGE_LINKS);
+        mPageLinks = new ArrayList<>(linksArray.length());
+        for (int i = 0; i < linksArray.length(); i++) {
+            mPageLinks.add(new PageLink(linksArray.optJSONObject(i)));
+        }
+
+        mCount = page.optInt(COUNT, 0);
+        mLimit = page.optInt(LIMIT, 0);
+        mOffset = page.optInt(OFFSET, 0);
+    }
+
     /**
      * @return page list size
      */
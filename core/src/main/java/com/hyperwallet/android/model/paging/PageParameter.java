@@ -17,8 +17,12 @@
  */
 package com.hyperwallet.android.model.paging;
 
+import androidx.annotation.NonNull;
+
 import org.json.JSONObject;
 
+import java.util.Map;
+
 /**
  * {@code PageParameter} representation
  */
@@ -36,6 +40,15 @@ public class PageParameter {
         mRel = jsonObject.optString(REL);
     }
 
+    /**
+     * Construct a {@code PageParameter} object from Map of key-value pair representation
+     *
+     * @param fields raw data information
+     */
+    public PageParameter(@NonNull final Map<String, Object> fields) {
+        mRel = fields.get(REL) != null ? fields.get(REL).toString() : "";
+    }
+
     public String getRel() {
         return mRel;
     }
@@ -124,6 +124,7 @@ import androidx.annotation.Nullable;
 import androidx.annotation.StringDef;
 
 import com.hyperwallet.android.model.JsonModel;
+import com.hyperwallet.android.model.MapModelFactory;
 import com.hyperwallet.android.util.JsonUtils;
 
 import org.json.JSONException;
@@ -154,6 +155,21 @@ public final class Receipt implements JsonModel, Parcelable {
                     return new Receipt[0];
                 }
             };
+
+    public static final MapModelFactory<Receipt> FACTORY = new MapModelFactory<Receipt>() {
+        @NonNull
+        @Override
+        public Receipt fromJsonObject(@NonNull final JSONObject jsonObject) throws JSONException {
+            return new Receipt(jsonObject);
+        }
+
+        @NonNull
+        @Override
+        public Receipt fromMap(@NonNull final Map<String, Object> fields) {
+            return new Receipt(fields);
+        }
+    };
+
     private Map<String, Object> mFields;
 
     /**
@@ -173,9 +189,12 @@ public final class Receipt implements JsonModel, Parcelable {
      *
      * @param fields map of key-value pair
      */
-    private Receipt(@NonNull Map<String, Object> fields) {
+    public Receipt(@NonNull Map<String, Object> fields) {
         super();
         setFields(fields);
+        if (mFields.get(DETAILS) instanceof Map) {
+            mFields.put(DETAILS, new ReceiptDetails((Map<String, Object>) mFields.get(DETAILS)));
+        }
     }
 
     @Nullable
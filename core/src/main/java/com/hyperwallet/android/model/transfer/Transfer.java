@@ -53,6 +53,7 @@ import androidx.annotation.StringDef;
 import androidx.annotation.VisibleForTesting;
 
 import com.hyperwallet.android.model.JsonModel;
+import com.hyperwallet.android.model.MapModelFactory;
 import com.hyperwallet.android.util.JsonUtils;
 
 import org.json.JSONException;
@@ -88,6 +89,21 @@ public final class Transfer implements JsonModel, Parcelable {
                     return new Transfer[0];
                 }
             };
+
+    public static final MapModelFactory<Transfer> FACTORY = new MapModelFactory<Transfer>() {
+        @NonNull
+        @Override
+        public Transfer fromJsonObject(@NonNull final JSONObject jsonObject) throws JSONException {
+            return new Transfer(jsonObject);
+        }
+
+        @NonNull
+        @Override
+        public Transfer fromMap(@NonNull final Map<String, Object> fields) {
+            return new Transfer(fields);
+        }
+    };
+
     private Map<String, Object> mFields;
 
     /**
@@ -115,6 +131,15 @@ public final class Transfer implements JsonModel, Parcelable {
     public Transfer(@NonNull final Map<String, Object> fields) {
         super();
         setFields(fields);
+        if (mFields.get(FOREIGN_EXCHANGES) instanceof List) {
+            List<Object> rawFields = (List<Object>) mFields.get(FOREIGN_EXCHANGES);
+            List<ForeignExchange> foreignExchanges = new ArrayList<>(rawFields.size());
+            for (Object field : rawFields) {
+                foreignExchanges.add(field instanceof Map
+                        ? new ForeignExchange((Map<String, Object>) field) : (ForeignExchange) field);
+            }
+            mFields.put(FOREIGN_EXCHANGES, foreignExchanges);
+        }
     }
 
     @Nullable
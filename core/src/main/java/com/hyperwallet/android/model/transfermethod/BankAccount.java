@@ -30,6 +30,8 @@ package com.hyperwallet.android.model.transfermethod;
 import androidx.annotation.NonNull;
 import androidx.annotation.StringDef;
 
+import com.hyperwallet.android.model.MapModelFactory;
+
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -43,6 +45,20 @@ import java.util.Map;
  */
 public class BankAccount extends TransferMethod {
 
+    public static final MapModelFactory<BankAccount> FACTORY = new MapModelFactory<BankAccount>() {
+        @NonNull
+        @Override
+        public BankAccount fromJsonObject(@NonNull final JSONObject jsonObject) throws JSONException {
+            return new BankAccount(jsonObject);
+        }
+
+        @NonNull
+        @Override
+        public BankAccount fromMap(@NonNull final Map<String, Object> fields) {
+            return new BankAccount(fields);
+        }
+    };
+
     /**
      * Construct a {@code BankAccount} object from {@link JSONObject} representation
      *
@@ -57,7 +73,7 @@ public class BankAccount extends TransferMethod {
      *
      * @param fields Map key-value pair raw data information
      */
-    private BankAccount(@NonNull Map<String, Object> fields) {
+    public BankAccount(@NonNull Map<String, Object> fields) {
         super();
         setFields(fields);
     }
@@ -29,6 +29,8 @@ package com.hyperwallet.android.model.transfermethod;
 
 import androidx.annotation.NonNull;
 
+import com.hyperwallet.android.model.MapModelFactory;
+
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -40,6 +42,20 @@ import java.util.Map;
  */
 public class BankCard extends TransferMethod {
 
+    public static final MapModelFactory<BankCard> FACTORY = new MapModelFactory<BankCard>() {
+        @NonNull
+        @Override
+        public BankCard fromJsonObject(@NonNull final JSONObject jsonObject) throws JSONException {
+            return new BankCard(jsonObject);
+        }
+
+        @NonNull
+        @Override
+        public BankCard fromMap(@NonNull final Map<String, Object> fields) {
+            return new BankCard(fields);
+        }
+    };
+
     /**
      * Constructs a {@code BankCard} object from {@link JSONObject} representation
      *
@@ -54,7 +70,7 @@ public class BankCard extends TransferMethod {
      *
      * @param fields map of key-value pair
      */
-    private BankCard(@NonNull Map<String, Object> fields) {
+    public BankCard(@NonNull Map<String, Object> fields) {
         super();
         setFields(fields);
     }
@@ -25,6 +25,8 @@ import static com.hyperwallet.android.model.transfermethod.TransferMethod.Transf
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.hyperwallet.android.model.MapModelFactory;
+
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -37,6 +39,20 @@ import java.util.Map;
 
 public class PayPalAccount extends TransferMethod {
 
+    public static final MapModelFactory<PayPalAccount> FACTORY = new MapModelFactory<PayPalAccount>() {
+        @NonNull
+        @Override
+        public PayPalAccount fromJsonObject(@NonNull final JSONObject jsonObject) throws JSONException {
+            return new PayPalAccount(jsonObject);
+        }
+
+        @NonNull
+        @Override
+        public PayPalAccount fromMap(@NonNull final Map<String, Object> fields) {
+            return new PayPalAccount(fields);
+        }
+    };
+
     /**
      * Construct a {@code PayPalAccount} object from {@link JSONObject} representation
      *
@@ -51,7 +67,7 @@ public class PayPalAccount extends TransferMethod {
      *
      * @param fields map of key-value raw data information
      */
-    private PayPalAccount(@NonNull Map<String, Object> fields) {
+    public PayPalAccount(@NonNull Map<String, Object> fields) {
         super();
         setFields(fields);
     }
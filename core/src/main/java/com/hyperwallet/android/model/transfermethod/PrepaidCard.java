@@ -30,6 +30,7 @@ package com.hyperwallet.android.model.transfermethod;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.hyperwallet.android.model.MapModelFactory;
 import com.hyperwallet.android.util.DateUtil;
 
 import org.json.JSONException;
@@ -44,6 +45,20 @@ import java.util.Map;
 
 public class PrepaidCard extends TransferMethod {
 
+    public static final MapModelFactory<PrepaidCard> FACTORY = new MapModelFactory<PrepaidCard>() {
+        @NonNull
+        @Override
+        public PrepaidCard fromJsonObject(@NonNull final JSONObject jsonObject) throws JSONException {
+            return new PrepaidCard(jsonObject);
+        }
+
+        @NonNull
+        @Override
+        public PrepaidCard fromMap(@NonNull final Map<String, Object> fields) {
+            return new PrepaidCard(fields);
+        }
+    };
+
     private static final String DEFAULT_CARD_PACKAGE = "DEFAULT";
 
     /**
@@ -70,7 +85,7 @@ public class PrepaidCard extends TransferMethod {
      *
      * @param fields map of key-value pair raw data
      */
-    private PrepaidCard(@NonNull Map<String, Object> fields) {
+    public PrepaidCard(@NonNull Map<String, Object> fields) {
         this();
         setFields(fields);
     }
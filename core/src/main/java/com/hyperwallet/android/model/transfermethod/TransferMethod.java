@@ -26,6 +26,7 @@ import androidx.annotation.Nullable;
 import androidx.annotation.StringDef;
 
 import com.hyperwallet.android.model.JsonModel;
+import com.hyperwallet.android.model.MapModelFactory;
 import com.hyperwallet.android.model.graphql.field.Field;
 import com.hyperwallet.android.util.JsonUtils;
 
@@ -56,6 +57,21 @@ public class TransferMethod implements JsonModel, Parcelable {
                     return new TransferMethod[0];
                 }
             };
+
+    public static final MapModelFactory<TransferMethod> FACTORY = new MapModelFactory<TransferMethod>() {
+        @NonNull
+        @Override
+        public TransferMethod fromJsonObject(@NonNull final JSONObject jsonObject) throws JSONException {
+            return new TransferMethod(jsonObject);
+        }
+
+        @NonNull
+        @Override
+        public TransferMethod fromMap(@NonNull final Map<String, Object> fields) {
+            return new TransferMethod(fields);
+        }
+    };
+
     private Map<String, Object> mFields;
 
     /**
@@ -79,7 +95,7 @@ public class TransferMethod implements JsonModel, Parcelable {
      *
      * @param fields map of key value-pair raw data information
      */
-    private TransferMethod(@NonNull final Map<String, Object> fields) {
+    public TransferMethod(@NonNull final Map<String, Object> fields) {
         mFields = new HashMap<>(fields);
     }
 
@@ -26,6 +26,7 @@ import androidx.annotation.Nullable;
 import androidx.annotation.StringDef;
 
 import com.hyperwallet.android.model.JsonModel;
+import com.hyperwallet.android.model.MapModelFactory;
 import com.hyperwallet.android.model.graphql.field.Field;
 import com.hyperwallet.android.util.JsonUtils;
 
@@ -56,6 +57,21 @@ public final class User implements JsonModel, Parcelable {
                     return new User[0];
                 }
             };
+
+    public static final MapModelFactory<User> FACTORY = new MapModelFactory<User>() {
+        @NonNull
+        @Override
+        public User fromJsonObject(@NonNull final JSONObject jsonObject) throws JSONException {
+            return new User(jsonObject);
+        }
+
+        @NonNull
+        @Override
+        public User fromMap(@NonNull final Map<String, Object> fields) {
+            return new User(fields);
+        }
+    };
+
     private Map<String, Object> mFields;
 
     /**
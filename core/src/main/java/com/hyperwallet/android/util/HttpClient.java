@@ -17,22 +17,29 @@
  */
 package com.hyperwallet.android.util;
 
+import android.util.Log;
+
 import androidx.annotation.RestrictTo;
 
 import com.hyperwallet.android.exception.HyperwalletInvalidRequestPathException;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.security.KeyManagementException;
+import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 import javax.net.ssl.HttpsURLConnection;
 
@@ -43,10 +50,14 @@ import javax.net.ssl.HttpsURLConnection;
 public final class HttpClient {
     private static final String TAG = HttpClient.class.getName();
     private static final int DEFAULT_TIMEOUT = 10_000;
+    private static final String ENCODING_GZIP = "gzip";
+    private static final String HTTP_HEADER_ACCEPT_ENCODING_KEY = "Accept-Encoding";
 
     private final Map<String, String> mQueryMap;
     private final Map<String, String> mHeaderMap;
     private final HttpURLConnection mHttpUrlConnection;
+    private CountingInputStream mCompressedInputStream;
+    private CountingInputStream mUncompressedInputStream;
 
     /**
      * Construct a {@code HttpClient} object fom {@link HttpClient.Builder}
@@ -68,27 +79,119 @@ public final class HttpClient {
     }
 
     /**
+     * Composes the URL of a request
+     *
+     * @param baseUrl base URL of the API
+     * @param path    path relative to {@code baseUrl}, may be {@code null}
+     * @param queries Map of key-value paired HTTP query information
+     * @return URL with the path and query appended
+     */
+    public static String toUrl(final String baseUrl, final String path, final Map<String, String> queries) {
+        StringBuilder url = new StringBuilder(baseUrl);
+        if (path != null) {
+            url.append(path);
+        }
+
+        boolean first = true;
+        for (Map.Entry<String, String> query : queries.entrySet()) {
+            url.append(first ? "?" : "&").append(query.getKey()).append("=").append(query.getValue());
+            first = false;
+        }
+        return url.toString();
+    }
+
+    /**
+     * Reads the response body, decompressing it as it is read when the server responded with
+     * {@code Content-Encoding: gzip}
+     *
      * @return Serialized string JSON response
      * @throws IOException
      */
     public String getResponse() throws IOException {
-        InputStream in = isSuccess(getResponseCode()) ? mHttpUrlConnection.getInputStream()
-                : mHttpUrlConnection.getErrorStream();
-
+        InputStream in = getResponseStream();
         try {
             ByteArrayOutputStream out = new ByteArrayOutputStream();
             byte[] buffer = new byte[1024];
             for (int count; (count = in.read(buffer)) != -1; ) {
                 out.write(buffer, 0, count);
             }
-
-            return new String(out.toByteArray(), StandardCharsets.UTF_8.name());
+            return out.toString(StandardCharsets.UTF_8.name());
         } finally {
             in.close();
-            disconnect();
         }
     }
 
+    /**
+     * Opens the response body for streaming reads, decompressing it as it is read when the server responded with
+     * {@code Content-Encoding: gzip}. Closing the returned stream releases the connection; when the body was not
+     * read to its end the remainder is drained so the connection can still be kept alive.
+     *
+     * @return response body stream, the caller is responsible for closing it
+     * @throws IOException
+     */
+    public InputStream getResponseStream() throws IOException {
+        final InputStream in = openResponseStream(isSuccess(getResponseCode()) ? mHttpUrlConnection.getInputStream()
+                : mHttpUrlConnection.getErrorStream());
+
+        return new FilterInputStream(in) {
+            private boolean mClosed;
+
+            @Override
+            public void close() throws IOException {
+                if (mClosed) {
+                    return;
+                }
+                mClosed = true;
+                boolean consumed = false;
+                try {
+                    byte[] buffer = new byte[1024];
+                    while (in.read(buffer) != -1) {
+                        // drain the remainder of the body
+                    }
+                    consumed = true;
+                } finally {
+                    in.close();
+                    releaseConnection(consumed);
+                }
+            }
+        };
+    }
+
+    /**
+     * @return number of response body bytes read from the network, before decompression
+     */
+    public long getCompressedByteCount() {
+        return mCompressedInputStream == null ? 0 : mCompressedInputStream.getCount();
+    }
+
+    /**
+     * @return number of response body bytes after decompression; equal to {@link #getCompressedByteCount()}
+     * when the response was not compressed
+     */
+    public long getUncompressedByteCount() {
+        return mUncompressedInputStream == null ? 0 : mUncompressedInputStream.getCount();
+    }
+
+    /**
+     * @return Map of key-value paired HTTP response header information, values of repeated headers are joined
+     * with a comma
+     * @throws IOException
+     */
+    public Map<String, String> getResponseHeaders() throws IOException {
+        getResponseCode();
+        Map<String, String> headers = new HashMap<>();
+        for (Map.Entry<String, List<String>> header : mHttpUrlConnection.getHeaderFields().entrySet()) {
+            if (header.getKey() != null && header.getValue() != null) {
+                StringBuilder value = new StringBuilder();
+                for (String element : header.getValue()) {
+                    value.append(value.length() == 0 ? "" : ", ").append(element);
+                }
+                headers.put(header.getKey(), value.toString());
+            }
+        }
+        return headers;
+    }
+
     /**
      * @return Map of key-value paired HTTP query information
      */
@@ -127,32 +230,61 @@ public final class HttpClient {
      * @throws IOException
      */
     public int post(String data) throws IOException {
-        return submit(HttpMethod.POST.name(), data);
+        return execute(HttpMethod.POST.name(), data == null ? null : data.getBytes(StandardCharsets.UTF_8));
     }
 
     public int put(String data) throws IOException {
-        return submit(HttpMethod.PUT.name(), data);
+        return execute(HttpMethod.PUT.name(), data == null ? null : data.getBytes(StandardCharsets.UTF_8));
     }
 
-    private int submit(String method, String data) throws IOException {
+    /**
+     * Executes an HTTP operation, refer to {@link HttpMethod}
+     *
+     * @param method HTTP method name
+     * @param body   request body, {@code null} when there is none; ignored by {@link HttpMethod#GET}
+     * @return HTTP response code
+     * @throws IOException
+     */
+    public int execute(String method, byte[] body) throws IOException {
+        if (HttpMethod.GET.name().equals(method)) {
+            return get();
+        }
+
         mHttpUrlConnection.setRequestMethod(method);
         mHttpUrlConnection.setDoOutput(true);
-        writeOutputStream(mHttpUrlConnection.getOutputStream(), data);
+        writeOutputStream(mHttpUrlConnection.getOutputStream(), body);
         return getResponseCode();
     }
 
-    private void writeOutputStream(OutputStream outputStream, String data) throws IOException {
-        if (data != null) {
-            Writer out = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8.name());
+    /**
+     * Aborts the request by disconnecting its connection; a thread blocked sending the request or reading the
+     * response fails with an {@code IOException}. May be called from any thread.
+     */
+    public void cancel() {
+        disconnect();
+    }
+
+    private void writeOutputStream(OutputStream outputStream, byte[] body) throws IOException {
+        if (body != null) {
             try {
-                out.write(data, 0, data.length());
-                out.flush();
+                outputStream.write(body);
+                outputStream.flush();
             } finally {
-                out.close();
+                outputStream.close();
             }
         }
     }
 
+    /**
+     * Leaves the connection to the keep-alive cache of {@link HttpURLConnection} when the response was fully
+     * consumed, so the platform can hand its socket to the next request to the same host; otherwise disconnects.
+     */
+    private void releaseConnection(boolean consumed) {
+        if (!consumed) {
+            disconnect();
+        }
+    }
+
     private void disconnect() {
         if (mHttpUrlConnection != null) {
             mHttpUrlConnection.disconnect();
@@ -163,6 +295,26 @@ public final class HttpClient {
         return mHttpUrlConnection.getResponseCode();
     }
 
+    /**
+     * Wraps the raw response stream with byte counters and, when the body is gzip encoded, with a
+     * {@link GZIPInputStream} so the body is decompressed while it is read instead of after it is buffered.
+     */
+    private InputStream openResponseStream(InputStream raw) throws IOException {
+        // there is no error stream when the response has no body, such as a 304 Not Modified
+        mCompressedInputStream = new CountingInputStream(raw == null ? new ByteArrayInputStream(new byte[0]) : raw);
+        InputStream in = mCompressedInputStream;
+        if (ENCODING_GZIP.equalsIgnoreCase(mHttpUrlConnection.getContentEncoding())) {
+            BufferedInputStream buffered = new BufferedInputStream(in);
+            buffered.mark(1);
+            boolean empty = buffered.read() == -1;
+            buffered.reset();
+            in = empty ? buffered : new GZIPInputStream(buffered);
+        }
+        mUncompressedInputStream = in == mCompressedInputStream ? mCompressedInputStream
+                : new CountingInputStream(in);
+        return mUncompressedInputStream;
+    }
+
     /**
      * Builder for {@link HttpClient}
      */
@@ -237,21 +389,15 @@ public final class HttpClient {
 
         public HttpClient build() throws IOException, URISyntaxException, HyperwalletInvalidRequestPathException {
 
-            StringBuilder url = new StringBuilder(mBaseUrl);
-            if (mPath != null) {
-                url.append(mPath);
-            }
-
-            url.append(buildQuery());
-
-            try {
-                HttpsURLConnection.setDefaultSSLSocketFactory(new Tls12SocketFactory());
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-
-            URI uri = new URI(url.toString());
+            URI uri = new URI(toUrl(mBaseUrl, mPath, mQueryMap));
             mHttpUrlConnection = (HttpURLConnection) uri.toURL().openConnection();
+            if (mHttpUrlConnection instanceof HttpsURLConnection) {
+                try {
+                    ((HttpsURLConnection) mHttpUrlConnection).setSSLSocketFactory(Tls12SocketFactory.getInstance());
+                } catch (KeyManagementException | NoSuchAlgorithmException e) {
+                    Log.e(TAG, "TLS 1.2 is not available, the platform socket factory is used instead", e);
+                }
+            }
             mHttpUrlConnection.setConnectTimeout(mConnectTimeout);
             mHttpUrlConnection.setReadTimeout(mReadTimeout);
 
@@ -259,27 +405,19 @@ public final class HttpClient {
             return new HttpClient(this);
         }
 
-        private String buildQuery() {
-            StringBuilder stringBuilder = new StringBuilder();
-            if (!mQueryMap.isEmpty()) {
-                for (String key : mQueryMap.keySet()) {
-                    if (stringBuilder.length() == 0) {
-                        stringBuilder.append("?");
-                    } else {
-                        stringBuilder.append("&");
-                    }
-                    stringBuilder.append(key).append("=").append(mQueryMap.get(key));
-                }
-            }
-            return stringBuilder.toString();
-        }
-
+        /**
+         * Sets the request headers and, unless one was given, asks for a gzip encoded response; the body is
+         * decompressed while it is read, refer to {@link #getResponseStream()}
+         */
         private void initHeader() {
             if (!mHeaderMap.isEmpty()) {
                 for (String key : mHeaderMap.keySet()) {
                     mHttpUrlConnection.setRequestProperty(key, mHeaderMap.get(key));
                 }
             }
+            if (mHttpUrlConnection.getRequestProperty(HTTP_HEADER_ACCEPT_ENCODING_KEY) == null) {
+                mHttpUrlConnection.setRequestProperty(HTTP_HEADER_ACCEPT_ENCODING_KEY, ENCODING_GZIP);
+            }
         }
     }
 
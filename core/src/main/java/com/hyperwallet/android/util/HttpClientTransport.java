@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018 Hyperwallet
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+package com.hyperwallet.android.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+import com.hyperwallet.android.HttpTransport;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+
+/**
+ * Default {@link HttpTransport} built on {@link HttpClient}. Connections of fully read responses are left to the
+ * keep-alive cache of {@link java.net.HttpURLConnection}, which pools them for the next requests to the same host.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public final class HttpClientTransport implements HttpTransport {
+
+    @NonNull
+    @Override
+    public Response execute(@NonNull final Request request) throws IOException {
+        if (request.isCanceled()) {
+            throw new IOException("Request canceled");
+        }
+
+        final HttpClient client;
+        try {
+            client = new HttpClient.Builder(request.getUrl()).putHeaders(request.getHeaders()).build();
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+
+        request.setCancelAction(new Runnable() {
+            @Override
+            public void run() {
+                client.cancel();
+            }
+        });
+
+        int code = client.execute(request.getMethod(), request.getBody());
+        return new Response(code, client.getResponseHeaders(), client.getResponseStream()) {
+            @Override
+            public void close() throws IOException {
+                // once left to the keep-alive cache the connection may serve another request, it must not be aborted
+                request.setCancelAction(null);
+                super.close();
+            }
+
+            @Override
+            public long getCompressedByteCount() {
+                return client.getCompressedByteCount();
+            }
+
+            @Override
+            public long getUncompressedByteCount() {
+                return client.getUncompressedByteCount();
+            }
+        };
+    }
+}
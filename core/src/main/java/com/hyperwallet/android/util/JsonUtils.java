@@ -16,20 +16,30 @@
  */
 package com.hyperwallet.android.util;
 
+import android.os.Looper;
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.Log;
+
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
 
 import com.hyperwallet.android.model.JsonModel;
+import com.hyperwallet.android.model.MapModelFactory;
+import com.hyperwallet.android.model.ModelFactory;
 import com.hyperwallet.android.model.TypeReference;
 
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.lang.reflect.Constructor;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.ParameterizedType;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -44,6 +54,28 @@ import java.util.Map;
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
 public final class JsonUtils {
 
+    private static final String TAG = JsonUtils.class.getSimpleName();
+
+    private static volatile boolean sMainThreadParsingDetectionEnabled;
+
+    /**
+     * Enables debug detection of response parsing that runs on the main looper. When enabled every such parse is
+     * logged as a warning together with the stack trace of the caller.
+     *
+     * @param enabled {@code True} to flag parsing on the main looper; {@code False} otherwise
+     */
+    public static void setMainThreadParsingDetectionEnabled(final boolean enabled) {
+        sMainThreadParsingDetectionEnabled = enabled;
+    }
+
+    /**
+     * @return {@code True} if parsing on the main looper is flagged, refer to
+     * {@link #setMainThreadParsingDetectionEnabled(boolean)}
+     */
+    public static boolean isMainThreadParsingDetectionEnabled() {
+        return sMainThreadParsingDetectionEnabled;
+    }
+
     /**
      * Converts a {@link JSONObject} to a {@code Map<String, Object>}
      *
@@ -157,7 +189,8 @@ public final class JsonUtils {
      * List&lt;T&gt; where {@code T} is Class&lt;T&gt;
      * </p>&nbsp;
      *
-     * For this formal generator to work all types should follow constructor signature contract of the following:
+     * The {@code T} is decoded by its {@link ModelFactory}, refer to {@link ModelFactoryRegistry}; types that are not
+     * registered should follow constructor signature contract of the following:
      * <ul>
      * <li>Type Constructor({@link JSONObject})</li>
      * <li>Type Constructor({@link JSONObject}, {@link Class})</li>
@@ -172,31 +205,135 @@ public final class JsonUtils {
     public static <T> T fromJsonString(@NonNull final String data, @NonNull final TypeReference<T> typeReference)
             throws JSONException, InvocationTargetException, NoSuchMethodException, InstantiationException,
             IllegalAccessException {
-        if (typeReference.getType() instanceof Class<?>) {
-            return fromJsonString(data, (Class<T>) typeReference.getType());
+        checkNotOnMainThread(typeReference);
+        return ModelFactoryRegistry.get(typeReference).fromJsonObject(new JSONObject(data));
+    }
+
+    /**
+     * Checks if the {@code T} of {@link TypeReference} can be read by {@link #fromJsonStream(InputStream,
+     * TypeReference)}; that is the type is registered with a {@link MapModelFactory}, refer to
+     * {@link ModelFactoryRegistry}
+     *
+     * @param typeReference Type of class specified by {@code T}
+     * @return {@code True} if {@code T} can be constructed from a streamed Map of key-value pair
+     */
+    public static boolean isStreamable(@NonNull final TypeReference<?> typeReference) {
+        try {
+            return ModelFactoryRegistry.get(typeReference) instanceof MapModelFactory;
+        } catch (NoSuchMethodException e) {
+            return false;
         }
-        Class<T> rawType = (Class<T>) ((ParameterizedType) typeReference.getType()).getRawType();
-        Class<T> parameterType =
-                (Class<T>) ((ParameterizedType) typeReference.getType()).getActualTypeArguments()[0];
-        JSONObject jsonObject = new JSONObject(data);
-        Constructor<T> rawTypeConstructor = rawType.getConstructor(JSONObject.class, parameterType.getClass());
-        return rawTypeConstructor.newInstance(jsonObject, parameterType);
     }
 
     /**
-     * Class type reference deserialization implementation that derives a simplest generic form from {@code Class<T>}
-     * format
+     * TypeReference deserialization implementation that reads JSON data from {@code inputStream} with a pull parser
+     * instead of materializing the response as a String and a {@link JSONObject}. The response is still read into
+     * a tree of Maps of key-value pairs and Lists, in the form produced by {@link #jsonObjectToMap(JSONObject)},
+     * which is handed to the {@link MapModelFactory} of {@code T}; the map backed models keep those Maps as their
+     * fields, copying only their top level Map, refer to {@link #isStreamable(TypeReference)}
      *
-     * @param jsonString JSON serialized data
-     * @param fromClass  class type specified in {@code T}
-     * @return the T representation equivalent from JSON data
+     * @param inputStream   UTF-8 encoded JSON data; the caller remains responsible for closing the stream
+     * @param typeReference Type of class specified by {@code T} that, we want to derive based from JSON response
+     *                      context
+     * @return the T representation equivalent from JSON data or {@code null} when the stream holds no content
      */
     @Nullable
-    private static <T> T fromJsonString(@Nullable final String jsonString, @NonNull final Class<T> fromClass)
-            throws JSONException, InvocationTargetException, NoSuchMethodException, InstantiationException,
-            IllegalAccessException {
-        JSONObject jsonObject = new JSONObject(jsonString);
-        Constructor<T> constructor = fromClass.getConstructor(JSONObject.class);
-        return constructor.newInstance(jsonObject);
+    public static <T> T fromJsonStream(@NonNull final InputStream inputStream,
+            @NonNull final TypeReference<T> typeReference) throws IOException, NoSuchMethodException {
+        checkNotOnMainThread(typeReference);
+        JsonReader reader = new JsonReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        try {
+            reader.peek();
+        } catch (EOFException e) {
+            return null; //204 case
+        }
+        ModelFactory<T> factory = ModelFactoryRegistry.get(typeReference);
+        if (!(factory instanceof MapModelFactory)) {
+            throw new IllegalArgumentException(typeReference.getType() + " can not be read from a stream");
+        }
+        return ((MapModelFactory<T>) factory).fromMap(readMap(reader));
+    }
+
+    private static void checkNotOnMainThread(@NonNull final TypeReference<?> typeReference) {
+        if (sMainThreadParsingDetectionEnabled && Looper.myLooper() != null
+                && Looper.myLooper() == Looper.getMainLooper()) {
+            Log.w(TAG, "Parsing " + typeReference.getType() + " on the main thread",
+                    new IllegalStateException("Response parsing should run on a background thread"));
+        }
+    }
+
+    /**
+     * Reads a JSON object into the same {@code Map<String, Object>} form produced by
+     * {@link #jsonObjectToMap(JSONObject)}
+     */
+    @NonNull
+    private static Map<String, Object> readMap(@NonNull final JsonReader reader) throws IOException {
+        Map<String, Object> map = new HashMap<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            map.put(key, readValue(reader));
+        }
+        reader.endObject();
+        return map;
+    }
+
+    /**
+     * Reads a JSON array into the same {@code List<Object>} form produced by {@link #mapJsonArrayToList(JSONArray)}
+     */
+    @NonNull
+    private static List readList(@NonNull final JsonReader reader) throws IOException {
+        List<Object> objectList = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            Object value = readValue(reader);
+            if (value != null) {
+                objectList.add(value);
+            }
+        }
+        reader.endArray();
+        return Collections.unmodifiableList(objectList);
+    }
+
+    @Nullable
+    private static Object readValue(@NonNull final JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        switch (token) {
+            case BEGIN_OBJECT:
+                return readMap(reader);
+            case BEGIN_ARRAY:
+                return readList(reader);
+            case BOOLEAN:
+                return reader.nextBoolean();
+            case NUMBER:
+                return readNumber(reader.nextString());
+            case NULL:
+                reader.nextNull();
+                return null;
+            case STRING:
+                return reader.nextString();
+            default:
+                throw new IOException("Unexpected JSON token " + token);
+        }
+    }
+
+    /**
+     * Narrows a JSON number the same way {@link JSONObject} does: {@code Integer} when it fits, then {@code Long},
+     * otherwise {@code Double}
+     */
+    @NonNull
+    private static Object readNumber(@NonNull final String literal) {
+        if (literal.indexOf('.') == -1 && literal.indexOf('e') == -1 && literal.indexOf('E') == -1) {
+            try {
+                long longValue = Long.parseLong(literal);
+                if (longValue <= Integer.MAX_VALUE && longValue >= Integer.MIN_VALUE) {
+                    return (int) longValue;
+                }
+                return longValue;
+            } catch (NumberFormatException e) {
+                // fall through to double
+            }
+        }
+        return Double.valueOf(literal);
     }
 }
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2018 Hyperwallet
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+package com.hyperwallet.android.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+import com.hyperwallet.android.model.MapModelFactory;
+import com.hyperwallet.android.model.ModelFactory;
+import com.hyperwallet.android.model.StatusTransition;
+import com.hyperwallet.android.model.TypeReference;
+import com.hyperwallet.android.model.balance.Balance;
+import com.hyperwallet.android.model.graphql.Fee;
+import com.hyperwallet.android.model.graphql.ProcessingTime;
+import com.hyperwallet.android.model.graphql.TransferMethodConfigurationKey;
+import com.hyperwallet.android.model.graphql.field.FieldGroup;
+import com.hyperwallet.android.model.graphql.field.TransferMethodConfiguration;
+import com.hyperwallet.android.model.graphql.field.TransferMethodConfigurationField;
+import com.hyperwallet.android.model.graphql.field.TransferMethodConfigurationFieldResult;
+import com.hyperwallet.android.model.graphql.keyed.Country;
+import com.hyperwallet.android.model.graphql.keyed.Currency;
+import com.hyperwallet.android.model.graphql.keyed.TransferMethodConfigurationKeyResult;
+import com.hyperwallet.android.model.graphql.keyed.TransferMethodType;
+import com.hyperwallet.android.model.paging.PageList;
+import com.hyperwallet.android.model.receipt.Receipt;
+import com.hyperwallet.android.model.transfer.Transfer;
+import com.hyperwallet.android.model.transfermethod.BankAccount;
+import com.hyperwallet.android.model.transfermethod.BankCard;
+import com.hyperwallet.android.model.transfermethod.PayPalAccount;
+import com.hyperwallet.android.model.transfermethod.PrepaidCard;
+import com.hyperwallet.android.model.transfermethod.TransferMethod;
+import com.hyperwallet.android.model.user.User;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Internal SDK use only. Registry of {@link ModelFactory} per model type, used to decode responses without looking
+ * up constructors by reflection.
+ *
+ * <p>Every SDK model is registered up front. Types that are not registered fall back to a factory that resolves
+ * the {@code Type Constructor(JSONObject)} once and caches it.</p>
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public final class ModelFactoryRegistry {
+
+    private static final Map<Type, ModelFactory<?>> FACTORIES = new ConcurrentHashMap<>();
+
+    static {
+        register(TransferMethod.class, TransferMethod.FACTORY);
+        register(BankAccount.class, BankAccount.FACTORY);
+        register(BankCard.class, BankCard.FACTORY);
+        register(PayPalAccount.class, PayPalAccount.FACTORY);
+        register(PrepaidCard.class, PrepaidCard.FACTORY);
+        register(Balance.class, Balance.FACTORY);
+        register(Receipt.class, Receipt.FACTORY);
+        register(Transfer.class, Transfer.FACTORY);
+        register(User.class, User.FACTORY);
+        register(StatusTransition.class, StatusTransition.FACTORY);
+
+        register(TransferMethodConfigurationKeyResult.class, TransferMethodConfigurationKeyResult.FACTORY);
+        register(TransferMethodConfigurationKey.class, TransferMethodConfigurationKey.FACTORY);
+        register(Country.class, Country.FACTORY);
+        register(Currency.class, Currency.FACTORY);
+        register(TransferMethodType.class, TransferMethodType.FACTORY);
+        register(TransferMethodConfigurationFieldResult.class, TransferMethodConfigurationFieldResult.FACTORY);
+        register(TransferMethodConfigurationField.class, TransferMethodConfigurationField.FACTORY);
+        register(TransferMethodConfiguration.class, TransferMethodConfiguration.FACTORY);
+        register(FieldGroup.class, FieldGroup.FACTORY);
+        register(Fee.class, Fee.FACTORY);
+        register(ProcessingTime.class, ProcessingTime.FACTORY);
+    }
+
+    private ModelFactoryRegistry() {
+    }
+
+    /**
+     * Registers the {@link ModelFactory} used to decode {@code clazz}, replacing any previously registered factory
+     *
+     * @param clazz   model type
+     * @param factory factory that decodes {@code clazz}
+     */
+    public static <T> void register(@NonNull final Class<T> clazz, @NonNull final ModelFactory<T> factory) {
+        FACTORIES.put(clazz, factory);
+    }
+
+    /**
+     * Returns the {@link ModelFactory} registered for {@code clazz}
+     *
+     * @param clazz model type
+     * @return registered factory; or a factory backed by the cached {@code Type Constructor(JSONObject)} when
+     * {@code clazz} was not registered
+     * @throws NoSuchMethodException when {@code clazz} is not registered and has no JSONObject constructor
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    public static <T> ModelFactory<T> get(@NonNull final Class clazz) throws NoSuchMethodException {
+        ModelFactory<T> factory = (ModelFactory<T>) FACTORIES.get(clazz);
+        if (factory == null) {
+            factory = new ReflectiveModelFactory<>(clazz.getConstructor(JSONObject.class));
+            FACTORIES.put(clazz, factory);
+        }
+        return factory;
+    }
+
+    /**
+     * Returns the {@link ModelFactory} of the {@code T} of {@link TypeReference}. Generic types of the form
+     * {@code Type<E>}, for example {@code PageList<E>}, are composed from the factory of {@code E}.
+     *
+     * @param typeReference Type of class specified by {@code T}
+     * @return factory that decodes {@code T}
+     * @throws NoSuchMethodException when {@code T} has neither a registered factory nor a JSONObject constructor
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    public static <T> ModelFactory<T> get(@NonNull final TypeReference<T> typeReference)
+            throws NoSuchMethodException {
+        Type type = typeReference.getType();
+        if (type instanceof Class<?>) {
+            return get((Class) type);
+        }
+
+        ModelFactory<T> factory = (ModelFactory<T>) FACTORIES.get(type);
+        if (factory == null) {
+            Class<?> rawType = (Class<?>) ((ParameterizedType) type).getRawType();
+            Class<?> parameterType = (Class<?>) ((ParameterizedType) type).getActualTypeArguments()[0];
+            if (rawType == PageList.class) {
+                factory = (ModelFactory<T>) pageListFactory(get(parameterType));
+            } else {
+                factory = new ReflectiveModelFactory<>(
+                        (Constructor<T>) rawType.getConstructor(JSONObject.class, Class.class), parameterType);
+            }
+            FACTORIES.put(type, factory);
+        }
+        return factory;
+    }
+
+    @NonNull
+    private static <E> ModelFactory<PageList<E>> pageListFactory(@NonNull final ModelFactory<E> elementFactory) {
+        if (elementFactory instanceof MapModelFactory) {
+            final MapModelFactory<E> mapElementFactory = (MapModelFactory<E>) elementFactory;
+            return new MapModelFactory<PageList<E>>() {
+                @NonNull
+                @Override
+                public PageList<E> fromJsonObject(@NonNull final JSONObject jsonObject) throws JSONException {
+                    return new PageList<>(jsonObject, mapElementFactory);
+                }
+
+                @NonNull
+                @Override
+                public PageList<E> fromMap(@NonNull final Map<String, Object> fields) {
+                    return new PageList<>(fields, mapElementFactory);
+                }
+            };
+        }
+        return new ModelFactory<PageList<E>>() {
+            @NonNull
+            @Override
+            public PageList<E> fromJsonObject(@NonNull final JSONObject jsonObject) throws JSONException {
+                return new PageList<>(jsonObject, elementFactory);
+            }
+        };
+    }
+
+    /**
+     * Fallback {@link ModelFactory} for types that were not registered
+     */
+    private static final class ReflectiveModelFactory<T> implements ModelFactory<T> {
+
+        private final Constructor<T> mConstructor;
+        private final Object[] mExtraArguments;
+
+        ReflectiveModelFactory(@NonNull final Constructor<T> constructor, @NonNull final Object... extraArguments) {
+            mConstructor = constructor;
+            mExtraArguments = extraArguments;
+        }
+
+        @NonNull
+        @Override
+        public T fromJsonObject(@NonNull final JSONObject jsonObject) throws JSONException {
+            Object[] arguments = new Object[mExtraArguments.length + 1];
+            arguments[0] = jsonObject;
+            System.arraycopy(mExtraArguments, 0, arguments, 1, mExtraArguments.length);
+            try {
+                return mConstructor.newInstance(arguments);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof JSONException) {
+                    throw (JSONException) e.getCause();
+                }
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (InstantiationException | IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -6,21 +6,83 @@ import java.net.Socket;
 import java.net.UnknownHostException;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import javax.net.ssl.HandshakeCompletedEvent;
+import javax.net.ssl.HandshakeCompletedListener;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
 import javax.net.ssl.SSLSocket;
 import javax.net.ssl.SSLSocketFactory;
 
+/**
+ * {@code SSLSocketFactory} that restricts sockets to TLSv1.2.
+ *
+ * <p>Use {@link #getInstance()} to share a single {@link SSLContext} across requests, its client session cache
+ * allows TLS sessions to be resumed instead of performing a full handshake on every new connection.</p>
+ */
 public class Tls12SocketFactory extends SSLSocketFactory {
 
+    private static final int SESSION_CACHE_SIZE = 20;
+    private static final int SESSION_TIMEOUT_SECONDS = (int) TimeUnit.HOURS.toSeconds(1);
+
+    private static volatile Tls12SocketFactory sInstance;
+
+    private final AtomicLong mHandshakeCount = new AtomicLong();
+    private final HandshakeCompletedListener mHandshakeCompletedListener = new HandshakeCompletedListener() {
+        @Override
+        public void handshakeCompleted(HandshakeCompletedEvent event) {
+            mHandshakeCount.incrementAndGet();
+        }
+    };
+    private final SSLSessionContext mClientSessionContext;
     private SSLSocketFactory internalSSLSocketFactory;
 
     public Tls12SocketFactory() throws KeyManagementException, NoSuchAlgorithmException {
         SSLContext context = SSLContext.getInstance("TLS");
         context.init(null, null, null);
+        mClientSessionContext = context.getClientSessionContext();
+        if (mClientSessionContext != null) {
+            mClientSessionContext.setSessionCacheSize(SESSION_CACHE_SIZE);
+            mClientSessionContext.setSessionTimeout(SESSION_TIMEOUT_SECONDS);
+        }
         internalSSLSocketFactory = context.getSocketFactory();
     }
 
+    /**
+     * Returns the shared {@code Tls12SocketFactory}, lazily creating its {@link SSLContext} on first use
+     *
+     * @return shared {@code Tls12SocketFactory} instance
+     */
+    public static Tls12SocketFactory getInstance() throws KeyManagementException, NoSuchAlgorithmException {
+        Tls12SocketFactory instance = sInstance;
+        if (instance == null) {
+            synchronized (Tls12SocketFactory.class) {
+                instance = sInstance;
+                if (instance == null) {
+                    instance = new Tls12SocketFactory();
+                    sInstance = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @return client session cache used to resume TLS sessions
+     */
+    public SSLSessionContext getClientSessionContext() {
+        return mClientSessionContext;
+    }
+
+    /**
+     * @return number of TLS handshakes, full or resumed, completed on sockets created by this factory
+     */
+    public long getHandshakeCount() {
+        return mHandshakeCount.get();
+    }
+
     @Override
     public String[] getDefaultCipherSuites() {
         return internalSSLSocketFactory.getDefaultCipherSuites();
@@ -66,6 +128,7 @@ public class Tls12SocketFactory extends SSLSocketFactory {
     private Socket patch(Socket socket) {
         if ((socket instanceof SSLSocket)) {
             ((SSLSocket) socket).setEnabledProtocols(new String[]{"TLSv1.2"});
+            ((SSLSocket) socket).addHandshakeCompletedListener(mHandshakeCompletedListener);
         }
         return socket;
     }
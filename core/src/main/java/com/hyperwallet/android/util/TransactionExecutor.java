@@ -0,0 +1,312 @@
+/*
+ * Copyright 2018 Hyperwallet
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+package com.hyperwallet.android.util;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code TransactionExecutor} runs the HTTP transactions of the Hyperwallet Core SDK in the background and keeps
+ * track of how long they wait before they start.
+ *
+ * <p>By default transactions run on a pool of {@link #DEFAULT_POOL_SIZE} threads in front of a queue bounded to
+ * {@link #DEFAULT_QUEUE_CAPACITY} transactions; threads are released once idle for
+ * {@link #DEFAULT_KEEP_ALIVE_MILLIS}. Waiting transactions are dispatched by {@link TransactionPriority}, every
+ * aging period a transaction waits counts as one priority level up, so that lower priority transactions are not
+ * starved. When the queue is full the {@link RejectedExecutionHandler} decides what
+ * happens with the new transaction, with the default {@link ThreadPoolExecutor.AbortPolicy} the call fails with an
+ * error delivered to its listener. {@link ThreadPoolExecutor.DiscardOldestPolicy} is refused: it drops the head of the
+ * queue, which is the transaction of the highest priority rather than the oldest one. Integrators can also run
+ * transactions on an {@link Executor} of their own.</p>
+ */
+public final class TransactionExecutor implements Executor {
+
+    public static final int DEFAULT_POOL_SIZE = 2;
+    public static final int DEFAULT_QUEUE_CAPACITY = 64;
+    public static final long DEFAULT_KEEP_ALIVE_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    public static final long DEFAULT_AGING_PERIOD_MILLIS = TimeUnit.SECONDS.toMillis(2);
+
+    private final Executor mExecutor;
+    private final ThreadPoolExecutor mThreadPool;
+    private final long mAgingPeriodNanos;
+    private final AtomicLong mSequence = new AtomicLong();
+    private final AtomicInteger mQueueDepth = new AtomicInteger();
+    private final AtomicLong mStartedCount = new AtomicLong();
+    private final AtomicLong mRejectedCount = new AtomicLong();
+    private final AtomicLong mTotalQueueWaitNanos = new AtomicLong();
+    private final AtomicLong mMaxQueueWaitNanos = new AtomicLong();
+
+    /**
+     * Construct a {@code TransactionExecutor} of {@link #DEFAULT_POOL_SIZE} threads and a queue bounded to
+     * {@link #DEFAULT_QUEUE_CAPACITY} transactions
+     */
+    public TransactionExecutor() {
+        this(DEFAULT_POOL_SIZE, DEFAULT_QUEUE_CAPACITY, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Construct a {@code TransactionExecutor} backed by a thread pool
+     *
+     * @param poolSize        maximum number of transactions running at the same time
+     * @param queueCapacity   maximum number of transactions waiting for a thread
+     * @param rejectionPolicy handles the transactions submitted while the queue is full, other than
+     *                        {@link ThreadPoolExecutor.DiscardOldestPolicy}
+     */
+    public TransactionExecutor(final int poolSize, final int queueCapacity,
+            @NonNull final RejectedExecutionHandler rejectionPolicy) {
+        this(poolSize, queueCapacity, rejectionPolicy, DEFAULT_AGING_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Construct a {@code TransactionExecutor} backed by a thread pool
+     *
+     * @param poolSize        maximum number of transactions running at the same time
+     * @param queueCapacity   maximum number of transactions waiting for a thread
+     * @param rejectionPolicy handles the transactions submitted while the queue is full, other than
+     *                        {@link ThreadPoolExecutor.DiscardOldestPolicy} that would drop the highest priority
+     *                        waiting transaction
+     * @param agingPeriod     waiting time after which a transaction is dispatched as if it had one
+     *                        {@link TransactionPriority} level more
+     * @param unit            unit of {@code agingPeriod}
+     */
+    public TransactionExecutor(final int poolSize, final int queueCapacity,
+            @NonNull final RejectedExecutionHandler rejectionPolicy, final long agingPeriod,
+            @NonNull final TimeUnit unit) {
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("pool size must be positive");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("queue capacity must be positive");
+        }
+        if (agingPeriod <= 0) {
+            throw new IllegalArgumentException("aging period must be positive");
+        }
+        if (rejectionPolicy instanceof ThreadPoolExecutor.DiscardOldestPolicy) {
+            throw new IllegalArgumentException("discard oldest policy would drop the highest priority transaction");
+        }
+
+        mAgingPeriodNanos = unit.toNanos(agingPeriod);
+        mThreadPool = new ThreadPoolExecutor(poolSize, poolSize, DEFAULT_KEEP_ALIVE_MILLIS, TimeUnit.MILLISECONDS,
+                new BoundedPriorityBlockingQueue(queueCapacity), new ThreadFactory() {
+            private final AtomicInteger mThreadCount = new AtomicInteger();
+
+            @Override
+            public Thread newThread(@NonNull final Runnable runnable) {
+                return new Thread(runnable, "hyperwallet-transaction-" + mThreadCount.incrementAndGet());
+            }
+        }, new RejectedExecutionHandler() {
+            @Override
+            public void rejectedExecution(final Runnable runnable, final ThreadPoolExecutor executor) {
+                mRejectedCount.incrementAndGet();
+                rejectionPolicy.rejectedExecution(runnable, executor);
+            }
+        });
+        mThreadPool.allowCoreThreadTimeOut(true);
+        mExecutor = mThreadPool;
+    }
+
+    /**
+     * Construct a {@code TransactionExecutor} that runs transactions on the {@code executor} of the integrator,
+     * for instance a virtual-thread-per-task executor. Transactions are handed to the {@code executor} as they are
+     * submitted, their {@link TransactionPriority} is not applied. The {@code executor} remains owned by the
+     * integrator, {@link #shutdown()} does not shut it down.
+     *
+     * @param executor runs the transactions
+     */
+    public TransactionExecutor(@NonNull final Executor executor) {
+        mExecutor = executor;
+        mThreadPool = null;
+        mAgingPeriodNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_AGING_PERIOD_MILLIS);
+    }
+
+    /**
+     * Submits a transaction with {@link TransactionPriority#NORMAL} priority
+     *
+     * @param transaction transaction to run in the background
+     * @throws RejectedExecutionException when the transaction can not be accepted
+     */
+    @Override
+    public void execute(@NonNull final Runnable transaction) {
+        execute(transaction, TransactionPriority.NORMAL);
+    }
+
+    /**
+     * Submits a transaction
+     *
+     * @param transaction transaction to run in the background
+     * @param priority    priority of the transaction over the other waiting transactions
+     * @throws RejectedExecutionException when the transaction can not be accepted
+     */
+    public void execute(@NonNull final Runnable transaction, @NonNull final TransactionPriority priority) {
+        mQueueDepth.incrementAndGet();
+        Runnable task = new PrioritizedTransaction(transaction, priority);
+
+        try {
+            mExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            mQueueDepth.decrementAndGet();
+            if (mThreadPool == null) {
+                mRejectedCount.incrementAndGet();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Stops accepting transactions; the transactions already submitted still run, after which the threads of
+     * the pool are released. Executors supplied by the integrator are left running.
+     */
+    public void shutdown() {
+        if (mThreadPool != null) {
+            mThreadPool.shutdown();
+        }
+    }
+
+    /**
+     * @return number of transactions submitted that did not start yet
+     */
+    public int getQueueDepth() {
+        return mThreadPool != null ? mThreadPool.getQueue().size() : mQueueDepth.get();
+    }
+
+    /**
+     * @return number of transactions that started running
+     */
+    public long getStartedCount() {
+        return mStartedCount.get();
+    }
+
+    /**
+     * @return number of transactions that were rejected because the executor was full or shut down
+     */
+    public long getRejectedCount() {
+        return mRejectedCount.get();
+    }
+
+    /**
+     * @return time, in milliseconds, the started transactions spent waiting for a thread altogether
+     */
+    public long getTotalQueueWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(mTotalQueueWaitNanos.get());
+    }
+
+    /**
+     * @return longest time, in milliseconds, a started transaction spent waiting for a thread
+     */
+    public long getMaxQueueWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(mMaxQueueWaitNanos.get());
+    }
+
+    /**
+     * Withdraws a transaction that is still waiting for a thread. Transactions handed to an integrator-owned
+     * {@code Executor} can not be withdrawn.
+     *
+     * @param transaction transaction previously submitted
+     * @return {@code True} when the transaction was removed from the queue and will not run
+     */
+    public boolean remove(@NonNull final Runnable transaction) {
+        if (mThreadPool == null) {
+            return false;
+        }
+        for (Runnable task : mThreadPool.getQueue()) {
+            if (((PrioritizedTransaction) task).mTransaction == transaction) {
+                if (mThreadPool.remove(task)) {
+                    mQueueDepth.decrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Transaction waiting in the queue; ordered by the time it was submitted pushed back by one aging period per
+     * priority level, so that a transaction waiting for longer than that period overtakes newer ones of the next
+     * higher priority
+     */
+    private final class PrioritizedTransaction implements Runnable, Comparable<PrioritizedTransaction> {
+        private final Runnable mTransaction;
+        private final long mEnqueuedAt;
+        private final long mDispatchKey;
+        private final long mSequence;
+
+        PrioritizedTransaction(@NonNull final Runnable transaction, @NonNull final TransactionPriority priority) {
+            mTransaction = transaction;
+            mEnqueuedAt = System.nanoTime();
+            mDispatchKey = mEnqueuedAt + priority.ordinal() * mAgingPeriodNanos;
+            mSequence = TransactionExecutor.this.mSequence.getAndIncrement();
+        }
+
+        @Override
+        public void run() {
+            mQueueDepth.decrementAndGet();
+            recordQueueWait(System.nanoTime() - mEnqueuedAt);
+            mTransaction.run();
+        }
+
+        @Override
+        public int compareTo(@NonNull final PrioritizedTransaction other) {
+            if (mDispatchKey != other.mDispatchKey) {
+                return mDispatchKey - other.mDispatchKey < 0 ? -1 : 1;
+            }
+            return mSequence < other.mSequence ? -1 : mSequence == other.mSequence ? 0 : 1;
+        }
+    }
+
+    /**
+     * {@code PriorityBlockingQueue} that refuses new elements once it holds {@code capacity} elements
+     */
+    private static final class BoundedPriorityBlockingQueue extends PriorityBlockingQueue<Runnable> {
+        private static final long serialVersionUID = 1L;
+
+        private final int mCapacity;
+
+        BoundedPriorityBlockingQueue(final int capacity) {
+            mCapacity = capacity;
+        }
+
+        @Override
+        public synchronized boolean offer(final Runnable runnable) {
+            return size() < mCapacity && super.offer(runnable);
+        }
+
+        @Override
+        public int remainingCapacity() {
+            return Math.max(0, mCapacity - size());
+        }
+    }
+
+    private void recordQueueWait(final long waitNanos) {
+        mStartedCount.incrementAndGet();
+        mTotalQueueWaitNanos.addAndGet(waitNanos);
+        long max = mMaxQueueWaitNanos.get();
+        while (waitNanos > max && !mMaxQueueWaitNanos.compareAndSet(max, waitNanos)) {
+            max = mMaxQueueWaitNanos.get();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2018 Hyperwallet
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+package com.hyperwallet.android.util;
+
+/**
+ * {@code TransactionLane} separates the HTTP transactions of the Hyperwallet Core SDK by kind. Each lane runs on its
+ * own {@link TransactionExecutor}, so that a slow kind of request, such as the GraphQL query of the whole
+ * transfer method configuration tree, can not hold up the others.
+ */
+public enum TransactionLane {
+    /**
+     * GraphQL queries
+     */
+    GRAPHQL,
+    /**
+     * Idempotent REST {@link HttpMethod#GET} requests
+     */
+    REST_READ,
+    /**
+     * REST mutations, {@link HttpMethod#POST} and {@link HttpMethod#PUT} requests including status transitions
+     */
+    REST_WRITE
+}
@@ -0,0 +1,204 @@
+package com.hyperwallet.android;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import static com.hyperwallet.android.ExceptionMapper.EC_AUTHENTICATION_TOKEN_PROVIDER_EXCEPTION;
+
+import android.os.Handler;
+import android.util.Base64;
+
+import com.hyperwallet.android.exception.HyperwalletException;
+import com.hyperwallet.android.listener.HyperwalletListener;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Calendar;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(RobolectricTestRunner.class)
+public class AuthenticationTokenRefreshTest {
+
+    private static final int CONCURRENT_CALLS = 500;
+
+    @After
+    public void tearDown() {
+        Hyperwallet.clearInstance();
+    }
+
+    @Test
+    public void testGetConfiguration_concurrentCallsShareOneRetrieval() throws Exception {
+        SlowAuthenticationProvider provider = new SlowAuthenticationProvider(false);
+        Hyperwallet hyperwallet = new Hyperwallet.Builder(provider).build();
+        RecordingListener listener = new RecordingListener(CONCURRENT_CALLS);
+
+        fireConcurrently(hyperwallet, listener);
+
+        assertThat(listener.mCompleted.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(provider.mRetrievals.get(), is(1));
+        assertThat(listener.mConfigurations.size(), is(CONCURRENT_CALLS));
+        for (Configuration configuration : listener.mConfigurations) {
+            assertThat(configuration, is(sameInstance(listener.mConfigurations.get(0))));
+        }
+
+        RecordingListener laterListener = new RecordingListener(1);
+        hyperwallet.getConfiguration(laterListener);
+        assertThat(laterListener.mConfigurations.get(0), is(sameInstance(listener.mConfigurations.get(0))));
+        assertThat(provider.mRetrievals.get(), is(1));
+    }
+
+    @Test
+    public void testGetConfiguration_failedRetrievalReleasesAllWaiters() throws Exception {
+        SlowAuthenticationProvider provider = new SlowAuthenticationProvider(true);
+        Hyperwallet hyperwallet = new Hyperwallet.Builder(provider).build();
+        RecordingListener listener = new RecordingListener(CONCURRENT_CALLS);
+
+        fireConcurrently(hyperwallet, listener);
+
+        assertThat(listener.mCompleted.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(provider.mRetrievals.get(), is(1));
+        assertThat(listener.mExceptions.size(), is(CONCURRENT_CALLS));
+        assertThat(listener.mExceptions.get(0).getErrors().getErrors().get(0).getCode(),
+                is(EC_AUTHENTICATION_TOKEN_PROVIDER_EXCEPTION));
+
+        RecordingListener retryListener = new RecordingListener(1);
+        hyperwallet.getConfiguration(retryListener);
+        assertThat(retryListener.mCompleted.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(provider.mRetrievals.get(), is(2));
+    }
+
+    @Test
+    public void testProactiveTokenRefresh_leadTimeOfTokenLifetimeDoesNotRefreshContinuously() throws Exception {
+        SlowAuthenticationProvider provider = new SlowAuthenticationProvider(false);
+        Hyperwallet hyperwallet = new Hyperwallet.Builder(provider)
+                .proactiveTokenRefresh(TimeUnit.MINUTES.toMillis(10), 0, TimeUnit.MILLISECONDS)
+                .build();
+        RecordingListener listener = new RecordingListener(1);
+
+        hyperwallet.getConfiguration(listener);
+        assertThat(listener.mCompleted.await(5, TimeUnit.SECONDS), is(true));
+        Thread.sleep(1000);
+
+        assertThat(provider.mRetrievals.get(), is(1));
+        Hyperwallet.clearInstance();
+    }
+
+    private static void fireConcurrently(final Hyperwallet hyperwallet, final RecordingListener listener)
+            throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        final CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < CONCURRENT_CALLS; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    hyperwallet.getConfiguration(listener);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS), is(true));
+    }
+
+    private static class RecordingListener implements HyperwalletListener<Configuration> {
+        private final List<Configuration> mConfigurations = new CopyOnWriteArrayList<>();
+        private final List<HyperwalletException> mExceptions = new CopyOnWriteArrayList<>();
+        private final CountDownLatch mCompleted;
+
+        RecordingListener(final int expectedCalls) {
+            mCompleted = new CountDownLatch(expectedCalls);
+        }
+
+        @Override
+        public void onSuccess(Configuration result) {
+            mConfigurations.add(result);
+            mCompleted.countDown();
+        }
+
+        @Override
+        public void onFailure(HyperwalletException exception) {
+            mExceptions.add(exception);
+            mCompleted.countDown();
+        }
+
+        @Override
+        public Handler getHandler() {
+            return null;
+        }
+    }
+
+    /**
+     * Answers on its own thread after a delay, so that every concurrent call arrives while the retrieval is in flight
+     */
+    private static class SlowAuthenticationProvider implements HyperwalletAuthenticationTokenProvider {
+        private final AtomicInteger mRetrievals = new AtomicInteger();
+        private final boolean mFail;
+
+        SlowAuthenticationProvider(final boolean fail) {
+            mFail = fail;
+        }
+
+        @Override
+        public void retrieveAuthenticationToken(final HyperwalletAuthenticationTokenListener listener) {
+            mRetrievals.incrementAndGet();
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    if (mFail) {
+                        listener.onFailure(UUID.randomUUID(), "Error in authentication");
+                    } else {
+                        listener.onSuccess(buildJwtToken());
+                    }
+                }
+            }).start();
+        }
+
+        private static String buildJwtToken() {
+            try {
+                JSONObject jwtPayload = new JSONObject();
+                jwtPayload.put("graphql-uri", "http://localhost/graphql/");
+                jwtPayload.put("rest-uri", "http://localhost/rest/v3/");
+                jwtPayload.put("aud", "test-client-token");
+                jwtPayload.put("sub", "test-user-token");
+                jwtPayload.put("iss", "test-program-token");
+                Calendar cal = Calendar.getInstance();
+                jwtPayload.put("iat", TimeUnit.MILLISECONDS.toSeconds(cal.getTimeInMillis()));
+                cal.add(Calendar.MINUTE, 10);
+                jwtPayload.put("exp", TimeUnit.MILLISECONDS.toSeconds(cal.getTimeInMillis()));
+
+                return base64encode("{\"alg\":\"HS256\"}") + "." + base64encode(jwtPayload.toString()) + "."
+                        + base64encode("signature");
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static String base64encode(String value) {
+            return Base64.encodeToString(value.getBytes(StandardCharsets.UTF_8),
+                    Base64.URL_SAFE | Base64.NO_WRAP | Base64.NO_PADDING);
+        }
+    }
+}
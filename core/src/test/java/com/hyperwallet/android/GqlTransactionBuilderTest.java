@@ -12,6 +12,7 @@ import com.hyperwallet.android.model.graphql.HyperwalletTransferMethodConfigurat
 import com.hyperwallet.android.model.graphql.query.TransferMethodConfigurationKeysQuery;
 import com.hyperwallet.android.rule.ExternalResourceManager;
 
+import org.json.JSONObject;
 import org.junit.Rule;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -32,7 +33,7 @@ public class GqlTransactionBuilderTest {
     private HyperwalletListener<HyperwalletTransferMethodConfigurationKey> mListener;
 
     @Test
-    public void testBuild_withRequiredParametersOnly() {
+    public void testBuild_withRequiredParametersOnly() throws Exception {
         TransferMethodConfigurationKeysQuery keysQuery =
                 new TransferMethodConfigurationKeysQuery();
 
@@ -52,46 +53,8 @@ public class GqlTransactionBuilderTest {
         assertThat(headers.get("Content-Type"), is("application/json"));
         assertThat(headers.get("Authorization"), is("Bearer eyJ0eXAiOiJKV1QiLCJhbGciOiJIUzUxMiJ9"));
 
-        final String QUERY_VALUE = "query {\n"
-                + "\tcountries(idToken: \"test-user-token\") {\n"
-                + "\t\tnodes {\n"
-                + "\t\t\tcode\n"
-                + "\t\t\tname\n"
-                + "\t\t\tcurrencies {\n"
-                + "\t\t\t\tnodes {\n"
-                + "\t\t\t\t\tcode\n"
-                + "\t\t\t\t\tname\n"
-                + "\t\t\t\t\ttransferMethodTypes {\n"
-                + "\t\t\t\t\t\tnodes {\n"
-                + "\t\t\t\t\t\t\tcode\n"
-                + "\t\t\t\t\t\t\tname\n"
-                + "\t\t\t\t\t\t\tfees {\n"
-                + "\t\t\t\t\t\t\t\tnodes {\n"
-                + "\t\t\t\t\t\t\t\t\tcountry\n"
-                + "\t\t\t\t\t\t\t\t\tcurrency\n"
-                + "\t\t\t\t\t\t\t\t\ttransferMethodType\n"
-                + "\t\t\t\t\t\t\t\t\tvalue\n"
-                + "\t\t\t\t\t\t\t\t\tfeeRateType\n"
-                + "\t\t\t\t\t\t\t\t\tmaximum\n"
-                + "\t\t\t\t\t\t\t\t\tminimum\n"
-                + "\t\t\t\t\t\t\t\t}\n"
-                + "\t\t\t\t\t\t\t}\n"
-                + "\t\t\t\t\t\t\tprocessingTimes {\n"
-                + "\t\t\t\t\t\t\t\tnodes {\n"
-                + "\t\t\t\t\t\t\t\t\tcountry\n"
-                + "\t\t\t\t\t\t\t\t\tcurrency\n"
-                + "\t\t\t\t\t\t\t\t\ttransferMethodType\n"
-                + "\t\t\t\t\t\t\t\t\tvalue\n"
-                + "\t\t\t\t\t\t\t\t}\n"
-                + "\t\t\t\t\t\t\t}\n"
-                + "\t\t\t\t\t\t}\n"
-                + "\t\t\t\t\t}\n"
-                + "\t\t\t\t}\n"
-                + "\t\t\t}\n"
-                + "\t\t}\n"
-                + "\t}\n"
-                + "}";
-
-        assertThat(gqlTransaction.getPayload(), is(QUERY_VALUE));
+        JSONObject query = new JSONObject(gqlTransaction.getPayload());
+        assertThat(query.getString("query"), is(keysQuery.getDocument().getDocument()));
+        assertThat(query.getJSONObject("variables").getString("idToken"), is("test-user-token"));
     }
 }
@@ -3,7 +3,9 @@ package com.hyperwallet.android;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import com.hyperwallet.android.exception.HyperwalletException;
 import com.hyperwallet.android.listener.HyperwalletListener;
@@ -12,10 +14,11 @@ import com.hyperwallet.android.model.TypeReference;
 import com.hyperwallet.android.model.graphql.HyperwalletTransferMethodConfigurationKey;
 import com.hyperwallet.android.model.graphql.query.TransferMethodConfigurationKeysQuery;
 import com.hyperwallet.android.rule.ExternalResourceManager;
-import com.hyperwallet.android.util.HttpClient;
 import com.hyperwallet.android.util.HttpMethod;
+import com.hyperwallet.android.util.TransactionLane;
 
 import org.json.JSONException;
+import org.json.JSONObject;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -27,8 +30,11 @@ import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 import org.robolectric.RobolectricTestRunner;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 
 @RunWith(RobolectricTestRunner.class)
 public class GqlTransactionTest {
@@ -43,16 +49,16 @@ public class GqlTransactionTest {
     @Mock
     private HyperwalletListener<HyperwalletTransferMethodConfigurationKey> mListener;
     @Mock
-    private HttpClient mHttpClient;
+    private HttpTransport mHttpTransport;
 
     @Captor
-    private ArgumentCaptor<String> mPayloadCaptor;
+    private ArgumentCaptor<HttpTransport.Request> mRequestCaptor;
     @Captor
     private ArgumentCaptor<HyperwalletException> mExceptionArgumentCaptor;
 
 
     @Test
-    public void testPerformRequest_usingHttpPost() throws IOException {
+    public void testRun_usingHttpPost() throws IOException, JSONException {
         TransferMethodConfigurationKeysQuery keysQuery = new TransferMethodConfigurationKeysQuery();
 
         GqlTransaction.Builder<HyperwalletTransferMethodConfigurationKey> builder = new GqlTransaction.Builder<>(
@@ -62,52 +68,21 @@ public class GqlTransactionTest {
         final GqlTransaction gqlTransaction = builder.build("test", "test-user-token",
                 "eyJ0eXAiOiJKV1QiLCJhbGciOiJIUzUxMiJ9");
         assertThat(gqlTransaction.getMethod(), is(HttpMethod.POST));
+        assertThat(gqlTransaction.getLane(), is(TransactionLane.GRAPHQL));
 
-        gqlTransaction.performRequest(mHttpClient);
-
-        verify(mHttpClient).post(mPayloadCaptor.capture());
-        String payload = mPayloadCaptor.getValue();
-        String sampleQuery = "query {\n"
-                + "\tcountries(idToken: \"test-user-token\") {\n"
-                + "\t\tnodes {\n"
-                + "\t\t\tcode\n"
-                + "\t\t\tname\n"
-                + "\t\t\tcurrencies {\n"
-                + "\t\t\t\tnodes {\n"
-                + "\t\t\t\t\tcode\n"
-                + "\t\t\t\t\tname\n"
-                + "\t\t\t\t\ttransferMethodTypes {\n"
-                + "\t\t\t\t\t\tnodes {\n"
-                + "\t\t\t\t\t\t\tcode\n"
-                + "\t\t\t\t\t\t\tname\n"
-                + "\t\t\t\t\t\t\tfees {\n"
-                + "\t\t\t\t\t\t\t\tnodes {\n"
-                + "\t\t\t\t\t\t\t\t\tcountry\n"
-                + "\t\t\t\t\t\t\t\t\tcurrency\n"
-                + "\t\t\t\t\t\t\t\t\ttransferMethodType\n"
-                + "\t\t\t\t\t\t\t\t\tvalue\n"
-                + "\t\t\t\t\t\t\t\t\tfeeRateType\n"
-                + "\t\t\t\t\t\t\t\t\tmaximum\n"
-                + "\t\t\t\t\t\t\t\t\tminimum\n"
-                + "\t\t\t\t\t\t\t\t}\n"
-                + "\t\t\t\t\t\t\t}\n"
-                + "\t\t\t\t\t\t\tprocessingTimes {\n"
-                + "\t\t\t\t\t\t\t\tnodes {\n"
-                + "\t\t\t\t\t\t\t\t\tcountry\n"
-                + "\t\t\t\t\t\t\t\t\tcurrency\n"
-                + "\t\t\t\t\t\t\t\t\ttransferMethodType\n"
-                + "\t\t\t\t\t\t\t\t\tvalue\n"
-                + "\t\t\t\t\t\t\t\t}\n"
-                + "\t\t\t\t\t\t\t}\n"
-                + "\t\t\t\t\t\t}\n"
-                + "\t\t\t\t\t}\n"
-                + "\t\t\t\t}\n"
-                + "\t\t\t}\n"
-                + "\t\t}\n"
-                + "\t}\n"
-                + "}";
-        assertThat(payload, is(notNullValue()));
-        assertThat(payload, is(sampleQuery));
+        when(mHttpTransport.execute(any(HttpTransport.Request.class))).thenReturn(new HttpTransport.Response(
+                HttpURLConnection.HTTP_NO_CONTENT, Collections.<String, String>emptyMap(),
+                new ByteArrayInputStream(new byte[0])));
+        gqlTransaction.setHttpTransport(mHttpTransport);
+
+        gqlTransaction.run();
+
+        verify(mHttpTransport).execute(mRequestCaptor.capture());
+        assertThat(mRequestCaptor.getValue().getMethod(), is("POST"));
+        String payload = new String(mRequestCaptor.getValue().getBody(), StandardCharsets.UTF_8);
+        JSONObject query = new JSONObject(payload);
+        assertThat(query.getString("query"), is(keysQuery.getDocument().getDocument()));
+        assertThat(query.getJSONObject("variables").getString("idToken"), is("test-user-token"));
     }
 
     @Test
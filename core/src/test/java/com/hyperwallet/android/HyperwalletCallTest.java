@@ -0,0 +1,253 @@
+package com.hyperwallet.android;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.os.Handler;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.OnLifecycleEvent;
+
+import com.hyperwallet.android.exception.HyperwalletException;
+import com.hyperwallet.android.listener.HyperwalletListener;
+import com.hyperwallet.android.model.graphql.HyperwalletTransferMethodConfigurationKey;
+import com.hyperwallet.android.model.graphql.query.TransferMethodConfigurationKeysQuery;
+import com.hyperwallet.android.rule.HyperwalletMockWebServer;
+import com.hyperwallet.android.rule.HyperwalletSdkMock;
+import com.hyperwallet.android.util.TransactionExecutor;
+import com.hyperwallet.android.util.TransactionLane;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.robolectric.RobolectricTestRunner;
+
+import java.lang.reflect.Method;
+import java.net.HttpURLConnection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+@RunWith(RobolectricTestRunner.class)
+public class HyperwalletCallTest {
+
+    @Rule
+    public HyperwalletMockWebServer mServer = new HyperwalletMockWebServer();
+    @Rule
+    public HyperwalletSdkMock mHyperwalletSdkMock = new HyperwalletSdkMock(mServer);
+    @Rule
+    public MockitoRule mMockito = MockitoJUnit.rule();
+
+    @Mock
+    private LifecycleOwner mLifecycleOwner;
+    @Mock
+    private Lifecycle mLifecycle;
+
+    @Test
+    public void testCancel_queuedRequestIsWithdrawn() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger received = new AtomicInteger();
+        mServer.setDispatcher(new BlockingDispatcher(release, received, 2));
+        Hyperwallet hyperwallet = Hyperwallet.getDefault();
+        TransactionExecutor executor = hyperwallet.getTransactionExecutor(TransactionLane.GRAPHQL);
+        CountDownLatch done = new CountDownLatch(2);
+        RecordingListener canceledListener = new RecordingListener(new CountDownLatch(1));
+
+        try {
+            retrieveKeys(hyperwallet, new RecordingListener(done));
+            retrieveKeys(hyperwallet, new RecordingListener(done));
+            HyperwalletCall call = retrieveKeys(hyperwallet, canceledListener);
+            awaitQueueDepth(executor, 1);
+
+            call.cancel();
+
+            assertThat(call.isCanceled(), is(true));
+            assertThat(executor.getQueueDepth(), is(0));
+        } finally {
+            release.countDown();
+        }
+        assertThat(done.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(canceledListener.mDone.await(200, TimeUnit.MILLISECONDS), is(false));
+        assertThat(received.get(), is(2));
+    }
+
+    @Test
+    public void testCancel_inFlightRequestIsAborted() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger received = new AtomicInteger();
+        mServer.setDispatcher(new BlockingDispatcher(release, received, 2));
+        Hyperwallet hyperwallet = Hyperwallet.getDefault();
+        RecordingListener canceledListener = new RecordingListener(new CountDownLatch(2));
+        CountDownLatch done = new CountDownLatch(1);
+
+        try {
+            HyperwalletCall first = retrieveKeys(hyperwallet, canceledListener);
+            HyperwalletCall second = retrieveKeys(hyperwallet, canceledListener);
+            retrieveKeys(hyperwallet, new RecordingListener(done));
+            awaitReceived(received, 2);
+
+            first.cancel();
+            second.cancel();
+
+            // the queued request can only run once the aborted ones released their thread
+            assertThat(done.await(5, TimeUnit.SECONDS), is(true));
+        } finally {
+            release.countDown();
+        }
+        assertThat(canceledListener.mDone.await(200, TimeUnit.MILLISECONDS), is(false));
+        assertThat(canceledListener.mDone.getCount(), is(2L));
+    }
+
+    @Test
+    public void testCancelOnDestroy_cancelsWhenOwnerIsDestroyed() throws Exception {
+        when(mLifecycleOwner.getLifecycle()).thenReturn(mLifecycle);
+        when(mLifecycle.getCurrentState()).thenReturn(Lifecycle.State.RESUMED);
+        HyperwalletCall call = new HyperwalletCall();
+
+        assertThat(call.cancelOnDestroy(mLifecycleOwner), is(call));
+        ArgumentCaptor<LifecycleObserver> observer = ArgumentCaptor.forClass(LifecycleObserver.class);
+        verify(mLifecycle).addObserver(observer.capture());
+
+        dispatch(observer.getValue(), Lifecycle.Event.ON_STOP);
+        assertThat(call.isCanceled(), is(false));
+        dispatch(observer.getValue(), Lifecycle.Event.ON_DESTROY);
+        assertThat(call.isCanceled(), is(true));
+        verify(mLifecycle).removeObserver(observer.getValue());
+    }
+
+    @Test
+    public void testCancelOn_cancelsOnLifecycleEvent() throws Exception {
+        when(mLifecycleOwner.getLifecycle()).thenReturn(mLifecycle);
+        when(mLifecycle.getCurrentState()).thenReturn(Lifecycle.State.RESUMED);
+        HyperwalletCall call = new HyperwalletCall();
+
+        call.cancelOn(mLifecycleOwner, Lifecycle.Event.ON_STOP);
+        ArgumentCaptor<LifecycleObserver> observer = ArgumentCaptor.forClass(LifecycleObserver.class);
+        verify(mLifecycle).addObserver(observer.capture());
+
+        dispatch(observer.getValue(), Lifecycle.Event.ON_PAUSE);
+        assertThat(call.isCanceled(), is(false));
+        dispatch(observer.getValue(), Lifecycle.Event.ON_STOP);
+        assertThat(call.isCanceled(), is(true));
+    }
+
+    @Test
+    public void testCancelOnDestroy_ownerAlreadyDestroyed() {
+        when(mLifecycleOwner.getLifecycle()).thenReturn(mLifecycle);
+        when(mLifecycle.getCurrentState()).thenReturn(Lifecycle.State.DESTROYED);
+        HyperwalletCall call = new HyperwalletCall();
+
+        call.cancelOnDestroy(mLifecycleOwner);
+
+        assertThat(call.isCanceled(), is(true));
+        verify(mLifecycle, never()).addObserver(any(LifecycleObserver.class));
+    }
+
+    @Test
+    public void testCancel_cancelsAttachedCalls() {
+        HyperwalletCall call = new HyperwalletCall();
+        HyperwalletCall child = new HyperwalletCall();
+        call.attach(child);
+
+        call.cancel();
+
+        assertThat(child.isCanceled(), is(true));
+        HyperwalletCall lateChild = new HyperwalletCall();
+        call.attach(lateChild);
+        assertThat(lateChild.isCanceled(), is(true));
+    }
+
+    private static HyperwalletCall retrieveKeys(final Hyperwallet hyperwallet, final RecordingListener listener) {
+        return hyperwallet.retrieveTransferMethodConfigurationKeys(new TransferMethodConfigurationKeysQuery(),
+                listener);
+    }
+
+    /**
+     * Delivers a lifecycle event the way the lifecycle runtime does, through the annotated observer method
+     */
+    private void dispatch(final LifecycleObserver observer, final Lifecycle.Event event) throws Exception {
+        for (Method method : observer.getClass().getDeclaredMethods()) {
+            if (method.isAnnotationPresent(OnLifecycleEvent.class)) {
+                method.setAccessible(true);
+                method.invoke(observer, mLifecycleOwner, event);
+            }
+        }
+    }
+
+    private static void awaitQueueDepth(final TransactionExecutor executor, final int depth)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (executor.getQueueDepth() != depth && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(executor.getQueueDepth(), is(depth));
+    }
+
+    private static void awaitReceived(final AtomicInteger received, final int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (received.get() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(received.get(), is(count));
+    }
+
+    /**
+     * Holds the first {@code blocked} requests until released, answers the others right away
+     */
+    private static class BlockingDispatcher extends Dispatcher {
+        private final CountDownLatch mRelease;
+        private final AtomicInteger mReceived;
+        private final int mBlocked;
+
+        BlockingDispatcher(final CountDownLatch release, final AtomicInteger received, final int blocked) {
+            mRelease = release;
+            mReceived = received;
+            mBlocked = blocked;
+        }
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+            if (mReceived.incrementAndGet() <= mBlocked) {
+                mRelease.await(10, TimeUnit.SECONDS);
+            }
+            return new MockResponse().setResponseCode(HttpURLConnection.HTTP_OK).setBody("{}");
+        }
+    }
+
+    private static class RecordingListener implements HyperwalletListener<HyperwalletTransferMethodConfigurationKey> {
+        private final CountDownLatch mDone;
+
+        RecordingListener(final CountDownLatch done) {
+            mDone = done;
+        }
+
+        @Override
+        public void onSuccess(HyperwalletTransferMethodConfigurationKey result) {
+            mDone.countDown();
+        }
+
+        @Override
+        public void onFailure(HyperwalletException exception) {
+            mDone.countDown();
+        }
+
+        @Override
+        public Handler getHandler() {
+            return null;
+        }
+    }
+}
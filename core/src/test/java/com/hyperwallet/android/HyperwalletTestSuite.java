@@ -52,6 +52,12 @@ import org.junit.runners.Suite;
         RetrieveTransferMethodConfigurationKeysTest.class,
         RetrieveTransferMethodConfigurationFieldsTest.class,
         GetConfigurationTest.class,
+        AuthenticationTokenRefreshTest.class,
+        HyperwalletCallTest.class,
+        RequestCoalescerTest.class,
+        ResponseCacheTest.class,
+        TransferMethodConfigurationKeyCacheTest.class,
+        TransferMethodConfigurationFieldCacheTest.class,
         ListPayPalAccountsTest.class,
         ListUserReceiptsTest.class,
         ListPrepaidCardReceiptsTest.class,
@@ -0,0 +1,277 @@
+package com.hyperwallet.android;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import android.os.Handler;
+
+import com.hyperwallet.android.exception.HyperwalletException;
+import com.hyperwallet.android.listener.HyperwalletListener;
+import com.hyperwallet.android.model.graphql.HyperwalletTransferMethodConfigurationField;
+import com.hyperwallet.android.model.graphql.HyperwalletTransferMethodConfigurationKey;
+import com.hyperwallet.android.model.graphql.query.TransferMethodConfigurationFieldQuery;
+import com.hyperwallet.android.model.graphql.query.TransferMethodConfigurationKeysQuery;
+import com.hyperwallet.android.rule.ExternalResourceManager;
+import com.hyperwallet.android.rule.HyperwalletMockWebServer;
+import com.hyperwallet.android.rule.HyperwalletSdkMock;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+@RunWith(RobolectricTestRunner.class)
+public class PersistedQueryTest {
+
+    @Rule
+    public HyperwalletMockWebServer mServer = new HyperwalletMockWebServer();
+    @Rule
+    public HyperwalletSdkMock mHyperwalletSdkMock = new HyperwalletSdkMock(mServer);
+    @Rule
+    public ExternalResourceManager mExternalResourceManager = new ExternalResourceManager();
+
+    private PersistedQueryDispatcher mDispatcher;
+    private String mAuthenticationToken;
+
+    @Before
+    public void setUp() throws Exception {
+        JSONObject keys = new JSONObject(mExternalResourceManager.getResourceContent("tmc_get_keys_response.json"));
+        keys.remove("errors");
+        mDispatcher = new PersistedQueryDispatcher(keys.toString(),
+                mExternalResourceManager.getResourceContent("tmc_get_fields_v2_response.json"));
+        mServer.setDispatcher(mDispatcher);
+        RecordingListener<Configuration> listener = new RecordingListener<>();
+        Hyperwallet.getDefault().getConfiguration(listener);
+        assertThat(listener.mDone.await(5, TimeUnit.SECONDS), is(true));
+        mAuthenticationToken = listener.mResult.getAuthenticationToken();
+    }
+
+    @After
+    public void tearDown() {
+        Hyperwallet.clearInstance();
+    }
+
+    @Test
+    public void testRetrieveKeys_documentIsSentOnlyWhenHashIsUnknown() throws Exception {
+        Hyperwallet hyperwallet = build(true);
+
+        assertThat(retrieveKeys(hyperwallet), is(notNullValue()));
+        assertThat(retrieveKeys(hyperwallet), is(notNullValue()));
+
+        List<JSONObject> requests = mDispatcher.mRequests;
+        assertThat(requests.size(), is(3));
+        assertThat(requests.get(0).has("query"), is(false));
+        assertThat(requests.get(1).has("query"), is(true));
+        assertThat(requests.get(2).has("query"), is(false));
+        assertThat(requests.get(2).getJSONObject("variables").has("idToken"), is(true));
+        assertThat(hash(requests.get(0)), is(hash(requests.get(1))));
+        assertThat(hash(requests.get(2)), is(hash(requests.get(1))));
+    }
+
+    @Test
+    public void testRetrieveFields_hashIsSharedByQueriesOfSameType() throws Exception {
+        Hyperwallet hyperwallet = build(true);
+
+        assertThat(retrieveFields(hyperwallet, "USD", "BANK_ACCOUNT"), is(notNullValue()));
+        assertThat(retrieveFields(hyperwallet, "CAD", "BANK_ACCOUNT"), is(notNullValue()));
+        assertThat(retrieveKeys(hyperwallet), is(notNullValue()));
+
+        List<JSONObject> requests = mDispatcher.mRequests;
+        assertThat(requests.size(), is(5));
+        assertThat(requests.get(2).has("query"), is(false));
+        assertThat(requests.get(2).getJSONObject("variables").getString("currency"), is("CAD"));
+        assertThat(hash(requests.get(2)), is(hash(requests.get(0))));
+        assertThat(hash(requests.get(3)), is(not(hash(requests.get(0)))));
+        assertThat(mDispatcher.mDocuments.size(), is(2));
+    }
+
+    @Test
+    public void testRetrieveFields_documentIsSentWhenPersistedQueriesAreNotSupported() throws Exception {
+        mDispatcher.mSupported = false;
+        Hyperwallet hyperwallet = build(true);
+
+        assertThat(retrieveFields(hyperwallet, "USD", "BANK_ACCOUNT"), is(notNullValue()));
+
+        assertThat(mDispatcher.mRequests.size(), is(2));
+        assertThat(mDispatcher.mRequests.get(1).has("query"), is(true));
+    }
+
+    @Test
+    public void testRetrieveFields_documentIsAlwaysSentByDefault() throws Exception {
+        Hyperwallet hyperwallet = build(false);
+
+        retrieveFields(hyperwallet, "USD", "BANK_ACCOUNT");
+        retrieveFields(hyperwallet, "USD", "BANK_ACCOUNT");
+
+        assertThat(mDispatcher.mRequests.size(), is(2));
+        for (JSONObject request : mDispatcher.mRequests) {
+            assertThat(request.has("query"), is(true));
+            assertThat(request.has("extensions"), is(false));
+        }
+    }
+
+    @Test
+    public void testIsPersistedQueryError() {
+        assertThat(GqlTransaction.isPersistedQueryError(
+                "{\"errors\":[{\"message\":\"PersistedQueryNotFound\"}]}"), is(true));
+        assertThat(GqlTransaction.isPersistedQueryError(
+                "{\"errors\":[{\"message\":\"x\",\"extensions\":{\"code\":\"PERSISTED_QUERY_NOT_FOUND\"}}]}"),
+                is(true));
+        assertThat(GqlTransaction.isPersistedQueryError(
+                "{\"errors\":[{\"message\":\"PersistedQueryNotSupported\"}]}"), is(true));
+        assertThat(GqlTransaction.isPersistedQueryError(
+                "{\"data\":{\"name\":\"PersistedQueryNotFound\"}}"), is(false));
+        assertThat(GqlTransaction.isPersistedQueryError("PersistedQueryNotFound"), is(false));
+        assertThat(GqlTransaction.isPersistedQueryError("{\"errors\":[]}"), is(false));
+    }
+
+    private Hyperwallet build(final boolean persistedQueries) {
+        return new Hyperwallet.Builder(new HyperwalletAuthenticationTokenProvider() {
+            @Override
+            public void retrieveAuthenticationToken(HyperwalletAuthenticationTokenListener listener) {
+                listener.onSuccess(mAuthenticationToken);
+            }
+        }).persistedQueries(persistedQueries).build();
+    }
+
+    private static HyperwalletTransferMethodConfigurationKey retrieveKeys(final Hyperwallet hyperwallet)
+            throws InterruptedException {
+        RecordingListener<HyperwalletTransferMethodConfigurationKey> listener = new RecordingListener<>();
+        hyperwallet.retrieveTransferMethodConfigurationKeys(new TransferMethodConfigurationKeysQuery(), listener);
+        assertThat(listener.mDone.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(listener.mException, is((HyperwalletException) null));
+        return listener.mResult;
+    }
+
+    private static HyperwalletTransferMethodConfigurationField retrieveFields(final Hyperwallet hyperwallet,
+            final String currency, final String transferMethodType) throws InterruptedException {
+        RecordingListener<HyperwalletTransferMethodConfigurationField> listener = new RecordingListener<>();
+        hyperwallet.retrieveTransferMethodConfigurationFields(
+                new TransferMethodConfigurationFieldQuery("CA", currency, transferMethodType, "INDIVIDUAL"),
+                listener);
+        assertThat(listener.mDone.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(listener.mException, is((HyperwalletException) null));
+        return listener.mResult;
+    }
+
+    private static String hash(final JSONObject request) throws JSONException {
+        return request.getJSONObject("extensions").getJSONObject("persistedQuery").getString("sha256Hash");
+    }
+
+    /**
+     * Stand-in GraphQL server implementing automatic persisted queries: documents are registered under the
+     * SHA-256 hash sent along with them, which must match, and requests sending only a hash of a document that is
+     * not registered are answered with a {@code PersistedQueryNotFound} error
+     */
+    private static class PersistedQueryDispatcher extends Dispatcher {
+        private final Map<String, String> mDocuments = new ConcurrentHashMap<>();
+        private final List<JSONObject> mRequests = new CopyOnWriteArrayList<>();
+        private final String mKeys;
+        private final String mFields;
+        private volatile boolean mSupported = true;
+
+        PersistedQueryDispatcher(final String keys, final String fields) {
+            mKeys = keys;
+            mFields = fields;
+        }
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            try {
+                JSONObject body = new JSONObject(request.getBody().readUtf8());
+                mRequests.add(body);
+                String document = body.optString("query", null);
+                JSONObject extensions = body.optJSONObject("extensions");
+                JSONObject persistedQuery = extensions == null ? null : extensions.optJSONObject("persistedQuery");
+                if (persistedQuery != null && !mSupported && document == null) {
+                    return error("PersistedQueryNotSupported", "PERSISTED_QUERY_NOT_SUPPORTED");
+                }
+                if (persistedQuery != null && mSupported) {
+                    String hash = persistedQuery.getString("sha256Hash");
+                    if (document == null) {
+                        document = mDocuments.get(hash);
+                        if (document == null) {
+                            return error("PersistedQueryNotFound", "PERSISTED_QUERY_NOT_FOUND");
+                        }
+                    } else if (!hash.equals(sha256(document))) {
+                        return new MockResponse().setResponseCode(HttpURLConnection.HTTP_BAD_REQUEST)
+                                .setBody(errorBody("provided sha does not match query", "BAD_USER_INPUT"));
+                    } else {
+                        mDocuments.put(hash, document);
+                    }
+                }
+                if (document == null) {
+                    return new MockResponse().setResponseCode(HttpURLConnection.HTTP_BAD_REQUEST)
+                            .setBody(errorBody("Must provide query string.", "BAD_USER_INPUT"));
+                }
+                String data = document.contains("transferMethodUIConfigurations") ? mFields : mKeys;
+                return new MockResponse().setResponseCode(HttpURLConnection.HTTP_OK).setBody(data);
+            } catch (Exception e) {
+                return new MockResponse().setResponseCode(HttpURLConnection.HTTP_INTERNAL_ERROR);
+            }
+        }
+
+        private static MockResponse error(final String message, final String code) throws JSONException {
+            return new MockResponse().setResponseCode(HttpURLConnection.HTTP_OK).setBody(errorBody(message, code));
+        }
+
+        private static String errorBody(final String message, final String code) throws JSONException {
+            return new JSONObject().put("errors", new JSONArray().put(new JSONObject()
+                    .put("message", message)
+                    .put("extensions", new JSONObject().put("code", code)))).toString();
+        }
+
+        private static String sha256(final String document) throws Exception {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(document.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        }
+    }
+
+    private static class RecordingListener<T> implements HyperwalletListener<T> {
+        private final CountDownLatch mDone = new CountDownLatch(1);
+        private volatile T mResult;
+        private volatile HyperwalletException mException;
+
+        @Override
+        public void onSuccess(T result) {
+            mResult = result;
+            mDone.countDown();
+        }
+
+        @Override
+        public void onFailure(HyperwalletException exception) {
+            mException = exception;
+            mDone.countDown();
+        }
+
+        @Override
+        public Handler getHandler() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.hyperwallet.android;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import android.os.Handler;
+
+import com.hyperwallet.android.exception.HyperwalletException;
+import com.hyperwallet.android.listener.HyperwalletListener;
+import com.hyperwallet.android.model.balance.Balance;
+import com.hyperwallet.android.model.balance.BalanceQueryParam;
+import com.hyperwallet.android.model.paging.PageList;
+import com.hyperwallet.android.model.transfer.Transfer;
+import com.hyperwallet.android.model.user.User;
+import com.hyperwallet.android.rule.ExternalResourceManager;
+import com.hyperwallet.android.rule.HyperwalletMockWebServer;
+import com.hyperwallet.android.rule.HyperwalletSdkMock;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.net.HttpURLConnection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+@RunWith(RobolectricTestRunner.class)
+public class RequestCoalescerTest {
+
+    @Rule
+    public HyperwalletMockWebServer mServer = new HyperwalletMockWebServer();
+    @Rule
+    public HyperwalletSdkMock mHyperwalletSdkMock = new HyperwalletSdkMock(mServer);
+    @Rule
+    public ExternalResourceManager mExternalResourceManager = new ExternalResourceManager();
+
+    @After
+    public void tearDown() {
+        Hyperwallet.clearInstance();
+    }
+
+    @Test
+    public void testGet_concurrentIdenticalRequestsShareOneResponse() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SlowDispatcher dispatcher = new SlowDispatcher(release, HttpURLConnection.HTTP_OK,
+                mExternalResourceManager.getResourceContent("user_response.json"));
+        mServer.setDispatcher(dispatcher);
+        Hyperwallet hyperwallet = Hyperwallet.getDefault();
+        RecordingListener<User> listener = new RecordingListener<>(5);
+
+        try {
+            for (int i = 0; i < 5; i++) {
+                hyperwallet.getUser(listener);
+            }
+            awaitHits(hyperwallet.getRequestCoalescer(), 4);
+        } finally {
+            release.countDown();
+        }
+
+        assertThat(listener.mDone.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(dispatcher.mReceived.get(), is(1));
+        assertThat(listener.mResults.size(), is(5));
+        for (User user : listener.mResults) {
+            assertThat(user, is(notNullValue()));
+            assertThat(user, is(sameInstance(listener.mResults.get(0))));
+        }
+        assertThat(hyperwallet.getRequestCoalescer().getHitCount(), is(4L));
+        assertThat(hyperwallet.getRequestCoalescer().getMissCount(), is(1L));
+    }
+
+    @Test
+    public void testGet_differentQueriesAreNotCoalesced() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SlowDispatcher dispatcher = new SlowDispatcher(release, HttpURLConnection.HTTP_OK,
+                mExternalResourceManager.getResourceContent("balance_list_response.json"));
+        mServer.setDispatcher(dispatcher);
+        Hyperwallet hyperwallet = Hyperwallet.getDefault();
+        RecordingListener<PageList<Balance>> listener = new RecordingListener<>(2);
+
+        hyperwallet.listUserBalances(new BalanceQueryParam.Builder().currency("USD").build(), listener);
+        hyperwallet.listUserBalances(new BalanceQueryParam.Builder().currency("CAD").build(), listener);
+        release.countDown();
+
+        assertThat(listener.mDone.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(dispatcher.mReceived.get(), is(2));
+        assertThat(hyperwallet.getRequestCoalescer().getHitCount(), is(0L));
+    }
+
+    @Test
+    public void testPost_isNeverCoalesced() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SlowDispatcher dispatcher = new SlowDispatcher(release, HttpURLConnection.HTTP_CREATED,
+                mExternalResourceManager.getResourceContent("transfer_response.json"));
+        mServer.setDispatcher(dispatcher);
+        Hyperwallet hyperwallet = Hyperwallet.getDefault();
+        RecordingListener<Transfer> listener = new RecordingListener<>(2);
+        Transfer transfer = new Transfer.Builder().destinationToken("trm-fake-token").build();
+
+        hyperwallet.createTransfer(transfer, listener);
+        hyperwallet.createTransfer(transfer, listener);
+        release.countDown();
+
+        assertThat(listener.mDone.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(dispatcher.mReceived.get(), is(2));
+        assertThat(hyperwallet.getRequestCoalescer().getHitCount(), is(0L));
+        assertThat(hyperwallet.getRequestCoalescer().getMissCount(), is(0L));
+    }
+
+    @Test
+    public void testCancel_leaderKeepsRunningForAttachedRequests() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SlowDispatcher dispatcher = new SlowDispatcher(release, HttpURLConnection.HTTP_OK,
+                mExternalResourceManager.getResourceContent("user_response.json"));
+        mServer.setDispatcher(dispatcher);
+        Hyperwallet hyperwallet = Hyperwallet.getDefault();
+        RecordingListener<User> canceledListener = new RecordingListener<>(1);
+        RecordingListener<User> listener = new RecordingListener<>(1);
+
+        try {
+            HyperwalletCall leader = hyperwallet.getUser(canceledListener);
+            hyperwallet.getUser(listener);
+            awaitHits(hyperwallet.getRequestCoalescer(), 1);
+
+            leader.cancel();
+        } finally {
+            release.countDown();
+        }
+
+        assertThat(listener.mDone.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(listener.mResults.get(0), is(notNullValue()));
+        assertThat(canceledListener.mDone.await(200, TimeUnit.MILLISECONDS), is(false));
+        assertThat(dispatcher.mReceived.get(), is(1));
+    }
+
+    @Test
+    public void testCoalesceRequests_disabled() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SlowDispatcher dispatcher = new SlowDispatcher(release, HttpURLConnection.HTTP_OK,
+                mExternalResourceManager.getResourceContent("user_response.json"));
+        mServer.setDispatcher(dispatcher);
+        RecordingListener<Configuration> configurationListener = new RecordingListener<>(1);
+        Hyperwallet.getDefault().getConfiguration(configurationListener);
+        final String authenticationToken = configurationListener.mResults.get(0).getAuthenticationToken();
+        Hyperwallet hyperwallet = new Hyperwallet.Builder(new HyperwalletAuthenticationTokenProvider() {
+            @Override
+            public void retrieveAuthenticationToken(HyperwalletAuthenticationTokenListener listener) {
+                listener.onSuccess(authenticationToken);
+            }
+        }).coalesceRequests(false).build();
+        RecordingListener<User> listener = new RecordingListener<>(2);
+
+        hyperwallet.getUser(listener);
+        hyperwallet.getUser(listener);
+        release.countDown();
+
+        assertThat(listener.mDone.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(dispatcher.mReceived.get(), is(2));
+        assertThat(hyperwallet.getRequestCoalescer().getHitCount(), is(0L));
+    }
+
+    private static void awaitHits(final RequestCoalescer coalescer, final long hits) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (coalescer.getHitCount() < hits && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(coalescer.getHitCount(), is(hits));
+    }
+
+    /**
+     * Holds every response until released, so that the requests overlap
+     */
+    private static class SlowDispatcher extends Dispatcher {
+        private final AtomicInteger mReceived = new AtomicInteger();
+        private final CountDownLatch mRelease;
+        private final int mResponseCode;
+        private final String mBody;
+
+        SlowDispatcher(final CountDownLatch release, final int responseCode, final String body) {
+            mRelease = release;
+            mResponseCode = responseCode;
+            mBody = body;
+        }
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+            mReceived.incrementAndGet();
+            mRelease.await(5, TimeUnit.SECONDS);
+            return new MockResponse().setResponseCode(mResponseCode).setBody(mBody);
+        }
+    }
+
+    private static class RecordingListener<T> implements HyperwalletListener<T> {
+        private final List<T> mResults = new CopyOnWriteArrayList<>();
+        private final CountDownLatch mDone;
+
+        RecordingListener(final int expectedCalls) {
+            mDone = new CountDownLatch(expectedCalls);
+        }
+
+        @Override
+        public void onSuccess(T result) {
+            mResults.add(result);
+            mDone.countDown();
+        }
+
+        @Override
+        public void onFailure(HyperwalletException exception) {
+            mDone.countDown();
+        }
+
+        @Override
+        public Handler getHandler() {
+            return null;
+        }
+    }
+}
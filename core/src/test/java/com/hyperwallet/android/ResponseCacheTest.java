@@ -0,0 +1,497 @@
+package com.hyperwallet.android;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import android.os.Handler;
+import android.os.SystemClock;
+
+import com.hyperwallet.android.exception.HyperwalletException;
+import com.hyperwallet.android.listener.HyperwalletListener;
+import com.hyperwallet.android.model.StatusTransition;
+import com.hyperwallet.android.model.balance.Balance;
+import com.hyperwallet.android.model.paging.PageList;
+import com.hyperwallet.android.model.transfermethod.BankAccount;
+import com.hyperwallet.android.model.transfermethod.TransferMethod;
+import com.hyperwallet.android.model.user.User;
+import com.hyperwallet.android.rule.ExternalResourceManager;
+import com.hyperwallet.android.rule.HyperwalletMockWebServer;
+import com.hyperwallet.android.rule.HyperwalletSdkMock;
+import com.hyperwallet.android.util.HttpClientTransport;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+@RunWith(RobolectricTestRunner.class)
+public class ResponseCacheTest {
+
+    private static final String USER_PATH = "/rest/v3/users/test-user-token";
+    private static final String BANK_ACCOUNTS_PATH = USER_PATH + "/bank-accounts";
+    private static final String BANK_ACCOUNT_PATH = BANK_ACCOUNTS_PATH + "/trm-fake-token";
+    private static final String TRANSFER_METHODS_PATH = USER_PATH + "/transfer-methods";
+    private static final String BALANCES_PATH = USER_PATH + "/balances";
+
+    @Rule
+    public HyperwalletMockWebServer mServer = new HyperwalletMockWebServer();
+    @Rule
+    public HyperwalletSdkMock mHyperwalletSdkMock = new HyperwalletSdkMock(mServer);
+    @Rule
+    public ExternalResourceManager mExternalResourceManager = new ExternalResourceManager();
+
+    private RoutingDispatcher mDispatcher;
+
+    @Before
+    public void setUp() {
+        mDispatcher = new RoutingDispatcher();
+        mDispatcher.route(USER_PATH, mExternalResourceManager.getResourceContent("user_response.json"));
+        mDispatcher.route(BANK_ACCOUNTS_PATH,
+                mExternalResourceManager.getResourceContent("bank_account_list_response.json"));
+        mDispatcher.route(BANK_ACCOUNT_PATH, mExternalResourceManager.getResourceContent("bank_account_response.json"));
+        mDispatcher.route(BANK_ACCOUNT_PATH + "/status-transitions",
+                mExternalResourceManager.getResourceContent("status_transition_response.json"));
+        mDispatcher.route(TRANSFER_METHODS_PATH,
+                mExternalResourceManager.getResourceContent("transfer_method_list_response.json"));
+        mDispatcher.route(BALANCES_PATH, mExternalResourceManager.getResourceContent("balance_list_response.json"));
+        mServer.setDispatcher(mDispatcher);
+    }
+
+    @After
+    public void tearDown() {
+        Hyperwallet.clearInstance();
+    }
+
+    @Test
+    public void testGet_repeatedReadIsServedFromCache() throws Exception {
+        Hyperwallet hyperwallet = build(new ResponseCache.Builder());
+
+        User first = await(new Request<User>() {
+            @Override
+            void send(Hyperwallet hyperwallet, HyperwalletListener<User> listener) {
+                hyperwallet.getUser(listener);
+            }
+        }, hyperwallet);
+        User second = await(new Request<User>() {
+            @Override
+            void send(Hyperwallet hyperwallet, HyperwalletListener<User> listener) {
+                hyperwallet.getUser(listener);
+            }
+        }, hyperwallet);
+
+        assertThat(first, is(notNullValue()));
+        assertThat(second, is(sameInstance(first)));
+        assertThat(mDispatcher.count(USER_PATH), is(1));
+        assertThat(hyperwallet.getResponseCache().getHitCount(), is(1L));
+        assertThat(hyperwallet.getResponseCache().getMissCount(), is(1L));
+        assertThat(hyperwallet.getResponseCache().getSize() > 0, is(true));
+    }
+
+    @Test
+    public void testGet_cachedResultIsDeliveredFromBackgroundThread() throws Exception {
+        Hyperwallet hyperwallet = build(new ResponseCache.Builder());
+        await(getUser(), hyperwallet);
+
+        RecordingListener<User> listener = new RecordingListener<>();
+        hyperwallet.getUser(listener);
+
+        assertThat(listener.mDone.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(hyperwallet.getResponseCache().getHitCount(), is(1L));
+        assertThat(listener.mThread, is(not(sameInstance(Thread.currentThread()))));
+    }
+
+    @Test
+    public void testGet_expiredResultGoesToNetwork() throws Exception {
+        Hyperwallet hyperwallet = build(new ResponseCache.Builder()
+                .timeToLive("users/{0}", 5, TimeUnit.SECONDS));
+
+        await(getUser(), hyperwallet);
+        advanceClock(TimeUnit.SECONDS.toMillis(6));
+        await(getUser(), hyperwallet);
+
+        assertThat(mDispatcher.count(USER_PATH), is(2));
+        assertThat(hyperwallet.getResponseCache().getHitCount(), is(0L));
+    }
+
+    @Test
+    public void testGet_timeToLiveDefinedAgainReplacesPreviousOne() throws Exception {
+        Hyperwallet hyperwallet = build(new ResponseCache.Builder()
+                .timeToLive("users/{0}", 0, TimeUnit.SECONDS)
+                .timeToLive("users/{0}", 1, TimeUnit.MINUTES));
+
+        await(getUser(), hyperwallet);
+        await(getUser(), hyperwallet);
+
+        assertThat(mDispatcher.count(USER_PATH), is(1));
+        assertThat(hyperwallet.getResponseCache().getHitCount(), is(1L));
+    }
+
+    @Test
+    public void testGet_sizeIsCountedWhenTransportDoesNotReportIt() throws Exception {
+        final HttpTransport transport = new HttpClientTransport();
+        Hyperwallet hyperwallet = build(new ResponseCache.Builder().build(), new HttpTransport() {
+            @Override
+            public HttpTransport.Response execute(HttpTransport.Request request) throws IOException {
+                HttpTransport.Response response = transport.execute(request);
+                return new HttpTransport.Response(response.getCode(), response.getHeaders(), response.getBody());
+            }
+        });
+
+        await(getUser(), hyperwallet);
+
+        assertThat(hyperwallet.getResponseCache().getSize(), is((long) mExternalResourceManager
+                .getResourceContent("user_response.json").getBytes(StandardCharsets.UTF_8).length));
+    }
+
+    @Test
+    public void testGet_endpointWithoutTimeToLiveIsNotCached() throws Exception {
+        Hyperwallet hyperwallet = build(new ResponseCache.Builder()
+                .timeToLive("users/{0}", 0, TimeUnit.SECONDS));
+
+        await(getUser(), hyperwallet);
+        await(getUser(), hyperwallet);
+
+        assertThat(mDispatcher.count(USER_PATH), is(2));
+    }
+
+    @Test
+    public void testGet_staleResultIsServedWhileRevalidated() throws Exception {
+        Hyperwallet hyperwallet = build(new ResponseCache.Builder()
+                .defaultTimeToLive(5, TimeUnit.SECONDS)
+                .staleWhileRevalidate(1, TimeUnit.MINUTES));
+
+        User cached = await(getUser(), hyperwallet);
+        advanceClock(TimeUnit.SECONDS.toMillis(6));
+        User stale = await(getUser(), hyperwallet);
+        User refreshed = awaitRefreshed(hyperwallet, cached);
+
+        assertThat(stale, is(sameInstance(cached)));
+        assertThat(refreshed, is(not(sameInstance(cached))));
+        assertThat(mDispatcher.count(USER_PATH), is(2));
+        assertThat(hyperwallet.getResponseCache().getStaleHitCount() >= 1, is(true));
+    }
+
+    @Test
+    public void testGet_expiredResultIsRevalidatedWithEntityTag() throws Exception {
+        mDispatcher.validate(USER_PATH, "\"v1\"", null);
+        Hyperwallet hyperwallet = build(new ResponseCache.Builder()
+                .defaultTimeToLive(5, TimeUnit.SECONDS));
+
+        User cached = await(getUser(), hyperwallet);
+        advanceClock(TimeUnit.SECONDS.toMillis(6));
+        User revalidated = await(getUser(), hyperwallet);
+        User renewed = await(getUser(), hyperwallet);
+
+        assertThat(revalidated, is(sameInstance(cached)));
+        assertThat(renewed, is(sameInstance(cached)));
+        assertThat(mDispatcher.count(USER_PATH), is(2));
+        assertThat(mDispatcher.mConditionalHeaders.get(0), is("\"v1\""));
+        assertThat(hyperwallet.getResponseCache().getNotModifiedCount(), is(1L));
+        assertThat(hyperwallet.getResponseCache().getHitCount(), is(1L));
+    }
+
+    @Test
+    public void testGet_expiredResultIsRevalidatedWithLastModified() throws Exception {
+        String lastModified = "Wed, 21 Oct 2015 07:28:00 GMT";
+        mDispatcher.validate(USER_PATH, null, lastModified);
+        Hyperwallet hyperwallet = build(new ResponseCache.Builder()
+                .defaultTimeToLive(5, TimeUnit.SECONDS));
+
+        User cached = await(getUser(), hyperwallet);
+        advanceClock(TimeUnit.SECONDS.toMillis(6));
+        User revalidated = await(getUser(), hyperwallet);
+
+        assertThat(revalidated, is(sameInstance(cached)));
+        assertThat(mDispatcher.mConditionalHeaders.get(0), is(lastModified));
+        assertThat(hyperwallet.getResponseCache().getNotModifiedCount(), is(1L));
+    }
+
+    @Test
+    public void testGet_modifiedResultIsDownloadedAgain() throws Exception {
+        mDispatcher.validate(USER_PATH, "\"v1\"", null);
+        Hyperwallet hyperwallet = build(new ResponseCache.Builder()
+                .defaultTimeToLive(5, TimeUnit.SECONDS));
+
+        User cached = await(getUser(), hyperwallet);
+        mDispatcher.validate(USER_PATH, "\"v2\"", null);
+        advanceClock(TimeUnit.SECONDS.toMillis(6));
+        User modified = await(getUser(), hyperwallet);
+
+        assertThat(modified, is(notNullValue()));
+        assertThat(modified, is(not(sameInstance(cached))));
+        assertThat(hyperwallet.getResponseCache().getNotModifiedCount(), is(0L));
+    }
+
+    @Test
+    public void testMutation_invalidatesAffectedResources() throws Exception {
+        Hyperwallet hyperwallet = build(new ResponseCache.Builder());
+        await(getBankAccount(), hyperwallet);
+        await(listBankAccounts(), hyperwallet);
+        await(listTransferMethods(), hyperwallet);
+        await(listUserBalances(), hyperwallet);
+
+        await(new Request<StatusTransition>() {
+            @Override
+            void send(Hyperwallet hyperwallet, HyperwalletListener<StatusTransition> listener) {
+                hyperwallet.deactivateBankAccount("trm-fake-token", null, listener);
+            }
+        }, hyperwallet);
+        await(getBankAccount(), hyperwallet);
+        await(listBankAccounts(), hyperwallet);
+        await(listTransferMethods(), hyperwallet);
+        await(listUserBalances(), hyperwallet);
+
+        assertThat(mDispatcher.count(BANK_ACCOUNT_PATH), is(2));
+        assertThat(mDispatcher.count(BANK_ACCOUNTS_PATH), is(2));
+        assertThat(mDispatcher.count(TRANSFER_METHODS_PATH), is(2));
+        assertThat(mDispatcher.count(BALANCES_PATH), is(1));
+    }
+
+    @Test
+    public void testMutation_keepsResourceItIsNestedUnder() throws Exception {
+        Hyperwallet hyperwallet = build(new ResponseCache.Builder());
+        await(getUser(), hyperwallet);
+        await(listBankAccounts(), hyperwallet);
+
+        await(new Request<BankAccount>() {
+            @Override
+            void send(Hyperwallet hyperwallet, HyperwalletListener<BankAccount> listener) {
+                hyperwallet.createBankAccount(new BankAccount.Builder("US", "USD", "8017110254").build(), listener);
+            }
+        }, hyperwallet);
+        await(getUser(), hyperwallet);
+        await(listBankAccounts(), hyperwallet);
+
+        assertThat(mDispatcher.count(USER_PATH), is(1));
+        assertThat(mDispatcher.count(BANK_ACCOUNTS_PATH), is(3));
+    }
+
+    @Test
+    public void testGet_leastRecentlyUsedResultIsEvicted() throws Exception {
+        int userSize = mExternalResourceManager.getResourceContent("user_response.json").length();
+        int bankAccountSize = mExternalResourceManager.getResourceContent("bank_account_response.json").length();
+        Hyperwallet hyperwallet = build(new ResponseCache.Builder()
+                .maxSize(Math.max(userSize, bankAccountSize) + 1));
+
+        await(getUser(), hyperwallet);
+        await(getBankAccount(), hyperwallet);
+        await(getBankAccount(), hyperwallet);
+        await(getUser(), hyperwallet);
+
+        assertThat(mDispatcher.count(BANK_ACCOUNT_PATH), is(1));
+        assertThat(mDispatcher.count(USER_PATH), is(2));
+    }
+
+    @Test
+    public void testClearInstance_clearsCache() throws Exception {
+        ResponseCache responseCache = new ResponseCache.Builder().build();
+        Hyperwallet hyperwallet = build(responseCache);
+        await(getUser(), hyperwallet);
+
+        Hyperwallet.clearInstance();
+
+        assertThat(responseCache.getSize(), is(0L));
+    }
+
+    private Hyperwallet build(final ResponseCache.Builder builder) {
+        return build(builder.build());
+    }
+
+    private Hyperwallet build(final ResponseCache responseCache) {
+        return build(responseCache, null);
+    }
+
+    private Hyperwallet build(final ResponseCache responseCache, final HttpTransport httpTransport) {
+        RecordingListener<Configuration> listener = new RecordingListener<>();
+        Hyperwallet.getDefault().getConfiguration(listener);
+        final String authenticationToken = listener.mResult.getAuthenticationToken();
+        Hyperwallet.Builder builder = new Hyperwallet.Builder(new HyperwalletAuthenticationTokenProvider() {
+            @Override
+            public void retrieveAuthenticationToken(HyperwalletAuthenticationTokenListener listener) {
+                listener.onSuccess(authenticationToken);
+            }
+        }).responseCache(responseCache);
+        if (httpTransport != null) {
+            builder.httpTransport(httpTransport);
+        }
+        return builder.build();
+    }
+
+    private static <T> T await(final Request<T> request, final Hyperwallet hyperwallet) throws Exception {
+        RecordingListener<T> listener = new RecordingListener<>();
+        request.send(hyperwallet, listener);
+        assertThat(listener.mDone.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(listener.mException, is((HyperwalletException) null));
+        return listener.mResult;
+    }
+
+    private static void advanceClock(final long millis) {
+        SystemClock.setCurrentTimeMillis(SystemClock.elapsedRealtime() + millis);
+    }
+
+    /**
+     * Reads the user until the revalidated result replaced the stale one; reads made meanwhile are either served
+     * stale and attached to the revalidation in flight, or served the refreshed result
+     */
+    private static User awaitRefreshed(final Hyperwallet hyperwallet, final User stale) throws Exception {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        User user = await(getUser(), hyperwallet);
+        while (user == stale && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            user = await(getUser(), hyperwallet);
+        }
+        return user;
+    }
+
+    private static Request<User> getUser() {
+        return new Request<User>() {
+            @Override
+            void send(Hyperwallet hyperwallet, HyperwalletListener<User> listener) {
+                hyperwallet.getUser(listener);
+            }
+        };
+    }
+
+    private static Request<BankAccount> getBankAccount() {
+        return new Request<BankAccount>() {
+            @Override
+            void send(Hyperwallet hyperwallet, HyperwalletListener<BankAccount> listener) {
+                hyperwallet.getBankAccount("trm-fake-token", listener);
+            }
+        };
+    }
+
+    private static Request<PageList<BankAccount>> listBankAccounts() {
+        return new Request<PageList<BankAccount>>() {
+            @Override
+            void send(Hyperwallet hyperwallet, HyperwalletListener<PageList<BankAccount>> listener) {
+                hyperwallet.listBankAccounts(null, listener);
+            }
+        };
+    }
+
+    private static Request<PageList<TransferMethod>> listTransferMethods() {
+        return new Request<PageList<TransferMethod>>() {
+            @Override
+            void send(Hyperwallet hyperwallet, HyperwalletListener<PageList<TransferMethod>> listener) {
+                hyperwallet.listTransferMethods(null, listener);
+            }
+        };
+    }
+
+    private static Request<PageList<Balance>> listUserBalances() {
+        return new Request<PageList<Balance>>() {
+            @Override
+            void send(Hyperwallet hyperwallet, HyperwalletListener<PageList<Balance>> listener) {
+                hyperwallet.listUserBalances(null, listener);
+            }
+        };
+    }
+
+    private abstract static class Request<T> {
+        abstract void send(Hyperwallet hyperwallet, HyperwalletListener<T> listener);
+    }
+
+    /**
+     * Answers every request by its path, without the query, and counts the requests per path
+     */
+    private static class RoutingDispatcher extends Dispatcher {
+        private final Map<String, String> mBodies = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> mCounts = new ConcurrentHashMap<>();
+        private final Map<String, String[]> mValidators = new ConcurrentHashMap<>();
+        private final List<String> mConditionalHeaders = new CopyOnWriteArrayList<>();
+
+        void route(final String path, final String body) {
+            mBodies.put(path, body);
+            mCounts.put(path, new AtomicInteger());
+        }
+
+        /**
+         * Sends the validators with the responses of {@code path}, and answers the requests presenting them with
+         * {@code 304 Not Modified}
+         */
+        void validate(final String path, final String entityTag, final String lastModified) {
+            mValidators.put(path, new String[]{entityTag, lastModified});
+        }
+
+        int count(final String path) {
+            return mCounts.get(path).get();
+        }
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            String path = request.getPath().split("\\?")[0];
+            if (!mBodies.containsKey(path)) {
+                return new MockResponse().setResponseCode(HttpURLConnection.HTTP_NOT_FOUND);
+            }
+            mCounts.get(path).incrementAndGet();
+            MockResponse response = new MockResponse().setResponseCode(HttpURLConnection.HTTP_OK);
+            String[] validators = mValidators.get(path);
+            if (validators == null) {
+                return response.setBody(mBodies.get(path));
+            }
+
+            String ifNoneMatch = request.getHeader("If-None-Match");
+            String ifModifiedSince = request.getHeader("If-Modified-Since");
+            if (ifNoneMatch != null || ifModifiedSince != null) {
+                mConditionalHeaders.add(ifNoneMatch != null ? ifNoneMatch : ifModifiedSince);
+            }
+            if ((ifNoneMatch != null && ifNoneMatch.equals(validators[0]))
+                    || (ifModifiedSince != null && ifModifiedSince.equals(validators[1]))) {
+                return response.setResponseCode(HttpURLConnection.HTTP_NOT_MODIFIED);
+            }
+            if (validators[0] != null) {
+                response.addHeader("ETag", validators[0]);
+            }
+            if (validators[1] != null) {
+                response.addHeader("Last-Modified", validators[1]);
+            }
+            return response.setBody(mBodies.get(path));
+        }
+    }
+
+    private static class RecordingListener<T> implements HyperwalletListener<T> {
+        private final CountDownLatch mDone = new CountDownLatch(1);
+        private volatile T mResult;
+        private volatile HyperwalletException mException;
+        private volatile Thread mThread;
+
+        @Override
+        public void onSuccess(T result) {
+            mResult = result;
+            mThread = Thread.currentThread();
+            mDone.countDown();
+        }
+
+        @Override
+        public void onFailure(HyperwalletException exception) {
+            mException = exception;
+            mDone.countDown();
+        }
+
+        @Override
+        public Handler getHandler() {
+            return null;
+        }
+    }
+}
@@ -17,6 +17,7 @@ import com.hyperwallet.android.model.TypeReference;
 import com.hyperwallet.android.model.paging.PageList;
 import com.hyperwallet.android.model.transfermethod.BankAccount;
 import com.hyperwallet.android.sdk.BuildConfig;
+import com.hyperwallet.android.util.TransactionPriority;
 
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -57,10 +58,12 @@ public class RestTransactionBuilderTest {
         assertThat(restTransaction.getMethod(), is(POST));
         assertThat(restTransaction.getPayload(), is(nullValue()));
         assertThat(restTransaction.getQueries().size(), is(0));
+        assertThat(restTransaction.getPriority(), is(TransactionPriority.NORMAL));
 
         Map<String, String> headers = restTransaction.getHeaders();
         assertThat(headers, is(notNullValue()));
         assertThat(headers.get("Accept"), is("application/json"));
+        assertThat(headers.containsKey("Accept-Encoding"), is(false));
         assertThat(headers.get("Content-Type"), is("application/json"));
         assertThat(headers.get("User-Agent"), is("HyperwalletSDK/Android/" + BuildConfig.VERSION_NAME +
                 "; App: HyperwalletSDK; Android: " + Build.VERSION.RELEASE));
@@ -130,6 +133,19 @@ public class RestTransactionBuilderTest {
         assertThat(headers.get("User-Agent"), is("HyperwalletSDK/Android/" + BuildConfig.VERSION_NAME +
                 "; App: HyperwalletSDK; Android: " + Build.VERSION.RELEASE));
     }
-}
 
+    @Test
+    public void testBuild_withPriorityOptionalParameter() throws JSONException {
+        final PathFormatter pathFormatter = new PathFormatter("users/{0}/bank-accounts");
+        final String token = "eyJhbGciOiJIUzI1NiJ9.eyJncmFwaHFsLXVyaSI6Imh0dHA6XC9cLzEyNy4wLjAuMTo1MzEyN1wvZ3JhcGhxb";
+
+        RestTransaction.Builder<PageList<BankAccount>> pageListBuilder =
+                new RestTransaction.Builder<>(GET, pathFormatter,
+                        new TypeReference<PageList<BankAccount>>() {
+                        }, mListener);
+        final RestTransaction restTransaction = pageListBuilder.priority(TransactionPriority.BACKGROUND)
+                .build("http://hyperwallet.com/rest/v3/", token, "test-user-token");
 
+        assertThat(restTransaction.getPriority(), is(TransactionPriority.BACKGROUND));
+    }
+}
@@ -1,6 +1,7 @@
 package com.hyperwallet.android;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -22,8 +23,8 @@ import com.hyperwallet.android.model.TypeReference;
 import com.hyperwallet.android.model.graphql.error.GqlErrors;
 import com.hyperwallet.android.model.transfermethod.BankAccount;
 import com.hyperwallet.android.rule.ExternalResourceManager;
-import com.hyperwallet.android.util.HttpClient;
 import com.hyperwallet.android.util.JsonUtils;
+import com.hyperwallet.android.util.TransactionLane;
 
 import org.hamcrest.CoreMatchers;
 import org.json.JSONObject;
@@ -37,6 +38,11 @@ import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 import org.robolectric.RobolectricTestRunner;
 
+import java.io.ByteArrayInputStream;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
 @RunWith(RobolectricTestRunner.class)
 public class RestTransactionTest {
 
@@ -48,10 +54,10 @@ public class RestTransactionTest {
     @Mock
     private HyperwalletListener<BankAccount> mListener;
     @Mock
-    private HttpClient mHttpClient;
+    private HttpTransport mHttpTransport;
 
     @Captor
-    private ArgumentCaptor<String> mPayloadCaptor;
+    private ArgumentCaptor<HttpTransport.Request> mRequestCaptor;
 
     @Captor
     private ArgumentCaptor<Runnable> mRunnableCaptor;
@@ -59,7 +65,7 @@ public class RestTransactionTest {
     private ArgumentCaptor<Runnable> mErrorRunnableCaptor;
 
     @Test
-    public void testPerformRequest_usingHttpGet() throws Exception {
+    public void testRun_usingHttpGet() throws Exception {
         final PathFormatter pathFormatter = new PathFormatter("users/{0}/bank-accounts");
         final String token = "eyJhbGciOiJIUzI1NiJ9.eyJncmFwaHFsLXVyaSI6Imh0dHA6XC9cLzEyNy4wLjAuMTo1MzEyN1wvZ3JhcGhxb";
         BankAccount.Builder bankAccountBuilder = new BankAccount.Builder("US", "USD",
@@ -73,15 +79,60 @@ public class RestTransactionTest {
                 .jsonModel(bankAccount)
                 .build("http://hyperwallet.com/rest/v3/", token, "test-user-token");
         assertThat(restTransaction.getMethod(), is(GET));
+        assertThat(restTransaction.getLane(), is(TransactionLane.REST_READ));
         assertThat(restTransaction.getListener(), CoreMatchers.<HyperwalletListener>is(mListener));
         assertThat(restTransaction.getPath(), is("users/test-user-token/bank-accounts"));
 
-        restTransaction.performRequest(mHttpClient);
-        verify(mHttpClient).get();
+        when(mHttpTransport.execute(any(HttpTransport.Request.class))).thenReturn(new HttpTransport.Response(
+                HttpURLConnection.HTTP_NO_CONTENT, Collections.<String, String>emptyMap(),
+                new ByteArrayInputStream(new byte[0])));
+        restTransaction.setHttpTransport(mHttpTransport);
+
+        restTransaction.run();
+
+        verify(mHttpTransport).execute(mRequestCaptor.capture());
+        HttpTransport.Request request = mRequestCaptor.getValue();
+        assertThat(request.getMethod(), is("GET"));
+        assertThat(request.getUrl(), is("http://hyperwallet.com/rest/v3/users/test-user-token/bank-accounts"));
+        assertThat(request.getUri().getPath(), is("/rest/v3/users/test-user-token/bank-accounts"));
+        assertThat(request.getHeaders().get("Authorization"), is("Bearer " + token));
+        assertThat(request.getBody(), is(nullValue()));
+        verify(mListener).onSuccess(null);
+    }
+
+    @Test
+    public void testRun_customTransportDoesNotReceiveAcceptEncoding() throws Exception {
+        final RestTransaction restTransaction = new RestTransaction.Builder<>(GET,
+                new PathFormatter("users/{0}/bank-accounts"), new TypeReference<BankAccount>() {
+        }, mListener).build("http://hyperwallet.com/rest/v3/", "token", "test-user-token");
+        when(mHttpTransport.execute(any(HttpTransport.Request.class))).thenReturn(new HttpTransport.Response(
+                HttpURLConnection.HTTP_NO_CONTENT, Collections.<String, String>emptyMap(),
+                new ByteArrayInputStream(new byte[0])));
+        restTransaction.setHttpTransport(mHttpTransport);
+
+        restTransaction.run();
+
+        verify(mHttpTransport).execute(mRequestCaptor.capture());
+        for (String header : mRequestCaptor.getValue().getHeaders().keySet()) {
+            assertThat(header.equalsIgnoreCase("Accept-Encoding"), is(false));
+        }
     }
 
     @Test
-    public void testPerformRequest_usingHttpPost() throws Exception {
+    public void testRun_withMalformedUrlFailsWithoutExecutingRequest() throws Exception {
+        final RestTransaction restTransaction = new RestTransaction.Builder<>(GET,
+                new PathFormatter("users/{0}/bank-accounts"), new TypeReference<BankAccount>() {
+        }, mListener).build("http://hyperwallet.com/rest v3/", "token", "test-user-token");
+        restTransaction.setHttpTransport(mHttpTransport);
+
+        restTransaction.run();
+
+        verify(mHttpTransport, never()).execute(any(HttpTransport.Request.class));
+        verify(mListener).onFailure(any(HyperwalletException.class));
+    }
+
+    @Test
+    public void testRun_usingHttpPost() throws Exception {
         final PathFormatter pathFormatter = new PathFormatter("users/{0}/bank-accounts");
         final String token = "eyJhbGciOiJIUzI1NiJ9.eyJncmFwaHFsLXVyaSI6Imh0dHA6XC9cLzEyNy4wLjAuMTo1MzEyN1wvZ3JhcGhxb";
         BankAccount.Builder bankAccountBuilder = new BankAccount.Builder("US", "USD",
@@ -95,11 +146,19 @@ public class RestTransactionTest {
                 .jsonModel(bankAccount)
                 .build("http://hyperwallet.com/rest/v3/", token, "test-user-token");
         assertThat(restTransaction.getMethod(), is(POST));
+        assertThat(restTransaction.getLane(), is(TransactionLane.REST_WRITE));
 
-        restTransaction.performRequest(mHttpClient);
-        verify(mHttpClient).post(mPayloadCaptor.capture());
+        when(mHttpTransport.execute(any(HttpTransport.Request.class))).thenReturn(new HttpTransport.Response(
+                HttpURLConnection.HTTP_NO_CONTENT, Collections.<String, String>emptyMap(),
+                new ByteArrayInputStream(new byte[0])));
+        restTransaction.setHttpTransport(mHttpTransport);
 
-        JSONObject resultPayload = new JSONObject(restTransaction.getPayload());
+        restTransaction.run();
+
+        verify(mHttpTransport).execute(mRequestCaptor.capture());
+        assertThat(mRequestCaptor.getValue().getMethod(), is("POST"));
+        JSONObject resultPayload = new JSONObject(new String(mRequestCaptor.getValue().getBody(),
+                StandardCharsets.UTF_8));
         assertThat(resultPayload.getString("type"), is(BANK_ACCOUNT));
         assertThat(resultPayload.getString("transferMethodCurrency"), is("USD"));
         assertThat(resultPayload.getString("transferMethodCountry"), is("US"));
@@ -107,7 +166,7 @@ public class RestTransactionTest {
     }
 
     @Test
-    public void testPerformRequest_usingHttpPut() throws Exception {
+    public void testRun_usingHttpPut() throws Exception {
         final PathFormatter pathFormatter = new PathFormatter("users/{0}/bank-accounts");
         final String token = "eyJhbGciOiJIUzI1NiJ9.eyJncmFwaHFsLXVyaSI6Imh0dHA6XC9cLzEyNy4wLjAuMTo1MzEyN1wvZ3JhcGhxb";
         BankAccount.Builder bankAccountBuilder = new BankAccount.Builder("US", "USD",
@@ -121,13 +180,19 @@ public class RestTransactionTest {
                 .jsonModel(bankAccount)
                 .build("http://hyperwallet.com/rest/v3/", token, "test-user-token");
         assertThat(restTransaction.getMethod(), is(PUT));
+        assertThat(restTransaction.getLane(), is(TransactionLane.REST_WRITE));
 
-        restTransaction.performRequest(mHttpClient);
+        when(mHttpTransport.execute(any(HttpTransport.Request.class))).thenReturn(new HttpTransport.Response(
+                HttpURLConnection.HTTP_NO_CONTENT, Collections.<String, String>emptyMap(),
+                new ByteArrayInputStream(new byte[0])));
+        restTransaction.setHttpTransport(mHttpTransport);
 
-        verify(mHttpClient).put(mPayloadCaptor.capture());
+        restTransaction.run();
 
-        String payload = mPayloadCaptor.getValue();
-        JSONObject resultPayload = new JSONObject(payload);
+        verify(mHttpTransport).execute(mRequestCaptor.capture());
+        assertThat(mRequestCaptor.getValue().getMethod(), is("PUT"));
+        JSONObject resultPayload = new JSONObject(new String(mRequestCaptor.getValue().getBody(),
+                StandardCharsets.UTF_8));
         assertThat(resultPayload.getString("type"), is(BANK_ACCOUNT));
         assertThat(resultPayload.getString("transferMethodCurrency"), is("USD"));
         assertThat(resultPayload.getString("transferMethodCountry"), is("US"));
@@ -0,0 +1,175 @@
+package com.hyperwallet.android;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import static com.hyperwallet.android.TokenRefreshScheduler.INITIAL_BACKOFF;
+import static com.hyperwallet.android.TokenRefreshScheduler.MAX_ATTEMPTS;
+import static com.hyperwallet.android.TokenRefreshScheduler.MIN_REFRESH_INTERVAL;
+
+import android.os.SystemClock;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+public class TokenRefreshSchedulerTest {
+
+    private static final long TOKEN_LIFESPAN = TimeUnit.MINUTES.toMillis(10);
+    private static final long STALE_PERIOD = TimeUnit.SECONDS.toMillis(30);
+
+    @Rule
+    public MockitoRule mMockito = MockitoJUnit.rule();
+    @Mock
+    private ScheduledExecutorService mScheduler;
+    @Mock
+    private ScheduledFuture mScheduledFuture;
+    @Mock
+    private Runnable mRefreshTask;
+    @Mock
+    private Configuration mConfiguration;
+    @Captor
+    private ArgumentCaptor<Long> mDelayCaptor;
+
+    private long mNow;
+
+    @Before
+    public void setUp() {
+        mNow = SystemClock.elapsedRealtime();
+        when(mConfiguration.getExpireOnBootTime()).thenReturn(mNow + TOKEN_LIFESPAN);
+        when(mConfiguration.getStaleOnBootTime()).thenReturn(mNow + TOKEN_LIFESPAN - STALE_PERIOD);
+        doReturn(mScheduledFuture).when(mScheduler).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    public void testSchedule_refreshesLeadTimeBeforeExpiry() {
+        TokenRefreshScheduler tokenRefreshScheduler = new TokenRefreshScheduler(TimeUnit.MINUTES.toMillis(1), 0,
+                mRefreshTask, mScheduler);
+
+        tokenRefreshScheduler.schedule(mConfiguration);
+
+        verify(mScheduler).schedule(eq(mRefreshTask), eq(TimeUnit.MINUTES.toMillis(9)), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testSchedule_refreshesNoLaterThanStale() {
+        TokenRefreshScheduler tokenRefreshScheduler = new TokenRefreshScheduler(TimeUnit.SECONDS.toMillis(10), 0,
+                mRefreshTask, mScheduler);
+
+        tokenRefreshScheduler.schedule(mConfiguration);
+
+        verify(mScheduler).schedule(eq(mRefreshTask), eq(TOKEN_LIFESPAN - STALE_PERIOD), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testSchedule_jitterBringsRefreshForward() {
+        long jitter = TimeUnit.SECONDS.toMillis(10);
+        TokenRefreshScheduler tokenRefreshScheduler = new TokenRefreshScheduler(TimeUnit.MINUTES.toMillis(1), jitter,
+                mRefreshTask, mScheduler);
+
+        tokenRefreshScheduler.schedule(mConfiguration);
+
+        verify(mScheduler).schedule(eq(mRefreshTask), mDelayCaptor.capture(), eq(TimeUnit.MILLISECONDS));
+        assertThat(mDelayCaptor.getValue(), is(allOf(greaterThanOrEqualTo(TimeUnit.MINUTES.toMillis(9) - jitter),
+                lessThanOrEqualTo(TimeUnit.MINUTES.toMillis(9)))));
+    }
+
+    @Test
+    public void testSchedule_leadTimeOfTokenLifetimeWaitsHalfOfRemainingLifetime() {
+        TokenRefreshScheduler tokenRefreshScheduler = new TokenRefreshScheduler(TOKEN_LIFESPAN, 0, mRefreshTask,
+                mScheduler);
+
+        tokenRefreshScheduler.schedule(mConfiguration);
+
+        verify(mScheduler).schedule(eq(mRefreshTask), eq((TOKEN_LIFESPAN - STALE_PERIOD) / 2),
+                eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testSchedule_neverRefreshesSoonerThanMinimumInterval() {
+        when(mConfiguration.getExpireOnBootTime()).thenReturn(mNow + TimeUnit.SECONDS.toMillis(5));
+        when(mConfiguration.getStaleOnBootTime()).thenReturn(mNow + TimeUnit.SECONDS.toMillis(4));
+        TokenRefreshScheduler tokenRefreshScheduler = new TokenRefreshScheduler(TOKEN_LIFESPAN * 2,
+                TimeUnit.SECONDS.toMillis(10), mRefreshTask, mScheduler);
+
+        tokenRefreshScheduler.schedule(mConfiguration);
+
+        verify(mScheduler).schedule(eq(mRefreshTask), eq(MIN_REFRESH_INTERVAL), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testOnRefreshFailed_backsOffExponentiallyThenFallsBackToLazyRefresh() {
+        TokenRefreshScheduler tokenRefreshScheduler = new TokenRefreshScheduler(TimeUnit.MINUTES.toMillis(1), 0,
+                mRefreshTask, mScheduler);
+
+        for (int i = 0; i < MAX_ATTEMPTS; i++) {
+            tokenRefreshScheduler.onRefreshFailed(mConfiguration);
+        }
+
+        verify(mScheduler, times(MAX_ATTEMPTS - 1)).schedule(eq(mRefreshTask), mDelayCaptor.capture(),
+                eq(TimeUnit.MILLISECONDS));
+        assertThat(mDelayCaptor.getAllValues().get(0), is(INITIAL_BACKOFF));
+        assertThat(mDelayCaptor.getAllValues().get(1), is(INITIAL_BACKOFF * 2));
+        assertThat(mDelayCaptor.getAllValues().get(2), is(INITIAL_BACKOFF * 4));
+    }
+
+    @Test
+    public void testOnRefreshFailed_retryAfterStaleFallsBackToLazyRefresh() {
+        when(mConfiguration.getStaleOnBootTime()).thenReturn(mNow + INITIAL_BACKOFF - 1);
+        TokenRefreshScheduler tokenRefreshScheduler = new TokenRefreshScheduler(TimeUnit.MINUTES.toMillis(1), 0,
+                mRefreshTask, mScheduler);
+
+        tokenRefreshScheduler.onRefreshFailed(mConfiguration);
+
+        verify(mScheduler, never()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    public void testSchedule_successfulRetrievalResetsBackoff() {
+        TokenRefreshScheduler tokenRefreshScheduler = new TokenRefreshScheduler(TimeUnit.MINUTES.toMillis(1), 0,
+                mRefreshTask, mScheduler);
+        tokenRefreshScheduler.onRefreshFailed(mConfiguration);
+        tokenRefreshScheduler.onRefreshFailed(mConfiguration);
+
+        tokenRefreshScheduler.schedule(mConfiguration);
+        tokenRefreshScheduler.onRefreshFailed(mConfiguration);
+
+        verify(mScheduler, times(2)).schedule(eq(mRefreshTask), eq(INITIAL_BACKOFF), eq(TimeUnit.MILLISECONDS));
+        verify(mScheduledFuture, times(3)).cancel(false);
+    }
+
+    @Test
+    public void testShutdown_cancelsScheduledRefresh() {
+        TokenRefreshScheduler tokenRefreshScheduler = new TokenRefreshScheduler(TimeUnit.MINUTES.toMillis(1), 0,
+                mRefreshTask, mScheduler);
+        tokenRefreshScheduler.schedule(mConfiguration);
+
+        tokenRefreshScheduler.shutdown();
+
+        verify(mScheduledFuture).cancel(false);
+        verify(mScheduler).shutdownNow();
+    }
+}
@@ -0,0 +1,101 @@
+package com.hyperwallet.android;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import android.os.Handler;
+
+import com.hyperwallet.android.exception.HyperwalletException;
+import com.hyperwallet.android.listener.HyperwalletListener;
+import com.hyperwallet.android.model.graphql.HyperwalletTransferMethodConfigurationKey;
+import com.hyperwallet.android.model.graphql.query.TransferMethodConfigurationKeysQuery;
+import com.hyperwallet.android.model.transfer.Transfer;
+import com.hyperwallet.android.rule.ExternalResourceManager;
+import com.hyperwallet.android.rule.HyperwalletMockWebServer;
+import com.hyperwallet.android.rule.HyperwalletSdkMock;
+import com.hyperwallet.android.util.TransactionExecutor;
+import com.hyperwallet.android.util.TransactionLane;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.net.HttpURLConnection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+@RunWith(RobolectricTestRunner.class)
+public class TransactionLaneTest {
+
+    @Rule
+    public HyperwalletMockWebServer mServer = new HyperwalletMockWebServer();
+    @Rule
+    public HyperwalletSdkMock mHyperwalletSdkMock = new HyperwalletSdkMock(mServer);
+    @Rule
+    public ExternalResourceManager mExternalResourceManager = new ExternalResourceManager();
+
+    @Test
+    public void testSlowGraphQlQueriesDoNotHoldUpRestMutations() throws Exception {
+        final CountDownLatch releaseGraphQl = new CountDownLatch(1);
+        final String transferResponse = mExternalResourceManager.getResourceContent("transfer_response.json");
+        mServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                if (request.getPath().startsWith("/graphql")) {
+                    releaseGraphQl.await(5, TimeUnit.SECONDS);
+                    return new MockResponse().setResponseCode(HttpURLConnection.HTTP_OK).setBody("{}");
+                }
+                return new MockResponse().setResponseCode(HttpURLConnection.HTTP_CREATED).setBody(transferResponse);
+            }
+        });
+
+        Hyperwallet hyperwallet = Hyperwallet.getDefault();
+        TransactionExecutor graphQlExecutor = hyperwallet.getTransactionExecutor(TransactionLane.GRAPHQL);
+        CountDownLatch graphQlDone = new CountDownLatch(3);
+        CountDownLatch transferDone = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < 3; i++) {
+                hyperwallet.retrieveTransferMethodConfigurationKeys(new TransferMethodConfigurationKeysQuery(),
+                        new LatchListener<HyperwalletTransferMethodConfigurationKey>(graphQlDone));
+            }
+            hyperwallet.createTransfer(new Transfer.Builder().destinationToken("trm-fake-token").build(),
+                    new LatchListener<Transfer>(transferDone));
+
+            assertThat(transferDone.await(5, TimeUnit.SECONDS), is(true));
+            assertThat(graphQlDone.getCount(), is(3L));
+            assertThat(graphQlExecutor.getQueueDepth(), is(1));
+        } finally {
+            releaseGraphQl.countDown();
+        }
+        assertThat(graphQlDone.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(hyperwallet.getTransactionExecutor(TransactionLane.REST_WRITE).getStartedCount() >= 1, is(true));
+    }
+
+    private static class LatchListener<T> implements HyperwalletListener<T> {
+        private final CountDownLatch mDone;
+
+        LatchListener(final CountDownLatch done) {
+            mDone = done;
+        }
+
+        @Override
+        public void onSuccess(T result) {
+            mDone.countDown();
+        }
+
+        @Override
+        public void onFailure(HyperwalletException exception) {
+            mDone.countDown();
+        }
+
+        @Override
+        public Handler getHandler() {
+            return null;
+        }
+    }
+}
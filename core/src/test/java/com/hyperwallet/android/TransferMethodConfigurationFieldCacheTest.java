@@ -0,0 +1,275 @@
+package com.hyperwallet.android;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import android.os.Handler;
+
+import com.hyperwallet.android.exception.HyperwalletException;
+import com.hyperwallet.android.listener.HyperwalletListener;
+import com.hyperwallet.android.model.graphql.HyperwalletTransferMethodConfigurationField;
+import com.hyperwallet.android.model.graphql.query.TransferMethodConfigurationFieldQuery;
+import com.hyperwallet.android.rule.ExternalResourceManager;
+import com.hyperwallet.android.rule.HyperwalletMockWebServer;
+import com.hyperwallet.android.rule.HyperwalletSdkMock;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.net.HttpURLConnection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+@RunWith(RobolectricTestRunner.class)
+public class TransferMethodConfigurationFieldCacheTest {
+
+    @Rule
+    public HyperwalletMockWebServer mServer = new HyperwalletMockWebServer();
+    @Rule
+    public HyperwalletSdkMock mHyperwalletSdkMock = new HyperwalletSdkMock(mServer);
+    @Rule
+    public ExternalResourceManager mExternalResourceManager = new ExternalResourceManager();
+
+    private GraphQlDispatcher mDispatcher;
+    private String mAuthenticationToken;
+
+    @Before
+    public void setUp() throws Exception {
+        JSONObject keys = new JSONObject(mExternalResourceManager.getResourceContent("tmc_get_keys_response.json"));
+        keys.remove("errors");
+        mDispatcher = new GraphQlDispatcher(keys.toString(),
+                mExternalResourceManager.getResourceContent("tmc_get_fields_v2_response.json"));
+        mServer.setDispatcher(mDispatcher);
+        RecordingListener<Configuration> listener = new RecordingListener<>();
+        Hyperwallet.getDefault().getConfiguration(listener);
+        mAuthenticationToken = listener.mResult.getAuthenticationToken();
+    }
+
+    @After
+    public void tearDown() {
+        Hyperwallet.clearInstance();
+    }
+
+    @Test
+    public void testRetrieveFields_repeatedQueryIsServedFromCache() throws Exception {
+        Hyperwallet hyperwallet = build(new TransferMethodConfigurationFieldCache.Builder().build());
+
+        HyperwalletTransferMethodConfigurationField first = retrieveFields(hyperwallet, "USD", "BANK_ACCOUNT");
+        HyperwalletTransferMethodConfigurationField second = retrieveFields(hyperwallet, "USD", "BANK_ACCOUNT");
+
+        assertThat(first, is(notNullValue()));
+        assertThat(second, is(sameInstance(first)));
+        assertThat(mDispatcher.mFieldQueries.size(), is(1));
+        assertThat(hyperwallet.getTransferMethodConfigurationFieldCache().getHitCount(), is(1L));
+        assertThat(hyperwallet.getTransferMethodConfigurationFieldCache().getMissCount(), is(1L));
+    }
+
+    @Test
+    public void testRetrieveFields_sectionSelectionsAreCachedSeparately() throws Exception {
+        Hyperwallet hyperwallet = build(new TransferMethodConfigurationFieldCache.Builder().build());
+        TransferMethodConfigurationFieldQuery feesQuery = new TransferMethodConfigurationFieldQuery.Builder("CA",
+                "USD", "BANK_ACCOUNT", "INDIVIDUAL")
+                .sections(TransferMethodConfigurationFieldQuery.Sections.FEES)
+                .build();
+
+        retrieveFields(hyperwallet, "USD", "BANK_ACCOUNT");
+        retrieveFields(hyperwallet, feesQuery);
+        retrieveFields(hyperwallet, feesQuery);
+
+        assertThat(mDispatcher.mFieldQueries.size(), is(2));
+        assertThat(new JSONObject(mDispatcher.mFieldQueries.get(1)).getString("query")
+                .contains("transferMethodUIConfigurations"), is(false));
+        assertThat(hyperwallet.getTransferMethodConfigurationFieldCache().getSize(), is(2));
+    }
+
+    @Test
+    public void testRetrieveFields_leastRecentlyUsedQueryIsEvicted() throws Exception {
+        Hyperwallet hyperwallet = build(new TransferMethodConfigurationFieldCache.Builder().maxEntries(1).build());
+
+        retrieveFields(hyperwallet, "USD", "BANK_ACCOUNT");
+        retrieveFields(hyperwallet, "USD", "BANK_CARD");
+        retrieveFields(hyperwallet, "USD", "BANK_CARD");
+        retrieveFields(hyperwallet, "USD", "BANK_ACCOUNT");
+
+        assertThat(mDispatcher.mFieldQueries.size(), is(3));
+        assertThat(hyperwallet.getTransferMethodConfigurationFieldCache().getSize(), is(1));
+    }
+
+    @Test
+    public void testRetrieveFields_notCachedWithZeroTimeToLive() throws Exception {
+        Hyperwallet hyperwallet = build(new TransferMethodConfigurationFieldCache.Builder()
+                .timeToLive(0, TimeUnit.SECONDS).build());
+
+        retrieveFields(hyperwallet, "USD", "BANK_ACCOUNT");
+        retrieveFields(hyperwallet, "USD", "BANK_ACCOUNT");
+
+        assertThat(mDispatcher.mFieldQueries.size(), is(2));
+    }
+
+    @Test
+    public void testPrefetch_loadsEveryTransferMethodTypeOfCountry() throws Exception {
+        Hyperwallet hyperwallet = build(new TransferMethodConfigurationFieldCache.Builder().build());
+        TransferMethodConfigurationFieldCache cache = hyperwallet.getTransferMethodConfigurationFieldCache();
+
+        hyperwallet.prefetchTransferMethodConfigurationFields("CA", "INDIVIDUAL");
+        awaitSize(cache, 4);
+        retrieveFields(hyperwallet, "CAD", "BANK_ACCOUNT");
+        retrieveFields(hyperwallet, "USD", "PAYPAL_ACCOUNT");
+
+        assertThat(mDispatcher.mKeyQueries.get(), is(1));
+        assertThat(mDispatcher.mFieldQueries.size(), is(4));
+        assertThat(cache.getHitCount(), is(2L));
+        for (String query : mDispatcher.mFieldQueries) {
+            assertThat(new JSONObject(query).getJSONObject("variables").getString("country"), is("CA"));
+        }
+    }
+
+    @Test
+    public void testPrefetch_requestsOneQueryAtATime() throws Exception {
+        Hyperwallet hyperwallet = build(new TransferMethodConfigurationFieldCache.Builder().build());
+        mDispatcher.mFieldDelayMillis = 50;
+
+        hyperwallet.prefetchTransferMethodConfigurationFields("CA", "INDIVIDUAL");
+        awaitSize(hyperwallet.getTransferMethodConfigurationFieldCache(), 4);
+
+        assertThat(mDispatcher.mFieldQueries.size(), is(4));
+        assertThat(mDispatcher.mMaxFieldQueriesInFlight.get(), is(1));
+    }
+
+    @Test
+    public void testPrefetch_canceled() throws Exception {
+        Hyperwallet hyperwallet = build(new TransferMethodConfigurationFieldCache.Builder().build());
+
+        hyperwallet.prefetchTransferMethodConfigurationFields("CA", "INDIVIDUAL").cancel();
+        Thread.sleep(200);
+
+        assertThat(mDispatcher.mFieldQueries.size(), is(0));
+        assertThat(hyperwallet.getTransferMethodConfigurationFieldCache().getSize(), is(0));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPrefetch_withoutCache() {
+        Hyperwallet.getDefault().prefetchTransferMethodConfigurationFields("CA", "INDIVIDUAL");
+    }
+
+    @Test
+    public void testClearInstance_clearsCache() throws Exception {
+        TransferMethodConfigurationFieldCache cache = new TransferMethodConfigurationFieldCache.Builder().build();
+        retrieveFields(build(cache), "USD", "BANK_ACCOUNT");
+
+        Hyperwallet.clearInstance();
+
+        assertThat(cache.getSize(), is(0));
+    }
+
+    private Hyperwallet build(final TransferMethodConfigurationFieldCache cache) {
+        return new Hyperwallet.Builder(new HyperwalletAuthenticationTokenProvider() {
+            @Override
+            public void retrieveAuthenticationToken(HyperwalletAuthenticationTokenListener listener) {
+                listener.onSuccess(mAuthenticationToken);
+            }
+        }).transferMethodConfigurationFieldCache(cache).build();
+    }
+
+    private static HyperwalletTransferMethodConfigurationField retrieveFields(final Hyperwallet hyperwallet,
+            final String currency, final String transferMethodType) throws InterruptedException {
+        return retrieveFields(hyperwallet,
+                new TransferMethodConfigurationFieldQuery("CA", currency, transferMethodType, "INDIVIDUAL"));
+    }
+
+    private static HyperwalletTransferMethodConfigurationField retrieveFields(final Hyperwallet hyperwallet,
+            final TransferMethodConfigurationFieldQuery query) throws InterruptedException {
+        RecordingListener<HyperwalletTransferMethodConfigurationField> listener = new RecordingListener<>();
+        hyperwallet.retrieveTransferMethodConfigurationFields(query, listener);
+        assertThat(listener.mDone.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(listener.mException, is((HyperwalletException) null));
+        return listener.mResult;
+    }
+
+    private static void awaitSize(final TransferMethodConfigurationFieldCache cache, final int size)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (cache.getSize() < size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(cache.getSize(), is(size));
+    }
+
+    /**
+     * Answers the keys query and the field queries, recording the field queries received
+     */
+    private static class GraphQlDispatcher extends Dispatcher {
+        private final AtomicInteger mKeyQueries = new AtomicInteger();
+        private final List<String> mFieldQueries = new CopyOnWriteArrayList<>();
+        private final AtomicInteger mFieldQueriesInFlight = new AtomicInteger();
+        private final AtomicInteger mMaxFieldQueriesInFlight = new AtomicInteger();
+        private volatile long mFieldDelayMillis;
+        private final String mKeys;
+        private final String mFields;
+
+        GraphQlDispatcher(final String keys, final String fields) {
+            mKeys = keys;
+            mFields = fields;
+        }
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            String query = request.getBody().readUtf8();
+            if (query.contains("TransferMethodConfigurationFieldsWithFees")) {
+                mFieldQueries.add(query);
+                int inFlight = mFieldQueriesInFlight.incrementAndGet();
+                int max = mMaxFieldQueriesInFlight.get();
+                while (inFlight > max && !mMaxFieldQueriesInFlight.compareAndSet(max, inFlight)) {
+                    max = mMaxFieldQueriesInFlight.get();
+                }
+                try {
+                    Thread.sleep(mFieldDelayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    mFieldQueriesInFlight.decrementAndGet();
+                }
+                return new MockResponse().setResponseCode(HttpURLConnection.HTTP_OK).setBody(mFields);
+            }
+            mKeyQueries.incrementAndGet();
+            return new MockResponse().setResponseCode(HttpURLConnection.HTTP_OK).setBody(mKeys);
+        }
+    }
+
+    private static class RecordingListener<T> implements HyperwalletListener<T> {
+        private final CountDownLatch mDone = new CountDownLatch(1);
+        private volatile T mResult;
+        private volatile HyperwalletException mException;
+
+        @Override
+        public void onSuccess(T result) {
+            mResult = result;
+            mDone.countDown();
+        }
+
+        @Override
+        public void onFailure(HyperwalletException exception) {
+            mException = exception;
+            mDone.countDown();
+        }
+
+        @Override
+        public Handler getHandler() {
+            return null;
+        }
+    }
+}
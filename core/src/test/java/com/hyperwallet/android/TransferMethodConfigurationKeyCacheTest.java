@@ -0,0 +1,295 @@
+package com.hyperwallet.android;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import android.os.Handler;
+
+import com.hyperwallet.android.exception.HyperwalletException;
+import com.hyperwallet.android.listener.HyperwalletListener;
+import com.hyperwallet.android.model.graphql.HyperwalletTransferMethodConfigurationKey;
+import com.hyperwallet.android.model.graphql.query.TransferMethodConfigurationKeysQuery;
+import com.hyperwallet.android.rule.ExternalResourceManager;
+import com.hyperwallet.android.rule.HyperwalletMockWebServer;
+import com.hyperwallet.android.rule.HyperwalletSdkMock;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+@RunWith(RobolectricTestRunner.class)
+public class TransferMethodConfigurationKeyCacheTest {
+
+    @Rule
+    public HyperwalletMockWebServer mServer = new HyperwalletMockWebServer();
+    @Rule
+    public HyperwalletSdkMock mHyperwalletSdkMock = new HyperwalletSdkMock(mServer);
+    @Rule
+    public ExternalResourceManager mExternalResourceManager = new ExternalResourceManager();
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    private KeysDispatcher mDispatcher;
+    private String mAuthenticationToken;
+
+    @Before
+    public void setUp() throws Exception {
+        JSONObject keys = new JSONObject(mExternalResourceManager.getResourceContent("tmc_get_keys_response.json"));
+        keys.remove("errors");
+        mDispatcher = new KeysDispatcher(keys.toString());
+        mServer.setDispatcher(mDispatcher);
+        RecordingListener<Configuration> listener = new RecordingListener<>();
+        Hyperwallet.getDefault().getConfiguration(listener);
+        mAuthenticationToken = listener.mResult.getAuthenticationToken();
+    }
+
+    @After
+    public void tearDown() {
+        Hyperwallet.clearInstance();
+    }
+
+    @Test
+    public void testRetrieveKeys_snapshotIsSavedAndServed() throws Exception {
+        TransferMethodConfigurationKeyCache cache = newCache();
+        Hyperwallet hyperwallet = build(cache);
+
+        HyperwalletTransferMethodConfigurationKey first = retrieveKeys(hyperwallet);
+        HyperwalletTransferMethodConfigurationKey second = retrieveKeys(hyperwallet);
+
+        assertThat(first, is(notNullValue()));
+        assertThat(second, is(sameInstance(first)));
+        assertThat(mDispatcher.mReceived.get(), is(1));
+        assertThat(cache.getMissCount(), is(1L));
+        assertThat(cache.getHitCount(), is(1L));
+        assertThat(readSnapshot(), is(mDispatcher.mBody));
+    }
+
+    @Test
+    public void testRetrieveKeys_snapshotIsServedOnColdStart() throws Exception {
+        retrieveKeys(build(newCache()));
+        Hyperwallet.clearInstance();
+        TransferMethodConfigurationKeyCache cache = newCache();
+
+        HyperwalletTransferMethodConfigurationKey keys = retrieveKeys(build(cache));
+
+        assertThat(keys.getCountries().isEmpty(), is(false));
+        assertThat(mDispatcher.mReceived.get(), is(1));
+        assertThat(cache.getHitCount(), is(1L));
+    }
+
+    @Test
+    public void testRetrieveKeys_unchangedStaleSnapshotIsNotDeserializedAgain() throws Exception {
+        retrieveKeys(build(newCache()));
+        Hyperwallet.clearInstance();
+        age(TimeUnit.DAYS.toMillis(2));
+        TransferMethodConfigurationKeyCache cache = newCache();
+        Hyperwallet hyperwallet = build(cache);
+
+        HyperwalletTransferMethodConfigurationKey stale = retrieveKeys(hyperwallet);
+        awaitUnchanged(cache);
+        HyperwalletTransferMethodConfigurationKey refreshed = retrieveKeys(hyperwallet);
+
+        assertThat(refreshed, is(sameInstance(stale)));
+        assertThat(mDispatcher.mReceived.get(), is(2));
+        assertThat(cache.getStaleHitCount(), is(1L));
+        assertThat(cache.getHitCount(), is(1L));
+        assertThat(getSnapshot().lastModified() > System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1), is(true));
+    }
+
+    @Test
+    public void testRetrieveKeys_changedStaleSnapshotIsReplaced() throws Exception {
+        retrieveKeys(build(newCache()));
+        Hyperwallet.clearInstance();
+        age(TimeUnit.DAYS.toMillis(2));
+        mDispatcher.mBody = mDispatcher.mBody.replace("Canada", "Kanada");
+        TransferMethodConfigurationKeyCache cache = newCache();
+        Hyperwallet hyperwallet = build(cache);
+
+        HyperwalletTransferMethodConfigurationKey stale = retrieveKeys(hyperwallet);
+        awaitSnapshot(mDispatcher.mBody);
+        HyperwalletTransferMethodConfigurationKey refreshed = retrieveKeys(hyperwallet);
+
+        assertThat(refreshed, is(not(sameInstance(stale))));
+        assertThat(refreshed.getCountry("CA").getName(), is("Kanada"));
+        assertThat(cache.getUnchangedCount(), is(0L));
+    }
+
+    @Test
+    public void testRetrieveKeys_expiredSnapshotIsNotServedButReused() throws Exception {
+        retrieveKeys(build(newCache()));
+        Hyperwallet.clearInstance();
+        age(TimeUnit.DAYS.toMillis(9));
+        TransferMethodConfigurationKeyCache cache = newCache();
+
+        retrieveKeys(build(cache));
+
+        assertThat(mDispatcher.mReceived.get(), is(2));
+        assertThat(cache.getMissCount(), is(1L));
+        assertThat(cache.getUnchangedCount(), is(1L));
+    }
+
+    @Test
+    public void testRetrieveKeys_responseWithErrorsIsNotSaved() throws Exception {
+        mDispatcher.mBody = mExternalResourceManager.getResourceContent("tmc_get_keys_response.json");
+        TransferMethodConfigurationKeyCache cache = newCache();
+        Hyperwallet hyperwallet = build(cache);
+
+        retrieveKeys(hyperwallet);
+        retrieveKeys(hyperwallet);
+
+        assertThat(mFolder.getRoot().listFiles().length, is(0));
+        assertThat(mDispatcher.mReceived.get(), is(2));
+        assertThat(cache.getMissCount(), is(2L));
+    }
+
+    @Test
+    public void testGetKey_versionedByUserProgramAndQuery() {
+        String key = TransferMethodConfigurationKeyCache.getKey("usr-1", "prg-1", "query");
+
+        assertThat(TransferMethodConfigurationKeyCache.getKey("usr-1", "prg-1", "query"), is(key));
+        assertThat(TransferMethodConfigurationKeyCache.getKey("usr-2", "prg-1", "query"), is(not(key)));
+        assertThat(TransferMethodConfigurationKeyCache.getKey("usr-1", "prg-2", "query"), is(not(key)));
+        assertThat(TransferMethodConfigurationKeyCache.getKey("usr-1", "prg-1", "query {}"), is(not(key)));
+    }
+
+    @Test
+    public void testClear_removesSnapshots() throws Exception {
+        TransferMethodConfigurationKeyCache cache = newCache();
+        retrieveKeys(build(cache));
+
+        cache.clear();
+
+        assertThat(mFolder.getRoot().listFiles().length, is(0));
+        retrieveKeys(Hyperwallet.getDefault());
+        assertThat(mDispatcher.mReceived.get(), is(2));
+    }
+
+    private TransferMethodConfigurationKeyCache newCache() {
+        return new TransferMethodConfigurationKeyCache.Builder(mFolder.getRoot())
+                .timeToLive(1, TimeUnit.DAYS)
+                .staleWhileRevalidate(7, TimeUnit.DAYS)
+                .build();
+    }
+
+    private Hyperwallet build(final TransferMethodConfigurationKeyCache cache) {
+        return new Hyperwallet.Builder(new HyperwalletAuthenticationTokenProvider() {
+            @Override
+            public void retrieveAuthenticationToken(HyperwalletAuthenticationTokenListener listener) {
+                listener.onSuccess(mAuthenticationToken);
+            }
+        }).transferMethodConfigurationKeyCache(cache).build();
+    }
+
+    private static HyperwalletTransferMethodConfigurationKey retrieveKeys(final Hyperwallet hyperwallet)
+            throws InterruptedException {
+        RecordingListener<HyperwalletTransferMethodConfigurationKey> listener = new RecordingListener<>();
+        hyperwallet.retrieveTransferMethodConfigurationKeys(new TransferMethodConfigurationKeysQuery(), listener);
+        assertThat(listener.mDone.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(listener.mException, is((HyperwalletException) null));
+        return listener.mResult;
+    }
+
+    private File getSnapshot() {
+        File[] files = mFolder.getRoot().listFiles();
+        assertThat(files.length, is(1));
+        return files[0];
+    }
+
+    private String readSnapshot() throws Exception {
+        InputStream in = new FileInputStream(getSnapshot());
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int count; (count = in.read(buffer)) != -1; ) {
+                out.write(buffer, 0, count);
+            }
+            return out.toString(StandardCharsets.UTF_8.name());
+        } finally {
+            in.close();
+        }
+    }
+
+    private void age(final long millis) {
+        File snapshot = getSnapshot();
+        assertThat(snapshot.setLastModified(System.currentTimeMillis() - millis), is(true));
+    }
+
+    private static void awaitUnchanged(final TransferMethodConfigurationKeyCache cache) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (cache.getUnchangedCount() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(cache.getUnchangedCount(), is(1L));
+    }
+
+    private void awaitSnapshot(final String content) throws Exception {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (!readSnapshot().equals(content) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(readSnapshot(), is(content));
+    }
+
+    /**
+     * Answers every GraphQL request with the current key set and counts the requests
+     */
+    private static class KeysDispatcher extends Dispatcher {
+        private final AtomicInteger mReceived = new AtomicInteger();
+        private volatile String mBody;
+
+        KeysDispatcher(final String body) {
+            mBody = body;
+        }
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            mReceived.incrementAndGet();
+            return new MockResponse().setResponseCode(HttpURLConnection.HTTP_OK).setBody(mBody);
+        }
+    }
+
+    private static class RecordingListener<T> implements HyperwalletListener<T> {
+        private final CountDownLatch mDone = new CountDownLatch(1);
+        private volatile T mResult;
+        private volatile HyperwalletException mException;
+
+        @Override
+        public void onSuccess(T result) {
+            mResult = result;
+            mDone.countDown();
+        }
+
+        @Override
+        public void onFailure(HyperwalletException exception) {
+            mException = exception;
+            mDone.countDown();
+        }
+
+        @Override
+        public Handler getHandler() {
+            return null;
+        }
+    }
+}
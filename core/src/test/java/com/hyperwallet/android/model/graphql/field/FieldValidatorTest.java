@@ -0,0 +1,119 @@
+package com.hyperwallet.android.model.graphql.field;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+import com.hyperwallet.android.rule.ExternalResourceManager;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RunWith(RobolectricTestRunner.class)
+public class FieldValidatorTest {
+
+    @Rule
+    public ExternalResourceManager mExternalResourceManager = new ExternalResourceManager();
+
+    private TransferMethodConfiguration mConfiguration;
+    private FieldValidator mValidator;
+    private Map<String, String> mInputs;
+
+    @Before
+    public void setUp() throws Exception {
+        mConfiguration = new TransferMethodConfigurationFieldResult(new JSONObject(
+                mExternalResourceManager.getResourceContent("tmc_get_fields_v2_response.json"))).getFields();
+        mValidator = mConfiguration.getFieldValidator();
+        mInputs = new HashMap<>();
+        mInputs.put("firstName", "Jane");
+        mInputs.put("lastName", "Doe");
+        mInputs.put("businessName", "Acme");
+        mInputs.put("bankId", "123");
+        mInputs.put("branchId", "12345");
+        mInputs.put("bankAccountId", "1234567");
+        mInputs.put("bankAccountRelationship", "SELF");
+    }
+
+    @Test
+    public void testGetFieldValidator_compiledOnce() {
+        assertThat(mConfiguration.getFieldValidator(), is(sameInstance(mValidator)));
+        assertThat(mValidator.getField("bankId"), is(notNullValue()));
+        assertThat(mValidator.getField("unknown"), is(nullValue()));
+    }
+
+    @Test
+    public void testValidate_validInputs() {
+        FieldValidator.Result result = mValidator.validate(mInputs);
+
+        assertThat(result.isValid(), is(true));
+        assertThat(result.getError("bankId"), is(nullValue()));
+        assertThat(result.getMessage("bankId"), is(nullValue()));
+    }
+
+    @Test
+    public void testValidate_reportsErrorAndMessagePerField() {
+        mInputs.remove("firstName");
+        mInputs.put("bankId", "12");
+        mInputs.put("branchId", "1234a");
+        mInputs.put("city", "X");
+
+        FieldValidator.Result result = mValidator.validate(mInputs);
+
+        assertThat(result.isValid(), is(false));
+        assertThat(result.getError("firstName"), is(FieldValidator.ValidationErrors.EMPTY));
+        assertThat(result.getMessage("firstName"), is("You must provide a value for this field"));
+        assertThat(result.getError("bankId"), is(FieldValidator.ValidationErrors.PATTERN));
+        assertThat(result.getValidationMessage("bankId").getLength(), is("The exact length of this field is 3."));
+        assertThat(result.getError("branchId"), is(FieldValidator.ValidationErrors.PATTERN));
+        assertThat(result.getMessage("branchId"), is("is invalid length or format."));
+        assertThat(result.getError("city"), is(FieldValidator.ValidationErrors.PATTERN));
+        assertThat(result.getError("middleName"), is(nullValue()));
+        assertThat(result.getInvalidFieldNames(), contains("city", "firstName", "bankId", "branchId", "bankId",
+                "branchId", "city"));
+    }
+
+    @Test
+    public void testValidate_singleFieldOnKeystroke() {
+        StringBuilder typed = new StringBuilder();
+
+        assertThat(mValidator.validate("bankAccountId", typed), is(FieldValidator.ValidationErrors.EMPTY));
+        for (int i = 0; i < 12; i++) {
+            typed.append((char) ('0' + i % 10));
+            assertThat(mValidator.validate("bankAccountId", typed), is(nullValue()));
+        }
+        typed.append('9');
+        assertThat(mValidator.validate("bankAccountId", typed), is(FieldValidator.ValidationErrors.PATTERN));
+        assertThat(mValidator.validate("middleName", null), is(nullValue()));
+        assertThat(mValidator.validate("unknown", "value"), is(nullValue()));
+    }
+
+    @Test
+    public void testValidate_lengthIsCheckedBeforePattern() throws Exception {
+        JSONObject field = new JSONObject(mExternalResourceManager.getResourceContent(
+                "mask_with_conditional_formatting_response.json"));
+        JSONObject configuration = new JSONObject()
+                .put("country", "CA")
+                .put("currency", "CAD")
+                .put("profile", "INDIVIDUAL")
+                .put("transferMethodType", "BANK_CARD")
+                .put("fieldGroups", new JSONObject().put("nodes", new JSONArray()
+                        .put(new JSONObject().put("group", "ACCOUNT_INFORMATION")
+                                .put("fields", new JSONArray().put(field)))));
+        FieldValidator validator = new TransferMethodConfiguration(configuration).getFieldValidator();
+
+        assertThat(validator.validate("cardNumber", "411111111111"), is(FieldValidator.ValidationErrors.LENGTH));
+        assertThat(validator.validate("cardNumber", "4111111111111"), is(nullValue()));
+        assertThat(validator.validate("cardNumber", "411111111111111111x"), is(FieldValidator.ValidationErrors.PATTERN));
+    }
+}
@@ -0,0 +1,154 @@
+package com.hyperwallet.android.model.graphql.field;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.hyperwallet.android.rule.ExternalResourceManager;
+
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Random;
+
+@RunWith(RobolectricTestRunner.class)
+public class MaskFormatterTest {
+
+    private static final String[] CARD_PREFIXES = {"4", "43", "45", "5", "6", "653"};
+    private static final int CARD_LENGTH = 19;
+
+    @Rule
+    public ExternalResourceManager mExternalResourceManager = new ExternalResourceManager();
+
+    private Mask mMask;
+
+    @Before
+    public void setUp() throws Exception {
+        mMask = new Field(new JSONObject(mExternalResourceManager.getResourceContent(
+                "mask_with_conditional_formatting_response.json"))).getMask();
+    }
+
+    @Test
+    public void testGetPattern_compilesConditionalRegexOnce() {
+        ConditionalPattern conditionalPattern = mMask.getConditionalPatterns().get(0);
+
+        mMask.getPattern("4");
+        mMask.getPattern("43");
+
+        assertThat(conditionalPattern.getCompiledRegex(), is(sameInstance(conditionalPattern.getCompiledRegex())));
+        assertThat(mMask.getDefaultPattern(), is("#### #### #### ####"));
+    }
+
+    @Test
+    public void testAppend_writesLiteralsBeforeNextCharacter() {
+        MaskFormatter formatter = mMask.newFormatter();
+
+        formatter.append("1234");
+        assertThat(formatter.getFormattedValue().toString(), is("1234"));
+        formatter.append('5');
+        assertThat(formatter.getFormattedValue().toString(), is("1234 5"));
+        assertThat(formatter.getScrubbedValue().toString(), is("12345"));
+    }
+
+    @Test
+    public void testAppend_dropsScrubbedAndRejectsCharactersNotFittingPattern() {
+        MaskFormatter formatter = mMask.newFormatter();
+
+        assertThat(formatter.append("1234 5678 x9"), is(9));
+        assertThat(formatter.getFormattedValue().toString(), is("1234 5678 9"));
+        assertThat(formatter.append("0000000000"), is(7));
+        assertThat(formatter.getFormattedValue().toString(), is("1234 5678 9000 0000"));
+    }
+
+    @Test
+    public void testAppend_switchesToConditionalPattern() {
+        MaskFormatter formatter = mMask.newFormatter();
+
+        formatter.append("6534567");
+        assertThat(formatter.getPattern(), is("######## ####### ####"));
+        formatter.append("89");
+        assertThat(formatter.getFormattedValue().toString(), is("65345678 9"));
+
+        formatter.clear();
+        formatter.append("4312345");
+        assertThat(formatter.getFormattedValue().toString(), is("4312 345"));
+    }
+
+    @Test
+    public void testAppend_rejectedPatternSwitchKeepsPreviousInput() throws Exception {
+        MaskFormatter formatter = new Mask(new JSONObject("{\"defaultPattern\": \"## @@@@\", "
+                + "\"conditionalPatterns\": [{\"pattern\": \"@@@@ ##\", \"regex\": \"^12A3\"}]}")).newFormatter();
+        formatter.append("12A");
+
+        assertThat(formatter.append('3'), is(false));
+        assertThat(formatter.getPattern(), is("## @@@@"));
+        assertThat(formatter.getScrubbedValue().toString(), is("12A"));
+        assertThat(formatter.getFormattedValue().toString(), is("12 A"));
+        assertThat(formatter.append('B'), is(true));
+        assertThat(formatter.getFormattedValue().toString(), is("12 AB"));
+        assertThat(formatter.delete(), is(true));
+        assertThat(formatter.getFormattedValue().toString(), is("12 A"));
+    }
+
+    @Test
+    public void testDelete_removesLiteralsAndRestoresDefaultPattern() {
+        MaskFormatter formatter = mMask.newFormatter();
+        formatter.append("65312");
+
+        assertThat(formatter.delete(), is(true));
+        assertThat(formatter.getFormattedValue().toString(), is("6531"));
+        formatter.delete();
+        formatter.delete();
+        formatter.delete();
+        assertThat(formatter.getPattern(), is("#### #### #### ####"));
+        formatter.append("5");
+        formatter.append("123");
+        assertThat(formatter.getFormattedValue().toString(), is("6512 3"));
+        formatter.clear();
+        assertThat(formatter.delete(), is(false));
+    }
+
+    @Test
+    public void testAppend_typingCardNumbersMatchesFormattingFromScratch() {
+        Random random = new Random(19);
+        MaskFormatter formatter = mMask.newFormatter();
+        StringBuilder typed = new StringBuilder(CARD_LENGTH);
+
+        for (int card = 0; card < 1000; card++) {
+            formatter.clear();
+            typed.setLength(0);
+            typed.append(CARD_PREFIXES[card % CARD_PREFIXES.length]);
+            while (typed.length() < CARD_LENGTH) {
+                typed.append((char) ('0' + random.nextInt(10)));
+            }
+            for (int i = 0; i < CARD_LENGTH; i++) {
+                formatter.append(typed.charAt(i));
+                String value = typed.substring(0, Math.min(i + 1, placeholders(mMask.getPattern(typed.toString()))));
+                assertThat(formatter.getFormattedValue().toString(), is(format(mMask.getPattern(value), value)));
+            }
+        }
+    }
+
+    private static int placeholders(final String pattern) {
+        int count = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            if (pattern.charAt(i) == '#') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String format(final String pattern, final String value) {
+        StringBuilder formatted = new StringBuilder();
+        int index = 0;
+        for (int i = 0; i < pattern.length() && index < value.length(); i++) {
+            formatted.append(pattern.charAt(i) == '#' ? value.charAt(index++) : pattern.charAt(i));
+        }
+        return formatted.toString();
+    }
+}
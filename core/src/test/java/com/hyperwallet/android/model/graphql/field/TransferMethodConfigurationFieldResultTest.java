@@ -63,6 +63,25 @@ public class TransferMethodConfigurationFieldResultTest {
         assertThat(fieldResult.getProcessingTime(), is(nullValue()));
     }
 
+    @Test
+    public void testTransferMethodConfigurationFieldResult_convertJsonWithoutRequestedSections()
+            throws JSONException, ReflectiveOperationException {
+        JSONObject jsonObject = new JSONObject(mResourceManager.getResourceContent("tmc_field_response.json"));
+        jsonObject.getJSONObject("data").remove("transferMethodUIConfigurations");
+        TransferMethodConfigurationFieldResult fieldResult = new TransferMethodConfigurationFieldResult(jsonObject);
+        assertThat(fieldResult.getFields(), is(nullValue()));
+        assertThat(fieldResult.getFees(), hasSize(1));
+        assertThat(fieldResult.getProcessingTime(), is(notNullValue()));
+
+        jsonObject = new JSONObject(mResourceManager.getResourceContent("tmc_field_response.json"));
+        jsonObject.getJSONObject("data").remove("fees");
+        jsonObject.getJSONObject("data").remove("processingTimes");
+        fieldResult = new TransferMethodConfigurationFieldResult(jsonObject);
+        assertThat(fieldResult.getFields(), is(notNullValue()));
+        assertThat(fieldResult.getFees(), is(nullValue()));
+        assertThat(fieldResult.getProcessingTime(), is(nullValue()));
+    }
+
     @Test
     public void testTransferMethodConfigurationFieldResult_convertIncorrectJsonObject()
             throws JSONException, ReflectiveOperationException {
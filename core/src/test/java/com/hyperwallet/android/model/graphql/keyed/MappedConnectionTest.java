@@ -0,0 +1,106 @@
+package com.hyperwallet.android.model.graphql.keyed;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import androidx.annotation.NonNull;
+
+import com.hyperwallet.android.model.ModelFactory;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class MappedConnectionTest {
+
+    private static final int COUNTRIES = 200;
+    private static final String[] CURRENCIES = {"USD", "CAD", "EUR"};
+    private static final String[] TRANSFER_METHOD_TYPES = {"BANK_ACCOUNT", "BANK_CARD", "PAYPAL_ACCOUNT"};
+
+    @Test
+    public void testMappedConnection_decodesEachNodeOnce() throws Exception {
+        CountingFactory factory = new CountingFactory();
+
+        MappedConnection<Country> connection = new MappedConnection<>(buildCountries(COUNTRIES), factory);
+
+        assertThat(factory.mCount, is(COUNTRIES));
+        assertThat(connection.getNodes().size(), is(COUNTRIES));
+        assertThat(connection.getNodeMap().size(), is(COUNTRIES));
+        List<Country> countries = connection.getNodes();
+        for (int i = 0; i < countries.size(); i++) {
+            assertThat(connection.getNode(countries.get(i).getCode()), is(sameInstance(countries.get(i))));
+        }
+    }
+
+    @Test
+    public void testMappedConnection_nestedNodesAreIndexedByTheDecodedInstance() throws Exception {
+        MappedConnection<Country> connection = new MappedConnection<>(buildCountries(COUNTRIES), Country.FACTORY);
+
+        for (Country country : connection.getNodes()) {
+            for (Currency currency : country.getCurrencies()) {
+                assertThat(country.getCurrency(currency.getCode()), is(sameInstance(currency)));
+                for (TransferMethodType type : currency.getTransferMethodTypes()) {
+                    assertThat(currency.getTransferMethodType(type.getCode()), is(sameInstance(type)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMappedConnection_withoutNodes() throws Exception {
+        MappedConnection<Country> connection = new MappedConnection<>(new JSONObject("{\"nodes\": []}"),
+                Country.FACTORY);
+
+        assertThat(connection.getNodeMap(), is(nullValue()));
+        assertThat(connection.getNode("CA"), is(nullValue()));
+    }
+
+    private static JSONObject buildCountries(final int size) throws JSONException {
+        JSONArray countries = new JSONArray();
+        for (int i = 0; i < size; i++) {
+            JSONArray currencies = new JSONArray();
+            for (String currencyCode : CURRENCIES) {
+                JSONArray types = new JSONArray();
+                for (String typeCode : TRANSFER_METHOD_TYPES) {
+                    types.put(new JSONObject()
+                            .put("code", typeCode)
+                            .put("name", typeCode)
+                            .put("processingTimes", new JSONObject().put("nodes", new JSONArray()
+                                    .put(new JSONObject().put("value", "1-3 Business days"))))
+                            .put("fees", new JSONObject().put("nodes", new JSONArray()
+                                    .put(new JSONObject().put("currency", currencyCode).put("feeRateType", "FLAT")
+                                            .put("value", "1.00")))));
+                }
+                currencies.put(new JSONObject()
+                        .put("code", currencyCode)
+                        .put("name", currencyCode)
+                        .put("transferMethodTypes", new JSONObject().put("nodes", types)));
+            }
+            String code = String.valueOf((char) ('A' + i / 26)) + (char) ('A' + i % 26);
+            countries.put(new JSONObject()
+                    .put("code", code)
+                    .put("name", "Country " + code)
+                    .put("currencies", new JSONObject().put("nodes", currencies)));
+        }
+        return new JSONObject().put("count", size).put("nodes", countries);
+    }
+
+    private static class CountingFactory implements ModelFactory<Country> {
+        private int mCount;
+
+        @NonNull
+        @Override
+        public Country fromJsonObject(@NonNull final JSONObject jsonObject) throws JSONException {
+            mCount++;
+            return Country.FACTORY.fromJsonObject(jsonObject);
+        }
+    }
+}
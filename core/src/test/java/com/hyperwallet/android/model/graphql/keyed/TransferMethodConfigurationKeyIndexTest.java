@@ -0,0 +1,126 @@
+package com.hyperwallet.android.model.graphql.keyed;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+
+import androidx.annotation.NonNull;
+
+import com.hyperwallet.android.rule.ExternalResourceManager;
+
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class TransferMethodConfigurationKeyIndexTest {
+
+    @Rule
+    public final ExternalResourceManager mResourceManager = new ExternalResourceManager();
+
+    private TransferMethodConfigurationKeyResult mResult;
+    private TransferMethodConfigurationKeyIndex mIndex;
+
+    @Before
+    public void setUp() throws Exception {
+        mResult = new TransferMethodConfigurationKeyResult(
+                new JSONObject(mResourceManager.getResourceContent("tmc_get_keys_response.json")));
+        mIndex = mResult.getIndex();
+    }
+
+    @Test
+    public void testIndex_containsEveryCombinationInOrder() {
+        assertThat(mIndex.getSize(), is(6));
+        assertEntry(mIndex.getEntry(0), "CA", "CAD", "BANK_ACCOUNT");
+        assertEntry(mIndex.getEntry(1), "CA", "USD", "BANK_ACCOUNT");
+        assertEntry(mIndex.getEntry(3), "CA", "USD", "PAYPAL_ACCOUNT");
+        assertEntry(mIndex.getEntry(5), "US", "USD", "BANK_ACCOUNT");
+    }
+
+    @Test
+    public void testIndex_codesAreInterned() {
+        assertThat(mIndex.getEntry(1).getCurrencyCode(), is(sameInstance(mIndex.getEntry(5).getCurrencyCode())));
+        assertThat(mIndex.getEntry(0).getTransferMethodTypeCode(),
+                is(sameInstance(mIndex.getEntry(4).getTransferMethodTypeCode())));
+    }
+
+    @Test
+    public void testGetCurrency_resolvesCountryAndCurrencyPair() {
+        Country canada = mResult.getCountry("CA");
+
+        assertThat(mIndex.getCountry("CA"), is(sameInstance(canada)));
+        assertThat(mIndex.getCurrency("CA", "USD"), is(sameInstance(canada.getCurrency("USD"))));
+        assertThat(mIndex.getCurrency("US", "CAD"), is(sameInstance(mResult.getCountry("US").getCurrency("CAD"))));
+        assertThat(mIndex.getCurrency("CA", "EUR"), is(nullValue()));
+        assertThat(mIndex.getCurrency("ZZ", "USD"), is(nullValue()));
+        assertThat(mIndex.getTransferMethodTypes("CA", "USD"), hasSize(3));
+        assertThat(mResult.getTransferMethodType("US", "USD"), hasSize(1));
+    }
+
+    @Test
+    public void testQuery_returnsMatchingCombinations() {
+        List<TransferMethodConfigurationKeyIndex.Entry> bankAccounts = mIndex.query(
+                new TransferMethodConfigurationKeyIndex.Filter() {
+                    @Override
+                    public boolean accept(@NonNull TransferMethodConfigurationKeyIndex.Entry entry) {
+                        return "BANK_ACCOUNT".equals(entry.getTransferMethodTypeCode());
+                    }
+                });
+
+        assertThat(bankAccounts, hasSize(4));
+        assertEntry(bankAccounts.get(3), "US", "USD", "BANK_ACCOUNT");
+        assertThat(bankAccounts.get(0), is(sameInstance(mIndex.getEntry(0))));
+    }
+
+    @Test
+    public void testQuery_scansOnlyTheCountryAndCurrencyPair() {
+        final int[] visited = new int[1];
+        List<TransferMethodConfigurationKeyIndex.Entry> entries = mIndex.query("CA", "USD",
+                new TransferMethodConfigurationKeyIndex.Filter() {
+                    @Override
+                    public boolean accept(@NonNull TransferMethodConfigurationKeyIndex.Entry entry) {
+                        visited[0]++;
+                        return !"BANK_CARD".equals(entry.getTransferMethodTypeCode());
+                    }
+                });
+
+        assertThat(visited[0], is(3));
+        assertThat(entries, hasSize(2));
+        assertEntry(entries.get(1), "CA", "USD", "PAYPAL_ACCOUNT");
+        assertThat(mIndex.query("US", "EUR", new TransferMethodConfigurationKeyIndex.Filter() {
+            @Override
+            public boolean accept(@NonNull TransferMethodConfigurationKeyIndex.Entry entry) {
+                return true;
+            }
+        }), is(empty()));
+    }
+
+    @Test
+    public void testIndex_withoutCountries() {
+        TransferMethodConfigurationKeyIndex index =
+                new TransferMethodConfigurationKeyIndex(Collections.<Country>emptyList());
+
+        assertThat(index.getSize(), is(0));
+        assertThat(index.getCountry("CA"), is(nullValue()));
+        assertThat(index.getCurrency("CA", "USD"), is(nullValue()));
+    }
+
+    private static void assertEntry(final TransferMethodConfigurationKeyIndex.Entry entry, final String country,
+            final String currency, final String transferMethodType) {
+        assertThat(entry.getCountryCode(), is(country));
+        assertThat(entry.getCountry().getCode(), is(country));
+        assertThat(entry.getCurrencyCode(), is(currency));
+        assertThat(entry.getCurrency().getCode(), is(currency));
+        assertThat(entry.getTransferMethodTypeCode(), is(transferMethodType));
+        assertThat(entry.getTransferMethodType().getCode(), is(transferMethodType));
+    }
+}
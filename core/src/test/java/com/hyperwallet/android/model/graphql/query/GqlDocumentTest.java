@@ -0,0 +1,65 @@
+package com.hyperwallet.android.model.graphql.query;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.json.JSONObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class GqlDocumentTest {
+
+    @Test
+    public void testCompile_dropsInsignificantCharacters() {
+        GqlDocument document = GqlDocument.compile("query Users (\n"
+                + "\t$first: Int = 10, # page size\n"
+                + "\t$after: String\n"
+                + ") {\n"
+                + "\tusers(first: $first, after: $after) {\n"
+                + "\t\tnodes { token ...on User { name } }\n"
+                + "\t}\n"
+                + "}");
+
+        assertThat(document.getDocument(), is("query Users($first:Int=10$after:String)"
+                + "{users(first:$first after:$after){nodes{token...on User{name}}}}"));
+    }
+
+    @Test
+    public void testCompile_keepsStringLiterals() {
+        GqlDocument document = GqlDocument.compile("{ user(name: \"Jane,  \\\"Doe\\\" # not a comment\") {\n"
+                + "\tdescription(format: \"\"\"\n  keep \\\"\"\" this\n\"\"\") } }");
+
+        assertThat(document.getDocument(), is("{user(name:\"Jane,  \\\"Doe\\\" # not a comment\")"
+                + "{description(format:\"\"\"\n  keep \\\"\"\" this\n\"\"\")}}"));
+    }
+
+    @Test
+    public void testToPayload_appendsVariables() throws Exception {
+        GqlDocument document = GqlDocument.compile("query ($token: String) {\n\tuser(token: $token) { name }\n}");
+
+        JSONObject payload = new JSONObject(document.toPayload(new JSONObject().put("token", "usr-\"1\"")));
+
+        assertThat(payload.getString("query"), is("query($token:String){user(token:$token){name}}"));
+        assertThat(payload.getJSONObject("variables").getString("token"), is("usr-\"1\""));
+    }
+
+    @Test
+    public void testToPersistedPayload_sendsHashOfMinifiedDocument() throws Exception {
+        GqlDocument document = GqlDocument.compile("query {\n\ta\n}");
+        JSONObject variables = new JSONObject().put("token", "usr-1");
+
+        JSONObject payload = new JSONObject(document.toPersistedPayload(variables, false));
+        JSONObject fallback = new JSONObject(document.toPersistedPayload(variables, true));
+
+        assertThat(document.getHash(), is("3b14b07a448f9c6110d71d42f936503f860071348d86c015165c1fdf663bc4d6"));
+        assertThat(payload.has("query"), is(false));
+        assertThat(payload.getJSONObject("variables").getString("token"), is("usr-1"));
+        JSONObject persistedQuery = payload.getJSONObject("extensions").getJSONObject("persistedQuery");
+        assertThat(persistedQuery.getInt("version"), is(1));
+        assertThat(persistedQuery.getString("sha256Hash"), is(document.getHash()));
+        assertThat(fallback.getString("query"), is("query{a}"));
+        assertThat(fallback.getJSONObject("extensions").toString(), is(payload.getJSONObject("extensions").toString()));
+    }
+}
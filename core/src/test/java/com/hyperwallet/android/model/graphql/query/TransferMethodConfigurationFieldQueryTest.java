@@ -1,102 +1,109 @@
 package com.hyperwallet.android.model.graphql.query;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 
-import org.junit.Test;
+import com.hyperwallet.android.model.graphql.query.TransferMethodConfigurationFieldQuery.FieldAttributes;
+import com.hyperwallet.android.model.graphql.query.TransferMethodConfigurationFieldQuery.Sections;
 
+import org.json.JSONObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
 
+@RunWith(RobolectricTestRunner.class)
 public class TransferMethodConfigurationFieldQueryTest {
 
     @Test
-    public void testToQuery_returnsQuery() {
-
-        String sampleFieldQuery = String.format(
-                "query TransferMethodConfigurationFieldsWithFees (\n"
-                        + "\t\t$idToken: String =  \"%s\"\n"
-                        + "\t\t$country: Country = %s\n"
-                        + "\t\t$currency: Currency = %s\n"
-                        + "\t\t$transferMethodType: TransferMethodType = %s\n"
-                        + "\t\t$profileType: Profile = %s\n"
-                        + "){\n"
-                        + "\ttransferMethodUIConfigurations (idToken: $idToken, profileType: $profileType\n"
-                        + "\t\tcountry: $country,currency: $currency, transferMethodType: $transferMethodType) {\n"
-                        + "\t\tnodes {\n"
-                        + "\t\t\tcountry\n"
-                        + "\t\t\tcurrency\n"
-                        + "\t\t\ttransferMethodType\n"
-                        + "\t\t\tprofile\n"
-                        + "\t\t\tfieldGroups {\n"
-                        + "\t\t\t\tnodes {\n"
-                        + "\t\t\t\t\tgroup\n"
-                        + "\t\t\t\t\tfields {\n"
-                        + "\t\t\t\t\t\tcategory\n"
-                        + "\t\t\t\t\t\tdataType\n"
-                        + "\t\t\t\t\t\tisEditable\n"
-                        + "\t\t\t\t\t\tfieldSelectionOptions {\n"
-                        + "\t\t\t\t\t\t\tlabel\n"
-                        + "\t\t\t\t\t\t\tvalue\n"
-                        + "\t\t\t\t\t\t}\n"
-                        + "\t\t\t\t\t\tfileSize {\n"
-                        + "\t\t\t\t\t\t\tmin\n"
-                        + "\t\t\t\t\t\t\tmax\n"
-                        + "\t\t\t\t\t\t}\n"
-                        + "\t\t\t\t\t\tfileTypes\n"
-                        + "\t\t\t\t\t\tlabel\n"
-                        + "\t\t\t\t\t\tmaxLength\n"
-                        + "\t\t\t\t\t\tminLength\n"
-                        + "\t\t\t\t\t\tname\n"
-                        + "\t\t\t\t\t\tplaceholder\n"
-                        + "\t\t\t\t\t\tregularExpression\n"
-                        + "\t\t\t\t\t\tmask {\n"
-                        + "\t\t\t\t\t\t\t\tdefaultPattern\n"
-                        + "\t\t\t\t\t\t\t\tscrubRegex\n"
-                        + "\t\t\t\t\t\t\t\tconditionalPatterns {\n"
-                        + "\t\t\t\t\t\t\t\t\tpattern\n"
-                        + "\t\t\t\t\t\t\t\t\tregex\n"
-                        + "\t\t\t\t\t\t\t\t}\n"
-                        + "\t\t\t\t\t\t}\n"
-                        + "\t\t\t\t\t\tisRequired\n"
-                        + "\t\t\t\t\t\tvalue\n"
-                        + "\t\t\t\t\t\tvalidationMessage {\n"
-                        + "\t\t\t\t\t\t\tlength\n"
-                        + "\t\t\t\t\t\t\tpattern\n"
-                        + "\t\t\t\t\t\t\tempty\n"
-                        + "\t\t\t\t\t\t}\n"
-                        + "\t\t\t\t\t}\n"
-                        + "\t\t\t\t}\n"
-                        + "\t\t\t}\n"
-                        + "\t\t}\n"
-                        + "\t},\n"
-                        + "\tfees (idToken: $idToken, country: $country,currency: $currency, \n"
-                        + "\t\t\ttransferMethodType: $transferMethodType) {\n"
-                        + "\t\t\tnodes {\n"
-                        + "\t\t\t\tvalue\n"
-                        + "\t\t\t\tfeeRateType\n"
-                        + "\t\t\t\tminimum\n"
-                        + "\t\t\t\tmaximum\n"
-                        + "\t\t\t\tcountry\n"
-                        + "\t\t\t\tcurrency\n"
-                        + "\t\t}\n"
-                        + "\t},\n"
-                        + "\tprocessingTimes (idToken: $idToken, country: $country, currency: $currency, \n"
-                        + "\t\t\ttransferMethodType: $transferMethodType) {\n"
-                        + "\t\t\tnodes {\n"
-                        + "\t\t\t\tcountry\n"
-                        + "\t\t\t\tcurrency\n"
-                        + "\t\t\t\ttransferMethodType\n"
-                        + "\t\t\t\tvalue\n"
-                        + "\t\t}\n"
-                        + "\t}\n"
-                        + "}",
-                "test-user-token", "CA", "CAD", "BANK_ACCOUNT", "INDIVIDUAL");
+    public void testToQuery_returnsQuery() throws Exception {
+        String sampleFieldQuery = "query TransferMethodConfigurationFieldsWithFees($idToken:String$country:Country"
+                + "$currency:Currency$transferMethodType:TransferMethodType$profileType:Profile)"
+                + "{transferMethodUIConfigurations(idToken:$idToken profileType:$profileType country:$country "
+                + "currency:$currency transferMethodType:$transferMethodType){nodes{country currency "
+                + "transferMethodType profile fieldGroups{nodes{group fields{category dataType isEditable "
+                + "fieldSelectionOptions{label value}fileSize{min max}fileTypes label maxLength minLength name "
+                + "placeholder regularExpression mask{defaultPattern scrubRegex conditionalPatterns{pattern regex}}"
+                + "isRequired value validationMessage{length pattern empty}}}}}}"
+                + "fees(idToken:$idToken country:$country currency:$currency transferMethodType:$transferMethodType)"
+                + "{nodes{value feeRateType minimum maximum country currency}}"
+                + "processingTimes(idToken:$idToken country:$country currency:$currency "
+                + "transferMethodType:$transferMethodType){nodes{country currency transferMethodType value}}}";
 
         TransferMethodConfigurationFieldQuery fieldQuery =
                 new TransferMethodConfigurationFieldQuery("CA", "CAD", "BANK_ACCOUNT", "INDIVIDUAL");
 
-        String resultQuery = fieldQuery.toQuery("test-user-token");
+        JSONObject resultQuery = new JSONObject(fieldQuery.toQuery("test-user-token"));
+
+        assertThat(resultQuery.getString("query"), is(sampleFieldQuery));
+        JSONObject variables = resultQuery.getJSONObject("variables");
+        assertThat(variables.getString("idToken"), is("test-user-token"));
+        assertThat(variables.getString("country"), is("CA"));
+        assertThat(variables.getString("currency"), is("CAD"));
+        assertThat(variables.getString("transferMethodType"), is("BANK_ACCOUNT"));
+        assertThat(variables.getString("profileType"), is("INDIVIDUAL"));
+    }
+
+    @Test
+    public void testBuild_requestsSelectedSectionsOnly() throws Exception {
+        TransferMethodConfigurationFieldQuery fieldQuery = new TransferMethodConfigurationFieldQuery.Builder("CA",
+                "CAD", "BANK_ACCOUNT", "INDIVIDUAL")
+                .sections(Sections.PROCESSING_TIMES, Sections.FEES)
+                .build();
+
+        JSONObject resultQuery = new JSONObject(fieldQuery.toQuery("test-user-token"));
 
-        assertThat(resultQuery, is(sampleFieldQuery));
+        assertThat(resultQuery.getString("query"), is("query TransferMethodConfigurationFieldsWithFees("
+                + "$idToken:String$country:Country$currency:Currency$transferMethodType:TransferMethodType)"
+                + "{fees(idToken:$idToken country:$country currency:$currency transferMethodType:$transferMethodType)"
+                + "{nodes{value feeRateType minimum maximum country currency}}"
+                + "processingTimes(idToken:$idToken country:$country currency:$currency "
+                + "transferMethodType:$transferMethodType){nodes{country currency transferMethodType value}}}"));
+        assertThat(resultQuery.getJSONObject("variables").has("profileType"), is(false));
+        assertThat(fieldQuery.getSections(), contains(Sections.FEES, Sections.PROCESSING_TIMES));
+        assertThat(fieldQuery.getFieldAttributes(), is(empty()));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testBuild_requestsSelectedFieldAttributesOnly() throws Exception {
+        TransferMethodConfigurationFieldQuery fieldQuery = new TransferMethodConfigurationFieldQuery.Builder("CA",
+                "CAD", "BANK_ACCOUNT", "INDIVIDUAL")
+                .sections(Sections.FIELDS)
+                .fieldAttributes(FieldAttributes.IS_REQUIRED, FieldAttributes.LABEL)
+                .build();
+
+        JSONObject resultQuery = new JSONObject(fieldQuery.toQuery("test-user-token"));
+
+        assertThat(resultQuery.getString("query"), is("query TransferMethodConfigurationFieldsWithFees("
+                + "$idToken:String$country:Country$currency:Currency$transferMethodType:TransferMethodType"
+                + "$profileType:Profile){transferMethodUIConfigurations(idToken:$idToken profileType:$profileType "
+                + "country:$country currency:$currency transferMethodType:$transferMethodType){nodes{country "
+                + "currency transferMethodType profile fieldGroups{nodes{group fields{label name isRequired}}}}}}"));
+        assertThat(resultQuery.getJSONObject("variables").getString("profileType"), is("INDIVIDUAL"));
+        assertThat(fieldQuery.getFieldAttributes(), contains(FieldAttributes.LABEL, FieldAttributes.IS_REQUIRED));
+    }
+
+    @Test
+    public void testBuild_documentIsCompiledOncePerSelection() {
+        TransferMethodConfigurationFieldQuery.Builder builder = new TransferMethodConfigurationFieldQuery.Builder(
+                "CA", "CAD", "BANK_ACCOUNT", "INDIVIDUAL");
+
+        assertThat(builder.build().getDocument(), is(sameInstance(
+                new TransferMethodConfigurationFieldQuery("US", "USD", "BANK_CARD", "BUSINESS").getDocument())));
+        assertThat(builder.sections(Sections.FEES).fieldAttributes(FieldAttributes.MASK).build().getDocument(),
+                is(sameInstance(builder.fieldAttributes(FieldAttributes.LABEL).build().getDocument())));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuild_withoutSections() {
+        new TransferMethodConfigurationFieldQuery.Builder("CA", "CAD", "BANK_ACCOUNT", "INDIVIDUAL").sections();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuild_withUnknownFieldAttribute() {
+        new TransferMethodConfigurationFieldQuery.Builder("CA", "CAD", "BANK_ACCOUNT", "INDIVIDUAL")
+                .fieldAttributes("unknown");
+    }
+}
@@ -2,59 +2,38 @@ package com.hyperwallet.android.model.graphql.query;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 
+import org.json.JSONObject;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
 
+@RunWith(RobolectricTestRunner.class)
 public class TransferMethodConfigurationKeysQueryTest {
 
+    private static final String DOCUMENT = "query TransferMethodConfigurationKeys($idToken:String)"
+            + "{countries(idToken:$idToken){nodes{code name currencies{nodes{code name transferMethodTypes"
+            + "{nodes{code name fees{nodes{country currency transferMethodType value feeRateType maximum minimum}}"
+            + "processingTimes{nodes{country currency transferMethodType value}}}}}}}}}";
+
     @Test
-    public void testToQuery_returnsQuery() {
-
-        final String sampleKeyQuery = String.format("query {\n"
-                + "\tcountries(idToken: \"%s\") {\n"
-                + "\t\tnodes {\n"
-                + "\t\t\tcode\n"
-                + "\t\t\tname\n"
-                + "\t\t\tcurrencies {\n"
-                + "\t\t\t\tnodes {\n"
-                + "\t\t\t\t\tcode\n"
-                + "\t\t\t\t\tname\n"
-                + "\t\t\t\t\ttransferMethodTypes {\n"
-                + "\t\t\t\t\t\tnodes {\n"
-                + "\t\t\t\t\t\t\tcode\n"
-                + "\t\t\t\t\t\t\tname\n"
-                + "\t\t\t\t\t\t\tfees {\n"
-                + "\t\t\t\t\t\t\t\tnodes {\n"
-                + "\t\t\t\t\t\t\t\t\tcountry\n"
-                + "\t\t\t\t\t\t\t\t\tcurrency\n"
-                + "\t\t\t\t\t\t\t\t\ttransferMethodType\n"
-                + "\t\t\t\t\t\t\t\t\tvalue\n"
-                + "\t\t\t\t\t\t\t\t\tfeeRateType\n"
-                + "\t\t\t\t\t\t\t\t\tmaximum\n"
-                + "\t\t\t\t\t\t\t\t\tminimum\n"
-                + "\t\t\t\t\t\t\t\t}\n"
-                + "\t\t\t\t\t\t\t}\n"
-                + "\t\t\t\t\t\t\tprocessingTimes {\n"
-                + "\t\t\t\t\t\t\t\tnodes {\n"
-                + "\t\t\t\t\t\t\t\t\tcountry\n"
-                + "\t\t\t\t\t\t\t\t\tcurrency\n"
-                + "\t\t\t\t\t\t\t\t\ttransferMethodType\n"
-                + "\t\t\t\t\t\t\t\t\tvalue\n"
-                + "\t\t\t\t\t\t\t\t}\n"
-                + "\t\t\t\t\t\t\t}\n"
-                + "\t\t\t\t\t\t}\n"
-                + "\t\t\t\t\t}\n"
-                + "\t\t\t\t}\n"
-                + "\t\t\t}\n"
-                + "\t\t}\n"
-                + "\t}\n"
-                + "}", "test-user-token");
+    public void testGetDocument_returnsMinifiedDocument() {
+        TransferMethodConfigurationKeysQuery keysQuery = new TransferMethodConfigurationKeysQuery();
+
+        assertThat(keysQuery.getDocument().getDocument(), is(DOCUMENT));
+        assertThat(keysQuery.getDocument(), is(sameInstance(new TransferMethodConfigurationKeysQuery().getDocument())));
+    }
 
+    @Test
+    public void testToQuery_returnsQuery() throws Exception {
         TransferMethodConfigurationKeysQuery keysQuery =
                 new TransferMethodConfigurationKeysQuery();
 
-        String query = keysQuery.toQuery("test-user-token");
+        JSONObject query = new JSONObject(keysQuery.toQuery("test-user-token"));
 
-        assertThat(query, is(sampleKeyQuery));
+        assertThat(query.getString("query"), is(DOCUMENT));
+        assertThat(query.getJSONObject("variables").length(), is(1));
+        assertThat(query.getJSONObject("variables").getString("idToken"), is("test-user-token"));
     }
 }
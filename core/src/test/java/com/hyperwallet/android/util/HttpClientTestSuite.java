@@ -15,17 +15,22 @@ import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 import junitparams.JUnitParamsRunner;
 import junitparams.Parameters;
+import okhttp3.mockwebserver.MockResponse;
+import okio.Buffer;
 
 
 @RunWith(Suite.class)
@@ -73,7 +78,8 @@ public class HttpClientTestSuite {
             assertThat(httpURLConnection.getConnectTimeout(), is(10_000));
             assertThat(httpURLConnection.getReadTimeout(), is(10_000));
             assertNotNull(httpURLConnection.getRequestProperties());
-            assertThat(httpURLConnection.getRequestProperties(), aMapWithSize(0));
+            assertThat(httpURLConnection.getRequestProperties(), aMapWithSize(1));
+            assertThat(httpURLConnection.getRequestProperty("Accept-Encoding"), is("gzip"));
         }
 
 
@@ -215,6 +221,53 @@ public class HttpClientTestSuite {
         }
 
 
+        @Test
+        public void testGetResponse_fullyReadResponseKeepsConnectionAlive() throws Exception {
+            String firstUrl = server.mockResponse().withBody("{}").getRequestUrl();
+            String secondUrl = server.mockResponse().withBody("{}").getRequestUrl();
+
+            HttpClient firstClient = new HttpClient.Builder(firstUrl).build();
+            firstClient.get();
+            firstClient.getResponse();
+            HttpClient secondClient = new HttpClient.Builder(secondUrl).build();
+            secondClient.get();
+            secondClient.getResponse();
+
+            assertThat(server.getRequest().getSequenceNumber(), is(0));
+            assertThat(server.getRequest().getSequenceNumber(), is(1));
+        }
+
+        @Test
+        public void testGetResponse_withGzipEncodedResponse() throws Exception {
+            String body = "{\"count\": 2, \"data\": [{\"token\": \"trm-1\"}, {\"token\": \"trm-2\"}]}";
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            GZIPOutputStream gzip = new GZIPOutputStream(compressed);
+            gzip.write(body.getBytes(StandardCharsets.UTF_8));
+            gzip.close();
+            server.getServer().enqueue(new MockResponse().addHeader("Content-Encoding", "gzip")
+                    .setBody(new Buffer().write(compressed.toByteArray())));
+
+            HttpClient client = new HttpClient.Builder(server.getServer().url("/").toString()).build();
+            client.get();
+
+            assertThat(client.getResponse(), is(body));
+            assertThat(server.getRequest().getHeader("Accept-Encoding"), is("gzip"));
+            assertThat(client.getCompressedByteCount(), is((long) compressed.size()));
+            assertThat(client.getUncompressedByteCount(), is((long) body.length()));
+        }
+
+        @Test
+        public void testGetResponse_withIdentityEncodedResponse() throws Exception {
+            String url = server.mockResponse().withBody("{\"count\": 0}").getRequestUrl();
+
+            HttpClient client = new HttpClient.Builder(url).build();
+            client.get();
+
+            assertThat(client.getResponse(), is("{\"count\": 0}"));
+            assertThat(client.getCompressedByteCount(), is(12L));
+            assertThat(client.getUncompressedByteCount(), is(12L));
+        }
+
         private Collection<Object[]> testHttpResponseCodeWithinSuccessRangeData() {
             return Arrays.asList(new Object[][]{
                     {HttpURLConnection.HTTP_OK, true},
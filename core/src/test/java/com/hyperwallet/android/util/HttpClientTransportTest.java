@@ -0,0 +1,133 @@
+package com.hyperwallet.android.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import com.hyperwallet.android.HttpTransport;
+import com.hyperwallet.android.rule.HyperwalletMockWebServer;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+public class HttpClientTransportTest {
+
+    @Rule
+    public final HyperwalletMockWebServer server = new HyperwalletMockWebServer();
+
+    @Test
+    public void testExecute_returnsStatusHeadersAndBody() throws Exception {
+        server.getServer().enqueue(new MockResponse().setResponseCode(200).addHeader("ETag", "\"v1\"")
+                .setBody("{\"count\": 0}"));
+        HttpClientTransport transport = new HttpClientTransport();
+
+        HttpTransport.Response response = transport.execute(new HttpTransport.Request("GET",
+                server.getServer().url("/rest/v3/users?limit=10").uri(),
+                Collections.singletonMap("Accept", "application/json"), null));
+        try {
+            assertThat(response.getCode(), is(200));
+            assertThat(response.getHeader("etag"), is("\"v1\""));
+            assertThat(read(response.getBody()), is("{\"count\": 0}"));
+        } finally {
+            response.close();
+        }
+
+        RecordedRequest request = server.getServer().takeRequest();
+        assertThat(request.getMethod(), is("GET"));
+        assertThat(request.getPath(), is("/rest/v3/users?limit=10"));
+        assertThat(request.getHeader("Accept"), is("application/json"));
+        assertThat(response.getUncompressedByteCount(), is(12L));
+    }
+
+    @Test
+    public void testExecute_sendsRequestBody() throws Exception {
+        server.getServer().enqueue(new MockResponse().setResponseCode(400).setBody("{\"errors\": []}"));
+        HttpClientTransport transport = new HttpClientTransport();
+
+        HttpTransport.Response response = transport.execute(new HttpTransport.Request("POST",
+                server.getServer().url("/graphql").uri(), Collections.<String, String>emptyMap(),
+                "{\"query\": \"{}\"}".getBytes(StandardCharsets.UTF_8)));
+        try {
+            assertThat(response.getCode(), is(400));
+            assertThat(read(response.getBody()), is("{\"errors\": []}"));
+        } finally {
+            response.close();
+        }
+
+        RecordedRequest request = server.getServer().takeRequest();
+        assertThat(request.getMethod(), is("POST"));
+        assertThat(request.getBody().readUtf8(), is("{\"query\": \"{}\"}"));
+    }
+
+    @Test
+    public void testExecute_notModifiedResponseHasEmptyBody() throws Exception {
+        server.getServer().enqueue(new MockResponse().setResponseCode(304).addHeader("ETag", "\"v1\""));
+        HttpClientTransport transport = new HttpClientTransport();
+
+        HttpTransport.Response response = transport.execute(new HttpTransport.Request("GET",
+                server.getServer().url("/rest/v3/users").uri(),
+                Collections.singletonMap("If-None-Match", "\"v1\""), null));
+        try {
+            assertThat(response.getCode(), is(304));
+            assertThat(read(response.getBody()), is(""));
+        } finally {
+            response.close();
+        }
+
+        assertThat(server.getServer().takeRequest().getHeader("If-None-Match"), is("\"v1\""));
+        assertThat(response.getUncompressedByteCount(), is(0L));
+    }
+
+    @Test
+    public void testExecute_canceledRequestIsNotSent() throws Exception {
+        HttpClientTransport transport = new HttpClientTransport();
+        HttpTransport.Request request = new HttpTransport.Request("GET",
+                server.getServer().url("/rest/v3/users").uri(), Collections.<String, String>emptyMap(), null);
+        request.cancel();
+
+        try {
+            transport.execute(request);
+            throw new AssertionError("canceled request should not be executed");
+        } catch (IOException e) {
+            assertThat(request.isCanceled(), is(true));
+        }
+        assertThat(server.getServer().getRequestCount(), is(0));
+    }
+
+    @Test
+    public void testRequestCancel_runsCancelActionOnce() {
+        HttpTransport.Request request = new HttpTransport.Request("GET", URI.create("http://localhost/"),
+                Collections.<String, String>emptyMap(), null);
+        final AtomicInteger canceled = new AtomicInteger();
+        request.setCancelAction(new Runnable() {
+            @Override
+            public void run() {
+                canceled.incrementAndGet();
+            }
+        });
+
+        request.cancel();
+        request.cancel();
+
+        assertThat(canceled.get(), is(1));
+    }
+
+    private static String read(InputStream in) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        for (int count; (count = in.read(buffer)) != -1; ) {
+            out.write(buffer, 0, count);
+        }
+        return out.toString(StandardCharsets.UTF_8.name());
+    }
+}
@@ -1,22 +1,37 @@
 package com.hyperwallet.android.util;
 
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 
 import com.hyperwallet.android.model.TypeReference;
+import com.hyperwallet.android.model.graphql.GqlResponse;
+import com.hyperwallet.android.model.graphql.keyed.TransferMethodConfigurationKeyResult;
+import com.hyperwallet.android.model.paging.PageList;
+import com.hyperwallet.android.model.receipt.Receipt;
+import com.hyperwallet.android.model.receipt.ReceiptDetails;
+import com.hyperwallet.android.model.transfer.ForeignExchange;
+import com.hyperwallet.android.model.transfer.Transfer;
 import com.hyperwallet.android.model.transfermethod.BankAccount;
 import com.hyperwallet.android.rule.ExternalResourceManager;
 
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.junit.After;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLog;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
 
 @RunWith(RobolectricTestRunner.class)
@@ -25,6 +40,11 @@ public class JsonUtilsTest {
     @Rule
     public final ExternalResourceManager mExternalResourceManager = new ExternalResourceManager();
 
+    @After
+    public void tearDown() {
+        JsonUtils.setMainThreadParsingDetectionEnabled(false);
+    }
+
     @Test
     public void testMapToJsonObject_withValidBankAccountObject() throws JSONException {
         final BankAccount request = new BankAccount
@@ -70,4 +90,111 @@ public class JsonUtilsTest {
         assertNotNull(jsonArray);
         assertThat(jsonArray.length(), is(1));
     }
+
+    @Test
+    public void testFromJsonStream_validBankAccountJson() throws Exception {
+        String response = mExternalResourceManager.getResourceContent("bank_account_response.json");
+        TypeReference<BankAccount> typeReference = new TypeReference<BankAccount>() {
+        };
+
+        BankAccount streamed = JsonUtils.fromJsonStream(toInputStream(response), typeReference);
+        BankAccount parsed = JsonUtils.fromJsonString(response, typeReference);
+
+        assertNotNull(streamed);
+        assertEquals(parsed.toJsonString(), streamed.toJsonString());
+    }
+
+    @Test
+    public void testFromJsonStream_validReceiptPageJson() throws Exception {
+        String response = mExternalResourceManager.getResourceContent("receipts_response.json");
+
+        PageList<Receipt> receipts = JsonUtils.fromJsonStream(toInputStream(response),
+                new TypeReference<PageList<Receipt>>() {
+                });
+
+        assertNotNull(receipts);
+        assertThat(receipts.getCount(), is(2));
+        assertThat(receipts.getLimit(), is(10));
+        assertThat(receipts.getDataList().size(), is(2));
+        assertThat(receipts.getDataList().get(0).getDetails(), is(instanceOf(ReceiptDetails.class)));
+        assertThat(receipts.getDataList().get(1).getDetails(), is(nullValue()));
+        assertThat(receipts.getPageLinks().size(), is(1));
+        assertThat(receipts.getPageLinks().get(0).getPageParameter().getRel(), is("self"));
+    }
+
+    @Test
+    public void testFromJsonStream_validTransferJson() throws Exception {
+        String response = mExternalResourceManager.getResourceContent("transfer_response.json");
+
+        Transfer transfer = JsonUtils.fromJsonStream(toInputStream(response), new TypeReference<Transfer>() {
+        });
+
+        assertNotNull(transfer);
+        assertThat(transfer.getForeignExchanges().get(0), is(instanceOf(ForeignExchange.class)));
+    }
+
+    @Test
+    public void testFromJsonStream_emptyContent() throws Exception {
+        assertThat(JsonUtils.fromJsonStream(toInputStream(""), new TypeReference<BankAccount>() {
+        }), is(nullValue()));
+    }
+
+    @Test
+    public void testIsStreamable() {
+        assertThat(JsonUtils.isStreamable(new TypeReference<BankAccount>() {
+        }), is(true));
+        assertThat(JsonUtils.isStreamable(new TypeReference<PageList<Receipt>>() {
+        }), is(true));
+        assertThat(JsonUtils.isStreamable(new TypeReference<GqlResponse<TransferMethodConfigurationKeyResult>>() {
+        }), is(false));
+    }
+
+    @Test
+    public void testFromJsonString_flagsParsingOnMainThread() throws Exception {
+        String response = mExternalResourceManager.getResourceContent("bank_account_response.json");
+        JsonUtils.setMainThreadParsingDetectionEnabled(true);
+
+        JsonUtils.fromJsonString(response, new TypeReference<BankAccount>() {
+        });
+
+        List<ShadowLog.LogItem> logs = ShadowLog.getLogsForTag("JsonUtils");
+        assertThat(logs.size(), is(1));
+        assertThat(logs.get(0).throwable, is(instanceOf(IllegalStateException.class)));
+    }
+
+    @Test
+    public void testFromJsonString_doesNotFlagParsingWhenDetectionDisabled() throws Exception {
+        String response = mExternalResourceManager.getResourceContent("bank_account_response.json");
+
+        JsonUtils.fromJsonString(response, new TypeReference<BankAccount>() {
+        });
+
+        assertThat(ShadowLog.getLogsForTag("JsonUtils").isEmpty(), is(true));
+    }
+
+    @Test
+    public void testFromJsonString_doesNotFlagParsingOnBackgroundThread() throws Exception {
+        final String response = mExternalResourceManager.getResourceContent("bank_account_response.json");
+        JsonUtils.setMainThreadParsingDetectionEnabled(true);
+
+        Thread worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    JsonUtils.fromJsonString(response, new TypeReference<BankAccount>() {
+                    });
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        worker.start();
+        worker.join();
+
+        assertThat(ShadowLog.getLogsForTag("JsonUtils").isEmpty(), is(true));
+    }
+
+    private static InputStream toInputStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
 }
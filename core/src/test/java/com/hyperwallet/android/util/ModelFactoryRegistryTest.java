@@ -0,0 +1,80 @@
+package com.hyperwallet.android.util;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import com.hyperwallet.android.model.MapModelFactory;
+import com.hyperwallet.android.model.ModelFactory;
+import com.hyperwallet.android.model.TypeReference;
+import com.hyperwallet.android.model.graphql.keyed.TransferMethodConfigurationKeyResult;
+import com.hyperwallet.android.model.paging.PageList;
+import com.hyperwallet.android.model.transfermethod.BankAccount;
+import com.hyperwallet.android.rule.ExternalResourceManager;
+
+import org.json.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class ModelFactoryRegistryTest {
+
+    @Rule
+    public final ExternalResourceManager mExternalResourceManager = new ExternalResourceManager();
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void testGet_returnsRegisteredFactory() throws Exception {
+        assertThat(ModelFactoryRegistry.<BankAccount>get(BankAccount.class),
+                is(sameInstance((ModelFactory<BankAccount>) BankAccount.FACTORY)));
+        assertThat(ModelFactoryRegistry.get(new TypeReference<TransferMethodConfigurationKeyResult>() {
+                }),
+                is(sameInstance((ModelFactory<TransferMethodConfigurationKeyResult>)
+                        TransferMethodConfigurationKeyResult.FACTORY)));
+    }
+
+    @Test
+    public void testGet_composesPageListFactory() throws Exception {
+        ModelFactory<PageList<BankAccount>> factory = ModelFactoryRegistry.get(
+                new TypeReference<PageList<BankAccount>>() {
+                });
+
+        assertThat(factory, is(instanceOf(MapModelFactory.class)));
+        assertThat(ModelFactoryRegistry.get(new TypeReference<PageList<BankAccount>>() {
+        }), is(sameInstance(factory)));
+
+        String response = mExternalResourceManager.getResourceContent("bank_account_list_response.json");
+        PageList<BankAccount> bankAccounts = factory.fromJsonObject(new JSONObject(response));
+        assertThat(bankAccounts.getDataList().get(0), is(instanceOf(BankAccount.class)));
+    }
+
+    @Test
+    public void testGet_unregisteredTypeFallsBackToConstructor() throws Exception {
+        ModelFactory<UnregisteredModel> factory = ModelFactoryRegistry.get(UnregisteredModel.class);
+
+        assertThat(factory, is(not(instanceOf(MapModelFactory.class))));
+        assertThat(factory.fromJsonObject(new JSONObject("{\"token\": \"tkn-1\"}")).mToken, is("tkn-1"));
+        assertThat(ModelFactoryRegistry.<UnregisteredModel>get(UnregisteredModel.class), is(sameInstance(factory)));
+    }
+
+    @Test
+    public void testGet_unregisteredTypeWithoutConstructor() throws Exception {
+        thrown.expect(NoSuchMethodException.class);
+
+        ModelFactoryRegistry.get(String.class);
+    }
+
+    public static class UnregisteredModel {
+        private final String mToken;
+
+        public UnregisteredModel(JSONObject jsonObject) {
+            mToken = jsonObject.optString("token");
+        }
+    }
+}
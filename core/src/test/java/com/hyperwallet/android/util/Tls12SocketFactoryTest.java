@@ -0,0 +1,41 @@
+package com.hyperwallet.android.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.Test;
+
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocket;
+
+public class Tls12SocketFactoryTest {
+
+    @Test
+    public void testGetInstance_returnsSharedFactory() throws Exception {
+        assertThat(Tls12SocketFactory.getInstance(), is(sameInstance(Tls12SocketFactory.getInstance())));
+    }
+
+    @Test
+    public void testGetClientSessionContext_sessionCacheIsConfigured() throws Exception {
+        SSLSessionContext sessionContext = Tls12SocketFactory.getInstance().getClientSessionContext();
+
+        assertThat(sessionContext, is(notNullValue()));
+        assertThat(sessionContext.getSessionCacheSize(), is(20));
+        assertThat(sessionContext.getSessionTimeout(), is(3600));
+    }
+
+    @Test
+    public void testCreateSocket_enablesOnlyTls12() throws Exception {
+        Tls12SocketFactory factory = new Tls12SocketFactory();
+
+        SSLSocket socket = (SSLSocket) factory.createSocket();
+        try {
+            assertThat(socket.getEnabledProtocols(), is(new String[]{"TLSv1.2"}));
+            assertThat(factory.getHandshakeCount(), is(0L));
+        } finally {
+            socket.close();
+        }
+    }
+}
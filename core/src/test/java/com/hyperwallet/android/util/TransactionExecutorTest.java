@@ -0,0 +1,230 @@
+package com.hyperwallet.android.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class TransactionExecutorTest {
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void testExecute_recordsQueueDepthAndWait() throws Exception {
+        TransactionExecutor executor = new TransactionExecutor(1, 4, new ThreadPoolExecutor.AbortPolicy());
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+
+        executor.execute(new BlockingTransaction(release, done));
+        executor.execute(new BlockingTransaction(release, done));
+        executor.execute(new BlockingTransaction(release, done));
+        Thread.sleep(50);
+
+        assertThat(executor.getQueueDepth(), is(2));
+        release.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(executor.getQueueDepth(), is(0));
+        assertThat(executor.getStartedCount(), is(3L));
+        assertThat(executor.getMaxQueueWaitMillis(), is(greaterThanOrEqualTo(50L)));
+        assertThat(executor.getTotalQueueWaitMillis(), is(greaterThanOrEqualTo(100L)));
+        executor.shutdown();
+    }
+
+    @Test
+    public void testExecute_fullQueueIsRejected() throws Exception {
+        TransactionExecutor executor = new TransactionExecutor(1, 1, new ThreadPoolExecutor.AbortPolicy());
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(2);
+        executor.execute(new BlockingTransaction(release, done));
+        executor.execute(new BlockingTransaction(release, done));
+
+        try {
+            executor.execute(new BlockingTransaction(release, done));
+            throw new AssertionError("transaction should have been rejected");
+        } catch (RejectedExecutionException e) {
+            assertThat(executor.getRejectedCount(), is(1L));
+        } finally {
+            release.countDown();
+        }
+        assertThat(done.await(5, TimeUnit.SECONDS), is(true));
+        executor.shutdown();
+    }
+
+    @Test
+    public void testExecute_fullQueueWithDiscardPolicy() throws Exception {
+        TransactionExecutor executor = new TransactionExecutor(1, 1, new ThreadPoolExecutor.DiscardPolicy());
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(2);
+        executor.execute(new BlockingTransaction(release, done));
+        executor.execute(new BlockingTransaction(release, done));
+
+        executor.execute(new BlockingTransaction(release, done));
+
+        assertThat(executor.getRejectedCount(), is(1L));
+        assertThat(executor.getQueueDepth(), is(1));
+        release.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS), is(true));
+        executor.shutdown();
+    }
+
+    @Test
+    public void testExecute_dispatchesHigherPriorityFirst() throws Exception {
+        TransactionExecutor executor = new TransactionExecutor(1, 8, new ThreadPoolExecutor.AbortPolicy(),
+                1, TimeUnit.HOURS);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(5);
+        List<String> order = new CopyOnWriteArrayList<>();
+        executor.execute(new BlockingTransaction(release, done));
+
+        executor.execute(new RecordingTransaction("background", order, done), TransactionPriority.BACKGROUND);
+        executor.execute(new RecordingTransaction("normal", order, done));
+        executor.execute(new RecordingTransaction("interactive-1", order, done), TransactionPriority.INTERACTIVE);
+        executor.execute(new RecordingTransaction("interactive-2", order, done), TransactionPriority.INTERACTIVE);
+        release.countDown();
+
+        assertThat(done.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(order, contains("interactive-1", "interactive-2", "normal", "background"));
+        executor.shutdown();
+    }
+
+    @Test
+    public void testExecute_waitingLowPriorityTransactionAgesUp() throws Exception {
+        TransactionExecutor executor = new TransactionExecutor(1, 8, new ThreadPoolExecutor.AbortPolicy(),
+                50, TimeUnit.MILLISECONDS);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+        List<String> order = new CopyOnWriteArrayList<>();
+        executor.execute(new BlockingTransaction(release, done));
+
+        executor.execute(new RecordingTransaction("background", order, done), TransactionPriority.BACKGROUND);
+        Thread.sleep(150);
+        executor.execute(new RecordingTransaction("interactive", order, done), TransactionPriority.INTERACTIVE);
+        release.countDown();
+
+        assertThat(done.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(order, contains("background", "interactive"));
+        executor.shutdown();
+    }
+
+    @Test
+    public void testRemove_withdrawsWaitingTransaction() throws Exception {
+        TransactionExecutor executor = new TransactionExecutor(1, 4, new ThreadPoolExecutor.AbortPolicy());
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(2);
+        List<String> order = new CopyOnWriteArrayList<>();
+        BlockingTransaction running = new BlockingTransaction(release, done);
+        RecordingTransaction withdrawn = new RecordingTransaction("withdrawn", order, done);
+        executor.execute(running);
+        executor.execute(withdrawn);
+        executor.execute(new RecordingTransaction("kept", order, done));
+
+        assertThat(executor.remove(withdrawn), is(true));
+        assertThat(executor.remove(running), is(false));
+        assertThat(executor.getQueueDepth(), is(1));
+        release.countDown();
+
+        assertThat(done.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(order, contains("kept"));
+        executor.shutdown();
+    }
+
+    @Test
+    public void testShutdown_rejectsNewTransactions() {
+        TransactionExecutor executor = new TransactionExecutor();
+        executor.shutdown();
+
+        thrown.expect(RejectedExecutionException.class);
+        executor.execute(new BlockingTransaction(new CountDownLatch(0), new CountDownLatch(1)));
+    }
+
+    @Test
+    public void testShutdown_leavesIntegratorExecutorRunning() throws Exception {
+        ExecutorService appExecutor = Executors.newSingleThreadExecutor();
+        TransactionExecutor executor = new TransactionExecutor(appExecutor);
+        CountDownLatch done = new CountDownLatch(1);
+
+        executor.shutdown();
+        executor.execute(new BlockingTransaction(new CountDownLatch(0), done));
+
+        assertThat(done.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(executor.getStartedCount(), is(1L));
+        assertThat(appExecutor.isShutdown(), is(false));
+        appExecutor.shutdown();
+    }
+
+    @Test
+    public void testConstructor_nonPositivePoolSize() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("pool size must be positive");
+
+        new TransactionExecutor(0, 1, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Test
+    public void testConstructor_nonPositiveAgingPeriod() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("aging period must be positive");
+
+        new TransactionExecutor(1, 1, new ThreadPoolExecutor.AbortPolicy(), 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testConstructor_discardOldestPolicy() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("discard oldest policy would drop the highest priority transaction");
+
+        new TransactionExecutor(1, 1, new ThreadPoolExecutor.DiscardOldestPolicy());
+    }
+
+    private static class BlockingTransaction implements Runnable {
+        private final CountDownLatch mRelease;
+        private final CountDownLatch mDone;
+
+        BlockingTransaction(CountDownLatch release, CountDownLatch done) {
+            mRelease = release;
+            mDone = done;
+        }
+
+        @Override
+        public void run() {
+            try {
+                mRelease.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            mDone.countDown();
+        }
+    }
+
+    private static class RecordingTransaction implements Runnable {
+        private final String mName;
+        private final List<String> mOrder;
+        private final CountDownLatch mDone;
+
+        RecordingTransaction(String name, List<String> order, CountDownLatch done) {
+            mName = name;
+            mOrder = order;
+            mDone = done;
+        }
+
+        @Override
+        public void run() {
+            mOrder.add(mName);
+            mDone.countDown();
+        }
+    }
+}